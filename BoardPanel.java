@@ -6,12 +6,14 @@ import java.awt.Graphics;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
+import scoreFourGame.engine.AlphaBetaSearch;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.GameRecord;
+import scoreFourGame.engine.GameTree;
+import scoreFourGame.engine.MoveJournal;
 
 /**
  * BoardPanel
@@ -84,6 +86,26 @@ public class BoardPanel extends JPanel {
    */
   private Cell cells[][][] = null;
   
+  /**
+   * The headless board that mirrors the cells and records the moves played, in order. It is the board of the tree.
+   */
+  private Board board = null;
+  
+  /**
+   * The moves and variations of the game, over the board. Stepping through them updates only the cells that change.
+   */
+  private GameTree tree = null;
+  
+  /**
+   * The players of the game, player 1 first, to put in the cells when moves are replayed; or null before a game.
+   */
+  private Player[] players = null;
+  
+  /**
+   * The cells marked as Cell.State.Won, or null.
+   */
+  private Cell[] winningCells = null;
+  
   /**
    * A boolean attribute to indicate whether the game has started. By default it is set to false.
    * It is set to true when a game starts, and is set to false when a game is over (one player wins or a tie) 
@@ -105,21 +127,42 @@ public class BoardPanel extends JPanel {
    * The background image file name.
    */
   public static final String BackgroundImageFilename = "galaxy.jpg";
-
+  
   /**
-   * The background image.
+   * The translucent hint colours from the worst move (red) through yellow to the best move (green), by rank.
    */
-  private static BufferedImage backgroundImage = null;
-
-  // Initialize all images.
-  static {
-    try {
-     backgroundImage = ImageIO.read(new File(BackgroundImageFilename));
-    } catch (IOException e) {
-      e.printStackTrace(System.err);
-    }
-  }
+  private static final Color[] HINT_COLORS = createHintColors ( 32 );
+  
+  /**
+   * The hint colour of a move that wins by force.
+   */
+  private static final Color HINT_WIN_COLOR = new Color ( 0, 255, 0, 170 );
+  
+  /**
+   * The hint colour of a move that loses by force.
+   */
+  private static final Color HINT_LOSS_COLOR = new Color ( 255, 0, 0, 170 );
   
+  /**
+   * Whether the hint heatmap is shown to human players.
+   */
+  private boolean hintsEnabled = false;
+  
+  /**
+   * Scores the playable cells for the heatmap on a background thread.
+   */
+  private final HintAnalyzer hintAnalyzer = new HintAnalyzer ( this );
+  
+  /**
+   * The journal that the moves are appended to for crash recovery, or null.
+   */
+  private MoveJournal journal = null;
+  
+  /**
+   * The id of the game on the board in the journal, or -1 if the game is not journaled.
+   */
+  private long journalGameId = -1;
+
   /**
    * The constructor of the BoardPanel.
    * @param game the current game object.
@@ -139,7 +182,7 @@ public class BoardPanel extends JPanel {
        */
       @Override
       public void mouseClicked(MouseEvent e) {
-        if ( gameStarted ) {
+        if ( isHumanToMove() ) {
           for ( int layer = 0; layer < TOTAL_LAYERS; layer ++ ) {
             for ( int row = 0; row < TOTAL_ROWS; row ++ ) {
               for ( int column = 0; column < TOTAL_COLUMNS; column ++ ) {
@@ -148,8 +191,7 @@ public class BoardPanel extends JPanel {
                     // When the mouse cursor coordinate is within a cell, and the current cell is a valid 
                     // move (i.e., the current cell is BLANK, and a lower layer (same row and column) is not BLANK,
                     // set the currentPlayer to the cell, and also set the state to "Occupied"
-                    cells[layer][row][column].setState( Cell.State.Occupied );
-                    cells[layer][row][column].setBeadInCell( currentPlayer );
+                    placeBead ( layer, row, column, currentPlayer );
                     currentPlayer.play(cells);
                     // Clear the lastFocusedCell if it is applicable.
                     if ( lastFocusedCell != null ) {
@@ -166,38 +208,14 @@ public class BoardPanel extends JPanel {
                     }
                     
                     // Check if it is a tie.
-                    if ( calculateNumOfBlankCells(cells) == 0 ) {
+                    if ( board.getBlankCount() == 0 ) {
                       game.setInfo( "Draw game." );
                       gameStarted = false;
                       return;
                     }
                     
-                    // Switch players
-                    currentPlayer = currentPlayer.getTheOtherPlayer();
-                    if ( currentPlayer.getPlayerType() == Player.PlayerType.ComputerPlayer ) {
-                      // if the next player is a computer player
-                      game.setInfo ( "Player " + currentPlayer.getPlayerNo() + " (Computer player) is thinking . . ." );
-                      game.repaint();
-                      Coordinate coordinate = currentPlayer.play(cells);
-                      if ( coordinate == null ) {
-                        // This is a tie
-                        game.setInfo( "Draw game." );
-                        gameStarted = false;
-                        return;
-                      } else {
-                        // Not a tie (maybe win, so need to check ...
-                        cells[coordinate.layer][coordinate.row][coordinate.column].setBeadInCell(currentPlayer);
-                        cells[coordinate.layer][coordinate.row][coordinate.column].setState ( Cell.State.Occupied );
-                        // check if there is a winner after each move.
-                        if ( checkWinner() ) {
-                          return;
-                        }
-                      }
-                      // switch player again (no need to check if the other player is a computer player (i.e., both players are computer player, 
-                      // as it has been handled at the beginning of the game (in the "New Game" button click event handler).
-                      currentPlayer = currentPlayer.getTheOtherPlayer();
-                    }
-                    game.setInfo ( "Player " + currentPlayer.getPlayerNo() + " to place a bead . . ." );
+                    // Switch players; a computer player thinks on a background thread and then hands the turn back
+                    game.continueGame ( currentPlayer.getTheOtherPlayer() );
                     return;
                   }
                 }
@@ -218,7 +236,7 @@ public class BoardPanel extends JPanel {
        */
       @Override
       public void mouseMoved(MouseEvent e) {
-        if ( gameStarted ) {
+        if ( isHumanToMove() ) {
           // Check if a cell can be selected by passing the mouse cursor's coordinate
           for ( int layer = 0; layer < TOTAL_LAYERS; layer ++ ) {
             for ( int row = 0; row < TOTAL_ROWS; row ++ ) {
@@ -273,6 +291,28 @@ public class BoardPanel extends JPanel {
     TOTAL_COLUMNS = size;
   }
   
+  /**
+   * toBoard
+   * Converts the 3D cells to a headless engine Board. The board size is taken from the cells array.
+   * @param cells the 3D cells to convert.
+   * @return a Board with a bead of the same player number in every cell that has a bead.
+   */
+  public static Board toBoard ( Cell[][][] cells ) {
+    Board board = new Board ( cells.length, cells[0].length, cells[0][0].length, TOTAL_BEADS_TO_WIN );
+    // place the beads from the bottom layer upwards, as they were dropped
+    for ( int layer = cells.length - 1; layer >= 0; layer -- ) {
+      for ( int row = 0; row < cells[layer].length; row ++ ) {
+        for ( int column = 0; column < cells[layer][row].length; column ++ ) {
+          Player player = cells[layer][row][column].getBeadInCell();
+          if ( player != null ) {
+            board.setBead ( layer, row, column, player.getPlayerNo() );
+          }
+        }
+      }
+    }
+    return board;
+  }
+  
   /**
    * setCell
    * Set the specified player to the cell, and mark the cell's state as the specified state. 
@@ -298,6 +338,110 @@ public class BoardPanel extends JPanel {
     setCell ( coordinate.layer, coordinate.row, coordinate.column, player, state );
   }
   
+  /**
+   * placeBead
+   * Place a bead of the player in the cell, mark the cell as Cell.State.Occupied and record the move.
+   * The cell must be available, i.e., the next cell of its pillar.
+   * @param layer the layer of the cell.
+   * @param row the row of the cell.
+   * @param column the column of the cell.
+   * @param player the player who places the bead.
+   */
+  public void placeBead ( int layer, int row, int column, Player player ) {
+    setCell ( layer, row, column, player, Cell.State.Occupied );
+    int pillar = board.pillarOf ( board.cellIndex ( layer, row, column ) );
+    tree.play ( pillar );
+    if ( journalGameId >= 0 ) {
+      try {
+        journal.move ( journalGameId, board.getMoveCount() - 1, pillar );
+        if ( board.isGameOver() ) {
+          journal.endGame ( journalGameId, GameRecord.resultOf ( board ) );
+          journalGameId = -1;
+        }
+      } catch (IOException e) {
+        journalFailed ( e );
+      }
+    }
+    refreshHints();
+    if ( game != null ) {
+      game.pressClock();
+      game.updateNavigationButtons();
+    }
+  }
+  
+  /**
+   * setJournal
+   * Sets the journal that the moves of the journaled games are appended to.
+   * @param journal the journal, or null.
+   */
+  public void setJournal ( MoveJournal journal ) {
+    this.journal = journal;
+  }
+  
+  /**
+   * journalGame
+   * Starts journaling the game on the board, with the moves already played, so that it can be recovered if the
+   * process dies. Every later move is appended by placeBead(), which returns without waiting for the disk.
+   * @param seed the game seed.
+   * @param tag the tag to recover with the game, e.g., the chosen players.
+   */
+  public void journalGame ( long seed, int tag ) {
+    endJournaledGame();
+    if ( journal != null ) {
+      try {
+        journalGameId = journal.getLastGameId() + 1;
+        journal.startGame ( journalGameId, board, seed, tag );
+      } catch (IOException e) {
+        journalFailed ( e );
+      }
+    }
+  }
+  
+  /**
+   * endJournaledGame
+   * Ends the journaled game as abandoned, if there is one; it will not be recovered.
+   */
+  public void endJournaledGame() {
+    if ( journalGameId >= 0 ) {
+      try {
+        journal.endGame ( journalGameId, GameRecord.RESULT_UNFINISHED );
+      } catch (IOException e) {
+        journalFailed ( e );
+      }
+      journalGameId = -1;
+    }
+  }
+  
+  /**
+   * journalFailed
+   * Reports a journal error and stops journaling; the game goes on without crash recovery.
+   * @param e the error.
+   */
+  private void journalFailed ( IOException e ) {
+    System.err.println ( "The move journal failed, moves are no longer saved: " + e.getMessage() );
+    journal = null;
+    journalGameId = -1;
+  }
+  
+  /**
+   * placeBead
+   * Place a bead of the player in the cell, mark the cell as Cell.State.Occupied and record the move.
+   * @param coordinate the coordinate of the cell.
+   * @param player the player who places the bead.
+   */
+  public void placeBead ( Coordinate coordinate, Player player ) {
+    placeBead ( coordinate.layer, coordinate.row, coordinate.column, player );
+  }
+  
+  /**
+   * getGameRecord
+   * Returns the record of the moves played so far in the current game.
+   * @return the game record.
+   */
+  public GameRecord getGameRecord() {
+    return GameRecord.of ( board );
+  }
+  
   /**
    * calculateNumOfBlankCells
    * Calculate number of cells that have BLANK state.
@@ -336,12 +480,16 @@ public class BoardPanel extends JPanel {
   
   /**
    * checkWinner
-   * Check if a winning line exists. It invokes Game.checkWinner() method and also updates the Game.infoLabel. 
-   * @return true if a winning line exists, false if there is not a winning line formed.
+   * Check if a winning line exists. The board keeps its winner up to date as beads are placed and taken back, so
+   * nothing is scanned; the cells of the winning line are marked as Cell.State.Won and the Game.infoLabel is updated.
+   * A game lost on time has a winner too; the Game has already shown it.
+   * @return true if a winning line exists or a player has lost on time, false if there is not a winning line formed.
    */
   public boolean checkWinner ( ) {
-    Cell[] winningCells = game.checkWinner ( cells );
-    if ( winningCells != null ) {
+    if ( game != null && game.isLostOnTime() ) {
+      gameStarted = false;
+      return true;
+    } else if ( markWinningCells() ) {
       gameStarted = false;
       game.setInfo(winningCells[0].getBeadInCell().toString() + " has won in "
                      + winningCells[0].getBeadInCell().getStepsMoved() + " steps.");
@@ -356,6 +504,7 @@ public class BoardPanel extends JPanel {
    * Initializes the 3D cells of the game board.
    */
   public void initCells() {
+    endJournaledGame();
     this.cells = new Cell [TOTAL_LAYERS][TOTAL_ROWS][TOTAL_COLUMNS];
     for ( int layer = 0; layer < TOTAL_LAYERS; layer ++ ) {
       for ( int row = 0; row < TOTAL_ROWS; row ++ ) {
@@ -364,7 +513,241 @@ public class BoardPanel extends JPanel {
         }
       }
     }
+    this.board = new Board ( TOTAL_LAYERS, TOTAL_ROWS, TOTAL_COLUMNS, TOTAL_BEADS_TO_WIN );
+    this.tree = new GameTree ( board );
+    winningCells = null;
+    lastFocusedCell = null;
+    refreshHints();
     repaint();
+    if ( game != null ) {
+      game.updateNavigationButtons();
+    }
+  }
+  
+  /**
+   * setPlayers
+   * Sets the players of the game, whose beads are put back in the cells when moves are replayed.
+   * @param player1 player 1.
+   * @param player2 player 2.
+   */
+  public void setPlayers ( Player player1, Player player2 ) {
+    this.players = new Player[] { player1, player2 };
+  }
+  
+  /**
+   * getGameTree
+   * @return the moves and variations of the game on the board. It must only be changed through the BoardPanel.
+   */
+  public GameTree getGameTree() {
+    return tree;
+  }
+  
+  /**
+   * getBoard
+   * @return the headless board in the position shown. It must not be changed.
+   */
+  public Board getBoard() {
+    return board;
+  }
+  
+  /**
+   * goBack
+   * Takes back the last move. Only the cell of the move is updated, so it takes the same time at any point of any
+   * game. The game state (the player to move, whether the game is over) is left to the caller.
+   */
+  public void goBack() {
+    beforeStep();
+    updateCell ( tree.back() );
+    afterStep();
+  }
+  
+  /**
+   * goForward
+   * Replays the move that was last taken back from the position, or the move last played from it. Only the cell of
+   * the move is updated.
+   */
+  public void goForward() {
+    beforeStep();
+    updateCell ( tree.forward() );
+    afterStep();
+  }
+  
+  /**
+   * goTo
+   * Shows the position of any node of the game tree, e.g., the start, the end of the line or another variation,
+   * stepping move by move; only the cells of those moves are updated.
+   * @param node a node of the game tree.
+   */
+  public void goTo ( GameTree.Node node ) {
+    beforeStep();
+    int[] changedCells = new int[2 * board.getCellCount()];
+    int count = tree.goTo ( node, changedCells );
+    for ( int i = 0; i < count; i ++ ) {
+      updateCell ( changedCells[i] );
+    }
+    afterStep();
+  }
+  
+  /**
+   * beforeStep
+   * Clears the focused cell and the winning line, which may not be in the next position.
+   */
+  private void beforeStep() {
+    if ( lastFocusedCell != null ) {
+      if ( lastFocusedCell.getState() == Cell.State.Focused ) {
+        lastFocusedCell.setState ( Cell.State.Blank );
+      }
+      lastFocusedCell = null;
+    }
+    clearWinningCells();
+  }
+  
+  /**
+   * afterStep
+   * Marks the winning line of the new position, if any, and restarts the hints and the navigation buttons.
+   */
+  private void afterStep() {
+    markWinningCells();
+    refreshHints();
+    if ( game != null ) {
+      game.updateNavigationButtons();
+    }
+  }
+  
+  /**
+   * markWinningCells
+   * Marks the cells of the winning line on the board, if any, as Cell.State.Won.
+   * @return true if a player has won.
+   */
+  private boolean markWinningCells() {
+    clearWinningCells();
+    int[] winningLine = board.getWinningLine();
+    if ( winningLine == null ) {
+      return false;
+    }
+    winningCells = new Cell[winningLine.length];
+    for ( int k = 0; k < winningLine.length; k ++ ) {
+      winningCells[k] = getCell ( winningLine[k] );
+      winningCells[k].setState ( Cell.State.Won );
+    }
+    return true;
+  }
+  
+  /**
+   * clearWinningCells
+   * Marks the cells of the winning line as Cell.State.Occupied again.
+   */
+  private void clearWinningCells() {
+    if ( winningCells != null ) {
+      for ( Cell cell : winningCells ) {
+        cell.setState ( Cell.State.Occupied );
+      }
+      winningCells = null;
+    }
+  }
+  
+  /**
+   * updateCell
+   * Sets the cell to the bead on the board: the player's bead, or blank.
+   * @param cell the cell index on the board.
+   */
+  private void updateCell ( int cell ) {
+    int bead = board.getBead ( cell );
+    if ( bead == Board.NO_PLAYER ) {
+      setCell ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), null, Cell.State.Blank );
+    } else {
+      setCell ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), players[bead - 1], Cell.State.Occupied );
+    }
+  }
+  
+  /**
+   * getCell
+   * @param cell a cell index on the board.
+   * @return the cell.
+   */
+  private Cell getCell ( int cell ) {
+    return cells[board.layerOf ( cell )][board.rowOf ( cell )][board.columnOf ( cell )];
+  }
+  
+  /**
+   * isHumanToMove
+   * @return true if the game is in progress and a human player is to place a bead with the mouse.
+   */
+  private boolean isHumanToMove() {
+    return gameStarted && currentPlayer != null && currentPlayer.getPlayerType() == Player.PlayerType.HumanPlayer;
+  }
+  
+  /**
+   * refreshHints
+   * Starts analyzing the position for the heatmap if hints are enabled and a human player is to move in a game in
+   * progress, and stops the analysis otherwise. It is called whenever the position or the players change, and
+   * returns at once: the analysis runs on the HintAnalyzer's background thread.
+   */
+  private void refreshHints() {
+    Player playerToMove = currentPlayer;
+    if ( playerToMove != null && playerToMove.getPlayerNo() != board.getPlayerToMove() ) {
+      playerToMove = playerToMove.getTheOtherPlayer();
+    }
+    if ( hintsEnabled && gameStarted && !board.isGameOver() && playerToMove != null
+          && playerToMove.getPlayerType() == Player.PlayerType.HumanPlayer ) {
+      hintAnalyzer.analyze ( board );
+    } else {
+      hintAnalyzer.cancel();
+    }
+    repaint();
+  }
+  
+  /**
+   * drawHints
+   * Fills the landing cell of every playable pillar with its hint colour: green for the best moves, red for the worst,
+   * and the depth of the analysis above the board.
+   * @param g the Graphics object to draw on.
+   * @param hints the hints of the current position.
+   */
+  private void drawHints ( Graphics g, HintAnalyzer.Hints hints ) {
+    int best = Integer.MIN_VALUE;
+    int worst = Integer.MAX_VALUE;
+    for ( int pillar = 0; pillar < hints.getPillarCount(); pillar ++ ) {
+      int score = hints.getScore ( pillar );
+      if ( score != HintAnalyzer.NO_SCORE && Math.abs ( score ) < AlphaBetaSearch.WIN_THRESHOLD ) {
+        best = Math.max ( best, score );
+        worst = Math.min ( worst, score );
+      }
+    }
+    for ( int pillar = 0; pillar < hints.getPillarCount(); pillar ++ ) {
+      int score = hints.getScore ( pillar );
+      if ( score == HintAnalyzer.NO_SCORE ) {
+        continue;
+      }
+      Color color;
+      if ( score >= AlphaBetaSearch.WIN_THRESHOLD ) {
+        color = HINT_WIN_COLOR;
+      } else if ( score <= -AlphaBetaSearch.WIN_THRESHOLD ) {
+        color = HINT_LOSS_COLOR;
+      } else if ( best == worst ) {
+        color = HINT_COLORS[HINT_COLORS.length / 2];
+      } else {
+        color = HINT_COLORS[(int) ( (long) (score - worst) * (HINT_COLORS.length - 1) / (best - worst) )];
+      }
+      int cell = board.landingCell ( pillar );
+      cells[board.layerOf ( cell )][board.rowOf ( cell )][board.columnOf ( cell )].fillCell ( g, color );
+    }
+    g.setColor ( Color.WHITE );
+    g.drawString ( "Hints: depth " + hints.depth, ORIGIN_X, ORIGIN_Y / 2 );
+  }
+  
+  /**
+   * createHintColors
+   * @param count the number of colours.
+   * @return translucent colours from red through yellow to green.
+   */
+  private static Color[] createHintColors ( int count ) {
+    Color[] colors = new Color[count];
+    for ( int i = 0; i < count; i ++ ) {
+      int rgb = Color.HSBtoRGB ( i / (3.0f * (count - 1)), 0.9f, 1.0f );
+      colors[i] = new Color ( (rgb & 0xFFFFFF) | (120 << 24), true );
+    }
+    return colors;
   }
   
   /**
@@ -374,9 +757,21 @@ public class BoardPanel extends JPanel {
    */
   @Override
   public Dimension getPreferredSize() {
+    return getBoardDimension ( TOTAL_LAYERS, TOTAL_ROWS, TOTAL_COLUMNS );
+  }
+  
+  /**
+   * getBoardDimension
+   * Returns the size in pixels of a board with the given numbers of layers, rows and columns.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @return the width and height that hold the whole board.
+   */
+  public static Dimension getBoardDimension ( int layers, int rows, int columns ) {
     return new Dimension (
-                          ORIGIN_X + (int)OFFSETX_3D*TOTAL_COLUMNS + TOTAL_COLUMNS * CELL_WIDTH,
-                          ORIGIN_Y + (LAYER_GAP + TOTAL_ROWS * CELL_HEIGHT) * TOTAL_LAYERS
+                          ORIGIN_X + (int)OFFSETX_3D*columns + columns * CELL_WIDTH,
+                          ORIGIN_Y + (LAYER_GAP + rows * CELL_HEIGHT) * layers
                          );
   }
   
@@ -387,8 +782,13 @@ public class BoardPanel extends JPanel {
    */
   protected void paintComponent(Graphics g) {
     super.paintComponents(g);
-    g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), null );
+    g.drawImage(SpriteCache.getSprite ( BackgroundImageFilename ), 0, 0, getWidth(), getHeight(), null );
     
+    // the heatmap goes under the cell outlines and beads
+    HintAnalyzer.Hints hints = hintsEnabled && gameStarted ? hintAnalyzer.getHints ( board ) : null;
+    if ( hints != null ) {
+      drawHints ( g, hints );
+    }
     for ( int layer = 0; layer < TOTAL_LAYERS; layer ++ ) {
       for ( int row = 0; row < TOTAL_ROWS; row ++ ) {
         for ( int column = 0; column < TOTAL_COLUMNS; column ++ ) {
@@ -414,6 +814,7 @@ public class BoardPanel extends JPanel {
    */
   public void setCurrentPlayer(Player currentPlayer) {
     this.currentPlayer = currentPlayer;
+    refreshHints();
   }
   
   /**
@@ -432,6 +833,26 @@ public class BoardPanel extends JPanel {
    */
   public void setGameStarted(boolean gameStarted) {
     this.gameStarted = gameStarted;
+    refreshHints();
+  }
+  
+  /**
+   * isHintsEnabled
+   * @return true if the hint heatmap is shown to human players.
+   */
+  public boolean isHintsEnabled() {
+    return hintsEnabled;
+  }
+  
+  /**
+   * setHintsEnabled
+   * Shows or hides the hint heatmap. When shown, every playable cell is coloured by how good a move there is for the
+   * human player to move, from green (best) to red (worst), refining as the background analysis goes deeper.
+   * @param hintsEnabled true to show the hints.
+   */
+  public void setHintsEnabled ( boolean hintsEnabled ) {
+    this.hintsEnabled = hintsEnabled;
+    refreshHints();
   }
   
   /**
@@ -0,0 +1,413 @@
+package scoreFourGame;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.GameRecord;
+import scoreFourGame.engine.GameRecordReader;
+
+/**
+ * BoardRenderer
+ * Draws a position into a BufferedImage, without a window or a display: the same isometric cells, planet beads and
+ * background as the BoardPanel, e.g., for the thumbnails of a web site or the frames of a shared replay. The cell
+ * geometry comes from Cell.computeCorners() and the images from the SpriteCache.<p>
+ * A renderer is made for one board size and scale. It scales the sprites and the background once, when it is made,
+ * and is immutable afterwards, so one renderer can be shared by any number of threads drawing at the same time. At
+ * scale 1 the image is the one the BoardPanel paints, without the hover bead and the hints.<p>
+ * Usage: BoardRenderer &lt;game-record file&gt; &lt;output directory&gt; [-scale s] [-threads n] [-replay] writes
+ * game&lt;n&gt;.png for the final position of each game (with -replay, game&lt;n&gt;_&lt;ply&gt;.png for every
+ * position) and the throughput on standard error. Run it with -Djava.awt.headless=true on a server.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class BoardRenderer {
+
+  // =============== VARIABLES ===============
+  /**
+   * The PNG compression quality, from 0 (smallest) to 1 (fastest). The background is a photograph, which deflate
+   * barely compresses, so 0.75 writes a PNG about a third faster than the default for a 1% larger file.
+   */
+  private static final float PNG_COMPRESSION_QUALITY = 0.75f;
+
+  /**
+   * The number of layers.
+   */
+  private final int layers;
+
+  /**
+   * The number of rows.
+   */
+  private final int rows;
+
+  /**
+   * The number of columns.
+   */
+  private final int columns;
+
+  /**
+   * The width of the images, in pixels.
+   */
+  private final int width;
+
+  /**
+   * The height of the images, in pixels.
+   */
+  private final int height;
+
+  /**
+   * The background, scaled to the image size.
+   */
+  private final BufferedImage background;
+
+  /**
+   * The scaled sprites of each player (index 1 and 2): the placed bead, then the bead of a winning line.
+   */
+  private final BufferedImage[][] beads = new BufferedImage[3][2];
+
+  /**
+   * The scaled X coordinates of the corners of each cell, by engine cell index.
+   */
+  private final int[][] cornerX;
+
+  /**
+   * The scaled Y coordinates of the corners of each cell, by engine cell index.
+   */
+  private final int[][] cornerY;
+
+  /**
+   * The scaled X coordinate of the bead of each cell, by engine cell index.
+   */
+  private final int[] beadX;
+
+  /**
+   * The scaled Y coordinate of the bead of each cell, by engine cell index.
+   */
+  private final int[] beadY;
+
+  /**
+   * The constructor at the size of the BoardPanel.
+   * @param size the number of layers, rows and columns.
+   */
+  public BoardRenderer ( int size ) {
+    this ( size, size, size, 1.0 );
+  }
+
+  /**
+   * The constructor.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param scale the size of the images relative to the BoardPanel, e.g., 0.25 for thumbnails.
+   */
+  public BoardRenderer ( int layers, int rows, int columns, double scale ) {
+    if ( !(scale > 0) ) {
+      throw new IllegalArgumentException ( "The scale must be positive" );
+    }
+    this.layers = layers;
+    this.rows = rows;
+    this.columns = columns;
+    Dimension dimension = BoardPanel.getBoardDimension ( layers, rows, columns );
+    this.width = Math.max ( 1, (int) Math.round ( dimension.width * scale ) );
+    this.height = Math.max ( 1, (int) Math.round ( dimension.height * scale ) );
+    // at scale 1 the images are scaled like the BoardPanel scales them, so that the pixels are the same
+    boolean smooth = scale != 1.0;
+    this.background = scaleImage ( SpriteCache.getSprite ( BoardPanel.BackgroundImageFilename ), width, height, BufferedImage.TYPE_INT_RGB, smooth );
+    String[][] filenames = {
+      null,
+      { Cell.PlacedPlayerOneImageFilename, Cell.WinningPlayerOneImageFilename },
+      { Cell.PlacedPlayerTwoImageFilename, Cell.WinningPlayerTwoImageFilename }
+    };
+    for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+      for ( int i = 0; i < 2; i ++ ) {
+        BufferedImage sprite = SpriteCache.getSprite ( filenames[playerNo][i] );
+        beads[playerNo][i] = scaleImage ( sprite, Math.max ( 1, (int) Math.round ( sprite.getWidth() * scale ) ),
+                                          Math.max ( 1, (int) Math.round ( sprite.getHeight() * scale ) ), BufferedImage.TYPE_INT_ARGB_PRE, smooth );
+      }
+    }
+    int cellCount = layers * rows * columns;
+    cornerX = new int[cellCount][4];
+    cornerY = new int[cellCount][4];
+    beadX = new int[cellCount];
+    beadY = new int[cellCount];
+    int[] x = new int[4];
+    int[] y = new int[4];
+    for ( int layer = 0; layer < layers; layer ++ ) {
+      for ( int row = 0; row < rows; row ++ ) {
+        for ( int column = 0; column < columns; column ++ ) {
+          // the same index as Board.cellIndex()
+          int cell = (layer * rows + row) * columns + column;
+          Cell.computeCorners ( layer, row, column, rows, x, y );
+          for ( int k = 0; k < 4; k ++ ) {
+            cornerX[cell][k] = (int) Math.round ( x[k] * scale );
+            cornerY[cell][k] = (int) Math.round ( y[k] * scale );
+          }
+          // the offsets of Cell.drawCell()
+          beadX[cell] = (int) Math.round ( (x[0] + 5) * scale );
+          beadY[cell] = (int) Math.round ( (y[0] - 25) * scale );
+        }
+      }
+    }
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Writes the PNG images of the positions of a game-record file, on all processors.
+   * @param args the game-record file, the output directory and the options.
+   * @throws IOException if a file cannot be read or written.
+   */
+  public static void main ( String[] args ) throws IOException {
+    if ( args.length < 2 ) {
+      System.err.println ( "Usage: BoardRenderer <game-record file> <output directory> [-scale s] [-threads n] [-replay]" );
+      System.exit ( 2 );
+    }
+    double scale = 1.0;
+    int threads = Runtime.getRuntime().availableProcessors();
+    boolean replay = false;
+    for ( int i = 2; i < args.length; i ++ ) {
+      if ( args[i].equals ( "-scale" ) && i + 1 < args.length ) {
+        scale = Double.parseDouble ( args[++ i] );
+      } else if ( args[i].equals ( "-threads" ) && i + 1 < args.length ) {
+        threads = Integer.parseInt ( args[++ i] );
+      } else if ( args[i].equals ( "-replay" ) ) {
+        replay = true;
+      }
+    }
+    List<GameRecord> records = new ArrayList<>();
+    try ( InputStream in = new BufferedInputStream ( Files.newInputStream ( Paths.get ( args[0] ) ) );
+          GameRecordReader reader = new GameRecordReader ( in ) ) {
+      GameRecord record;
+      while ( (record = reader.read()) != null ) {
+        records.add ( record );
+      }
+    }
+    Path directory = Files.createDirectories ( Paths.get ( args[1] ) );
+    long startNanos = System.nanoTime();
+    long images = renderRecords ( records, directory, scale, replay, threads );
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    System.err.printf ( "%d images in %.2f s (%.0f images/s) on %d threads%n", images, seconds, images / seconds, threads );
+  }
+
+  /**
+   * renderRecords
+   * Writes the PNG images of the games in parallel, one game per task, with one renderer per board size.
+   * @param records the games.
+   * @param directory the output directory.
+   * @param scale the size of the images relative to the BoardPanel.
+   * @param replay true for an image of every position, false for the final position only.
+   * @param threads the number of threads.
+   * @return the number of images written.
+   * @throws IOException if an image cannot be written.
+   */
+  private static long renderRecords ( List<GameRecord> records, Path directory, double scale, boolean replay, int threads ) throws IOException {
+    Map<Integer, BoardRenderer> renderers = new HashMap<>();
+    for ( GameRecord record : records ) {
+      renderers.computeIfAbsent ( sizeKey ( record ), key -> new BoardRenderer ( record.getLayers(), record.getRows(), record.getColumns(), scale ) );
+    }
+    AtomicLong images = new AtomicLong();
+    ForkJoinPool pool = new ForkJoinPool ( Math.max ( 1, threads ) );
+    try {
+      pool.submit ( () -> IntStream.range ( 0, records.size() ).parallel().forEach ( game -> {
+        GameRecord record = records.get ( game );
+        BoardRenderer renderer = renderers.get ( sizeKey ( record ) );
+        Board board = new Board ( record.getLayers(), record.getRows(), record.getColumns(), record.getBeadsToWin() );
+        BufferedImage image = renderer.createImage();
+        try {
+          for ( int ply = 0; ply <= record.getMoveCount(); ply ++ ) {
+            if ( replay || ply == record.getMoveCount() ) {
+              renderer.render ( board, image );
+              String name = replay ? "game" + (game + 1) + "_" + ply + ".png" : "game" + (game + 1) + ".png";
+              try ( OutputStream out = new BufferedOutputStream ( Files.newOutputStream ( directory.resolve ( name ) ) ) ) {
+                writePng ( image, out );
+              }
+              images.incrementAndGet();
+            }
+            if ( ply < record.getMoveCount() ) {
+              board.drop ( record.getMove ( ply ) );
+            }
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException ( e );
+        }
+      } ) ).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      if ( e.getCause() instanceof UncheckedIOException ) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw new IllegalStateException ( e.getCause() );
+    } finally {
+      pool.shutdown();
+    }
+    return images.get();
+  }
+
+  /**
+   * sizeKey
+   * @param record a game.
+   * @return a number that identifies the board size of the game.
+   */
+  private static int sizeKey ( GameRecord record ) {
+    return (record.getLayers() * 100 + record.getRows()) * 100 + record.getColumns();
+  }
+
+  /**
+   * scaleImage
+   * @param image the image to scale.
+   * @param width the width of the scaled image.
+   * @param height the height of the scaled image.
+   * @param type the BufferedImage type of the scaled image.
+   * @param smooth true for bicubic interpolation, false for the default of a Graphics.
+   * @return a copy of the image at the given size.
+   */
+  private static BufferedImage scaleImage ( BufferedImage image, int width, int height, int type, boolean smooth ) {
+    BufferedImage scaled = new BufferedImage ( width, height, type );
+    Graphics2D g = scaled.createGraphics();
+    if ( smooth ) {
+      g.setRenderingHint ( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
+      g.setRenderingHint ( RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY );
+    }
+    g.drawImage ( image, 0, 0, width, height, null );
+    g.dispose();
+    return scaled;
+  }
+
+  /**
+   * createImage
+   * @return a new image of the size of this renderer's images, e.g., to render into again and again.
+   */
+  public BufferedImage createImage() {
+    return new BufferedImage ( width, height, BufferedImage.TYPE_INT_RGB );
+  }
+
+  /**
+   * render
+   * @param board the position, of this renderer's size.
+   * @return a new image of the position.
+   */
+  public BufferedImage render ( Board board ) {
+    BufferedImage image = createImage();
+    render ( board, image );
+    return image;
+  }
+
+  /**
+   * render
+   * Draws the position into an image, like BoardPanel.paintComponent(): the background, then every cell from the
+   * top layer down, with the beads of a winning line highlighted.
+   * @param board the position, of this renderer's size.
+   * @param image the image to draw into, from createImage().
+   */
+  public void render ( Board board, BufferedImage image ) {
+    if ( board.getLayers() != layers || board.getRows() != rows || board.getColumns() != columns ) {
+      throw new IllegalArgumentException ( "The board is not " + layers + "x" + rows + "x" + columns );
+    }
+    int[] winningLine = board.getWinningLine();
+    Graphics2D g = image.createGraphics();
+    try {
+      g.drawImage ( background, 0, 0, null );
+      g.setColor ( Color.WHITE );
+      for ( int cell = 0; cell < cornerX.length; cell ++ ) {
+        g.drawPolygon ( cornerX[cell], cornerY[cell], 4 );
+        int playerNo = board.getBead ( cell );
+        if ( playerNo != Board.NO_PLAYER ) {
+          g.drawImage ( beads[playerNo][contains ( winningLine, cell ) ? 1 : 0], beadX[cell], beadY[cell], null );
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+  }
+
+  /**
+   * writePng
+   * Draws the position and writes it as a PNG image.
+   * @param board the position, of this renderer's size.
+   * @param out the stream to write to. It is not closed.
+   * @throws IOException if the image cannot be written.
+   */
+  public void writePng ( Board board, OutputStream out ) throws IOException {
+    writePng ( render ( board ), out );
+  }
+
+  /**
+   * writePng
+   * Writes an image as a PNG image, buffered in memory rather than in a temporary file like ImageIO.write().
+   * @param image the image.
+   * @param out the stream to write to. It is not closed.
+   * @throws IOException if the image cannot be written.
+   */
+  public static void writePng ( BufferedImage image, OutputStream out ) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName ( "png" ).next();
+    try ( ImageOutputStream stream = new MemoryCacheImageOutputStream ( out ) ) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode ( ImageWriteParam.MODE_EXPLICIT );
+      param.setCompressionQuality ( PNG_COMPRESSION_QUALITY );
+      writer.setOutput ( stream );
+      writer.write ( null, new IIOImage ( image, null, null ), param );
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  /**
+   * contains
+   * @param cells cell indexes, or null.
+   * @param cell a cell index.
+   * @return true if the cell is one of the cells.
+   */
+  private static boolean contains ( int[] cells, int cell ) {
+    if ( cells != null ) {
+      for ( int c : cells ) {
+        if ( c == cell ) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * getWidth
+   * @return the width of the images, in pixels.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * getHeight
+   * @return the height of the images, in pixels.
+   */
+  public int getHeight() {
+    return height;
+  }
+}
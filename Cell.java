@@ -3,10 +3,6 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import javax.imageio.ImageIO;
 
 /**
  * Cell
@@ -53,36 +49,6 @@ public class Cell {
    */
   private State state = State.Blank;
   
-  /**
-   * The image of the placing bead for player 1.
-   */
-  private static BufferedImage placingPlayerOneImage = null;
-  
-  /**
-   * The image of the placed bead for player 1.
-   */
-  private static BufferedImage placedPlayerOneImage = null;
-  
-  /**
-   * The image of the bead that is in the winning line for player 1.
-   */
-  private static BufferedImage winningPlayerOneImage = null;
-  
-  /**
-   * The image of the placing bead for player 2.
-   */
-  private static BufferedImage placingPlayerTwoImage = null;
-  
-  /**
-   * The image of the placed bead for player 2.
-   */
-  private static BufferedImage placedPlayerTwoImage = null;
-  
-  /**
-   * The image of the bead that is in the winning line for player 2.
-   */
-  private static BufferedImage winningPlayerTwoImage = null;
-  
   /**
    * The image file name of the placing bead for player 1.
    */
@@ -113,20 +79,6 @@ public class Cell {
    */
   public static final String WinningPlayerTwoImageFilename = "blue_planet_w.png";
   
-  // Initialize all images.
-  static {
-    try {
-      placingPlayerOneImage = ImageIO.read(new File(PlacingPlayerOneImageFilename));
-      placedPlayerOneImage = ImageIO.read(new File(PlacedPlayerOneImageFilename));
-      winningPlayerOneImage = ImageIO.read(new File(WinningPlayerOneImageFilename));
-      placingPlayerTwoImage = ImageIO.read(new File(PlacingPlayerTwoImageFilename));
-      placedPlayerTwoImage = ImageIO.read(new File(PlacedPlayerTwoImageFilename));
-      winningPlayerTwoImage = ImageIO.read(new File(WinningPlayerTwoImageFilename));
-    } catch (IOException e) {
-      e.printStackTrace(System.err);
-    }
-  }
-  
   /**
    * Enum to indicate a cell state.
    */
@@ -182,10 +134,9 @@ public class Cell {
     this.row = row;
     this.column = column;
     
-    int cellOriginX = BoardPanel.ORIGIN_X + (int)BoardPanel.OFFSETX_3D * (BoardPanel.TOTAL_ROWS - row) + column * BoardPanel.CELL_WIDTH;
-    int cellOriginY = BoardPanel.ORIGIN_Y + BoardPanel.CELL_HEIGHT * row + (BoardPanel.LAYER_GAP + BoardPanel.TOTAL_ROWS * BoardPanel.CELL_HEIGHT) * layer;
-    cornerX = new int[] { cellOriginX, cellOriginX + BoardPanel.CELL_WIDTH, cellOriginX + BoardPanel.CELL_WIDTH - (int)BoardPanel.OFFSETX_3D, cellOriginX - (int)BoardPanel.OFFSETX_3D };
-    cornerY = new int[] { cellOriginY, cellOriginY, cellOriginY + BoardPanel.CELL_HEIGHT, cellOriginY + BoardPanel.CELL_HEIGHT };
+    cornerX = new int[4];
+    cornerY = new int[4];
+    computeCorners ( layer, row, column, BoardPanel.TOTAL_ROWS, cornerX, cornerY );
   }
   
   /**
@@ -222,6 +173,30 @@ public class Cell {
   
   // =============== METHODS ===============
   
+  /**
+   * computeCorners
+   * Calculates the four corners of a cell on a board with the given number of rows, as described in the constructor.
+   * It does not depend on BoardPanel.TOTAL_ROWS, so it can be used for a board other than the one on the screen.
+   * @param layer the layer of the cell.
+   * @param row the row of the cell.
+   * @param column the column of the cell.
+   * @param rows the number of rows of the board.
+   * @param cornerX the array that receives the X coordinates of the corners A, B, C and D.
+   * @param cornerY the array that receives the Y coordinates of the corners A, B, C and D.
+   */
+  public static void computeCorners ( int layer, int row, int column, int rows, int[] cornerX, int[] cornerY ) {
+    int cellOriginX = BoardPanel.ORIGIN_X + (int)BoardPanel.OFFSETX_3D * (rows - row) + column * BoardPanel.CELL_WIDTH;
+    int cellOriginY = BoardPanel.ORIGIN_Y + BoardPanel.CELL_HEIGHT * row + (BoardPanel.LAYER_GAP + rows * BoardPanel.CELL_HEIGHT) * layer;
+    cornerX[0] = cellOriginX;
+    cornerX[1] = cellOriginX + BoardPanel.CELL_WIDTH;
+    cornerX[2] = cellOriginX + BoardPanel.CELL_WIDTH - (int)BoardPanel.OFFSETX_3D;
+    cornerX[3] = cellOriginX - (int)BoardPanel.OFFSETX_3D;
+    cornerY[0] = cellOriginY;
+    cornerY[1] = cellOriginY;
+    cornerY[2] = cellOriginY + BoardPanel.CELL_HEIGHT;
+    cornerY[3] = cellOriginY + BoardPanel.CELL_HEIGHT;
+  }
+  
   /**
    * clone
    * Creates and returns a copy of this Cell object. The new object will have the same layer, row, column and state.
@@ -307,14 +282,14 @@ public class Cell {
       Image image = null;
       switch ( this.state ) {
         case Occupied:
-          image = this.beadInCell.getPlayerNo() == 1 ? placedPlayerOneImage : placedPlayerTwoImage;
+          image = this.beadInCell.getPlayerNo() == 1 ? SpriteCache.getSprite ( PlacedPlayerOneImageFilename ) : SpriteCache.getSprite ( PlacedPlayerTwoImageFilename );
         break;
         case Won:
-          image = this.beadInCell.getPlayerNo() == 1 ? winningPlayerOneImage : winningPlayerTwoImage;
+          image = this.beadInCell.getPlayerNo() == 1 ? SpriteCache.getSprite ( WinningPlayerOneImageFilename ) : SpriteCache.getSprite ( WinningPlayerTwoImageFilename );
         break;
         case Focused:
           if ( player != null ) {
-          image = player.getPlayerNo() == 1 ? placingPlayerOneImage : placingPlayerTwoImage;
+          image = player.getPlayerNo() == 1 ? SpriteCache.getSprite ( PlacingPlayerOneImageFilename ) : SpriteCache.getSprite ( PlacingPlayerTwoImageFilename );
         }
           break;
       }
@@ -327,6 +302,18 @@ public class Cell {
     }
   }
   
+  /**
+   * fillCell
+   * Fills the cell's parallelogram with a colour, e.g., the translucent colour of a hint. It is drawn before the
+   * cells, so that the outlines and beads stay on top.
+   * @param g the Graphics object that is used to draw on the UI.
+   * @param color the colour to fill with.
+   */
+  public void fillCell ( Graphics g, Color color ) {
+    g.setColor ( color );
+    g.fillPolygon ( cornerX, cornerY, 4 );
+  }
+  
   /**
    * isCoordinateInsideCell
    * To calculate if the provided coordinate (x, y) is inside the cell.
@@ -342,13 +329,13 @@ public class Cell {
      To calculate slope
      y0 = slope*x0 + slope1 (1)
      y3 = slope*x3 + slope1 (2)
-     (1)-(2): y0  y3 = slope(x0-x3) => slope=(y0-y3)/(x0-x3)
+     (1)-(2): y0 - y3 = slope(x0-x3) => slope=(y0-y3)/(x0-x3)
      
-     b1 = y0  x0*slope
-     b2 = y1  x1*slope
+     b1 = y0 - x0*slope
+     b2 = y1 - x1*slope
      
-     xValueLineOne = (y  b1) / slope
-     xValueLineTwo = (y  b2) / slope
+     xValueLineOne = (y - b1) / slope
+     xValueLineTwo = (y - b2) / slope
      */
     double slope = ( (double) this.cornerY[0] - this.cornerY[3] ) / ( (double) this.cornerX[0] - this.cornerX[3] ) ;
     double b1 = this.cornerY[0] - this.cornerX[0] * slope;
@@ -4,19 +4,42 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.AbstractAction;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
+import javax.swing.KeyStroke;
 import javax.swing.SpinnerModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.GameClock;
+import scoreFourGame.engine.GameRecord;
+import scoreFourGame.engine.GameRecordReader;
+import scoreFourGame.engine.GameRecordWriter;
+import scoreFourGame.engine.GameSeeds;
+import scoreFourGame.engine.GameTree;
+import scoreFourGame.engine.MoveJournal;
+import scoreFourGame.engine.ProofNumberSolver;
 
 /**
  * Game
@@ -73,6 +96,133 @@ public class Game extends JFrame {
    */
   private JButton exitButton;
   
+  /**
+   * The button to save the current game to a file.
+   */
+  private JButton saveGameButton;
+  
+  /**
+   * The button to load a saved game from a file.
+   */
+  private JButton loadGameButton;
+  
+  /**
+   * The button to solve the position on the board.
+   */
+  private JButton solvePositionButton;
+  
+  /**
+   * The check box to show the hint heatmap on the board.
+   */
+  private JCheckBox showHintsCheckBox;
+  
+  /**
+   * The button that goes back to the start of the game.
+   */
+  private JButton startButton;
+  
+  /**
+   * The button that takes back a move.
+   */
+  private JButton backButton;
+  
+  /**
+   * The button that replays a move.
+   */
+  private JButton forwardButton;
+  
+  /**
+   * The button that replays the line to its last move.
+   */
+  private JButton endButton;
+  
+  /**
+   * The button that switches to the next variation played from the previous position.
+   */
+  private JButton variationButton;
+  
+  /**
+   * The label that shows the move number of the position and the number of moves of the line.
+   */
+  private JLabel moveLabel;
+  
+  /**
+   * The spinner for choosing the base time of the game clocks in minutes, 0 for no clock.
+   */
+  private JSpinner clockMinutesSpinner;
+  
+  /**
+   * The spinner for choosing the time added to a player's clock for each move in seconds.
+   */
+  private JSpinner clockIncrementSpinner;
+  
+  /**
+   * The label that shows the remaining time of each player.
+   */
+  private JLabel clockLabel;
+  
+  /**
+   * The longest base time of the game clocks that can be chosen, in minutes.
+   */
+  public static final int MAX_CLOCK_MINUTES = 180;
+  
+  /**
+   * The largest increment of the game clocks that can be chosen, in seconds.
+   */
+  public static final int MAX_CLOCK_INCREMENT_SECONDS = 60;
+  
+  /**
+   * How often the clock label is refreshed and the clock of a human player is checked, in milliseconds.
+   */
+  public static final int CLOCK_REFRESH_MILLIS = 100;
+  
+  /**
+   * The clocks of the game in progress, or null if the game has none. They run only while the game is played live:
+   * they stop when the game is over or is stepped through with the navigation buttons.
+   */
+  private GameClock clock = null;
+  
+  /**
+   * The player who has lost the game on time, or Board.NO_PLAYER.
+   */
+  private int lostOnTimePlayer = Board.NO_PLAYER;
+  
+  /**
+   * The pause between the moves of two computer players, so that each move can be seen, in milliseconds.
+   */
+  public static final int COMPUTER_MOVE_PAUSE_MILLIS = 500;
+  
+  /**
+   * The number of the latest request for a computer move. A new game, a loaded game or a step through the game
+   * counts up too, so that a computer move that finishes after the game has moved on is not played.
+   */
+  private int computerMoveRequest = 0;
+  
+  /**
+   * Whether a computer player is thinking on a background thread. The navigation buttons are disabled meanwhile.
+   */
+  private boolean computerThinking = false;
+  
+  /**
+   * The time the solver may spend on a position, in milliseconds.
+   */
+  public static final long SOLVE_TIME_LIMIT_MILLIS = 30000;
+  
+  /**
+   * The spinner for choosing the game board size.
+   */
+  private JSpinner boardSizeSpinner;
+  
+  /**
+   * The smallest board size that can be chosen.
+   */
+  public static final int MIN_BOARD_SIZE = 4;
+  
+  /**
+   * The largest board size that can be chosen.
+   */
+  public static final int MAX_BOARD_SIZE = 10;
+  
   /**
    * The Player 1 object. Each time when a new game is started, a cloned copy of the Player object 
    * will be obtained from the drop-down list (JComboBox) for choosing the Player 1 and eventually 
@@ -87,6 +237,17 @@ public class Game extends JFrame {
    */
   private Player player2 = null;
   
+  /**
+   * The system property that names the move journal file; an empty value turns the journal off. By default the
+   * journal is .scoreFour.journal in the user's home directory.
+   */
+  public static final String JOURNAL_PROPERTY = "scoreFourGame.journal";
+  
+  /**
+   * The journal of the moves of the game in progress, so that it can be resumed after a crash, or null.
+   */
+  private MoveJournal journal = null;
+  
   /**
    * A static instance of the current game. It is for other class method to invoke Game's instance methods.
    */
@@ -97,6 +258,7 @@ public class Game extends JFrame {
    */
   public Game() {
     initUI();
+    openJournal();
     currentGame = this;
   }
   
@@ -113,6 +275,7 @@ public class Game extends JFrame {
       public void run() {
         Game game = new Game();
         game.setVisible(true);
+        game.resumeJournaledGame();
       }
     });
   }
@@ -127,7 +290,7 @@ public class Game extends JFrame {
     
     gameMainPanel = new BoardPanel(this);
     commandPanel = new JPanel();
-    commandPanel.setPreferredSize(new Dimension(600, 150));
+    commandPanel.setPreferredSize(new Dimension(600, 220));
     
     add ( new JScrollPane ( gameMainPanel ) );
     add(commandPanel, BorderLayout.SOUTH);
@@ -136,10 +299,14 @@ public class Game extends JFrame {
     infoLabel.setPreferredSize(new Dimension(600, 25));
     player1ChoiceLabel = new JLabel("Player 1:");
     player1ChoiceComboBox = new JComboBox<>(
-                                            new Player[] { new Player(1, Player.PlayerType.HumanPlayer), new Player(1, Player.PlayerType.ComputerPlayer) });
+                                            new Player[] { new Player(1, Player.PlayerType.HumanPlayer), new Player(1, Player.PlayerType.ComputerPlayer),
+                                                          new Player(1, Player.PlayerType.ComputerPlayer, Player.Engine.MonteCarlo),
+                                                          new Player(1, Player.PlayerType.ComputerPlayer, Player.Engine.AlphaBeta) });
     player2ChoiceLabel = new JLabel("Player 2:");
     player2ChoiceComboBox = new JComboBox<>(
-                                            new Player[] { new Player(2, Player.PlayerType.HumanPlayer), new Player(2, Player.PlayerType.ComputerPlayer) });
+                                            new Player[] { new Player(2, Player.PlayerType.HumanPlayer), new Player(2, Player.PlayerType.ComputerPlayer),
+                                                          new Player(2, Player.PlayerType.ComputerPlayer, Player.Engine.MonteCarlo),
+                                                          new Player(2, Player.PlayerType.ComputerPlayer, Player.Engine.AlphaBeta) });
     newGameButton = new JButton("New Game");
     newGameButton.addActionListener(new ActionListener() {
       
@@ -184,8 +351,8 @@ public class Game extends JFrame {
     
     JPanel controlPanel2 = new JPanel ( new FlowLayout( FlowLayout.LEFT ) );
     JLabel gameBoardSizeLabel = new JLabel ( "Board size:" );
-    SpinnerModel boardSizeModel = new SpinnerNumberModel ( 4, 4, 10, 1 );
-    JSpinner boardSizeSpinner = new JSpinner(boardSizeModel);
+    SpinnerModel boardSizeModel = new SpinnerNumberModel ( BoardPanel.TOTAL_LAYERS, MIN_BOARD_SIZE, MAX_BOARD_SIZE, 1 );
+    boardSizeSpinner = new JSpinner(boardSizeModel);
     boardSizeSpinner.setEditor(new JSpinner.NumberEditor(boardSizeSpinner, "#"));
     boardSizeSpinner.setPreferredSize( new Dimension ( 100, 25 ) );
     boardSizeSpinner.addChangeListener( new ChangeListener ( ) {
@@ -230,8 +397,182 @@ public class Game extends JFrame {
     controlPanel2.add ( gameBoardSizeLabel, BorderLayout.WEST );
     controlPanel2.add ( boardSizeSpinner );
     
+    // Save and load buttons and handlers
+    saveGameButton = new JButton("Save Game");
+    saveGameButton.addActionListener(new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to save the current game
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        saveGame ( );
+      }
+      
+    });
+    loadGameButton = new JButton("Load Game");
+    loadGameButton.addActionListener(new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to load a saved game
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        loadGame ( );
+      }
+      
+    });
+    // Solve button and handler
+    solvePositionButton = new JButton("Solve Position");
+    solvePositionButton.addActionListener(new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to solve the position on the board
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        solvePosition ( );
+      }
+      
+    });
+    // Hint check box and handler
+    showHintsCheckBox = new JCheckBox("Show Hints");
+    showHintsCheckBox.addActionListener(new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to show or hide the hint heatmap
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gameMainPanel.setHintsEnabled ( showHintsCheckBox.isSelected() );
+      }
+      
+    });
+    controlPanel2.add ( saveGameButton );
+    controlPanel2.add ( loadGameButton );
+    controlPanel2.add ( solvePositionButton );
+    controlPanel2.add ( showHintsCheckBox );
+    
+    // Navigation buttons and handlers; the arrow keys and Home and End click them
+    JPanel controlPanel3 = new JPanel ( new FlowLayout( FlowLayout.LEFT ) );
+    startButton = addNavigationButton ( controlPanel3, "|<", "Go back to the start of the game (Home)", KeyEvent.VK_HOME, new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to go back to the start of the game
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gameMainPanel.goTo ( gameMainPanel.getGameTree().getRoot() );
+        continueFromPosition ( );
+      }
+      
+    });
+    backButton = addNavigationButton ( controlPanel3, "<", "Take back a move (Left)", KeyEvent.VK_LEFT, new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to take back a move
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gameMainPanel.goBack ( );
+        continueFromPosition ( );
+      }
+      
+    });
+    forwardButton = addNavigationButton ( controlPanel3, ">", "Replay a move (Right)", KeyEvent.VK_RIGHT, new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to replay a move
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gameMainPanel.goForward ( );
+        continueFromPosition ( );
+      }
+      
+    });
+    endButton = addNavigationButton ( controlPanel3, ">|", "Replay the line to its last move (End)", KeyEvent.VK_END, new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to replay the line to its last move
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gameMainPanel.goTo ( gameMainPanel.getGameTree().getLineEnd() );
+        continueFromPosition ( );
+      }
+      
+    });
+    variationButton = addNavigationButton ( controlPanel3, "Next Variation", "Play the next move played instead of the last one (Down)", KeyEvent.VK_DOWN, new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to switch to the next variation
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gameMainPanel.goTo ( gameMainPanel.getGameTree().getNextVariation() );
+        continueFromPosition ( );
+      }
+      
+    });
+    moveLabel = new JLabel();
+    controlPanel3.add ( moveLabel );
+    updateNavigationButtons();
+    
+    // Game clock spinners, applied when a game starts, and the clock label, refreshed by a timer
+    JPanel controlPanel4 = new JPanel ( new FlowLayout( FlowLayout.LEFT ) );
+    clockMinutesSpinner = new JSpinner ( new SpinnerNumberModel ( 0, 0, MAX_CLOCK_MINUTES, 1 ) );
+    clockMinutesSpinner.setToolTipText ( "The time of each player in minutes, 0 for no clock" );
+    clockMinutesSpinner.setPreferredSize( new Dimension ( 60, 25 ) );
+    clockIncrementSpinner = new JSpinner ( new SpinnerNumberModel ( 0, 0, MAX_CLOCK_INCREMENT_SECONDS, 1 ) );
+    clockIncrementSpinner.setToolTipText ( "The time added to a player's clock for each move, in seconds" );
+    clockIncrementSpinner.setPreferredSize( new Dimension ( 60, 25 ) );
+    clockLabel = new JLabel();
+    controlPanel4.add ( new JLabel ( "Clock:" ) );
+    controlPanel4.add ( clockMinutesSpinner );
+    controlPanel4.add ( new JLabel ( "min +" ) );
+    controlPanel4.add ( clockIncrementSpinner );
+    controlPanel4.add ( new JLabel ( "s per move" ) );
+    controlPanel4.add ( clockLabel );
+    updateClock();
+    new Timer ( CLOCK_REFRESH_MILLIS, new ActionListener() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to refresh the clock label and check the clock of the player to move
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        updateClock ( );
+      }
+      
+    }).start();
+    
+    JPanel controlPanel24 = new JPanel ( new BorderLayout() );
+    controlPanel24.add( controlPanel2, BorderLayout.NORTH );
+    controlPanel24.add( controlPanel4, BorderLayout.SOUTH );
     controlPanel.add( controlPanel1, BorderLayout.NORTH );
-    controlPanel.add( controlPanel2, BorderLayout.SOUTH );
+    controlPanel.add( controlPanel3, BorderLayout.CENTER );
+    controlPanel.add( controlPanel24, BorderLayout.SOUTH );
     
     commandPanel.add( infoPanel );
     commandPanel.add( controlPanel );
@@ -245,6 +586,173 @@ public class Game extends JFrame {
     
   }
   
+  /**
+   * addNavigationButton
+   * Creates a navigation button in the panel, which the key also clicks while the window has the focus.
+   * @param panel the panel to add the button to.
+   * @param text the text of the button.
+   * @param toolTip the tool tip of the button.
+   * @param keyCode the key, a KeyEvent.VK_ constant.
+   * @param listener the handler of the button.
+   * @return the button.
+   */
+  private JButton addNavigationButton ( JPanel panel, String text, String toolTip, int keyCode, ActionListener listener ) {
+    final JButton button = new JButton ( text );
+    button.setToolTipText ( toolTip );
+    button.addActionListener ( listener );
+    panel.add ( button );
+    getRootPane().getInputMap ( JComponent.WHEN_IN_FOCUSED_WINDOW ).put ( KeyStroke.getKeyStroke ( keyCode, 0 ), text );
+    getRootPane().getActionMap().put ( text, new AbstractAction() {
+      
+      /**
+       * actionPerformed
+       * Overrided method to click the button, which does nothing while it is disabled
+       * @param e the action ocurred
+       */
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        button.doClick ( 0 );
+      }
+      
+    });
+    return button;
+  }
+  
+  /**
+   * updateNavigationButtons
+   * Enables the navigation buttons that can move from the position on the board, and shows its move number. It is
+   * called by the BoardPanel whenever the position changes.
+   */
+  public void updateNavigationButtons() {
+    if ( moveLabel == null ) {
+      // the board panel is created before the buttons
+      return;
+    }
+    GameTree tree = gameMainPanel.getGameTree();
+    startButton.setEnabled ( !computerThinking && tree.canGoBack() );
+    backButton.setEnabled ( !computerThinking && tree.canGoBack() );
+    forwardButton.setEnabled ( !computerThinking && tree.canGoForward() );
+    endButton.setEnabled ( !computerThinking && tree.canGoForward() );
+    variationButton.setEnabled ( !computerThinking && tree.getNextVariation() != tree.getCurrent() );
+    moveLabel.setText ( "Move " + tree.getCurrent().getPly() + " of " + tree.getLineEnd().getPly() );
+  }
+  
+  /**
+   * startClock
+   * Starts the game clocks chosen with the clock spinners, if any, with the clock of the player to move running.
+   * @param currentPlayer the player to place the next bead.
+   */
+  private void startClock ( Player currentPlayer ) {
+    int minutes = (Integer) clockMinutesSpinner.getValue();
+    int seconds = (Integer) clockIncrementSpinner.getValue();
+    clock = minutes > 0 ? new GameClock ( minutes * 60000L, seconds * 1000L ) : null;
+    lostOnTimePlayer = Board.NO_PLAYER;
+    player1.setClock ( clock );
+    player2.setClock ( clock );
+    if ( clock != null ) {
+      clock.start ( currentPlayer.getPlayerNo() );
+    }
+    updateClock();
+  }
+  
+  /**
+   * pressClock
+   * Completes the move of the player whose clock runs and starts the clock of the other player, or stops the clocks
+   * if the move ended the game. It is called by the BoardPanel whenever a bead is placed.
+   */
+  public void pressClock() {
+    if ( clock == null ) {
+      return;
+    }
+    int playerNo = clock.getRunningPlayer();
+    if ( !clock.press() ) {
+      loseOnTime ( playerNo );
+    } else if ( gameMainPanel.getBoard().isGameOver() ) {
+      clock.stop();
+    }
+  }
+  
+  /**
+   * updateClock
+   * Shows the remaining time of each player, the running clock marked, and ends the game if the player to move has
+   * run out of time. A computer player never does (see Player.getMoveTimeMillis()), so this catches a human player,
+   * who may think for any time; pressClock() catches a move made after the time ran out but before this noticed.
+   */
+  private void updateClock() {
+    if ( clock == null ) {
+      clockLabel.setText ( "No clock" );
+      return;
+    }
+    int running = clock.getRunningPlayer();
+    if ( running != Board.NO_PLAYER && clock.isFlagged ( running ) && gameMainPanel.isGameStarted() ) {
+      loseOnTime ( running );
+      running = Board.NO_PLAYER;
+    }
+    clockLabel.setText ( (running == 1 ? "> " : "") + "Player 1: " + GameClock.format ( clock.getRemainingMillis ( 1 ) ) + "    "
+                          + (running == 2 ? "> " : "") + "Player 2: " + GameClock.format ( clock.getRemainingMillis ( 2 ) ) );
+  }
+  
+  /**
+   * loseOnTime
+   * Ends the game as lost by the player whose time has run out. The journaled game ends too, so it is not resumed.
+   * @param playerNo the player number.
+   */
+  private void loseOnTime ( int playerNo ) {
+    clock.stop();
+    lostOnTimePlayer = playerNo;
+    gameMainPanel.setGameStarted ( false );
+    gameMainPanel.endJournaledGame();
+    setInfo ( (playerNo == 1 ? player1 : player2).toString() + " has lost on time." );
+  }
+  
+  /**
+   * isLostOnTime
+   * @return true if a player has lost the game on time.
+   */
+  public boolean isLostOnTime() {
+    return lostOnTimePlayer != Board.NO_PLAYER;
+  }
+  
+  /**
+   * continueFromPosition
+   * Continues the game from the position the board was stepped to: shows the winner or the draw of a finished
+   * position, and otherwise waits for the human player to move. A computer player to move plays only if no move was
+   * played from the position yet; otherwise stepping forward shows its move. A new move played from a position that
+   * already had one starts a variation. Stepping through a game stops its clocks, and the game goes on untimed, even
+   * one that was lost on time.
+   */
+  private void continueFromPosition() {
+    cancelComputerMove();
+    if ( clock != null ) {
+      clock.stop();
+    }
+    lostOnTimePlayer = Board.NO_PLAYER;
+    Board board = gameMainPanel.getBoard();
+    player1.setStepsMoved ( (board.getMoveCount() + 1) / 2 );
+    player2.setStepsMoved ( board.getMoveCount() / 2 );
+    if ( gameMainPanel.checkWinner() ) {
+      gameMainPanel.setGameStarted ( false );
+      return;
+    }
+    if ( board.getBlankCount() == 0 ) {
+      setInfo ( "Draw game." );
+      gameMainPanel.setGameStarted ( false );
+      return;
+    }
+    Player currentPlayer = board.getPlayerToMove() == 1 ? player1 : player2;
+    if ( currentPlayer.getPlayerType() == Player.PlayerType.ComputerPlayer ) {
+      if ( !gameMainPanel.getGameTree().canGoForward() ) {
+        continueGame ( currentPlayer );
+        return;
+      }
+      setInfo ( "Player " + currentPlayer.getPlayerNo() + " (Computer player) to move: step forward to see its move, or back to change yours." );
+    } else {
+      setInfo ( "Player " + currentPlayer.getPlayerNo() + " to place a bead . . ." );
+    }
+    gameMainPanel.setCurrentPlayer ( currentPlayer );
+    gameMainPanel.setGameStarted ( true );
+  }
+  
   /**
    * getCalculatedSize
    * Gets the calculated size for panels
@@ -261,66 +769,364 @@ public class Game extends JFrame {
    * game board size is changed.
    */
   protected void startNewGame() {
+    cancelComputerMove();
     gameMainPanel.initCells();
-    // obtains cloned copies from the player choice drop-down list. This avoids different games to share
+    createPlayers ( GameSeeds.newSeed() );
+    gameMainPanel.journalGame ( player1.getGameSeed(), getPlayersTag() );
+    startClock ( player1 );
+    continueGame ( player1 );
+  }
+  
+  /**
+   * getPlayersTag
+   * @return the indexes of the players chosen in the drop-down lists, player 2 in the second byte, to journal with
+   *         the game.
+   */
+  private int getPlayersTag() {
+    return player1ChoiceComboBox.getSelectedIndex() | player2ChoiceComboBox.getSelectedIndex() << 8;
+  }
+  
+  /**
+   * openJournal
+   * Opens the move journal named by the JOURNAL_PROPERTY system property. If it cannot be opened the game is played
+   * without crash recovery.
+   */
+  private void openJournal() {
+    String filename = System.getProperty ( JOURNAL_PROPERTY, new File ( System.getProperty ( "user.home" ), ".scoreFour.journal" ).getPath() );
+    if ( filename.isEmpty() ) {
+      return;
+    }
+    try {
+      journal = new MoveJournal ( new File ( filename ).toPath() );
+      gameMainPanel.setJournal ( journal );
+    } catch (IOException e) {
+      System.err.println ( "Cannot open the move journal " + filename + ": " + e.getMessage() );
+    }
+  }
+  
+  /**
+   * resumeJournaledGame
+   * Offers to resume the game that was in progress when the game last stopped without finishing it, e.g., in a
+   * crash. The moves are replayed from the journal with the same players and seed.
+   */
+  protected void resumeJournaledGame() {
+    if ( journal == null || journal.getRecoveredGames().isEmpty() ) {
+      return;
+    }
+    List<MoveJournal.JournaledGame> games = journal.getRecoveredGames();
+    MoveJournal.JournaledGame game = games.get ( games.size() - 1 );
+    int ret = JOptionPane.showConfirmDialog ( this, "An unfinished " + game.record.getLayers() + "x" + game.record.getRows() + "x"
+                                               + game.record.getColumns() + " game with " + game.record.getMoveCount()
+                                               + " moves was found. Do you want to resume it?", "Resume Game",
+                                             JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE );
+    try {
+      // the resumed game is journaled again as a new game
+      for ( MoveJournal.JournaledGame journaled : games ) {
+        journal.endGame ( journaled.id, GameRecord.RESULT_UNFINISHED );
+      }
+    } catch (IOException e) {
+      System.err.println ( "The move journal failed: " + e.getMessage() );
+    }
+    if ( ret != JOptionPane.YES_OPTION ) {
+      return;
+    }
+    int player1Index = game.tag & 0xff;
+    int player2Index = (game.tag >>> 8) & 0xff;
+    if ( player1Index < player1ChoiceComboBox.getItemCount() && player2Index < player2ChoiceComboBox.getItemCount() ) {
+      player1ChoiceComboBox.setSelectedIndex ( player1Index );
+      player2ChoiceComboBox.setSelectedIndex ( player2Index );
+    }
+    try {
+      resumeGame ( game.record );
+    } catch (IOException e) {
+      JOptionPane.showMessageDialog ( this, "The game cannot be resumed: " + e.getMessage(), "Resume Game", JOptionPane.ERROR_MESSAGE );
+    }
+  }
+  
+  /**
+   * createPlayers
+   * Creates the player1 and player2 objects for a new or loaded game.
+   * @param gameSeed the seed of the game, from which the random choices of the computer players are derived.
+   */
+  private void createPlayers ( long gameSeed ) {
+    // obtains new copies of the players from the player choice drop-down list. This avoids different games to share
     // the same player instance, i.e., isolates player objects used in different games.
-    player1 = ((Player) player1ChoiceComboBox.getSelectedItem()).clone();
-    player2 = ((Player) player2ChoiceComboBox.getSelectedItem()).clone();
+    player1 = ((Player) player1ChoiceComboBox.getSelectedItem()).forGame ( gameSeed );
+    player2 = ((Player) player2ChoiceComboBox.getSelectedItem()).forGame ( gameSeed );
     player1.setOpponent ( player2 );
-    
-    // start the first step by invoking the Player.play() depending if the player is a computer player or not
-    if ( (player1.getPlayerType() == Player.PlayerType.ComputerPlayer) && (player2.getPlayerType() == Player.PlayerType.ComputerPlayer) ) {
-      // for the case where the both players are computer players
-      Player currentPlayer = player1;
-      while ( true ) {
-        setInfo ( "Player " + currentPlayer.getPlayerNo() + " (Computer player) is thinking . . ." );
-        Coordinate coordinate = currentPlayer.play( gameMainPanel.getCells() );
+    gameMainPanel.setPlayers ( player1, player2 );
+    // the clocks start when the game continues, after any moves are replayed
+    clock = null;
+    lostOnTimePlayer = Board.NO_PLAYER;
+    updateClock();
+  }
+  
+  /**
+   * continueGame
+   * Continue the game on the current board with the given player to place the next bead. A computer player thinks on
+   * a background thread (see playComputerMove()), so the window stays responsive; for a human player the game waits
+   * for the BoardPanel's mouse listeners, which call this method again after the human player's move.
+   * @param currentPlayer the player to place the next bead.
+   */
+  public void continueGame ( Player currentPlayer ) {
+    cancelComputerMove();
+    gameMainPanel.setCurrentPlayer ( currentPlayer );
+    gameMainPanel.setGameStarted ( true );
+    if ( currentPlayer.getPlayerType() == Player.PlayerType.ComputerPlayer ) {
+      playComputerMove ( currentPlayer );
+    } else {
+      // The human player logic that handles the human interactivity is in the BoardPanel's mouse listeners.
+      setInfo ( "Player " + currentPlayer.getPlayerNo() + " to place a bead . . ." );
+    }
+  }
+  
+  /**
+   * cancelComputerMove
+   * Makes sure that a computer move still being computed is not played, e.g., when a new game starts. The search runs
+   * to its time limit on its own Player object, which the new game does not use.
+   */
+  private void cancelComputerMove() {
+    computerMoveRequest ++;
+    if ( computerThinking ) {
+      computerThinking = false;
+      updateNavigationButtons();
+    }
+  }
+  
+  /**
+   * playComputerMove
+   * Lets a computer player choose its move with a SwingWorker, like solvePosition(), and places the bead on the event
+   * dispatch thread when the search is done. The player's clock runs while it thinks. Then the game continues with the
+   * other player; another computer player moves after a COMPUTER_MOVE_PAUSE_MILLIS pause, which is not on its clock.
+   * @param computerPlayer the computer player to place the next bead.
+   */
+  private void playComputerMove ( final Player computerPlayer ) {
+    final int request = computerMoveRequest;
+    final Board board = BoardPanel.toBoard ( gameMainPanel.getCells() );
+    computerThinking = true;
+    updateNavigationButtons();
+    setInfo ( "Player " + computerPlayer.getPlayerNo() + " (Computer player) is thinking . . ." );
+    new SwingWorker<Coordinate, Void>() {
+      
+      /**
+       * doInBackground
+       * Overrided method to run the computer player's search off the event dispatch thread
+       * @return the coordinate of the move, or null if there is none
+       */
+      @Override
+      protected Coordinate doInBackground() {
+        return computerPlayer.play ( board );
+      }
+      
+      /**
+       * done
+       * Overrided method to place the bead of the computer player, unless the game has moved on meanwhile
+       */
+      @Override
+      protected void done() {
+        if ( request != computerMoveRequest ) {
+          return;
+        }
+        computerThinking = false;
+        if ( !gameMainPanel.isGameStarted() ) {
+          // the computer player has lost on time meanwhile
+          updateNavigationButtons();
+          return;
+        }
+        Coordinate coordinate;
+        try {
+          coordinate = get();
+        } catch (InterruptedException | ExecutionException e) {
+          throw new IllegalStateException ( "The computer player failed to move", e );
+        }
         if ( coordinate == null ) {
           // Tie situation.
-          setInfo( "Draw game." );
-          gameMainPanel.setGameStarted( false );
+          setInfo ( "Draw game." );
+          gameMainPanel.setGameStarted ( false );
+          updateNavigationButtons();
           return;
-        } else {
-          gameMainPanel.setCell ( coordinate, currentPlayer, Cell.State.Occupied );
-          if ( gameMainPanel.checkWinner() ) {
-            // The current computer player has won.
-            return;
-          }
         }
-        // Turn to the the other player 
-        currentPlayer = currentPlayer.getTheOtherPlayer();
-        try {
-          Thread.sleep( 500 );
-          gameMainPanel.paintImmediately(0, 0, gameMainPanel.getWidth(), gameMainPanel.getHeight() );
-        } catch (InterruptedException e) { }
-      }
-    } else if (player1.getPlayerType() == Player.PlayerType.ComputerPlayer) {
-      // for the case where the first player is the computer player while the second player is human
-      setInfo ( "Player 1 (Computer player) is thinking . . ." );
-      Coordinate coordinate = player1.play( gameMainPanel.getCells() );
-      if ( coordinate == null ) {
-        // Tie situation. This should not happen when the game just starts
-        setInfo( "Draw game." );
-        gameMainPanel.setGameStarted( false );
-        return;
-      } else {
-        gameMainPanel.setCell ( coordinate, player1, Cell.State.Occupied );
+        gameMainPanel.placeBead ( coordinate, computerPlayer );
         if ( gameMainPanel.checkWinner() ) {
-          // The computer player has won. This should not occur as the game has just started.
+          // The computer player has won, or lost on time.
+          return;
+        }
+        if ( gameMainPanel.getBoard().getBlankCount() == 0 ) {
+          setInfo ( "Draw game." );
+          gameMainPanel.setGameStarted ( false );
           return;
         }
+        final Player nextPlayer = computerPlayer.getTheOtherPlayer();
+        if ( nextPlayer.getPlayerType() != Player.PlayerType.ComputerPlayer ) {
+          continueGame ( nextPlayer );
+          return;
+        }
+        // the pause to show the move is not on the other player's clock
+        final boolean clockRunning = clock != null && clock.getRunningPlayer() != Board.NO_PLAYER;
+        if ( clockRunning ) {
+          clock.stop();
+        }
+        Timer pause = new Timer ( COMPUTER_MOVE_PAUSE_MILLIS, new ActionListener() {
+          
+          /**
+           * actionPerformed
+           * Overrided method to let the other computer player move after the pause
+           * @param e the action ocurred
+           */
+          @Override
+          public void actionPerformed(ActionEvent e) {
+            if ( request != computerMoveRequest ) {
+              return;
+            }
+            if ( clockRunning ) {
+              clock.start ( nextPlayer.getPlayerNo() );
+            }
+            continueGame ( nextPlayer );
+          }
+          
+        });
+        pause.setRepeats ( false );
+        pause.start();
       }
-      // Turn to the player2, 
-      setInfo("Player 2 to place a bead . . .");
-      gameMainPanel.setCurrentPlayer(player2);
-      player2.play(gameMainPanel.getCells());
-    } else {
-      // for the case where the first player is human and the second player could be either human or computer.
-      // The human player logic that handles the human interactivity is in the BoardPanel's mouse listeners.
-      setInfo("Player 1 to place a bead . . .");
-      gameMainPanel.setCurrentPlayer(player1);
+      
+    }.execute();
+  }
+  
+  /**
+   * saveGame
+   * Save the moves and the seed of the current game to a file chosen by the player, in the binary game-record format.
+   */
+  protected void saveGame() {
+    JFileChooser fileChooser = new JFileChooser();
+    if ( fileChooser.showSaveDialog ( this ) != JFileChooser.APPROVE_OPTION ) {
+      return;
+    }
+    try ( GameRecordWriter writer = new GameRecordWriter ( new FileOutputStream ( fileChooser.getSelectedFile() ) ) ) {
+      writer.write ( gameMainPanel.getGameRecord().withSeed ( player1 == null ? GameRecord.NO_SEED : player1.getGameSeed() ) );
+    } catch (IOException e) {
+      JOptionPane.showMessageDialog ( this, "The game cannot be saved: " + e.getMessage(), "Save Game", JOptionPane.ERROR_MESSAGE );
     }
-    gameMainPanel.setGameStarted(true);
+  }
+  
+  /**
+   * loadGame
+   * Load a game saved by saveGame() from a file chosen by the player. The moves are replayed with the players currently
+   * selected in the drop-down lists, seeded with the saved seed, and an unfinished game continues from where it was saved.
+   */
+  protected void loadGame() {
+    JFileChooser fileChooser = new JFileChooser();
+    if ( fileChooser.showOpenDialog ( this ) != JFileChooser.APPROVE_OPTION ) {
+      return;
+    }
+    try ( GameRecordReader reader = new GameRecordReader ( new FileInputStream ( fileChooser.getSelectedFile() ) ) ) {
+      GameRecord record = reader.read();
+      if ( record == null ) {
+        throw new IOException ( "the file contains no game" );
+      }
+      resumeGame ( record );
+    } catch (IOException | IllegalStateException e) {
+      JOptionPane.showMessageDialog ( this, "The game cannot be loaded: " + e.getMessage(), "Load Game", JOptionPane.ERROR_MESSAGE );
+    }
+  }
+  
+  /**
+   * resumeGame
+   * Replays the moves of a game record with the players currently selected in the drop-down lists, seeded with the
+   * record's seed, and continues an unfinished game from where it stopped.
+   * @param record the game record.
+   * @throws IOException if the board size of the record is not supported.
+   */
+  private void resumeGame ( GameRecord record ) throws IOException {
+    int size = record.getLayers();
+    if ( (record.getRows() != size) || (record.getColumns() != size) || (size < MIN_BOARD_SIZE) || (size > MAX_BOARD_SIZE)
+          || (record.getBeadsToWin() != BoardPanel.TOTAL_BEADS_TO_WIN) ) {
+      throw new IOException ( "unsupported board size " + record.getLayers() + "x" + record.getRows() + "x" + record.getColumns() );
+    }
+    Board board = record.toBoard();
+    cancelComputerMove();
+    
+    // Resize the board first, so that the spinner's change listener sees no change.
+    BoardPanel.setBoardSize ( record.getLayers() );
+    boardSizeSpinner.setValue ( record.getLayers() );
+    gameMainPanel.setGameStarted ( false );
+    gameMainPanel.initCells();
+    setSize ( getCalculatedSize() );
+    createPlayers ( record.getSeed() != GameRecord.NO_SEED ? record.getSeed() : GameSeeds.newSeed() );
+    gameMainPanel.journalGame ( player1.getGameSeed(), getPlayersTag() );
+    
+    // Replay the moves, player 1 first.
+    Board replay = new Board ( board.getLayers(), board.getRows(), board.getColumns(), board.getBeadsToWin() );
+    Player currentPlayer = player1;
+    for ( int ply = 0; ply < record.getMoveCount(); ply ++ ) {
+      int cell = replay.drop ( record.getMove ( ply ) );
+      gameMainPanel.placeBead ( replay.layerOf ( cell ), replay.rowOf ( cell ), replay.columnOf ( cell ), currentPlayer );
+      currentPlayer.incrementStepsMoved();
+      currentPlayer = currentPlayer.getTheOtherPlayer();
+    }
+    repaint();
+    if ( gameMainPanel.checkWinner() ) {
+      return;
+    }
+    if ( board.getBlankCount() == 0 ) {
+      setInfo ( "Draw game." );
+      return;
+    }
+    startClock ( currentPlayer );
+    continueGame ( currentPlayer );
+  }
+  
+  /**
+   * solvePosition
+   * Proves whether the player to move on the board wins, loses or draws with perfect play, and shows the winning line
+   * of play. The ProofNumberSolver runs on a background thread for at most SOLVE_TIME_LIMIT_MILLIS, so the board
+   * stays responsive; the result is shown in a message dialog.
+   */
+  protected void solvePosition() {
+    final Board board = BoardPanel.toBoard ( gameMainPanel.getCells() );
+    final ProofNumberSolver solver = new ProofNumberSolver ( 20 );
+    solver.setTimeLimit ( SOLVE_TIME_LIMIT_MILLIS );
+    solvePositionButton.setEnabled ( false );
+    new SwingWorker<Integer, Void>() {
+      
+      /**
+       * doInBackground
+       * Overrided method to run the solver off the event dispatch thread
+       * @return the result of the solve
+       */
+      @Override
+      protected Integer doInBackground() {
+        return solver.solve ( board );
+      }
+      
+      /**
+       * done
+       * Overrided method to show the result of the solve
+       */
+      @Override
+      protected void done() {
+        solvePositionButton.setEnabled ( true );
+        int result = solver.getResult();
+        String message;
+        if ( result == ProofNumberSolver.UNKNOWN ) {
+          message = "The position could not be solved in " + SOLVE_TIME_LIMIT_MILLIS / 1000 + " seconds.";
+        } else if ( result == ProofNumberSolver.DRAW ) {
+          message = "The position is a draw with perfect play.";
+        } else {
+          int winner = result == ProofNumberSolver.WIN ? board.getPlayerToMove() : 3 - board.getPlayerToMove();
+          StringBuilder line = new StringBuilder();
+          Board replay = new Board ( board );
+          for ( int pillar : solver.getLine() ) {
+            int cell = replay.drop ( pillar );
+            line.append ( "\n  Player " ).append ( replay.getBead ( cell ) ).append ( ": layer " ).append ( replay.layerOf ( cell ) + 1 )
+              .append ( ", row " ).append ( replay.rowOf ( cell ) + 1 ).append ( ", column " ).append ( replay.columnOf ( cell ) + 1 );
+          }
+          message = board.getWinner() != Board.NO_PLAYER ? "Player " + winner + " has already won."
+            : "Player " + winner + " can force a win. A winning line of play:" + line;
+        }
+        JOptionPane.showMessageDialog ( Game.this, message, "Solve Position", JOptionPane.INFORMATION_MESSAGE );
+      }
+      
+    }.execute();
   }
   
   /**
@@ -335,84 +1141,24 @@ public class Game extends JFrame {
   
   /**
    * checkWinner
-   * Check if there is a winning player. It does so by transforming a 3D cells to multiple 2D cells and passing to
-   * checkWinnerFor2DSlice method to check for winning cells.
-   *    do the 1), 2) and 3) to see if there is a winning line, if yes, mark the cells in the line as "Won" state.
-   * <ol>
-   * <li>Transform 3D cells to 2D by layers, and then invoke the checkWinnerFor2DSlice method.</li>
-   * <li>Transform 3D cells to 2D by rows, and then invoke the checkWinnerFor2DSlice method.</li>
-   * <li>Transform 3D cells to 2D by columns, and then invoke the checkWinnerFor2DSlice method.</li>
-   * <li>Check 3D diagonally in 3D. This step doesn't invoke the checkWinnerFor2DSlice method.</li>
-   * </ol>
+   * Check if there is a winning player. It converts the cells to a headless engine Board, which checks every winning
+   * line (all 3D directions, including the 3D diagonals) as the beads are placed.
    * If a winning cell line is found, it marks the cells in the line as Cell.State.Won state.
    * @param cells the game board cells
    * @return an array of cells that consists of the winning cells, or null if no winning player is found.
    */
   public Cell[] checkWinner(Cell[][][] cells) {
-    for ( int layer = 0; layer < BoardPanel.TOTAL_LAYERS; layer ++ ) {
-      for ( int row = 0; row < BoardPanel.TOTAL_ROWS; row ++ ) {
-        for ( int column = 0; column < BoardPanel.TOTAL_COLUMNS; column ++ ) {
-          Cell[] winningCells = checkWinningLinesInAllDirections ( cells, layer, row, column );
-          if ( winningCells != null ) {
-            markWinningCells ( winningCells );
-            return winningCells;
-          }
-        }
-      }
+    Board board = BoardPanel.toBoard ( cells );
+    int[] winningLine = board.getWinningLine();
+    if ( winningLine == null ) {
+      return null;
     }
-    return null;
-  }
-  
-  /**
-   * checkWinningLinesInAllDirections
-   * Check winning line in all 3D directions (26 directions).
-   * @param cells the game board cells
-   * @param layer the layer coordinate of the starting point to check for all directions.
-   * @param row the row coordinate of the starting point to check for all directions.
-   * @param column the column coordinate of the starting point to check for all directions.
-   * @return an array of cells that consists of the winning cells, or null if no winning player is found.
-   */
-  private Cell[] checkWinningLinesInAllDirections(Cell[][][] cells, int layer, int row, int column) {
-    Player firstPlayerPlacedBeadInTheLine = cells[layer][row][column].getBeadInCell();
-    // iterate all directions: layer+/-1, row+/-1, column+/-1
-    for ( int layerDirectionFactor = -1; layerDirectionFactor <= 1; layerDirectionFactor ++ ) {
-      for ( int rowDirectionFactor = -1; rowDirectionFactor <= 1; rowDirectionFactor ++ ) {
-        for ( int columnDirectionFactor = -1; columnDirectionFactor <= 1; columnDirectionFactor ++ ) {
-          if ( ( layerDirectionFactor != 0) || (rowDirectionFactor != 0) || (columnDirectionFactor != 0) ) {
-            Cell[] winningCells = new Cell[BoardPanel.TOTAL_BEADS_TO_WIN];
-            int totalSameBeadsInTheLine = 1;
-            winningCells[0] = cells[layer][row][column];
-            if (firstPlayerPlacedBeadInTheLine != null) {
-              boolean keepLooking = true;
-              for ( int k = 1; k < BoardPanel.TOTAL_BEADS_TO_WIN && keepLooking; k ++ ) {
-                int newLayer = layer+layerDirectionFactor*k;
-                int newRow = row+rowDirectionFactor*k;
-                int newColumn = column+columnDirectionFactor*k;
-                if ( (newLayer < 0) || (newLayer >= BoardPanel.TOTAL_LAYERS) ||
-                    (newRow < 0) || (newRow >= BoardPanel.TOTAL_ROWS) ||
-                    (newColumn < 0) || (newColumn >= BoardPanel.TOTAL_COLUMNS) ) {
-                  // exceeds the boundary
-                  keepLooking = false;
-                } else {
-                  Player nextPlayerPlacedBeadInTheLine = cells[newLayer][newRow][newColumn].getBeadInCell();
-                  if ( (nextPlayerPlacedBeadInTheLine == null) || (nextPlayerPlacedBeadInTheLine != firstPlayerPlacedBeadInTheLine) ) {
-                    keepLooking = false;
-                  } else {
-                    winningCells[totalSameBeadsInTheLine] = cells[layer+layerDirectionFactor*k][row+rowDirectionFactor*k][column+columnDirectionFactor*k];
-                    totalSameBeadsInTheLine++;
-                  }
-                }
-              }
-            }
-            if (totalSameBeadsInTheLine == BoardPanel.TOTAL_BEADS_TO_WIN) {
-              // found winning line
-              return winningCells;
-            }
-          }
-        }
-      }
+    Cell[] winningCells = new Cell[winningLine.length];
+    for ( int k = 0; k < winningLine.length; k ++ ) {
+      winningCells[k] = cells[board.layerOf ( winningLine[k] )][board.rowOf ( winningLine[k] )][board.columnOf ( winningLine[k] )];
     }
-    return null;
+    markWinningCells ( winningCells );
+    return winningCells;
   }
   
   /**
@@ -0,0 +1,210 @@
+package scoreFourGame;
+import java.awt.Component;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import scoreFourGame.engine.AlphaBetaSearch;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.HeapPositionCache;
+import scoreFourGame.engine.PositionCache;
+
+/**
+ * HintAnalyzer
+ * Scores every playable pillar of a position on a background thread, for the hint heatmap of the BoardPanel. The
+ * position is searched to depth 1, 2, 3, ... and the scores of every completed depth are published as an immutable
+ * Hints object, so the heatmap refines while the player thinks.<p>
+ * analyze() and cancel() only bump a generation number and stop the running search, so they return at once on the
+ * event dispatch thread whatever the board size. A stopped search returns within a few thousand positions, and the
+ * hints of an earlier position are never returned by getHints() for the current one.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class HintAnalyzer {
+
+  /**
+   * Hints
+   * The scores of the playable pillars of one position after a completed depth.
+   */
+  public static final class Hints {
+
+    /**
+     * The hash of the position.
+     */
+    public final long hash;
+
+    /**
+     * The number of moves played to reach the position.
+     */
+    public final int moveCount;
+
+    /**
+     * The depth of the scores in plies.
+     */
+    public final int depth;
+
+    /**
+     * The score of each pillar for the player to move, NO_SCORE for a full pillar.
+     */
+    private final int[] scores;
+
+    /**
+     * The constructor.
+     * @param board the position.
+     * @param depth the depth of the scores.
+     * @param scores the scores by pillar. The array is copied.
+     */
+    private Hints ( Board board, int depth, int[] scores ) {
+      this.hash = board.getHash();
+      this.moveCount = board.getMoveCount();
+      this.depth = depth;
+      this.scores = scores.clone();
+    }
+
+    /**
+     * getScore
+     * @param pillar the pillar index.
+     * @return the score of a move in the pillar for the player to move, or NO_SCORE if the pillar is full.
+     */
+    public int getScore ( int pillar ) {
+      return scores[pillar];
+    }
+
+    /**
+     * getPillarCount
+     * @return the number of pillars of the board.
+     */
+    public int getPillarCount() {
+      return scores.length;
+    }
+  }
+
+  // =============== VARIABLES ===============
+  /**
+   * The score of a pillar that cannot be played.
+   */
+  public static final int NO_SCORE = Integer.MIN_VALUE;
+
+  /**
+   * The deepest search of a hint, in plies. The heatmap stops refining there to leave the processor alone.
+   */
+  public static final int MAX_DEPTH = 12;
+
+  /**
+   * The single background thread of the searches. It runs one search at a time, so they can share the cache.
+   */
+  private final ExecutorService executor = Executors.newSingleThreadExecutor ( runnable -> {
+    Thread thread = new Thread ( runnable, "hint-analyzer" );
+    thread.setDaemon ( true );
+    thread.setPriority ( Thread.MIN_PRIORITY );
+    return thread;
+  } );
+
+  /**
+   * The transposition table of the searches, kept from one position to the next. Only the background thread uses it.
+   */
+  private final PositionCache cache = new HeapPositionCache ( 18 );
+
+  /**
+   * The component to repaint when new hints are published.
+   */
+  private final Component component;
+
+  /**
+   * The number of the latest request; the searches of earlier requests stop and publish nothing.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * The running search, or null.
+   */
+  private volatile AlphaBetaSearch running;
+
+  /**
+   * The latest published hints, or null.
+   */
+  private volatile Hints hints;
+
+  /**
+   * The constructor.
+   * @param component the component to repaint when new hints are published.
+   */
+  public HintAnalyzer ( Component component ) {
+    this.component = component;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * analyze
+   * Stops the running analysis and starts analyzing the position. It returns at once.
+   * @param board the position to analyze. It is copied.
+   */
+  public void analyze ( Board board ) {
+    long request = generation.incrementAndGet();
+    stopRunning();
+    hints = null;
+    Board position = new Board ( board );
+    executor.execute ( () -> run ( request, position ) );
+  }
+
+  /**
+   * cancel
+   * Stops the running analysis, if any, and forgets the hints. It returns at once.
+   */
+  public void cancel() {
+    generation.incrementAndGet();
+    stopRunning();
+    hints = null;
+  }
+
+  /**
+   * getHints
+   * @param board the current position.
+   * @return the deepest hints published for the position, or null if there are none yet.
+   */
+  public Hints getHints ( Board board ) {
+    Hints latest = hints;
+    return latest != null && latest.hash == board.getHash() && latest.moveCount == board.getMoveCount() ? latest : null;
+  }
+
+  /**
+   * stopRunning
+   * Stops the running search, if any.
+   */
+  private void stopRunning() {
+    AlphaBetaSearch search = running;
+    if ( search != null ) {
+      search.stop();
+    }
+  }
+
+  /**
+   * run
+   * Searches the position to deeper and deeper depths on the background thread and publishes the scores of every
+   * completed depth, until the request is replaced, the depth reaches MAX_DEPTH or every blank cell is searched.
+   * @param request the number of the request.
+   * @param board the position.
+   */
+  private void run ( long request, Board board ) {
+    if ( generation.get() != request ) {
+      return;
+    }
+    AlphaBetaSearch search = new AlphaBetaSearch ( null, cache );
+    running = search;
+    // a request that came after the check above may have stopped the previous search instead of this one
+    if ( generation.get() != request ) {
+      return;
+    }
+    int[] scores = new int[board.getPillarCount()];
+    Arrays.fill ( scores, NO_SCORE );
+    for ( int depth = 1; depth <= MAX_DEPTH && depth <= board.getBlankCount(); depth ++ ) {
+      if ( !search.scoreMoves ( board, depth, scores ) || generation.get() != request ) {
+        return;
+      }
+      hints = new Hints ( board, depth, scores );
+      component.repaint();
+    }
+  }
+}
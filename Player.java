@@ -1,8 +1,14 @@
 package scoreFourGame;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import scoreFourGame.engine.AlphaBetaSearch;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.EndgameSolver;
+import scoreFourGame.engine.GameClock;
+import scoreFourGame.engine.GameSeeds;
+import scoreFourGame.engine.MonteCarloSearch;
+import scoreFourGame.engine.MoveStrategy;
+import scoreFourGame.engine.OpeningBook;
+import scoreFourGame.engine.FastRuleBasedAI;
+import scoreFourGame.engine.TimeManager;
 
 /**
  * Player
@@ -32,6 +38,27 @@ public class Player {
       ComputerPlayer;
   }
   
+  /**
+   * Computer player engine enum.
+   */
+  public enum Engine {
+    /**
+     * The rule-based engine (Rules #1 to #8).
+     */
+    RuleBased,
+      
+      /**
+       * The Monte Carlo Tree Search engine, for large boards.
+       */
+      MonteCarlo,
+      
+      /**
+       * The alpha-beta search engine, which evaluates positions with the weights of the scoreFourGame.weights weight
+       * file (e.g., one tuned by EvaluationTuner), or the default weights.
+       */
+      AlphaBeta;
+  }
+  
   // ====== VARIABLES ======
   /**
    * The type of the player (i.e., human or computer player). Once it is set, it cannot be changed.
@@ -54,14 +81,79 @@ public class Player {
    */
   private Player theOtherPlayer = null;
   
+  /**
+   * The time a computer player may spend on a move without a game clock, in milliseconds.
+   */
+  public static final long MOVE_TIME_LIMIT_MILLIS = 2000;
+  
+  /**
+   * The engine of a computer player. Once it is set, it cannot be changed.
+   */
+  private final Engine engine;
+  
+  /**
+   * The seed of the game, from which the random source of the player is derived (see GameSeeds).
+   */
+  private final long gameSeed;
+  
+  /**
+   * The algorithm that chooses the moves of a computer player, according to the engine, or null until the player is
+   * first asked for a move (see prepareEngine()).
+   */
+  private MoveStrategy strategy = null;
+  
+  /**
+   * The exact solver used by a computer player once few cells are blank, or null until the first move.
+   */
+  private EndgameSolver endgameSolver = null;
+  
+  /**
+   * The rules that choose a move at once when there is no time to search, e.g., a forced move or a low clock: the
+   * strategy itself for the RuleBased engine. It is null until the first move.
+   */
+  private MoveStrategy quickStrategy = null;
+  
+  /**
+   * The time allocation of a computer player on a game clock, or null until the first move.
+   */
+  private TimeManager timeManager = null;
+  
+  /**
+   * The clock of the game, or null if the game has none.
+   */
+  private GameClock clock = null;
+  
   /**
    * The constructor
    * @param playerNo the no of the player. It should be either 1 or 2.
    * @param playType the type of the player, either PlayerType.HumanPlayer or PlayerType.ComputerPlayer.
    */
   public Player ( int playerNo, PlayerType playType ) {
+    this ( playerNo, playType, Engine.RuleBased );
+  }
+  
+  /**
+   * The constructor with a computer player engine
+   * @param playerNo the no of the player. It should be either 1 or 2.
+   * @param playType the type of the player, either PlayerType.HumanPlayer or PlayerType.ComputerPlayer.
+   * @param engine the engine of a computer player.
+   */
+  public Player ( int playerNo, PlayerType playType, Engine engine ) {
+    this ( playerNo, playType, engine, GameSeeds.newSeed() );
+  }
+  
+  /**
+   * The constructor with a computer player engine and the seed of the game
+   * @param playerNo the no of the player. It should be either 1 or 2.
+   * @param playType the type of the player, either PlayerType.HumanPlayer or PlayerType.ComputerPlayer.
+   * @param engine the engine of a computer player.
+   * @param gameSeed the seed of the game. Players of the same number and seed make the same random choices.
+   */
+  public Player ( int playerNo, PlayerType playType, Engine engine, long gameSeed ) {
     this.playerNo = playerNo;
     this.playerType = playType;
+    this.engine = engine;
+    this.gameSeed = gameSeed;
   }
   
   // =============== METHODS ===============
@@ -102,6 +194,24 @@ public class Player {
     return playerType;
   }
   
+  /**
+   * getEngine
+   * Returns the computer player engine.
+   * @return the engine.
+   */
+  public Engine getEngine() {
+    return engine;
+  }
+  
+  /**
+   * getGameSeed
+   * Returns the seed of the game.
+   * @return the game seed.
+   */
+  public long getGameSeed() {
+    return gameSeed;
+  }
+  
   /**
    * getTheOtherPlayer
    * Returns the opponent player.
@@ -130,6 +240,25 @@ public class Player {
     theOtherPlayer.setTheOtherPlayer( this );
   }
   
+  /**
+   * getClock
+   * Returns the clock of the game.
+   * @return the clock, or null if the game has none.
+   */
+  public GameClock getClock() {
+    return clock;
+  }
+  
+  /**
+   * setClock
+   * Set the clock of the game. While the player's clock runs, a computer player thinks for the time its TimeManager
+   * allocates from the remaining time instead of MOVE_TIME_LIMIT_MILLIS.
+   * @param clock the clock, or null if the game has none.
+   */
+  public void setClock ( GameClock clock ) {
+    this.clock = clock;
+  }
+  
   /**
    * incrementStepsMoved
    * Increase the stepsMoved
@@ -140,23 +269,35 @@ public class Player {
   
   /**
    * toString
-   * Returns the string representation of the Player, based on the playerNo and playerType fields. It is used to be
+   * Returns the string representation of the Player, based on the playerNo, playerType and engine fields. It is used to be
    * displayed in the player selection drop-down list box.
-   * @returns the string representation of the Player, based on the playerNo and playerType fields.
+   * @returns the string representation of the Player, based on the playerNo, playerType and engine fields.
    */
    @Override
     public String toString() {
-    return ( this.playerType == PlayerType.HumanPlayer ? "Human Player #" : "Computer Player #" ) + Integer.toString( this.playerNo );
+    return ( this.playerType == PlayerType.HumanPlayer ? "Human Player #" : "Computer Player #" ) + Integer.toString( this.playerNo )
+      + ( this.playerType == PlayerType.ComputerPlayer && this.engine == Engine.MonteCarlo ? " (MCTS)" : "" )
+      + ( this.playerType == PlayerType.ComputerPlayer && this.engine == Engine.AlphaBeta ? " (Alpha-beta)" : "" );
   }
   
   /**
    * clone
-   * Creates and returns a copy of the Player object with the same playerNo and playerType value.
-   * @return a copy of the Player object with the same playerNo and playerType value.
+   * Creates and returns a copy of the Player object with the same playerNo, playerType, engine and game seed value.
+   * @return a copy of the Player object with the same playerNo, playerType, engine and game seed value.
    */
    @Override
     protected Player clone() {
-    return new Player ( this.playerNo, this.playerType );
+    return new Player ( this.playerNo, this.playerType, this.engine, this.gameSeed );
+  }
+  
+  /**
+   * forGame
+   * Creates a new Player object with the same playerNo, playerType and engine value for a game with the given seed.
+   * @param gameSeed the seed of the game.
+   * @return a new Player object for the game.
+   */
+  public Player forGame ( long gameSeed ) {
+    return new Player ( this.playerNo, this.playerType, this.engine, gameSeed );
   }
   
   /**
@@ -178,8 +319,32 @@ public class Player {
     }
   }
   
+  /**
+   * play
+   * The player moves one step on a headless engine Board instead of the game board cells, so that a computer player
+   * can think on a background thread while the cells stay with the event dispatch thread. See play(Cell[][][]).
+   * @param board the position, converted from the game board cells. It is left unchanged.
+   * @return the next best move's coordinate for a ComputerPlayer (or null to indicate cannot move, i.e., tie game) or null for a human player.
+   */
+  public Coordinate play ( Board board ) {
+    this.incrementStepsMoved();
+    if ( this.playerType == PlayerType.ComputerPlayer ) {
+      return calculateTheNextBestMove ( board );
+    } else {
+      return null;
+    }
+  }
+  
   /**
    * calculateTheNextBestMove
+   * Converts the cells to a headless engine Board. If the position is in the opening book of the board size, returns
+   * the book move. Otherwise the move time is MOVE_TIME_LIMIT_MILLIS, or the TimeManager's allocation while the
+   * player's game clock runs (see getMoveTimeMillis()). If few enough cells are blank (EndgameSolver.getMaxBlanks()),
+   * the EndgameSolver searches to the end of the game and returns the fastest win or the slowest loss; if it cannot
+   * finish within the move time, or otherwise, asks the engine for the next move. The MonteCarlo engine runs a
+   * MonteCarloSearch and the AlphaBeta engine an AlphaBetaSearch with the weights of the scoreFourGame.weights file
+   * for the rest of the move time, or they apply the rules at once if too little is left; the RuleBased engine applies
+   * the rules:
    * 1) If I have three beads (not necessarily consecutive) in a row and the 4th is BLANK, returns the coordinate of the 4th position.
    * 2) if the other player has three beads in a row and the 4th is BLANK, returns the coordinate of the 4th position.
    * 3) If I have two beads in a row and the rest positions in the same row are BLANK, returns either one of the BLANK position.
@@ -193,234 +358,89 @@ public class Player {
    * @return the next best move's coordinate for a ComputerPlayer, or null to indicate cannot move, i.e., tie game.
    */
   public Coordinate calculateTheNextBestMove ( Cell[][][] cells ) {
-    
-    Player player1 = new Player ( this.playerNo, Player.PlayerType.ComputerPlayer ); // setting as a computer player or human player doesn't affect the evaluation 
-    Player player2 = new Player ( this.theOtherPlayer.playerNo, Player.PlayerType.ComputerPlayer );
-    player1.setOpponent(player2);// this step is not necessary.
-    
-    Cell[][][] cellsCopyForEvaluation = makeACopy ( cells, player1, player2 );
-    
-    Cell[] availableMoves = calculateAvailableMoves(cells);
-    
-    if ( availableMoves.length == 0 ) {
-      return null;
-    }
-    
-    // Rule #1
-    Coordinate theNextBestMove = checkTheNextBestMove(cellsCopyForEvaluation, player1, 3, availableMoves);
-    if ( theNextBestMove != null ){
-      return theNextBestMove;
-    }
-    
-    // Rule #2
-    theNextBestMove = checkTheNextBestMove(cellsCopyForEvaluation, player2, 3, availableMoves);
-    if ( theNextBestMove != null ){
-      return theNextBestMove;
-    }
-    
-    // Rule #3
-    theNextBestMove = checkTheNextBestMove(cellsCopyForEvaluation, player1, 2, availableMoves);
-    if ( theNextBestMove != null ){
-      return theNextBestMove;
-    }
-    
-    // Rule #4
-    theNextBestMove = checkTheNextBestMove(cellsCopyForEvaluation, player2, 2, availableMoves);
-    if ( theNextBestMove != null ){
-      return theNextBestMove;
-    }
-    
-    // Rule #7
-    theNextBestMove = checkTheNextBestMove(cellsCopyForEvaluation, player1, 1, availableMoves);
-    if ( theNextBestMove != null ){
-      return theNextBestMove;
-    }
-    
-    // Rule #8
-    Cell cell = availableMoves [ (int) ( Math.random() * availableMoves.length ) ];
-    return new Coordinate ( cell.getLayer(), cell.getRow(), cell.getColumn() );
-    
+    return calculateTheNextBestMove ( BoardPanel.toBoard ( cells ) );
   }
   
   /**
-   * checkTheNextBestMove
-   * Calculate the next best move. The logic structure is similar to Game.checkWinner() method, i.e.,
-   * it iterates each cell and then invoke checkTheNextBestMoveInAllDirections() method to check the next best move
-   * in all directions (26 directions).
-   * @param cells the game board cells
-   * @param player the player against whom it will check 
-   * @param numOfBeadsInARow the number of beads in a line that it will check
-   * @param validMoves all possible moves (cells) that are valid at the current steps by the player (up to 16 moves/cells)  
+   * calculateTheNextBestMove
+   * Returns the next best move on a headless engine Board, see calculateTheNextBestMove(Cell[][][]).
+   * @param board the position. It is left unchanged.
    * @return the next best move's coordinate for a ComputerPlayer, or null to indicate cannot move, i.e., tie game.
    */
-  public Coordinate checkTheNextBestMove(Cell[][][] cells, Player player, int numOfBeadsInARow, Cell[] validMoves ) {
-    Set<Cell> recommendedMoves = new HashSet<>();
-    for ( int layer = 0; layer < BoardPanel.TOTAL_LAYERS; layer ++ ) {
-      for ( int row = 0; row < BoardPanel.TOTAL_ROWS; row ++ ) {
-        for ( int column = 0; column < BoardPanel.TOTAL_COLUMNS; column ++ ) {
-          Set<Cell> result = checkTheNextBestMoveInAllDirections ( cells, layer, row, column, player, numOfBeadsInARow );
-          if ( result.size() > 0 ) {
-            recommendedMoves.addAll( result );
-          }
-        }
-      }
+  public Coordinate calculateTheNextBestMove ( Board board ) {
+    prepareEngine();
+    OpeningBook book = OpeningBook.forBoard ( board );
+    int bookPillar = book == null ? -1 : book.lookup ( board );
+    int theNextBestMove = bookPillar >= 0 ? board.landingCell ( bookPillar ) : searchMove ( board, getMoveTimeMillis ( board ) );
+    if ( theNextBestMove < 0 ) {
+      return null;
     }
-    
-    return findAValidMoveRandomly ( recommendedMoves, validMoves );
+    return new Coordinate ( board.layerOf ( theNextBestMove ), board.rowOf ( theNextBestMove ), board.columnOf ( theNextBestMove ) );
   }
   
   /**
-   * findAValidMoveRandomly
-   * Randomly returns a coordinate from the recommendedMoves[] that is also in the validMoves[].
-   * @param recommendedMoves the recommended moves that calculated by checkTheNextBestMove() method and checkTheNextBestMoveInAllDirections() method.
-   * @param validMoves all possible moves (cells) that are valid at the current steps by the player (up to 16 moves/cells)  
-   * @return returns a randomly selected coordinate from the recommendedMoves[] that is also in the validMoves[].
+   * prepareEngine
+   * Creates the strategies, the endgame solver and the time manager of the engine, once. They hold search trees and
+   * position caches of several megabytes, so they are only created when a computer player is first asked for a move,
+   * and not for human players or the players of the selection drop-down list box.
    */
-  private Coordinate findAValidMoveRandomly(Set<Cell> recommendedMoves, Cell[] validMoves) {
-    List<Cell> recommendedAndValidMoves = new ArrayList<>();
-    for ( Cell recommendedMove : recommendedMoves ) {
-      for ( Cell validMove: validMoves ) {
-        if ( (recommendedMove.getLayer() == validMove.getLayer()) && (recommendedMove.getRow() == validMove.getRow()) && (recommendedMove.getColumn() == validMove.getColumn()) ) {
-          recommendedAndValidMoves.add ( recommendedMove );
-        }
-      }
-    }
-    if ( recommendedAndValidMoves.size() > 0 ) {
-      Cell randomlySelectedMove = recommendedAndValidMoves.get ( (int)( Math.random() * recommendedAndValidMoves.size() ) );
-      return new Coordinate ( randomlySelectedMove.getLayer(), randomlySelectedMove.getRow(), randomlySelectedMove.getColumn() );
-    } else {
-      return null;
+  private void prepareEngine() {
+    if ( strategy != null ) {
+      return;
     }
+    endgameSolver = new EndgameSolver ( Integer.getInteger ( EndgameSolver.MAX_BLANKS_PROPERTY, EndgameSolver.DEFAULT_MAX_BLANKS ),
+                                        MOVE_TIME_LIMIT_MILLIS );
+    timeManager = new TimeManager ( endgameSolver.getMaxBlanks() );
+    strategy = engine == Engine.MonteCarlo
+      ? new MonteCarloSearch ( Runtime.getRuntime().availableProcessors(), MOVE_TIME_LIMIT_MILLIS, GameSeeds.forPlayer ( gameSeed, playerNo ) )
+      : engine == Engine.AlphaBeta ? new AlphaBetaSearch() : new FastRuleBasedAI ( GameSeeds.forPlayer ( gameSeed, playerNo ) );
+    quickStrategy = engine != Engine.RuleBased ? new FastRuleBasedAI ( GameSeeds.forPlayer ( gameSeed, playerNo ) ) : strategy;
   }
   
   /**
-   * checkTheNextBestMoveInAllDirections
-   * Calculate the next best move. The logic structure is similar to Game.checkWinner() method, i.e.,
-   * it iterates each cell and then invoke checkTheNextBestMoveInAllDirections() method to check the next best move
-   * in all directions (26 directions).
-   * @param cells the game board cells
-   * @param layer the layer coordinate of the starting point to check for all directions.
-   * @param row the row coordinate of the starting point to check for all directions.
-   * @param column the column coordinate of the starting point to check for all directions.
-   * @param playerToCheck the player against whom it will check 
-   * @param numOfBeadsInARow the number of beads in a line that it will check
-   * @return the next best move's coordinate for a ComputerPlayer, or null to indicate cannot move, i.e., tie game.
+   * getMoveTimeMillis
+   * Returns the time the player may think about the move: MOVE_TIME_LIMIT_MILLIS, or while the player's game clock
+   * runs, the TimeManager's allocation of the remaining time. The allocation is more on critical positions, nothing on
+   * forced ones, and never so much that the player flags.
+   * @param board the position.
+   * @return the move time in milliseconds; less than TimeManager.MIN_SEARCH_MILLIS to move at once.
    */
-  private Set<Cell> checkTheNextBestMoveInAllDirections(Cell[][][] cells, int layer, int row, int column, Player playerToCheck,
-                                                        int numOfBeadsInARow) {
-    
-    Set<Cell> recommendedMoveToCells = new HashSet<>();
-    // iterate all directions: layer+/-1, row+/-1, column+/-1
-    for ( int layerDirectionFactor = -1; layerDirectionFactor <= 1; layerDirectionFactor ++ ) {
-      for ( int rowDirectionFactor = -1; rowDirectionFactor <= 1; rowDirectionFactor ++ ) {
-        for ( int columnDirectionFactor = -1; columnDirectionFactor <= 1; columnDirectionFactor ++ ) {
-          // do not execute the checking logic if layerDirectionFactor == rowDirectionFactor == columnDirectionFactor == 0
-          if ( (layerDirectionFactor != 0) || (rowDirectionFactor != 0) || (columnDirectionFactor != 0 ) ) {
-            Set<Cell> recommendedMoveToCellsForCurrentDirection = new HashSet<>();;
-            int totalSameBeadsInTheLine = 0;
-            int totalBlankBeadsInTheLine = 0;
-            boolean keepLooking = true;
-            for ( int k = 0; k < BoardPanel.TOTAL_BEADS_TO_WIN && keepLooking; k ++ ) {
-              int newLayer = layer+layerDirectionFactor*k;
-              int newRow = row+rowDirectionFactor*k;
-              int newColumn = column+columnDirectionFactor*k;
-              if ( (newLayer < 0) || (newLayer >= BoardPanel.TOTAL_LAYERS) ||
-                  (newRow < 0) || (newRow >= BoardPanel.TOTAL_ROWS) ||
-                  (newColumn < 0) || (newColumn >= BoardPanel.TOTAL_COLUMNS) ) {
-                // exceeds the boundary
-                keepLooking = false;
-              } else {
-                Player playerPlacedBeadInTheLine = cells[newLayer][newRow][newColumn].getBeadInCell();
-                if ( playerPlacedBeadInTheLine == null ) {
-                  // Blank cell
-                  recommendedMoveToCellsForCurrentDirection.add ( cells[newLayer][newRow][newColumn] );
-                  totalBlankBeadsInTheLine ++;
-                } else if ( playerPlacedBeadInTheLine == playerToCheck ) {
-                  totalSameBeadsInTheLine ++;
-                }
-              }
-            }
-            if ( (totalSameBeadsInTheLine == numOfBeadsInARow) && (totalBlankBeadsInTheLine + totalSameBeadsInTheLine == BoardPanel.TOTAL_BEADS_TO_WIN) ) {
-              // found pattern
-              recommendedMoveToCells.addAll ( recommendedMoveToCellsForCurrentDirection );
-            }
-          }
-        }
-      }
+  private long getMoveTimeMillis ( Board board ) {
+    if ( clock == null || clock.getRunningPlayer() != this.playerNo ) {
+      return MOVE_TIME_LIMIT_MILLIS;
     }
-    
-    return recommendedMoveToCells;
+    return timeManager.allocate ( board, clock.getRemainingMillis ( this.playerNo ), clock.getIncrementMillis() );
   }
   
   /**
-   * findAValidMoveRandomly
-   * Randomly returns a coordinate from the recommendedMoves[] that is also in the validMoves[].
-   * @param recommendedMoves the recommended moves that calculated by checkTheNextBestMoveFor2DSlice() method or checkTheNextBestMoveFor2DSlice() method.
-   * @param validMoves all possible moves (cells) that are valid at the current steps by the player (up to 16 moves/cells)  
-   * @return returns a randomly selected coordinate from the recommendedMoves[] that is also in the validMoves[].
-   */
-  @Deprecated
-  private Coordinate findAValidMoveRandomly(Coordinate[] recommendedMoves, Cell[] validMoves) {
-    List<Coordinate> recommendedAndValidMoves = new ArrayList<>();
-    for ( int k = 0; k < recommendedMoves.length; k ++ ) {
-      if ( recommendedMoves[k] != null ) {
-        for ( Cell validMove: validMoves ) {
-          if ( (recommendedMoves[k].layer == validMove.getLayer()) && (recommendedMoves[k].row == validMove.getRow()) && (recommendedMoves[k].column == validMove.getColumn()) ) {
-            recommendedAndValidMoves.add ( recommendedMoves[k] );
-          }
-        }
-      }
+   * searchMove
+   * Runs the EndgameSolver and then the engine within the move time. Both searches take a time limit of 0 as no limit,
+   * so a move time too short to search applies the rules at once instead.
+   * @param board the position.
+   * @param moveTimeMillis the move time in milliseconds.
+   * @return the cell index of the move, or -1 if there is no legal move.
+   */
+  private int searchMove ( Board board, long moveTimeMillis ) {
+    long deadline = System.nanoTime() + moveTimeMillis * 1000000;
+    int theNextBestMove = -1;
+    if ( moveTimeMillis >= TimeManager.MIN_SEARCH_MILLIS ) {
+      endgameSolver.setTimeLimit ( moveTimeMillis );
+      theNextBestMove = endgameSolver.selectMove ( board, this.playerNo );
     }
-    return recommendedAndValidMoves.size() == 0 ? null : recommendedAndValidMoves.get ( (int)( Math.random() * recommendedAndValidMoves.size() ) );
-  }
-  
-  /**
-   * calculateAvailableMoves
-   * Calculate all available moves based on the current cells.
-   * @param cells the board cell of the game.
-   * @return all available moves based on the current cells.
-   */
-  private Cell[] calculateAvailableMoves ( Cell[][][] cells ) {
-    List<Cell> availableMoves = new ArrayList<>();
-    for ( int row = 0; row < BoardPanel.TOTAL_ROWS ; row ++ ) {
-      for ( int column = 0; column < BoardPanel.TOTAL_COLUMNS ; column ++ ) {
-        boolean found = false;
-        for ( int layer = BoardPanel.TOTAL_LAYERS-1; (layer >= 0) && !found ; layer -- ) {
-          if ( cells[layer][row][column].getState() != Cell.State.Occupied ) {
-            availableMoves.add( cells[layer][row][column] );
-            found = true;
-          }
+    if ( theNextBestMove < 0 ) {
+      long leftMillis = (deadline - System.nanoTime()) / 1000000;
+      if ( strategy != quickStrategy && leftMillis >= TimeManager.MIN_SEARCH_MILLIS ) {
+        if ( strategy instanceof MonteCarloSearch ) {
+          ((MonteCarloSearch) strategy).setTimeLimit ( leftMillis );
+          ((MonteCarloSearch) strategy).reset();
+        } else {
+          ((AlphaBetaSearch) strategy).setTimeLimit ( leftMillis );
         }
+        theNextBestMove = strategy.selectMove ( board, this.playerNo );
+      } else {
+        theNextBestMove = quickStrategy.selectMove ( board, this.playerNo );
       }
     }
-    return availableMoves.toArray(new Cell[0]);
+    return theNextBestMove;
   }
-  
-  /**
-   * makeACopy
-   * Creates and returns a copy (not a reference) of the sourceCells. Player objects in the sourceCells[] will be
-   * replaced by the provided player1 and player2 objects.
-   * @param sourceCells the source cells that are copied from.
-   * @param player1 the player object to replace the original player object in the sourceCells.
-   * @param player2 the second player object to replace the original player object in the sourceCells.
-   * @return returns a copy (not a reference) of the sourceCells.
-   */
-  private Cell[][][] makeACopy ( Cell[][][] sourceCells, Player player1, Player player2 ) {
-    Cell[][][] targetCells = new Cell[sourceCells.length][sourceCells[0].length][sourceCells[0][0].length ];
-    for ( int i = 0; i < sourceCells.length; i ++ ) {
-      for ( int j = 0; j < sourceCells[i].length; j ++ ) {
-        for ( int k = 0; k < sourceCells.length; k ++ ) {
-          targetCells[i][j][k] = sourceCells[i][j][k].clone ( );
-          if ( targetCells[i][j][k].getBeadInCell() != null ) {
-            if ( targetCells[i][j][k].getBeadInCell().getPlayerNo() == player1.getPlayerNo() ) {
-              targetCells[i][j][k].setBeadInCell( player1 );
-            } else {
-              targetCells[i][j][k].setBeadInCell( player2 );
-            }
-          }
-        }
-      }
-    }
-    return targetCells;
-  } 
-}
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package scoreFourGame;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import scoreFourGame.engine.Board;
+
+/**
+ * RenderBenchmark
+ * Measures the cost of drawing the board: BoardPanel.paintComponent() and Cell.drawCell() paint into an offscreen
+ * image, without a window, for a half-filled random position of every board size from 4 to 10. Two kinds of frame
+ * are timed after a warm-up run:
+ * <ul>
+ * <li>full: the whole panel, as after a move or a resize.</li>
+ * <li>hover: the focused bead moves to another cell and only the two cells are repainted (the clip of a
+ * repaint(Rectangle)), the least a mouse move can cost.</li>
+ * </ul>
+ * It reports the frame time percentiles in microseconds and the bytes allocated per frame. With a budget, it exits
+ * with status 1 if the 99th percentile of a full frame exceeds it at any size, e.g., to catch a regression of the
+ * drawing code in a build.<p>
+ * Usage: RenderBenchmark [frames per size [budget ms]]
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class RenderBenchmark {
+
+  // =============== VARIABLES ===============
+  /**
+   * The allocation counter of the threads, or null if the JVM has none.
+   */
+  private static final com.sun.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+    ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+
+  /**
+   * No instances, the benchmark is main().
+   */
+  private RenderBenchmark() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Runs the benchmark.
+   * @param args optionally the number of frames of each kind per board size and the budget of a full frame in
+   *        milliseconds.
+   */
+  public static void main ( String[] args ) {
+    int frames = args.length > 0 ? Integer.parseInt ( args[0] ) : 200;
+    double budgetMillis = args.length > 1 ? Double.parseDouble ( args[1] ) : 0;
+    SpriteCache.preload ( BoardPanel.BackgroundImageFilename, Cell.PlacedPlayerOneImageFilename, Cell.PlacedPlayerTwoImageFilename,
+                          Cell.PlacingPlayerOneImageFilename, Cell.PlacingPlayerTwoImageFilename );
+    System.out.println ( "size   pixels      frame   p50 us   p90 us   p99 us   max us   bytes/frame" );
+    boolean overBudget = false;
+    for ( int size = 4; size <= 10; size ++ ) {
+      BoardPanel.setBoardSize ( size );
+      BoardPanel panel = new BoardPanel ( null );
+      panel.setSize ( panel.getPreferredSize() );
+      fillHalf ( panel, new SplittableRandom ( size ) );
+      BufferedImage image = createImage ( panel.getWidth(), panel.getHeight() );
+      String pixels = panel.getWidth() + "x" + panel.getHeight();
+      // the first run of each kind warms up the JIT and the sprite caches of Java 2D
+      measureFull ( panel, image, frames );
+      long[] full = measureFull ( panel, image, frames );
+      report ( size, pixels, "full", full );
+      measureHover ( panel, image, frames );
+      report ( size, pixels, "hover", measureHover ( panel, image, frames ) );
+      if ( budgetMillis > 0 && percentile ( full, 0.99 ) > budgetMillis * 1e6 ) {
+        System.out.printf ( "%d: the 99th percentile of a full frame is over the budget of %.1f ms%n", size, budgetMillis );
+        overBudget = true;
+      }
+    }
+    BoardPanel.setBoardSize ( 4 );
+    if ( overBudget ) {
+      System.exit ( 1 );
+    }
+  }
+
+  /**
+   * createImage
+   * @param width the width.
+   * @param height the height.
+   * @return an image like the back buffer of a window: compatible with the screen, or RGB without a screen.
+   */
+  private static BufferedImage createImage ( int width, int height ) {
+    if ( GraphicsEnvironment.isHeadless() ) {
+      return new BufferedImage ( width, height, BufferedImage.TYPE_INT_RGB );
+    }
+    return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+      .createCompatibleImage ( width, height, Transparency.OPAQUE );
+  }
+
+  /**
+   * fillHalf
+   * Drops beads of alternating players into random pillars until half of the cells are full. Random play usually
+   * completes a line early on a large board, so the beads are set in the cells directly, like LineKernelBenchmark
+   * sets them; only the drawing is measured.
+   * @param panel the panel, with an empty board.
+   * @param random the random source.
+   */
+  private static void fillHalf ( BoardPanel panel, SplittableRandom random ) {
+    Player[] players = { null, new Player ( 1, Player.PlayerType.HumanPlayer ), new Player ( 2, Player.PlayerType.HumanPlayer ) };
+    Board board = new Board ( BoardPanel.TOTAL_LAYERS, BoardPanel.TOTAL_ROWS, BoardPanel.TOTAL_COLUMNS, BoardPanel.TOTAL_BEADS_TO_WIN );
+    for ( int bead = 0; bead < board.getCellCount() / 2; bead ++ ) {
+      int pillar;
+      do {
+        pillar = random.nextInt ( board.getPillarCount() );
+      } while ( board.getHeight ( pillar ) == board.getLayers() );
+      int cell = board.landingCell ( pillar );
+      int playerNo = 1 + bead % 2;
+      board.setBead ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), playerNo );
+      panel.setCell ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), players[playerNo], Cell.State.Occupied );
+    }
+    panel.setCurrentPlayer ( players[1] );
+  }
+
+  /**
+   * measureFull
+   * @param panel the panel.
+   * @param image the image to paint into.
+   * @param frames the number of frames.
+   * @return the nanoseconds of each frame, sorted, then the bytes allocated by all frames.
+   */
+  private static long[] measureFull ( BoardPanel panel, BufferedImage image, int frames ) {
+    long[] nanos = new long[frames + 1];
+    long allocated = allocatedBytes();
+    for ( int i = 0; i < frames; i ++ ) {
+      long start = System.nanoTime();
+      Graphics2D g = image.createGraphics();
+      panel.paintComponent ( g );
+      g.dispose();
+      nanos[i] = System.nanoTime() - start;
+    }
+    nanos[frames] = allocatedBytes() - allocated;
+    Arrays.sort ( nanos, 0, frames );
+    return nanos;
+  }
+
+  /**
+   * measureHover
+   * Moves the focused bead back and forth between the landing cells of two pillars and repaints the two cells.
+   * @param panel the panel.
+   * @param image the image to paint into.
+   * @param frames the number of frames.
+   * @return the nanoseconds of each frame, sorted, then the bytes allocated by all frames.
+   */
+  private static long[] measureHover ( BoardPanel panel, BufferedImage image, int frames ) {
+    Cell[][][] cells = panel.getCells();
+    Cell[] hovered = { firstLandingCell ( cells, false ), firstLandingCell ( cells, true ) };
+    Rectangle clip = cellBounds ( hovered[0] ).union ( cellBounds ( hovered[1] ) );
+    long[] nanos = new long[frames + 1];
+    long allocated = allocatedBytes();
+    for ( int i = 0; i < frames; i ++ ) {
+      long start = System.nanoTime();
+      hovered[i % 2].setState ( Cell.State.Focused );
+      hovered[(i + 1) % 2].setState ( Cell.State.Blank );
+      Graphics2D g = image.createGraphics();
+      g.setClip ( clip );
+      panel.paintComponent ( g );
+      g.dispose();
+      nanos[i] = System.nanoTime() - start;
+    }
+    nanos[frames] = allocatedBytes() - allocated;
+    hovered[0].setState ( Cell.State.Blank );
+    hovered[1].setState ( Cell.State.Blank );
+    Arrays.sort ( nanos, 0, frames );
+    return nanos;
+  }
+
+  /**
+   * firstLandingCell
+   * @param cells the cells of the panel.
+   * @param last true for the last pillar with a blank cell, false for the first.
+   * @return the lowest blank cell of the pillar, where a bead would land.
+   */
+  private static Cell firstLandingCell ( Cell[][][] cells, boolean last ) {
+    int rows = cells[0].length;
+    int columns = cells[0][0].length;
+    for ( int i = 0; i < rows * columns; i ++ ) {
+      int pillar = last ? rows * columns - 1 - i : i;
+      // layer 0 is the top layer
+      for ( int layer = cells.length - 1; layer >= 0; layer -- ) {
+        Cell cell = cells[layer][pillar / columns][pillar % columns];
+        if ( cell.getState() == Cell.State.Blank ) {
+          return cell;
+        }
+      }
+    }
+    throw new IllegalStateException ( "The board is full" );
+  }
+
+  /**
+   * cellBounds
+   * @param cell a cell.
+   * @return the rectangle that holds the cell's outline and bead, as drawn by Cell.drawCell().
+   */
+  private static Rectangle cellBounds ( Cell cell ) {
+    int[] cornerX = new int[4];
+    int[] cornerY = new int[4];
+    Cell.computeCorners ( cell.getLayer(), cell.getRow(), cell.getColumn(), BoardPanel.TOTAL_ROWS, cornerX, cornerY );
+    Rectangle bounds = new Rectangle ( cornerX[3], cornerY[0], cornerX[1] - cornerX[3] + 1, cornerY[3] - cornerY[0] + 1 );
+    BufferedImage bead = SpriteCache.getSprite ( Cell.PlacingPlayerOneImageFilename );
+    return bounds.union ( new Rectangle ( cornerX[0] + 5, cornerY[0] - 25, bead.getWidth(), bead.getHeight() ) );
+  }
+
+  /**
+   * allocatedBytes
+   * @return the bytes allocated by the current thread so far, or 0 if the JVM does not count them.
+   */
+  private static long allocatedBytes() {
+    return threads == null ? 0 : threads.getThreadAllocatedBytes ( Thread.currentThread().getId() );
+  }
+
+  /**
+   * report
+   * Prints a line of the table.
+   * @param size the board size.
+   * @param pixels the image size.
+   * @param kind the kind of frame.
+   * @param nanos the sorted nanoseconds of each frame, then the bytes allocated by all frames.
+   */
+  private static void report ( int size, String pixels, String kind, long[] nanos ) {
+    int frames = nanos.length - 1;
+    System.out.printf ( "%4d %10s %8s %8d %8d %8d %8d %13d%n", size, pixels, kind, percentile ( nanos, 0.5 ) / 1000, percentile ( nanos, 0.9 ) / 1000,
+                        percentile ( nanos, 0.99 ) / 1000, nanos[frames - 1] / 1000, nanos[frames] / frames );
+  }
+
+  /**
+   * percentile
+   * @param nanos the sorted nanoseconds of each frame, then the bytes allocated by all frames.
+   * @param fraction the percentile as a fraction, e.g., 0.99.
+   * @return the frame time at the percentile, in nanoseconds.
+   */
+  private static long percentile ( long[] nanos, double fraction ) {
+    int frames = nanos.length - 1;
+    return nanos[(int) Math.min ( frames - 1, Math.floor ( fraction * frames ) )];
+  }
+}
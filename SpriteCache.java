@@ -0,0 +1,120 @@
+package scoreFourGame;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.imageio.ImageIO;
+
+/**
+ * SpriteCache
+ * A shared cache of the game images (the planet beads and the background). Images are loaded lazily on first use
+ * from the classpath (next to the scoreFourGame classes), falling back to the working directory, and are converted
+ * once to an image type that is compatible with the display, so that drawing them does not require a conversion
+ * on every repaint. All panels share the same cached copies.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class SpriteCache {
+
+  // =============== VARIABLES ===============
+  /**
+   * The loaded and converted images, keyed by the image file name.
+   */
+  private static final ConcurrentMap<String, BufferedImage> sprites = new ConcurrentHashMap<>();
+
+  /**
+   * The image returned for a file that cannot be loaded. It is cached too, so a missing file is reported only once.
+   */
+  private static final BufferedImage missingSprite = new BufferedImage ( 1, 1, BufferedImage.TYPE_INT_ARGB );
+
+  /**
+   * No instances, all methods are static.
+   */
+  private SpriteCache() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * getSprite
+   * Returns the display-compatible image of the given file name, loading and converting it on first use.
+   * @param filename the image file name, e.g., Cell.PlacedPlayerOneImageFilename.
+   * @return the cached image, or a 1x1 transparent image if the file cannot be loaded.
+   */
+  public static BufferedImage getSprite ( String filename ) {
+    return sprites.computeIfAbsent ( filename, SpriteCache::loadSprite );
+  }
+
+  /**
+   * preload
+   * Loads and converts the given images now, e.g., on a background thread before the first repaint.
+   * @param filenames the image file names to load.
+   */
+  public static void preload ( String... filenames ) {
+    for ( String filename : filenames ) {
+      getSprite ( filename );
+    }
+  }
+
+  /**
+   * loadSprite
+   * Reads the image from the classpath (or from the working directory if it is not on the classpath) and converts it.
+   * @param filename the image file name.
+   * @return the converted image, or the missingSprite if the image cannot be read.
+   */
+  private static BufferedImage loadSprite ( String filename ) {
+    try {
+      BufferedImage image = null;
+      try ( InputStream in = SpriteCache.class.getResourceAsStream ( filename ) ) {
+        if ( in != null ) {
+          image = ImageIO.read ( in );
+        }
+      }
+      if ( image == null ) {
+        File file = new File ( filename );
+        if ( file.isFile() ) {
+          image = ImageIO.read ( file );
+        }
+      }
+      if ( image == null ) {
+        System.err.println ( "Image not found: " + filename );
+        return missingSprite;
+      }
+      return toCompatibleImage ( image );
+    } catch (IOException e) {
+      System.err.println ( "Cannot read image " + filename + ": " + e.getMessage() );
+      return missingSprite;
+    }
+  }
+
+  /**
+   * toCompatibleImage
+   * Copies the image into an image whose layout matches the screen (or into a premultiplied ARGB image when there is
+   * no screen), which is the fastest to draw.
+   * @param image the image as read from the file.
+   * @return the converted image.
+   */
+  private static BufferedImage toCompatibleImage ( BufferedImage image ) {
+    BufferedImage converted;
+    if ( GraphicsEnvironment.isHeadless() ) {
+      converted = new BufferedImage ( image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE );
+    } else {
+      GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+      if ( image.getColorModel().equals ( configuration.getColorModel ( image.getTransparency() ) ) ) {
+        return image;
+      }
+      converted = configuration.createCompatibleImage ( image.getWidth(), image.getHeight(), image.getTransparency() == Transparency.OPAQUE ? Transparency.OPAQUE : Transparency.TRANSLUCENT );
+    }
+    Graphics2D g = converted.createGraphics();
+    g.drawImage ( image, 0, 0, null );
+    g.dispose();
+    return converted;
+  }
+}
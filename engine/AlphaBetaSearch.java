@@ -0,0 +1,580 @@
+package scoreFourGame.engine;
+import java.util.Arrays;
+
+/**
+ * AlphaBetaSearch
+ * A look-ahead computer player: an iterative-deepening negamax search with alpha-beta pruning, a PositionCache
+ * (transposition table) and the LineEvaluator at the leaves, which scores the LineCounts the search keeps up to date
+ * with its LineKernel. Scores are from the point of view of the player to move; a won position scores WIN_SCORE minus
+ * the number of plies to the win, so faster wins score higher.<p>
+ * A search instance is not thread-safe, except for stop(), which may be called from any thread.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class AlphaBetaSearch implements MoveStrategy {
+
+  /**
+   * IterationListener
+   * Receives the result of every completed iteration of a search, e.g., to report the progress of a long search.
+   * It is called on the searching thread.
+   */
+  public interface IterationListener {
+
+    /**
+     * iterationCompleted
+     * @param depth the depth of the iteration in plies.
+     * @param pillar the best pillar of the iteration.
+     * @param score the score of the best pillar, for the player to move.
+     * @param nodes the number of positions visited so far by the search.
+     */
+    void iterationCompleted ( int depth, int pillar, int score, long nodes );
+  }
+
+  // =============== VARIABLES ===============
+  /**
+   * The score of a win on the next move. A win in n plies scores WIN_SCORE - n + 1.
+   */
+  public static final int WIN_SCORE = 1000000;
+
+  /**
+   * Scores above this value (or below its negation) are wins (or losses) at a known distance.
+   */
+  public static final int WIN_THRESHOLD = WIN_SCORE - 10000;
+
+  /**
+   * Cache entry flag: the score is exact.
+   */
+  static final int EXACT = 1;
+
+  /**
+   * Cache entry flag: the score is a lower bound (the search failed high).
+   */
+  static final int LOWER_BOUND = 2;
+
+  /**
+   * Cache entry flag: the score is an upper bound (the search failed low).
+   */
+  static final int UPPER_BOUND = 3;
+
+  /**
+   * The static evaluation.
+   */
+  private LineEvaluator evaluator;
+
+  /**
+   * The transposition table.
+   */
+  private PositionCache cache;
+
+  /**
+   * The maximum search depth in plies.
+   */
+  private int maxDepth = 6;
+
+  /**
+   * The time limit of a search in milliseconds, or 0 for no limit.
+   */
+  private long timeLimitMillis = 0;
+
+  /**
+   * Set by stop() or when the time limit is reached; the search returns as soon as it sees it.
+   */
+  private volatile boolean stopped = false;
+
+  /**
+   * The time (System.nanoTime()) at which the search must stop, or Long.MAX_VALUE.
+   */
+  private long deadline;
+
+  /**
+   * The number of positions visited by the last search.
+   */
+  private long nodes;
+
+  /**
+   * The best pillar found by the last search, or -1.
+   */
+  private int bestPillar = -1;
+
+  /**
+   * The score of the best pillar found by the last search.
+   */
+  private int score;
+
+  /**
+   * The deepest completed iteration of the last search.
+   */
+  private int completedDepth;
+
+  /**
+   * The listener of the completed iterations, or null.
+   */
+  private IterationListener iterationListener;
+
+  /**
+   * The move lists of each ply, reused between searches.
+   */
+  private int[][] moveBuffers = new int[0][];
+
+  /**
+   * The pillars of the current board size ordered from the centre outwards, the static move order.
+   */
+  private int[] pillarOrder = new int[0];
+
+  /**
+   * The bead counts of the lines of the searched position, kept up to date move by move for the LineKernel of the
+   * evaluator.
+   */
+  private LineCounts counts;
+
+  /**
+   * The constructor with the default evaluation. The transposition table is the process-wide MappedPositionCache
+   * if the scoreFourGame.positionCache system property names a cache file, or a 4 MB HeapPositionCache otherwise.
+   */
+  public AlphaBetaSearch() {
+    this ( null, defaultCache() );
+  }
+
+  /**
+   * The constructor.
+   * @param evaluator the static evaluation, or null for LineEvaluator.forBeadsToWin() of the board size.
+   * @param cache the transposition table.
+   */
+  public AlphaBetaSearch ( LineEvaluator evaluator, PositionCache cache ) {
+    this.evaluator = evaluator;
+    this.cache = cache;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * defaultCache
+   * @return the shared MappedPositionCache if one is configured, or a new 4 MB HeapPositionCache.
+   */
+  private static PositionCache defaultCache() {
+    PositionCache shared = MappedPositionCache.shared();
+    return shared != null ? shared : new HeapPositionCache ( 18 );
+  }
+
+  /**
+   * setMaxDepth
+   * @param maxDepth the maximum search depth in plies.
+   */
+  public void setMaxDepth ( int maxDepth ) {
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * getMaxDepth
+   * @return the maximum search depth in plies.
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * setTimeLimit
+   * @param timeLimitMillis the time limit of a search in milliseconds, or 0 for no limit.
+   */
+  public void setTimeLimit ( long timeLimitMillis ) {
+    this.timeLimitMillis = timeLimitMillis;
+  }
+
+  /**
+   * setCache
+   * @param cache the transposition table to use from the next search.
+   */
+  public void setCache ( PositionCache cache ) {
+    this.cache = cache;
+  }
+
+  /**
+   * setIterationListener
+   * @param iterationListener the listener of the completed iterations, or null.
+   */
+  public void setIterationListener ( IterationListener iterationListener ) {
+    this.iterationListener = iterationListener;
+  }
+
+  /**
+   * stop
+   * Asks a running search to return as soon as possible with the result of the last completed iteration.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * selectMove
+   * Searches the position and returns the best move.
+   * @param board the current position.
+   * @param playerNo the player number (1 or 2) to move; it must be the board's player to move.
+   * @return the cell index of the best move, or -1 if there is no legal move.
+   */
+  @Override
+  public int selectMove ( Board board, int playerNo ) {
+    int pillar = search ( board );
+    return pillar < 0 ? -1 : board.landingCell ( pillar );
+  }
+
+  /**
+   * search
+   * Runs the iterative-deepening search from depth 1 to the maximum depth, the time limit or stop().
+   * @param board the position to search. It is left unchanged.
+   * @return the best pillar, or -1 if there is no legal move.
+   */
+  public int search ( Board board ) {
+    stopped = false;
+    deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1000000 : Long.MAX_VALUE;
+    nodes = 0;
+    bestPillar = -1;
+    score = 0;
+    completedDepth = 0;
+    prepare ( board );
+    if ( board.isGameOver() ) {
+      return -1;
+    }
+    for ( int depth = 1; depth <= maxDepth && depth <= board.getBlankCount(); depth ++ ) {
+      int iterationBest = searchRoot ( board, depth );
+      if ( stopped && completedDepth > 0 ) {
+        break;
+      }
+      bestPillar = iterationBest;
+      completedDepth = depth;
+      if ( iterationListener != null ) {
+        iterationListener.iterationCompleted ( depth, bestPillar, score, nodes );
+      }
+      if ( stopped || Math.abs ( score ) >= WIN_THRESHOLD ) {
+        break;
+      }
+    }
+    return bestPillar;
+  }
+
+  /**
+   * scoreMoves
+   * Scores every legal move of the position with a full-window search to the depth, e.g., for a hint heatmap. This
+   * is slower than search(), which only proves that the other moves are no better than the best one. Unlike search(),
+   * it does not clear an earlier stop(), so another thread can stop a series of calls at any time.
+   * @param board the position. It is left unchanged.
+   * @param depth the depth in plies, at least 1.
+   * @param scores the array to fill with the score of each pillar for the player to move; the scores of full pillars
+   *        are left unchanged.
+   * @return true if every move was scored, false if the search was stopped first.
+   */
+  public boolean scoreMoves ( Board board, int depth, int[] scores ) {
+    deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1000000 : Long.MAX_VALUE;
+    nodes = 0;
+    prepare ( board );
+    if ( board.isGameOver() ) {
+      return !stopped;
+    }
+    int[] moves = moveBuffers[0];
+    int moveCount = orderMoves ( board, -1, moves );
+    for ( int i = 0; i < moveCount && !stopped; i ++ ) {
+      play ( board, moves[i] );
+      int moveScore = -negamax ( board, depth - 1, -WIN_SCORE - 1, WIN_SCORE + 1, 1 );
+      takeBack ( board );
+      if ( !stopped ) {
+        scores[moves[i]] = moveScore;
+      }
+    }
+    return !stopped;
+  }
+
+  /**
+   * prepare
+   * Sets up the evaluator, move buffers and move order for the board size, and counts the beads of the lines.
+   * @param board the position to search.
+   */
+  private void prepare ( Board board ) {
+    if ( evaluator == null || evaluator.getWeights().length != board.getBeadsToWin() ) {
+      evaluator = LineEvaluator.forBeadsToWin ( board.getBeadsToWin() );
+    }
+    if ( moveBuffers.length != board.getCellCount() + 1 || pillarOrder.length != board.getPillarCount() ) {
+      moveBuffers = new int[board.getCellCount() + 1][board.getPillarCount()];
+      pillarOrder = centreFirstOrder ( board.getRows(), board.getColumns() );
+    }
+    counts = new LineCounts ( board );
+  }
+
+  /**
+   * play
+   * Drops a bead of the player to move into the pillar and counts it.
+   * @param board the position.
+   * @param pillar the pillar index.
+   */
+  private void play ( Board board, int pillar ) {
+    int cell = board.drop ( pillar );
+    counts.add ( cell, board.getBead ( cell ) );
+  }
+
+  /**
+   * takeBack
+   * Takes back the last move played through play() and uncounts it.
+   * @param board the position.
+   */
+  private void takeBack ( Board board ) {
+    int cell = board.undo();
+    counts.remove ( cell, board.getPlayerToMove() );
+  }
+
+  /**
+   * centreFirstOrder
+   * Orders the pillars by distance from the centre of the board; central pillars belong to more lines.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @return the pillar indexes, the most central first.
+   */
+  static int[] centreFirstOrder ( int rows, int columns ) {
+    Integer[] pillars = new Integer[rows * columns];
+    for ( int pillar = 0; pillar < pillars.length; pillar ++ ) {
+      pillars[pillar] = pillar;
+    }
+    Arrays.sort ( pillars, ( a, b ) -> Double.compare ( distanceFromCentre ( a, rows, columns ), distanceFromCentre ( b, rows, columns ) ) );
+    int[] order = new int[pillars.length];
+    for ( int i = 0; i < order.length; i ++ ) {
+      order[i] = pillars[i];
+    }
+    return order;
+  }
+
+  /**
+   * distanceFromCentre
+   * @param pillar the pillar index.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @return the squared distance of the pillar from the centre of the board.
+   */
+  private static double distanceFromCentre ( int pillar, int rows, int columns ) {
+    double row = pillar / columns - (rows - 1) / 2.0;
+    double column = pillar % columns - (columns - 1) / 2.0;
+    return row * row + column * column;
+  }
+
+  /**
+   * searchRoot
+   * Searches all root moves to the depth.
+   * @param board the position to search.
+   * @param depth the depth in plies.
+   * @return the best pillar of this iteration.
+   */
+  private int searchRoot ( Board board, int depth ) {
+    int[] moves = moveBuffers[0];
+    int moveCount = orderMoves ( board, bestPillar, moves );
+    int alpha = -WIN_SCORE - 1;
+    int iterationBest = moves[0];
+    for ( int i = 0; i < moveCount; i ++ ) {
+      play ( board, moves[i] );
+      int moveScore = -negamax ( board, depth - 1, -WIN_SCORE - 1, -alpha, 1 );
+      takeBack ( board );
+      if ( stopped ) {
+        break;
+      }
+      if ( moveScore > alpha ) {
+        alpha = moveScore;
+        iterationBest = moves[i];
+      }
+    }
+    if ( !stopped ) {
+      score = alpha;
+    }
+    return iterationBest;
+  }
+
+  /**
+   * negamax
+   * The alpha-beta search of a position.
+   * @param board the position.
+   * @param depth the remaining depth in plies.
+   * @param alpha the lower bound of the score window.
+   * @param beta the upper bound of the score window.
+   * @param ply the distance from the root.
+   * @return the score of the position for the player to move.
+   */
+  private int negamax ( Board board, int depth, int alpha, int beta, int ply ) {
+    nodes ++;
+    if ( (nodes & 1023) == 0 && System.nanoTime() > deadline ) {
+      stopped = true;
+    }
+    if ( stopped ) {
+      return 0;
+    }
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      // the previous move won
+      return -(WIN_SCORE - ply + 1);
+    }
+    if ( board.getBlankCount() == 0 ) {
+      return 0;
+    }
+    if ( depth == 0 ) {
+      return evaluator.evaluate ( counts, board.getPlayerToMove() );
+    }
+
+    long hash = board.getHash();
+    long entry = cache.probe ( hash );
+    int cachedPillar = -1;
+    if ( entry != 0 ) {
+      cachedPillar = entryPillar ( entry );
+      if ( entryDepth ( entry ) >= depth ) {
+        int cachedScore = fromCacheScore ( entryScore ( entry ), ply );
+        int flag = entryFlag ( entry );
+        if ( flag == EXACT || (flag == LOWER_BOUND && cachedScore >= beta) || (flag == UPPER_BOUND && cachedScore <= alpha) ) {
+          return cachedScore;
+        }
+      }
+    }
+
+    int[] moves = moveBuffers[ply];
+    int moveCount = orderMoves ( board, cachedPillar, moves );
+    int originalAlpha = alpha;
+    int best = -WIN_SCORE - 1;
+    int bestMove = moves[0];
+    for ( int i = 0; i < moveCount; i ++ ) {
+      play ( board, moves[i] );
+      int moveScore = -negamax ( board, depth - 1, -beta, -alpha, ply + 1 );
+      takeBack ( board );
+      if ( stopped ) {
+        return 0;
+      }
+      if ( moveScore > best ) {
+        best = moveScore;
+        bestMove = moves[i];
+        if ( best > alpha ) {
+          alpha = best;
+          if ( alpha >= beta ) {
+            break;
+          }
+        }
+      }
+    }
+    int flag = best <= originalAlpha ? UPPER_BOUND : best >= beta ? LOWER_BOUND : EXACT;
+    cache.store ( hash, packEntry ( toCacheScore ( best, ply ), depth, flag, bestMove ) );
+    return best;
+  }
+
+  /**
+   * orderMoves
+   * Writes the legal moves in search order: the preferred pillar first, then from the centre outwards.
+   * @param board the position.
+   * @param preferredPillar the pillar to search first (from the cache or the previous iteration), or -1.
+   * @param moves the array to fill.
+   * @return the number of moves.
+   */
+  private int orderMoves ( Board board, int preferredPillar, int[] moves ) {
+    int count = 0;
+    if ( preferredPillar >= 0 && preferredPillar < pillarOrder.length && board.isPillarAvailable ( preferredPillar ) ) {
+      moves[count ++] = preferredPillar;
+    }
+    for ( int pillar : pillarOrder ) {
+      if ( pillar != preferredPillar && board.isPillarAvailable ( pillar ) ) {
+        moves[count ++] = pillar;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * toCacheScore
+   * Converts a win/loss score from "plies from the root" to "plies from this position" for storing.
+   * @param score the score.
+   * @param ply the distance from the root.
+   * @return the score to store.
+   */
+  static int toCacheScore ( int score, int ply ) {
+    return score > WIN_THRESHOLD ? score + ply : score < -WIN_THRESHOLD ? score - ply : score;
+  }
+
+  /**
+   * fromCacheScore
+   * The inverse of toCacheScore().
+   * @param score the stored score.
+   * @param ply the distance from the root.
+   * @return the score relative to the root.
+   */
+  static int fromCacheScore ( int score, int ply ) {
+    return score > WIN_THRESHOLD ? score - ply : score < -WIN_THRESHOLD ? score + ply : score;
+  }
+
+  /**
+   * packEntry
+   * Packs a cache entry: score (32 bits), depth (8 bits), flag (2 bits, never 0) and pillar (12 bits).
+   * @param score the score.
+   * @param depth the search depth.
+   * @param flag EXACT, LOWER_BOUND or UPPER_BOUND.
+   * @param pillar the best pillar.
+   * @return the packed entry.
+   */
+  static long packEntry ( int score, int depth, int flag, int pillar ) {
+    return ((long) score << 32) | ((long) Math.min ( depth, 255 ) << 14) | ((long) flag << 12) | (pillar & 0xFFF);
+  }
+
+  /**
+   * entryScore
+   * @param entry the packed entry.
+   * @return the stored score.
+   */
+  static int entryScore ( long entry ) {
+    return (int) (entry >> 32);
+  }
+
+  /**
+   * entryDepth
+   * @param entry the packed entry.
+   * @return the stored depth.
+   */
+  static int entryDepth ( long entry ) {
+    return (int) (entry >>> 14) & 0xFF;
+  }
+
+  /**
+   * entryFlag
+   * @param entry the packed entry.
+   * @return the stored flag.
+   */
+  static int entryFlag ( long entry ) {
+    return (int) (entry >>> 12) & 0x3;
+  }
+
+  /**
+   * entryPillar
+   * @param entry the packed entry.
+   * @return the stored pillar.
+   */
+  static int entryPillar ( long entry ) {
+    return (int) entry & 0xFFF;
+  }
+
+  /**
+   * getNodes
+   * @return the number of positions visited by the last search.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * getBestPillar
+   * @return the best pillar found by the last search, or -1.
+   */
+  public int getBestPillar() {
+    return bestPillar;
+  }
+
+  /**
+   * getScore
+   * @return the score of the best pillar found by the last search, for the player to move.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * getCompletedDepth
+   * @return the deepest completed iteration of the last search.
+   */
+  public int getCompletedDepth() {
+    return completedDepth;
+  }
+}
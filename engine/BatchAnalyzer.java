@@ -0,0 +1,451 @@
+package scoreFourGame.engine;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * BatchAnalyzer
+ * Scores and best moves for large numbers of positions, e.g., every position of an archive of games. Positions are
+ * read from an iterator of Requests (an id, a GameRecord and the number of its moves that lead to the position; the
+ * requests of the positions of a game share its record) and
+ * searched with AlphaBetaSearch on a work-stealing ForkJoinPool. Every worker thread keeps its own search, cache and
+ * one reusable Board per board size, so a position costs no allocation beyond its Result. Only a bounded number of
+ * positions is in flight, so the input can be much larger than the heap.<p>
+ * The Results are passed to the consumer on the calling thread, in input order or, unordered, as soon as they are
+ * done; each carries the id of its request. A worker's cache keeps what it learned from its previous positions, so a
+ * depth-limited score or best move can differ slightly between runs with a different number of threads.<p>
+ * Usage: BatchAnalyzer &lt;game-record file&gt; [-depth plies] [-movetime ms] [-threads n] [-all] [-unordered]
+ * prints "game ply bestPillar score depth nodes" for the final position of each game (with -all, for every position)
+ * and the throughput on standard error.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class BatchAnalyzer {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of positions in flight per worker thread.
+   */
+  private static final int IN_FLIGHT_PER_THREAD = 64;
+
+  /**
+   * A position to analyze.
+   */
+  public static final class Request {
+    /**
+     * The id of the request, returned with its result.
+     */
+    public final long id;
+
+    /**
+     * The game whose first moves lead from the empty board to the position (the result of the record is not used).
+     */
+    public final GameRecord position;
+
+    /**
+     * The number of moves of the game that lead to the position.
+     */
+    public final int ply;
+
+    /**
+     * The constructor of the position after all moves of a record.
+     * @param id the id of the request.
+     * @param position the moves from the empty board to the position.
+     */
+    public Request ( long id, GameRecord position ) {
+      this ( id, position, position.getMoveCount() );
+    }
+
+    /**
+     * The constructor of the position after the first moves of a record.
+     * @param id the id of the request.
+     * @param position the game whose first moves lead to the position.
+     * @param ply the number of moves, from 0 to the move count of the record.
+     */
+    public Request ( long id, GameRecord position, int ply ) {
+      if ( ply < 0 || ply > position.getMoveCount() ) {
+        throw new IllegalArgumentException ( "Invalid ply " + ply );
+      }
+      this.id = id;
+      this.position = position;
+      this.ply = ply;
+    }
+  }
+
+  /**
+   * The analysis of a position.
+   */
+  public static final class Result {
+    /**
+     * The id of the request.
+     */
+    public final long id;
+
+    /**
+     * The best pillar, or -1 if the game is over or the moves are not legal.
+     */
+    public final int bestPillar;
+
+    /**
+     * The score of the best pillar for the player to move (see AlphaBetaSearch).
+     */
+    public final int score;
+
+    /**
+     * The deepest completed search depth.
+     */
+    public final int depth;
+
+    /**
+     * The number of positions searched.
+     */
+    public final long nodes;
+
+    /**
+     * The constructor.
+     * @param id the id of the request.
+     * @param bestPillar the best pillar, or -1.
+     * @param score the score.
+     * @param depth the depth.
+     * @param nodes the number of positions searched.
+     */
+    private Result ( long id, int bestPillar, int score, int depth, long nodes ) {
+      this.id = id;
+      this.bestPillar = bestPillar;
+      this.score = score;
+      this.depth = depth;
+      this.nodes = nodes;
+    }
+  }
+
+  /**
+   * The pool of worker threads.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * The search state of each worker thread.
+   */
+  private final ThreadLocal<Worker> workers;
+
+  /**
+   * The number of positions analyzed.
+   */
+  private long positions = 0;
+
+  /**
+   * The number of search nodes of all positions.
+   */
+  private long nodes = 0;
+
+  /**
+   * The time spent in analyze(), in nanoseconds.
+   */
+  private long elapsedNanos = 0;
+
+  /**
+   * The constructor.
+   * @param threads the number of worker threads.
+   * @param depth the search depth of each position.
+   * @param moveTimeMillis the time limit of each position in milliseconds, or 0 for none.
+   */
+  public BatchAnalyzer ( int threads, int depth, long moveTimeMillis ) {
+    this.pool = new ForkJoinPool ( Math.max ( 1, threads ) );
+    this.workers = ThreadLocal.withInitial ( () -> new Worker ( depth, moveTimeMillis ) );
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Analyzes the positions of a game-record file.
+   * @param args the file and the options, see the class comment.
+   * @throws IOException if the file cannot be read.
+   */
+  public static void main ( String[] args ) throws IOException {
+    if ( args.length < 1 ) {
+      System.err.println ( "Usage: BatchAnalyzer <game-record file> [-depth plies] [-movetime ms] [-threads n] [-all] [-unordered]" );
+      System.exit ( 2 );
+    }
+    int depth = 6;
+    long moveTime = 0;
+    int threads = Runtime.getRuntime().availableProcessors();
+    boolean all = false;
+    boolean ordered = true;
+    for ( int i = 1; i < args.length; i ++ ) {
+      switch ( args[i] ) {
+        case "-depth": depth = Integer.parseInt ( args[++ i] ); break;
+        case "-movetime": moveTime = Long.parseLong ( args[++ i] ); break;
+        case "-threads": threads = Integer.parseInt ( args[++ i] ); break;
+        case "-all": all = true; break;
+        case "-unordered": ordered = false; break;
+        default:
+          System.err.println ( "Unknown option " + args[i] );
+          System.exit ( 2 );
+      }
+    }
+    BatchAnalyzer analyzer = new BatchAnalyzer ( threads, depth, moveTime );
+    PrintStream out = new PrintStream ( new BufferedOutputStream ( System.out, 1 << 16 ), false );
+    try ( GameRecordReader reader = new GameRecordReader ( Files.newInputStream ( Path.of ( args[0] ) ) ) ) {
+      analyzer.analyze ( requests ( reader, all ), ordered, result ->
+        out.println ( (result.id >>> 16) + " " + (result.id & 0xFFFF) + " " + result.bestPillar + " " + result.score + " " + result.depth + " " + result.nodes ) );
+    } finally {
+      out.flush();
+      analyzer.close();
+    }
+    System.err.printf ( "%d positions in %.1f s: %.0f positions/s, %.0f nodes/s (%d threads)%n", analyzer.getPositionCount(),
+                        analyzer.getElapsedNanos() / 1e9, analyzer.getPositionsPerSecond(), analyzer.getNodes() / (analyzer.getElapsedNanos() / 1e9),
+                        threads );
+  }
+
+  /**
+   * requests
+   * Turns the games of a stream into requests. The id of a request is the game number times 65536 plus the ply. The
+   * requests of a game share its record and differ only in the ply, so a position costs no copy of the moves.
+   * @param reader the game records.
+   * @param all true for every position of every game, false for the final position of each game.
+   * @return the requests, read lazily from the stream.
+   */
+  private static Iterator<Request> requests ( GameRecordReader reader, boolean all ) {
+    return new Iterator<Request>() {
+
+      /**
+       * The current game, or null before the first one.
+       */
+      private GameRecord game;
+
+      /**
+       * The number of the current game.
+       */
+      private long gameNumber = -1;
+
+      /**
+       * The next ply of the current game.
+       */
+      private int ply;
+
+      /**
+       * The next request, or null if it is not read yet.
+       */
+      private Request next;
+
+      /**
+       * hasNext
+       * Overrided method to read ahead the next request.
+       * @return true if there is another request.
+       */
+      @Override
+      public boolean hasNext() {
+        try {
+          while ( next == null ) {
+            if ( game == null || ply > game.getMoveCount() ) {
+              game = reader.read();
+              if ( game == null ) {
+                return false;
+              }
+              gameNumber ++;
+              ply = all ? 0 : game.getMoveCount();
+            }
+            next = new Request ( (gameNumber << 16) | ply, game, ply );
+            ply ++;
+          }
+          return true;
+        } catch (IOException e) {
+          throw new UncheckedIOException ( e );
+        }
+      }
+
+      /**
+       * next
+       * Overrided method to return the next request.
+       * @return the next request.
+       */
+      @Override
+      public Request next() {
+        if ( !hasNext() ) {
+          throw new NoSuchElementException();
+        }
+        Request request = next;
+        next = null;
+        return request;
+      }
+    };
+  }
+
+  /**
+   * analyze
+   * Analyzes all positions of the iterator on the pool.
+   * @param requests the positions.
+   * @param ordered true to pass the results in input order, false to pass them as soon as they are done.
+   * @param results the consumer of the results, called on the calling thread.
+   * @return the number of positions analyzed.
+   */
+  public long analyze ( Iterator<Request> requests, boolean ordered, Consumer<Result> results ) {
+    long start = System.nanoTime();
+    int maxInFlight = pool.getParallelism() * IN_FLIGHT_PER_THREAD;
+    long count = 0;
+    try {
+      if ( ordered ) {
+        Queue<Future<Result>> inFlight = new ArrayDeque<>( maxInFlight );
+        while ( requests.hasNext() ) {
+          if ( inFlight.size() == maxInFlight ) {
+            deliver ( inFlight.poll(), results );
+          }
+          Request request = requests.next();
+          inFlight.add ( pool.submit ( () -> workers.get().analyze ( request ) ) );
+          count ++;
+        }
+        while ( !inFlight.isEmpty() ) {
+          deliver ( inFlight.poll(), results );
+        }
+      } else {
+        CompletionService<Result> completed = new ExecutorCompletionService<>( pool );
+        int pending = 0;
+        while ( requests.hasNext() ) {
+          if ( pending == maxInFlight ) {
+            deliver ( completed.take(), results );
+            pending --;
+          }
+          Request request = requests.next();
+          completed.submit ( () -> workers.get().analyze ( request ) );
+          pending ++;
+          count ++;
+        }
+        for ( ; pending > 0; pending -- ) {
+          deliver ( completed.take(), results );
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      elapsedNanos += System.nanoTime() - start;
+    }
+    return count;
+  }
+
+  /**
+   * deliver
+   * Waits for a result and passes it to the consumer.
+   * @param future the result.
+   * @param results the consumer.
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   */
+  private void deliver ( Future<Result> future, Consumer<Result> results ) throws InterruptedException {
+    Result result;
+    try {
+      result = future.get();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException ( "Analysis failed", e.getCause() );
+    }
+    positions ++;
+    nodes += result.nodes;
+    results.accept ( result );
+  }
+
+  /**
+   * getPositionCount
+   * @return the number of positions analyzed.
+   */
+  public long getPositionCount() {
+    return positions;
+  }
+
+  /**
+   * getNodes
+   * @return the number of search nodes of all positions.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * getElapsedNanos
+   * @return the time spent in analyze(), in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * getPositionsPerSecond
+   * @return the number of positions analyzed per second of analyze().
+   */
+  public double getPositionsPerSecond() {
+    return elapsedNanos == 0 ? 0 : positions * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * close
+   * Shuts the pool down.
+   */
+  public void close() {
+    pool.shutdown();
+  }
+
+  /**
+   * Worker
+   * The reusable state of a worker thread.
+   */
+  private static final class Worker {
+
+    /**
+     * The search.
+     */
+    private final AlphaBetaSearch search = new AlphaBetaSearch ( null, new HeapPositionCache ( 18 ) );
+
+    /**
+     * The reusable board of each board size, by packed dimensions.
+     */
+    private final Map<Long, Board> boards = new HashMap<>();
+
+    /**
+     * The constructor.
+     * @param depth the search depth.
+     * @param moveTimeMillis the time limit, or 0.
+     */
+    private Worker ( int depth, long moveTimeMillis ) {
+      search.setMaxDepth ( depth );
+      search.setTimeLimit ( moveTimeMillis );
+    }
+
+    /**
+     * analyze
+     * Replays the first moves of a request's game on the board of its size and searches the position.
+     * @param request the request.
+     * @return the result.
+     */
+    private Result analyze ( Request request ) {
+      GameRecord position = request.position;
+      long key = ((long) position.getLayers() << 24) | (position.getRows() << 16) | (position.getColumns() << 8) | position.getBeadsToWin();
+      Board board = boards.computeIfAbsent ( key, k -> new Board ( position.getLayers(), position.getRows(), position.getColumns(), position.getBeadsToWin() ) );
+      while ( board.getMoveCount() > 0 ) {
+        board.undo();
+      }
+      for ( int ply = 0; ply < request.ply; ply ++ ) {
+        int pillar = position.getMove ( ply );
+        if ( pillar >= board.getPillarCount() || !board.isPillarAvailable ( pillar ) || board.isGameOver() ) {
+          return new Result ( request.id, -1, 0, 0, 0 );
+        }
+        board.drop ( pillar );
+      }
+      int pillar = search.search ( board );
+      return new Result ( request.id, pillar, search.getScore(), search.getCompletedDepth(), search.getNodes() );
+    }
+  }
+}
@@ -0,0 +1,508 @@
+package scoreFourGame.engine;
+
+/**
+ * Board
+ * The headless game board: which player's bead is in each cell, how high each pillar is filled, the moves played
+ * and the winner. It has no dependency on AWT or Swing.<p>
+ * Cells are indexed as (layer * rows + row) * columns + column, the same order as the Cell[][][] array of the UI.
+ * A pillar is the stack of cells with the same row and column, indexed as row * columns + column. Layer 0 is the
+ * top layer, so a bead dropped into a pillar lands on the highest blank layer number, i.e., layers - 1 - height.
+ * Player 1 always moves first.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class Board {
+
+  // =============== VARIABLES ===============
+  /**
+   * The value of a blank cell, and of the winner when there is no winner.
+   */
+  public static final int NO_PLAYER = 0;
+
+  /**
+   * Default number of beads in a line to win.
+   */
+  public static final int DEFAULT_BEADS_TO_WIN = 4;
+
+  /**
+   * The number of layers.
+   */
+  private final int layers;
+
+  /**
+   * The number of rows.
+   */
+  private final int rows;
+
+  /**
+   * The number of columns.
+   */
+  private final int columns;
+
+  /**
+   * The number of beads in a line to win.
+   */
+  private final int beadsToWin;
+
+  /**
+   * The winning lines of this board size.
+   */
+  private final Lines lines;
+
+  /**
+   * The player number (1 or 2) of the bead in each cell, or NO_PLAYER.
+   */
+  private final byte[] cells;
+
+  /**
+   * The number of beads in each pillar.
+   */
+  private final int[] heights;
+
+  /**
+   * The pillars of the moves played through drop(), in order.
+   */
+  private final int[] moves;
+
+  /**
+   * The number of moves in moves[].
+   */
+  private int moveCount = 0;
+
+  /**
+   * The number of beads on the board.
+   */
+  private int beadCount = 0;
+
+  /**
+   * The winning player, or NO_PLAYER.
+   */
+  private int winner = NO_PLAYER;
+
+  /**
+   * The line index of the winning line, or -1.
+   */
+  private int winningLine = -1;
+
+  /**
+   * The beadCount when the winning line was completed, so that undo() can clear the winner.
+   */
+  private int winningBeadCount = 0;
+
+  /**
+   * The Zobrist hash of the position, see Zobrist.
+   */
+  private long hash;
+
+  /**
+   * The constructor of an empty board.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param beadsToWin the number of beads in a line to win.
+   */
+  public Board ( int layers, int rows, int columns, int beadsToWin ) {
+    if ( layers < 1 || rows < 1 || columns < 1 || beadsToWin < 1 ) {
+      throw new IllegalArgumentException ( "Invalid board size " + layers + "x" + rows + "x" + columns + ", " + beadsToWin + " to win" );
+    }
+    this.layers = layers;
+    this.rows = rows;
+    this.columns = columns;
+    this.beadsToWin = beadsToWin;
+    this.lines = Lines.of ( layers, rows, columns, beadsToWin );
+    this.cells = new byte[layers * rows * columns];
+    this.heights = new int[rows * columns];
+    this.moves = new int[cells.length];
+    this.hash = Zobrist.sizeKey ( layers, rows, columns, beadsToWin );
+  }
+
+  /**
+   * The constructor of an empty cube board with the default number of beads to win.
+   * @param size the number of layers, rows and columns.
+   */
+  public Board ( int size ) {
+    this ( size, size, size, DEFAULT_BEADS_TO_WIN );
+  }
+
+  /**
+   * The copy constructor.
+   * @param other the board to copy.
+   */
+  public Board ( Board other ) {
+    this ( other.layers, other.rows, other.columns, other.beadsToWin );
+    copyFrom ( other );
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * copyFrom
+   * Makes this board the same position as the other board, without allocating. Both boards must have the same size.
+   * @param other the board to copy.
+   */
+  public void copyFrom ( Board other ) {
+    if ( other.cells.length != cells.length || other.lines != lines ) {
+      throw new IllegalArgumentException ( "Board sizes differ" );
+    }
+    System.arraycopy ( other.cells, 0, cells, 0, cells.length );
+    System.arraycopy ( other.heights, 0, heights, 0, heights.length );
+    System.arraycopy ( other.moves, 0, moves, 0, other.moveCount );
+    moveCount = other.moveCount;
+    beadCount = other.beadCount;
+    winner = other.winner;
+    winningLine = other.winningLine;
+    winningBeadCount = other.winningBeadCount;
+    hash = other.hash;
+  }
+
+  /**
+   * getLayers
+   * @return the number of layers.
+   */
+  public int getLayers() {
+    return layers;
+  }
+
+  /**
+   * getRows
+   * @return the number of rows.
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * getColumns
+   * @return the number of columns.
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * getBeadsToWin
+   * @return the number of beads in a line to win.
+   */
+  public int getBeadsToWin() {
+    return beadsToWin;
+  }
+
+  /**
+   * getLines
+   * @return the winning lines of this board size.
+   */
+  public Lines getLines() {
+    return lines;
+  }
+
+  /**
+   * getCellCount
+   * @return the number of cells.
+   */
+  public int getCellCount() {
+    return cells.length;
+  }
+
+  /**
+   * getPillarCount
+   * @return the number of pillars, i.e., rows * columns.
+   */
+  public int getPillarCount() {
+    return heights.length;
+  }
+
+  /**
+   * cellIndex
+   * Returns the cell index of a coordinate.
+   * @param layer the layer of the cell.
+   * @param row the row of the cell.
+   * @param column the column of the cell.
+   * @return the cell index.
+   */
+  public int cellIndex ( int layer, int row, int column ) {
+    return (layer * rows + row) * columns + column;
+  }
+
+  /**
+   * layerOf
+   * @param cell the cell index.
+   * @return the layer of the cell.
+   */
+  public int layerOf ( int cell ) {
+    return cell / (rows * columns);
+  }
+
+  /**
+   * rowOf
+   * @param cell the cell index.
+   * @return the row of the cell.
+   */
+  public int rowOf ( int cell ) {
+    return (cell / columns) % rows;
+  }
+
+  /**
+   * columnOf
+   * @param cell the cell index.
+   * @return the column of the cell.
+   */
+  public int columnOf ( int cell ) {
+    return cell % columns;
+  }
+
+  /**
+   * pillarOf
+   * @param cell the cell index.
+   * @return the pillar that contains the cell.
+   */
+  public int pillarOf ( int cell ) {
+    return cell % (rows * columns);
+  }
+
+  /**
+   * getBead
+   * @param cell the cell index.
+   * @return the player number of the bead in the cell, or NO_PLAYER if the cell is blank.
+   */
+  public int getBead ( int cell ) {
+    return cells[cell];
+  }
+
+  /**
+   * getBead
+   * @param layer the layer of the cell.
+   * @param row the row of the cell.
+   * @param column the column of the cell.
+   * @return the player number of the bead in the cell, or NO_PLAYER if the cell is blank.
+   */
+  public int getBead ( int layer, int row, int column ) {
+    return cells[cellIndex ( layer, row, column )];
+  }
+
+  /**
+   * getHeight
+   * @param pillar the pillar index.
+   * @return the number of beads in the pillar.
+   */
+  public int getHeight ( int pillar ) {
+    return heights[pillar];
+  }
+
+  /**
+   * isPillarAvailable
+   * Checks if a bead can be dropped into the pillar, i.e., the pillar is not full and nobody has won.
+   * @param pillar the pillar index.
+   * @return true if the pillar is a legal move.
+   */
+  public boolean isPillarAvailable ( int pillar ) {
+    return winner == NO_PLAYER && heights[pillar] < layers;
+  }
+
+  /**
+   * isCellAvailable
+   * Checks if a bead can be placed in the cell, i.e., it is the cell where a bead dropped into its pillar lands.
+   * It is the same rule as BoardPanel.isCellAvailable().
+   * @param cell the cell index.
+   * @return true if the cell is a legal move.
+   */
+  public boolean isCellAvailable ( int cell ) {
+    int pillar = pillarOf ( cell );
+    return isPillarAvailable ( pillar ) && landingCell ( pillar ) == cell;
+  }
+
+  /**
+   * landingCell
+   * Returns the cell where a bead dropped into the pillar lands. The pillar must not be full.
+   * @param pillar the pillar index.
+   * @return the cell index.
+   */
+  public int landingCell ( int pillar ) {
+    return (layers - 1 - heights[pillar]) * heights.length + pillar;
+  }
+
+  /**
+   * getAvailablePillars
+   * Writes the legal moves into the array, in pillar order.
+   * @param pillars the array to fill, at least getPillarCount() long.
+   * @return the number of legal moves written.
+   */
+  public int getAvailablePillars ( int[] pillars ) {
+    int count = 0;
+    if ( winner == NO_PLAYER ) {
+      for ( int pillar = 0; pillar < heights.length; pillar ++ ) {
+        if ( heights[pillar] < layers ) {
+          pillars[count ++] = pillar;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * getPlayerToMove
+   * @return the player number whose turn it is, based on the number of beads on the board.
+   */
+  public int getPlayerToMove() {
+    return (beadCount & 1) == 0 ? 1 : 2;
+  }
+
+  /**
+   * drop
+   * Drops a bead of the player to move into the pillar and records the move.
+   * @param pillar the pillar index.
+   * @return the cell index where the bead landed.
+   */
+  public int drop ( int pillar ) {
+    if ( !isPillarAvailable ( pillar ) ) {
+      throw new IllegalStateException ( "Pillar " + pillar + " is not available" );
+    }
+    int cell = landingCell ( pillar );
+    moves[moveCount ++] = pillar;
+    place ( cell, getPlayerToMove() );
+    return cell;
+  }
+
+  /**
+   * undo
+   * Takes back the last move played through drop().
+   * @return the cell index that was cleared.
+   */
+  public int undo() {
+    if ( moveCount == 0 ) {
+      throw new IllegalStateException ( "No move to undo" );
+    }
+    int pillar = moves[-- moveCount];
+    heights[pillar] --;
+    int cell = landingCell ( pillar );
+    hash ^= Zobrist.key ( cell, cells[cell] );
+    cells[cell] = NO_PLAYER;
+    if ( winner != NO_PLAYER && winningBeadCount == beadCount ) {
+      winner = NO_PLAYER;
+      winningLine = -1;
+    }
+    beadCount --;
+    return cell;
+  }
+
+  /**
+   * setBead
+   * Places a bead without recording a move, for building a board from a position, e.g., from the UI cells.
+   * Beads must be placed from the bottom of each pillar upwards.
+   * @param layer the layer of the cell.
+   * @param row the row of the cell.
+   * @param column the column of the cell.
+   * @param player the player number, 1 or 2.
+   */
+  public void setBead ( int layer, int row, int column, int player ) {
+    int cell = cellIndex ( layer, row, column );
+    if ( cells[cell] != NO_PLAYER || cell != landingCell ( pillarOf ( cell ) ) ) {
+      throw new IllegalStateException ( "Cell " + layer + "," + row + "," + column + " is not the next cell of its pillar" );
+    }
+    place ( cell, player );
+  }
+
+  /**
+   * place
+   * Puts the bead in the cell and checks the lines through the cell for a win.
+   * @param cell the cell index.
+   * @param player the player number.
+   */
+  private void place ( int cell, int player ) {
+    cells[cell] = (byte) player;
+    hash ^= Zobrist.key ( cell, player );
+    heights[pillarOf ( cell )] ++;
+    beadCount ++;
+    if ( winner == NO_PLAYER ) {
+      int[] lineCells = lines.getLineCells();
+      for ( int line : lines.getLinesThroughCell ( cell ) ) {
+        int k = 0;
+        while ( k < beadsToWin && cells[lineCells[line * beadsToWin + k]] == player ) {
+          k ++;
+        }
+        if ( k == beadsToWin ) {
+          winner = player;
+          winningLine = line;
+          winningBeadCount = beadCount;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * getWinner
+   * @return the winning player number, or NO_PLAYER.
+   */
+  public int getWinner() {
+    return winner;
+  }
+
+  /**
+   * getWinningLine
+   * @return the cell indexes of the winning line, or null if nobody has won.
+   */
+  public int[] getWinningLine() {
+    if ( winningLine < 0 ) {
+      return null;
+    }
+    int[] line = new int[beadsToWin];
+    for ( int k = 0; k < beadsToWin; k ++ ) {
+      line[k] = lines.getCell ( winningLine, k );
+    }
+    return line;
+  }
+
+  /**
+   * isGameOver
+   * @return true if a player has won or the board is full.
+   */
+  public boolean isGameOver() {
+    return winner != NO_PLAYER || beadCount == cells.length;
+  }
+
+  /**
+   * getHash
+   * Returns the Zobrist hash of the position. It depends on the board size and the beads only, not on the move order.
+   * @return the position hash.
+   */
+  public long getHash() {
+    return hash;
+  }
+
+  /**
+   * getBlankCount
+   * @return the number of blank cells.
+   */
+  public int getBlankCount() {
+    return cells.length - beadCount;
+  }
+
+  /**
+   * getBeadCount
+   * @return the number of beads on the board.
+   */
+  public int getBeadCount() {
+    return beadCount;
+  }
+
+  /**
+   * getMoveCount
+   * @return the number of moves played through drop().
+   */
+  public int getMoveCount() {
+    return moveCount;
+  }
+
+  /**
+   * getMove
+   * @param ply the move number, starting from 0.
+   * @return the pillar of the move.
+   */
+  public int getMove ( int ply ) {
+    if ( ply < 0 || ply >= moveCount ) {
+      throw new IndexOutOfBoundsException ( "Move " + ply + " of " + moveCount );
+    }
+    return moves[ply];
+  }
+}
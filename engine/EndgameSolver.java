@@ -0,0 +1,418 @@
+package scoreFourGame.engine;
+
+/**
+ * EndgameSolver
+ * An exact solver for the end of a game: once few enough cells are blank, it searches every line of play to the end
+ * of the game instead of judging positions with rules or an evaluation. Scores follow AlphaBetaSearch: a win in n
+ * plies scores WIN_SCORE - n + 1, a loss in n plies the negation, a draw 0, so the chosen move is the fastest win,
+ * else a draw, else the slowest loss.<p>
+ * The search is a negamax with alpha-beta pruning, bounds on the win distance, immediate win and forced block
+ * detection, the static bounds of a ThreatParity analysis (which end the search of a position that the fill order
+ * of the pillars already decides), and a PositionCache whose entries use the AlphaBetaSearch format with the number of blank cells as the
+ * depth (entries searched that deep are exact, so the two searches can share a cache). A solve that does not finish
+ * within the time limit returns no move, and the caller falls back to its usual strategy.<p>
+ * A solver instance is not thread-safe, except for stop(), which may be called from any thread.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class EndgameSolver implements MoveStrategy {
+
+  // =============== VARIABLES ===============
+  /**
+   * The system property with the default number of blank cells at or below which the solver is used.
+   */
+  public static final String MAX_BLANKS_PROPERTY = "scoreFourGame.endgameBlanks";
+
+  /**
+   * The number of blank cells at or below which the solver is used, if the system property is not set.
+   */
+  public static final int DEFAULT_MAX_BLANKS = 20;
+
+  /**
+   * The transposition table.
+   */
+  private PositionCache cache;
+
+  /**
+   * The number of blank cells at or below which the solver is used.
+   */
+  private int maxBlanks;
+
+  /**
+   * The time limit of a solve in milliseconds, or 0 for no limit.
+   */
+  private long timeLimitMillis;
+
+  /**
+   * Set by stop() or when the time limit is reached; the solve returns as soon as it sees it.
+   */
+  private volatile boolean stopped = false;
+
+  /**
+   * The time (System.nanoTime()) at which the solve must stop, or Long.MAX_VALUE.
+   */
+  private long deadline;
+
+  /**
+   * The number of positions visited by the last solve.
+   */
+  private long nodes;
+
+  /**
+   * The score of the last completed solve, for the player to move.
+   */
+  private int score;
+
+  /**
+   * Bounds the score of positions decided by the fill order of the pillars.
+   */
+  private final ThreatParity parity = new ThreatParity();
+
+  /**
+   * The move lists of each ply, reused between solves.
+   */
+  private int[][] moveBuffers = new int[0][];
+
+  /**
+   * The pillars of the current board size ordered from the centre outwards, the static move order.
+   */
+  private int[] pillarOrder = new int[0];
+
+  /**
+   * The constructor with the number of blank cells from the MAX_BLANKS_PROPERTY system property (or
+   * DEFAULT_MAX_BLANKS), no time limit and a 4 MB transposition table.
+   */
+  public EndgameSolver() {
+    this ( Integer.getInteger ( MAX_BLANKS_PROPERTY, DEFAULT_MAX_BLANKS ), 0 );
+  }
+
+  /**
+   * The constructor with a 4 MB transposition table.
+   * @param maxBlanks the number of blank cells at or below which selectMove() solves the position.
+   * @param timeLimitMillis the time limit of a solve in milliseconds, or 0 for no limit.
+   */
+  public EndgameSolver ( int maxBlanks, long timeLimitMillis ) {
+    this.maxBlanks = maxBlanks;
+    this.timeLimitMillis = timeLimitMillis;
+    this.cache = new HeapPositionCache ( 18 );
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * setMaxBlanks
+   * @param maxBlanks the number of blank cells at or below which selectMove() solves the position.
+   */
+  public void setMaxBlanks ( int maxBlanks ) {
+    this.maxBlanks = maxBlanks;
+  }
+
+  /**
+   * getMaxBlanks
+   * @return the number of blank cells at or below which selectMove() solves the position.
+   */
+  public int getMaxBlanks() {
+    return maxBlanks;
+  }
+
+  /**
+   * setTimeLimit
+   * @param timeLimitMillis the time limit of a solve in milliseconds, or 0 for no limit.
+   */
+  public void setTimeLimit ( long timeLimitMillis ) {
+    this.timeLimitMillis = timeLimitMillis;
+  }
+
+  /**
+   * setCache
+   * @param cache the transposition table to use from the next solve.
+   */
+  public void setCache ( PositionCache cache ) {
+    this.cache = cache;
+  }
+
+  /**
+   * stop
+   * Asks a running solve to return without a result as soon as possible.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * isApplicable
+   * @param board a position.
+   * @return true if the game is not over and at most maxBlanks cells are blank.
+   */
+  public boolean isApplicable ( Board board ) {
+    return !board.isGameOver() && board.getBlankCount() <= maxBlanks;
+  }
+
+  /**
+   * selectMove
+   * Solves the position if the solver is applicable to it.
+   * @param board the current position.
+   * @param playerNo the player number (1 or 2) to move; it must be the board's player to move.
+   * @return the cell index of the best move, or -1 if too many cells are blank or the solve ran out of time.
+   */
+  @Override
+  public int selectMove ( Board board, int playerNo ) {
+    if ( !isApplicable ( board ) ) {
+      return -1;
+    }
+    int pillar = solve ( board );
+    return pillar < 0 ? -1 : board.landingCell ( pillar );
+  }
+
+  /**
+   * solve
+   * Searches the position to the end of the game.
+   * @param board the position to solve. It is left unchanged.
+   * @return the best pillar, or -1 if the game is over or the solve was stopped.
+   */
+  public int solve ( Board board ) {
+    stopped = false;
+    deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1000000 : Long.MAX_VALUE;
+    nodes = 0;
+    if ( moveBuffers.length != board.getCellCount() + 1 || pillarOrder.length != board.getPillarCount() ) {
+      moveBuffers = new int[board.getCellCount() + 1][board.getPillarCount()];
+      pillarOrder = AlphaBetaSearch.centreFirstOrder ( board.getRows(), board.getColumns() );
+    }
+    if ( board.isGameOver() ) {
+      return -1;
+    }
+    int[] moves = moveBuffers[0];
+    int moveCount = orderMoves ( board, cachedPillar ( board ), moves );
+    int alpha = -AlphaBetaSearch.WIN_SCORE - 1;
+    int bestPillar = moves[0];
+    for ( int i = 0; i < moveCount; i ++ ) {
+      board.drop ( moves[i] );
+      int moveScore = -negamax ( board, -AlphaBetaSearch.WIN_SCORE - 1, -alpha, 1 );
+      board.undo();
+      if ( stopped ) {
+        return -1;
+      }
+      if ( moveScore > alpha ) {
+        alpha = moveScore;
+        bestPillar = moves[i];
+      }
+    }
+    score = alpha;
+    return bestPillar;
+  }
+
+  /**
+   * negamax
+   * The exact alpha-beta search of a position.
+   * @param board the position.
+   * @param alpha the lower bound of the score window.
+   * @param beta the upper bound of the score window.
+   * @param ply the distance from the root.
+   * @return the score of the position for the player to move.
+   */
+  private int negamax ( Board board, int alpha, int beta, int ply ) {
+    nodes ++;
+    if ( (nodes & 1023) == 0 && System.nanoTime() > deadline ) {
+      stopped = true;
+    }
+    if ( stopped ) {
+      return 0;
+    }
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      // the previous move won
+      return -(AlphaBetaSearch.WIN_SCORE - ply + 1);
+    }
+    int blanks = board.getBlankCount();
+    if ( blanks == 0 ) {
+      return 0;
+    }
+
+    // a win on this move is the best possible score, a loss on the opponent's next move the worst
+    int player = board.getPlayerToMove();
+    int opponent = 3 - player;
+    int winNow = AlphaBetaSearch.WIN_SCORE - ply;
+    int opponentThreat = -1;
+    int opponentThreats = 0;
+    for ( int pillar = 0; pillar < board.getPillarCount(); pillar ++ ) {
+      if ( board.isPillarAvailable ( pillar ) ) {
+        int cell = board.landingCell ( pillar );
+        if ( completesLine ( board, cell, player ) ) {
+          return winNow;
+        }
+        if ( completesLine ( board, cell, opponent ) ) {
+          opponentThreat = pillar;
+          opponentThreats ++;
+        }
+      }
+    }
+    int loseNext = -(winNow - 1);
+    if ( opponentThreats > 1 ) {
+      return loseNext;
+    }
+    alpha = Math.max ( alpha, loseNext );
+    beta = Math.min ( beta, blanks > 2 ? winNow - 2 : 0 );
+    if ( alpha >= beta ) {
+      return alpha;
+    }
+
+    long hash = board.getHash();
+    long entry = cache.probe ( hash );
+    int cachedPillar = -1;
+    if ( entry != 0 ) {
+      cachedPillar = AlphaBetaSearch.entryPillar ( entry );
+      if ( AlphaBetaSearch.entryDepth ( entry ) >= blanks ) {
+        int cachedScore = AlphaBetaSearch.fromCacheScore ( AlphaBetaSearch.entryScore ( entry ), ply );
+        int flag = AlphaBetaSearch.entryFlag ( entry );
+        if ( flag == AlphaBetaSearch.EXACT || (flag == AlphaBetaSearch.LOWER_BOUND && cachedScore >= beta)
+              || (flag == AlphaBetaSearch.UPPER_BOUND && cachedScore <= alpha) ) {
+          return cachedScore;
+        }
+      }
+    }
+
+    // a win decided by parity comes at the latest with the last blank cell
+    int latestWin = winNow - blanks + 1;
+    switch ( parity.decide ( board ) ) {
+      case ThreatParity.WIN:
+        alpha = Math.max ( alpha, latestWin );
+        break;
+      case ThreatParity.LOSS:
+        beta = Math.min ( beta, -latestWin );
+        break;
+      case ThreatParity.DRAW:
+        alpha = Math.max ( alpha, 0 );
+        beta = Math.min ( beta, 0 );
+        break;
+      case ThreatParity.AT_LEAST_DRAW:
+        alpha = Math.max ( alpha, 0 );
+        break;
+      case ThreatParity.AT_MOST_DRAW:
+        beta = Math.min ( beta, 0 );
+        break;
+      default:
+        break;
+    }
+    if ( alpha >= beta ) {
+      return alpha;
+    }
+
+    int[] moves = moveBuffers[ply];
+    int moveCount;
+    if ( opponentThreats == 1 ) {
+      // the only move that does not lose at once is the block
+      moves[0] = opponentThreat;
+      moveCount = 1;
+    } else {
+      moveCount = orderMoves ( board, cachedPillar, moves );
+    }
+    int originalAlpha = alpha;
+    int best = -AlphaBetaSearch.WIN_SCORE - 1;
+    int bestMove = moves[0];
+    for ( int i = 0; i < moveCount; i ++ ) {
+      board.drop ( moves[i] );
+      int moveScore = -negamax ( board, -beta, -alpha, ply + 1 );
+      board.undo();
+      if ( stopped ) {
+        return 0;
+      }
+      if ( moveScore > best ) {
+        best = moveScore;
+        bestMove = moves[i];
+        if ( best > alpha ) {
+          alpha = best;
+          if ( alpha >= beta ) {
+            break;
+          }
+        }
+      }
+    }
+    int flag = best <= originalAlpha ? AlphaBetaSearch.UPPER_BOUND : best >= beta ? AlphaBetaSearch.LOWER_BOUND : AlphaBetaSearch.EXACT;
+    cache.store ( hash, AlphaBetaSearch.packEntry ( AlphaBetaSearch.toCacheScore ( best, ply ), blanks, flag, bestMove ) );
+    return best;
+  }
+
+  /**
+   * completesLine
+   * @param board the position.
+   * @param cell a blank cell.
+   * @param player a player number.
+   * @return true if a bead of the player in the cell would complete a line.
+   */
+  static boolean completesLine ( Board board, int cell, int player ) {
+    Lines lines = board.getLines();
+    int[] lineCells = lines.getLineCells();
+    int length = lines.getLength();
+    for ( int line : lines.getLinesThroughCell ( cell ) ) {
+      int k = 0;
+      while ( k < length && (lineCells[line * length + k] == cell || board.getBead ( lineCells[line * length + k] ) == player) ) {
+        k ++;
+      }
+      if ( k == length ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * orderMoves
+   * Writes the legal moves in search order: the preferred pillar first, then from the centre outwards, and last the
+   * moves that let the opponent complete a line in the cell above.
+   * @param board the position.
+   * @param preferredPillar the pillar to search first, or -1.
+   * @param moves the array to fill.
+   * @return the number of moves.
+   */
+  private int orderMoves ( Board board, int preferredPillar, int[] moves ) {
+    int count = 0;
+    if ( preferredPillar >= 0 && preferredPillar < pillarOrder.length && board.isPillarAvailable ( preferredPillar ) ) {
+      moves[count ++] = preferredPillar;
+    }
+    int opponent = 3 - board.getPlayerToMove();
+    int end = pillarOrder.length;
+    int[] poisoned = moveBuffers[moveBuffers.length - 1];
+    int poisonedCount = 0;
+    for ( int i = 0; i < end; i ++ ) {
+      int pillar = pillarOrder[i];
+      if ( pillar == preferredPillar || !board.isPillarAvailable ( pillar ) ) {
+        continue;
+      }
+      int above = board.landingCell ( pillar ) - board.getPillarCount();
+      if ( above >= 0 && completesLine ( board, above, opponent ) ) {
+        poisoned[poisonedCount ++] = pillar;
+      } else {
+        moves[count ++] = pillar;
+      }
+    }
+    System.arraycopy ( poisoned, 0, moves, count, poisonedCount );
+    return count + poisonedCount;
+  }
+
+  /**
+   * cachedPillar
+   * @param board the position.
+   * @return the best pillar stored in the cache for the position, or -1.
+   */
+  private int cachedPillar ( Board board ) {
+    long entry = cache.probe ( board.getHash() );
+    return entry == 0 ? -1 : AlphaBetaSearch.entryPillar ( entry );
+  }
+
+  /**
+   * getNodes
+   * @return the number of positions visited by the last solve.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * getScore
+   * @return the score of the last completed solve for the player to move: positive for a win, 0 for a draw,
+   *         negative for a loss; see AlphaBetaSearch.WIN_SCORE for the distance.
+   */
+  public int getScore() {
+    return score;
+  }
+}
@@ -0,0 +1,281 @@
+package scoreFourGame.engine;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+/**
+ * EngineProtocol
+ * A line-based text protocol, similar to UCI, that lets another program drive the AlphaBetaSearch without the Swing
+ * user interface, e.g., for engine-against-engine matches and test harnesses. Commands, one per line on standard
+ * input:
+ * <pre>
+ * uci                           answers "id name ...", "id author ..." and "uciok"
+ * isready                       answers "readyok" once the previous commands are done
+ * newgame                       forgets the cached results of the previous game (unless the cache is the shared
+ *                               MappedPositionCache) and resets the position
+ * size &lt;n&gt;                      plays on an n x n x n board from now on, n from 4 to 10, and resets the position
+ * position [startpos] [moves &lt;pillar&gt;...]   the position after the moves from the empty board
+ * go [depth &lt;plies&gt;] [movetime &lt;ms&gt;] [infinite]   searches the position in the background
+ * stop                          stops the search; it answers with bestmove as usual
+ * quit                          stops the search and exits
+ * </pre>
+ * A pillar is row * size + column, counting from 0. While searching, the engine prints one line per completed depth
+ * and then the move:
+ * <pre>
+ * info depth &lt;d&gt; score cp &lt;s&gt; nodes &lt;n&gt; nps &lt;n&gt; time &lt;ms&gt; pv &lt;pillar&gt;
+ * info depth &lt;d&gt; score mate &lt;plies&gt; ...   a forced win (negative: a forced loss) in that many plies
+ * bestmove &lt;pillar&gt;            "bestmove none" if the game is over
+ * </pre>
+ * Errors are reported as "info string error ..." and the command is ignored. go without depth or movetime searches
+ * to the default depth of AlphaBetaSearch.<p>
+ * Usage: java scoreFourGame.engine.EngineProtocol
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class EngineProtocol {
+
+  // =============== VARIABLES ===============
+  /**
+   * The search depth of go without depth or movetime.
+   */
+  private static final int DEFAULT_DEPTH = 6;
+
+  /**
+   * The largest board size, as in the game and the GameServer. The lines of larger boards take too much memory.
+   */
+  public static final int MAX_SIZE = 10;
+
+  /**
+   * The commands.
+   */
+  private final BufferedReader in;
+
+  /**
+   * The answers.
+   */
+  private final PrintStream out;
+
+  /**
+   * The transposition table: the shared MappedPositionCache if one is configured, else a 4 MB HeapPositionCache.
+   */
+  private final PositionCache cache = MappedPositionCache.shared() != null ? MappedPositionCache.shared() : new HeapPositionCache ( 18 );
+
+  /**
+   * The search, used by one search thread at a time.
+   */
+  private final AlphaBetaSearch search = new AlphaBetaSearch ( null, cache );
+
+  /**
+   * The board size.
+   */
+  private int size = 4;
+
+  /**
+   * The current position.
+   */
+  private Board position = new Board ( size );
+
+  /**
+   * The running search thread, or null.
+   */
+  private Thread searchThread;
+
+  /**
+   * Set by stop and quit, so that a search that has not started its first iteration yet stops after it.
+   */
+  private volatile boolean stopRequested;
+
+  /**
+   * The constructor.
+   * @param in the commands.
+   * @param out the answers.
+   */
+  public EngineProtocol ( BufferedReader in, PrintStream out ) {
+    this.in = in;
+    this.out = out;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Runs the protocol on standard input and output.
+   * @param args not used.
+   * @throws IOException if standard input cannot be read.
+   */
+  public static void main ( String[] args ) throws IOException {
+    new EngineProtocol ( new BufferedReader ( new InputStreamReader ( System.in ) ), new PrintStream ( System.out, true ) ).run();
+  }
+
+  /**
+   * run
+   * Reads and executes commands until quit or the end of the input.
+   * @throws IOException if the input cannot be read.
+   */
+  public void run() throws IOException {
+    String line;
+    while ( (line = in.readLine()) != null ) {
+      String[] words = line.trim().split ( "\\s+" );
+      try {
+        switch ( words[0] ) {
+          case "uci":
+            out.println ( "id name 3D Connect Four alpha-beta" );
+            out.println ( "id author Alyssa Gao, Tara Rafi" );
+            out.println ( "uciok" );
+            break;
+          case "isready":
+            out.println ( "readyok" );
+            break;
+          case "newgame":
+            stopSearch();
+            if ( cache != MappedPositionCache.shared() ) {
+              cache.clear();
+            }
+            position = new Board ( size );
+            break;
+          case "size":
+            stopSearch();
+            setSize ( Integer.parseInt ( words[1] ) );
+            break;
+          case "position":
+            stopSearch();
+            setPosition ( words );
+            break;
+          case "go":
+            go ( words );
+            break;
+          case "stop":
+            stopSearch();
+            break;
+          case "quit":
+            stopSearch();
+            return;
+          case "":
+            break;
+          default:
+            out.println ( "info string error unknown command " + words[0] );
+            break;
+        }
+      } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        out.println ( "info string error malformed command: " + line.trim() );
+      }
+    }
+    stopSearch();
+  }
+
+  /**
+   * setSize
+   * Changes the board size and resets the position.
+   * @param newSize the number of layers, rows and columns.
+   */
+  private void setSize ( int newSize ) {
+    if ( newSize < Board.DEFAULT_BEADS_TO_WIN || newSize > MAX_SIZE ) {
+      out.println ( "info string error unsupported size " + newSize );
+      return;
+    }
+    size = newSize;
+    position = new Board ( size );
+  }
+
+  /**
+   * setPosition
+   * Plays the moves of a position command from the empty board. An illegal move leaves the position unchanged.
+   * @param words the words of the command.
+   */
+  private void setPosition ( String[] words ) {
+    Board board = new Board ( size );
+    int i = 1;
+    if ( i < words.length && words[i].equals ( "startpos" ) ) {
+      i ++;
+    }
+    if ( i < words.length && words[i].equals ( "moves" ) ) {
+      i ++;
+    }
+    for ( ; i < words.length; i ++ ) {
+      int pillar = Integer.parseInt ( words[i] );
+      if ( pillar < 0 || pillar >= board.getPillarCount() || !board.isPillarAvailable ( pillar ) || board.isGameOver() ) {
+        out.println ( "info string error illegal move " + words[i] );
+        return;
+      }
+      board.drop ( pillar );
+    }
+    position = board;
+  }
+
+  /**
+   * go
+   * Starts a search of the current position on a background thread.
+   * @param words the words of the command.
+   */
+  private void go ( String[] words ) {
+    if ( searchThread != null && searchThread.isAlive() ) {
+      out.println ( "info string error search in progress" );
+      return;
+    }
+    int depth = 0;
+    long movetime = 0;
+    boolean infinite = false;
+    for ( int i = 1; i < words.length; i ++ ) {
+      if ( words[i].equals ( "depth" ) ) {
+        depth = Integer.parseInt ( words[++ i] );
+      } else if ( words[i].equals ( "movetime" ) ) {
+        movetime = Long.parseLong ( words[++ i] );
+      } else if ( words[i].equals ( "infinite" ) ) {
+        infinite = true;
+      }
+    }
+    search.setMaxDepth ( depth > 0 ? depth : (movetime > 0 || infinite) ? position.getCellCount() : DEFAULT_DEPTH );
+    search.setTimeLimit ( infinite ? 0 : movetime );
+    Board board = new Board ( position );
+    long start = System.nanoTime();
+    stopRequested = false;
+    search.setIterationListener ( ( iterationDepth, pillar, score, nodes ) -> {
+      if ( stopRequested ) {
+        search.stop();
+      }
+      long millis = Math.max ( 1, (System.nanoTime() - start) / 1000000 );
+      out.println ( "info depth " + iterationDepth + " score " + formatScore ( score ) + " nodes " + nodes + " nps " + nodes * 1000 / millis
+                    + " time " + millis + " pv " + pillar );
+    } );
+    searchThread = new Thread ( () -> {
+      int pillar = search.search ( board );
+      out.println ( "bestmove " + (pillar < 0 ? "none" : Integer.toString ( pillar )) );
+    }, "EngineProtocol search" );
+    searchThread.start();
+  }
+
+  /**
+   * stopSearch
+   * Stops the running search, if any, and waits until it has printed its bestmove.
+   */
+  private void stopSearch() {
+    if ( searchThread == null ) {
+      return;
+    }
+    stopRequested = true;
+    search.stop();
+    try {
+      searchThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    searchThread = null;
+  }
+
+  /**
+   * formatScore
+   * @param score a search score for the player to move.
+   * @return "cp &lt;score&gt;", or "mate &lt;plies&gt;" for a forced win (negative plies for a forced loss).
+   */
+  static String formatScore ( int score ) {
+    if ( score > AlphaBetaSearch.WIN_THRESHOLD ) {
+      return "mate " + (AlphaBetaSearch.WIN_SCORE - score + 1);
+    }
+    if ( score < -AlphaBetaSearch.WIN_THRESHOLD ) {
+      return "mate " + -(AlphaBetaSearch.WIN_SCORE + score + 1);
+    }
+    return "cp " + score;
+  }
+}
@@ -0,0 +1,542 @@
+package scoreFourGame.engine;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * EvaluationTuner
+ * Fits the weights of the LineEvaluator to the results of self-play games, Texel-style: the evaluation of a position,
+ * as a number of logits, should predict the result of the game through the logistic function.<p>
+ * generate plays SelfPlay games on all cores and streams every position before the end of each game into a
+ * positions file, labelled with the result for the player to move. A position is stored as its features, not its
+ * beads: for every number of beads k from 1 to beadsToWin - 1, the number of lines holding k beads of the player to
+ * move and none of the opponent, minus the same count for the opponent. The evaluation is linear in them (the
+ * weight of 0 beads cancels out), so a position takes 1 + 2 * (beadsToWin - 1) bytes, 7 bytes on the standard board,
+ * and tens of millions of positions fit in a few hundred megabytes. The file format is:
+ * <pre>
+ * header   = magic "S4TP" (int), version (1 byte), beadsToWin (1 byte)                   (6 bytes)
+ * position = result for the player to move: 0 loss, 1 draw, 2 win (1 byte), feature (short) per k
+ * </pre>
+ * tune memory-maps the positions files and minimizes the log loss with Newton's method. Every iteration is one pass
+ * over all positions on a ForkJoinPool, each task summing the gradient and Hessian of its chunk of positions. There
+ * are only beadsToWin - 1 weights, so an iteration costs one pass, and about ten passes converge. The weights are
+ * written to a weight file at WEIGHT_UNITS evaluation units per logit, which AlphaBetaSearch uses when the
+ * LineEvaluator.WEIGHTS_PROPERTY system property names it.<p>
+ * Usage:
+ * <pre>
+ * EvaluationTuner generate &lt;size&gt; &lt;games&gt; &lt;positions file&gt; [seed [threads]]
+ * EvaluationTuner tune &lt;weight file&gt; &lt;positions file&gt;... [-threads n]
+ * </pre>
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class EvaluationTuner {
+
+  // =============== VARIABLES ===============
+  /**
+   * The magic number at the start of a positions file ("S4TP").
+   */
+  static final int MAGIC = 0x53345450;
+
+  /**
+   * The positions file format version.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * The size of the header in bytes.
+   */
+  static final int HEADER_SIZE = 6;
+
+  /**
+   * The evaluation units of one logit in the written weights: a score of WEIGHT_UNITS predicts a win 73% of the time.
+   */
+  public static final int WEIGHT_UNITS = 1000;
+
+  /**
+   * The number of games played in parallel before their positions are written, in order.
+   */
+  private static final int BATCH_SIZE = 1024;
+
+  /**
+   * The number of positions summed by one task of a pass.
+   */
+  private static final int CHUNK_POSITIONS = 1 << 16;
+
+  /**
+   * The largest number of Newton iterations.
+   */
+  private static final int MAX_ITERATIONS = 50;
+
+  /**
+   * The iterations stop when no weight changes by more than this, in logits.
+   */
+  private static final double CONVERGED_STEP = 1e-7;
+
+  /**
+   * No instances, the tool is main().
+   */
+  private EvaluationTuner() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Generates positions or tunes the weights.
+   * @param args the command-line arguments, see the class comment.
+   * @throws Exception if a game fails or a file cannot be read or written.
+   */
+  public static void main ( String[] args ) throws Exception {
+    if ( args.length >= 4 && args[0].equals ( "generate" ) ) {
+      int size = Integer.parseInt ( args[1] );
+      int games = Integer.parseInt ( args[2] );
+      long seed = args.length > 4 ? Long.parseLong ( args[4] ) : GameSeeds.newSeed();
+      int threads = args.length > 5 ? Integer.parseInt ( args[5] ) : Runtime.getRuntime().availableProcessors();
+      generate ( size, games, Path.of ( args[3] ), seed, threads );
+    } else if ( args.length >= 3 && args[0].equals ( "tune" ) ) {
+      int threads = Runtime.getRuntime().availableProcessors();
+      List<Path> inputs = new ArrayList<>();
+      for ( int i = 2; i < args.length; i ++ ) {
+        if ( args[i].equals ( "-threads" ) && i + 1 < args.length ) {
+          threads = Integer.parseInt ( args[++ i] );
+        } else {
+          inputs.add ( Path.of ( args[i] ) );
+        }
+      }
+      tune ( Path.of ( args[1] ), inputs, threads );
+    } else {
+      System.err.println ( "Usage: EvaluationTuner generate <size> <games> <positions file> [seed [threads]]" );
+      System.err.println ( "       EvaluationTuner tune <weight file> <positions file>... [-threads n]" );
+      System.exit ( 2 );
+    }
+  }
+
+  /**
+   * generate
+   * Plays the games in batches on a pool of threads and writes the positions of each batch in game order, so the
+   * file depends only on the run seed.
+   * @param size the board size.
+   * @param games the number of games.
+   * @param output the positions file to write.
+   * @param seed the run seed.
+   * @param threads the number of threads.
+   * @throws Exception if a game fails or the file cannot be written.
+   */
+  private static void generate ( int size, int games, Path output, long seed, int threads ) throws Exception {
+    SplittableRandom seeds = new SplittableRandom ( seed );
+    long positions = 0;
+    long start = System.nanoTime();
+    ForkJoinPool pool = new ForkJoinPool ( threads );
+    try ( DataOutputStream out = new DataOutputStream ( new BufferedOutputStream ( Files.newOutputStream ( output ), 1 << 16 ) ) ) {
+      out.writeInt ( MAGIC );
+      out.writeByte ( VERSION );
+      out.writeByte ( Board.DEFAULT_BEADS_TO_WIN );
+      for ( int first = 0; first < games; first += BATCH_SIZE ) {
+        int count = Math.min ( BATCH_SIZE, games - first );
+        long[] gameSeeds = new long[count];
+        for ( int i = 0; i < count; i ++ ) {
+          gameSeeds[i] = GameSeeds.nextSeed ( seeds );
+        }
+        byte[][] batch = new byte[count][];
+        pool.submit ( () -> IntStream.range ( 0, count ).parallel().forEach ( i -> batch[i] = positionsOf ( SelfPlay.play ( size, gameSeeds[i] ) ) ) ).get();
+        for ( byte[] gamePositions : batch ) {
+          out.write ( gamePositions );
+          positions += gamePositions.length / positionSize ( Board.DEFAULT_BEADS_TO_WIN );
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.println ( games + " games (seed " + seed + ", " + threads + " threads): " + positions + " positions written to " + output );
+    System.out.printf ( "%.0f positions/s%n", positions / seconds );
+  }
+
+  /**
+   * positionsOf
+   * Replays a game and encodes every position before its last move.
+   * @param record the game.
+   * @return the encoded positions.
+   */
+  static byte[] positionsOf ( GameRecord record ) {
+    Board board = new Board ( record.getLayers(), record.getRows(), record.getColumns(), record.getBeadsToWin() );
+    LineCounts counts = new LineCounts ( board );
+    int featureCount = board.getBeadsToWin() - 1;
+    int[] features = new int[featureCount];
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream ( record.getMoveCount() * positionSize ( board.getBeadsToWin() ) );
+    DataOutputStream out = new DataOutputStream ( bytes );
+    try {
+      for ( int ply = 0; ply < record.getMoveCount(); ply ++ ) {
+        int playerNo = board.getPlayerToMove();
+        countFeatures ( counts, playerNo, features );
+        out.writeByte ( resultFor ( record.getResult(), playerNo ) );
+        for ( int feature : features ) {
+          out.writeShort ( feature );
+        }
+        int cell = board.drop ( record.getMove ( ply ) );
+        counts.add ( cell, playerNo );
+      }
+    } catch (IOException e) {
+      // a ByteArrayOutputStream does not throw
+      throw new IllegalStateException ( e );
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * countFeatures
+   * @param counts the bead counts of the position.
+   * @param playerNo the player to move.
+   * @param features receives, for k beads from 1, the lines with k beads of the player and none of the opponent minus
+   *        the lines with k beads of the opponent and none of the player.
+   */
+  static void countFeatures ( LineCounts counts, int playerNo, int[] features ) {
+    Arrays.fill ( features, 0 );
+    int[] own = playerNo == 1 ? counts.getPlayerOneCounts() : counts.getPlayerTwoCounts();
+    int[] other = playerNo == 1 ? counts.getPlayerTwoCounts() : counts.getPlayerOneCounts();
+    int last = features.length;
+    for ( int line = 0; line < counts.getLineCount(); line ++ ) {
+      if ( other[line] == 0 && own[line] > 0 ) {
+        features[Math.min ( own[line], last ) - 1] ++;
+      } else if ( own[line] == 0 && other[line] > 0 ) {
+        features[Math.min ( other[line], last ) - 1] --;
+      }
+    }
+    for ( int feature : features ) {
+      if ( feature != (short) feature ) {
+        throw new IllegalStateException ( "A feature does not fit in a short: " + feature );
+      }
+    }
+  }
+
+  /**
+   * resultFor
+   * @param result the result of the game, a GameRecord.RESULT_ constant.
+   * @param playerNo a player number.
+   * @return 2 if the player won, 1 for a draw or an unfinished game, 0 if the player lost.
+   */
+  private static int resultFor ( int result, int playerNo ) {
+    if ( result == GameRecord.RESULT_PLAYER_ONE_WON || result == GameRecord.RESULT_PLAYER_TWO_WON ) {
+      return result == playerNo ? 2 : 0;
+    }
+    return 1;
+  }
+
+  /**
+   * positionSize
+   * @param beadsToWin the number of beads in a line to win.
+   * @return the size of an encoded position in bytes.
+   */
+  private static int positionSize ( int beadsToWin ) {
+    return 1 + 2 * (beadsToWin - 1);
+  }
+
+  /**
+   * tune
+   * Fits the weights to the positions files and writes the weight file.
+   * @param output the weight file to write.
+   * @param inputs the positions files, all for the same number of beads to win.
+   * @param threads the number of threads.
+   * @throws Exception if a file cannot be read or written.
+   */
+  private static void tune ( Path output, List<Path> inputs, int threads ) throws Exception {
+    int beadsToWin = 0;
+    List<ByteBuffer> chunks = new ArrayList<>();
+    long positions = 0;
+    for ( Path input : inputs ) {
+      try ( FileChannel channel = FileChannel.open ( input, StandardOpenOption.READ ) ) {
+        ByteBuffer header = channel.map ( FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE );
+        if ( header.getInt() != MAGIC || header.get() != VERSION ) {
+          throw new IOException ( input + " is not a positions file" );
+        }
+        int fileBeadsToWin = header.get();
+        if ( beadsToWin != 0 && fileBeadsToWin != beadsToWin ) {
+          throw new IOException ( input + " is for " + fileBeadsToWin + " beads to win, not " + beadsToWin );
+        }
+        beadsToWin = fileBeadsToWin;
+        int size = positionSize ( beadsToWin );
+        long count = (channel.size() - HEADER_SIZE) / size;
+        for ( long first = 0; first < count; first += CHUNK_POSITIONS ) {
+          long length = Math.min ( CHUNK_POSITIONS, count - first ) * size;
+          // the mappings stay valid after the channel is closed
+          chunks.add ( channel.map ( FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * size, length ) );
+        }
+        positions += count;
+      }
+    }
+    if ( positions == 0 ) {
+      throw new IOException ( "No positions" );
+    }
+    int featureCount = beadsToWin - 1;
+    ForkJoinPool pool = new ForkJoinPool ( threads );
+    try {
+      long start = System.nanoTime();
+      // the default weights, with the scale that predicts the results best
+      double[] defaults = new double[featureCount];
+      int[] defaultWeights = LineEvaluator.defaultWeights ( beadsToWin );
+      for ( int k = 0; k < featureCount; k ++ ) {
+        defaults[k] = defaultWeights[k + 1];
+      }
+      double[] scale = fit ( pool, chunks, featureCount, new double[][] { defaults } );
+      Pass defaultPass = pass ( pool, chunks, featureCount, new double[][] { defaults }, scale );
+      double[][] identity = new double[featureCount][featureCount];
+      for ( int k = 0; k < featureCount; k ++ ) {
+        identity[k][k] = 1;
+      }
+      double[] logits = fit ( pool, chunks, featureCount, identity );
+      Pass tunedPass = pass ( pool, chunks, featureCount, identity, logits );
+      double seconds = (System.nanoTime() - start) / 1e9;
+      int[] weights = new int[beadsToWin];
+      for ( int k = 0; k < featureCount; k ++ ) {
+        weights[k + 1] = (int) Math.round ( logits[k] * WEIGHT_UNITS );
+      }
+      System.out.printf ( "%d positions, %d threads, %.1f s%n", positions, threads, seconds );
+      System.out.printf ( "default weights %s: log loss %.5f, accuracy %.2f%%%n", Arrays.toString ( defaultWeights ),
+                          defaultPass.loss / positions, 100.0 * defaultPass.correct / Math.max ( 1, defaultPass.decisive ) );
+      System.out.printf ( "tuned weights   %s: log loss %.5f, accuracy %.2f%%%n", Arrays.toString ( weights ),
+                          tunedPass.loss / positions, 100.0 * tunedPass.correct / Math.max ( 1, tunedPass.decisive ) );
+      LineEvaluator.writeWeights ( output, weights, "Tuned by EvaluationTuner on " + positions + " positions, log loss "
+                                     + String.format ( "%.5f", tunedPass.loss / positions ) + ", " + WEIGHT_UNITS + " units per logit" );
+      System.out.println ( "Weights written to " + output );
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * fit
+   * Minimizes the log loss with Newton's method, halving a step that does not lower the loss. The prediction of a
+   * position is the logistic function of sum over i of parameter i * (basis row i . features).
+   * @param pool the pool.
+   * @param chunks the mapped positions.
+   * @param featureCount the number of features of a position.
+   * @param basis the directions of the parameters in feature space.
+   * @return the parameters.
+   */
+  private static double[] fit ( ForkJoinPool pool, List<ByteBuffer> chunks, int featureCount, double[][] basis ) {
+    double[] parameters = new double[basis.length];
+    Pass current = pass ( pool, chunks, featureCount, basis, parameters );
+    for ( int iteration = 0; iteration < MAX_ITERATIONS; iteration ++ ) {
+      double[] step = solve ( current.hessian, current.gradient );
+      double largest = 0;
+      for ( double value : step ) {
+        largest = Math.max ( largest, Math.abs ( value ) );
+      }
+      if ( largest < CONVERGED_STEP ) {
+        break;
+      }
+      Pass next = null;
+      double[] candidate = new double[parameters.length];
+      for ( double fraction = 1; fraction > 1e-4; fraction /= 2 ) {
+        for ( int i = 0; i < parameters.length; i ++ ) {
+          candidate[i] = parameters[i] - fraction * step[i];
+        }
+        next = pass ( pool, chunks, featureCount, basis, candidate );
+        if ( next.loss <= current.loss ) {
+          break;
+        }
+      }
+      if ( next.loss > current.loss ) {
+        break;
+      }
+      parameters = candidate;
+      current = next;
+    }
+    return parameters;
+  }
+
+  /**
+   * pass
+   * Sums the log loss, its gradient and its Hessian over all positions, one task per chunk.
+   * @param pool the pool.
+   * @param chunks the mapped positions.
+   * @param featureCount the number of features of a position.
+   * @param basis the directions of the parameters in feature space.
+   * @param parameters the parameters.
+   * @return the sums.
+   */
+  private static Pass pass ( ForkJoinPool pool, List<ByteBuffer> chunks, int featureCount, double[][] basis, double[] parameters ) {
+    // the weight of each feature
+    double[] weights = new double[featureCount];
+    for ( int i = 0; i < basis.length; i ++ ) {
+      for ( int k = 0; k < featureCount; k ++ ) {
+        weights[k] += parameters[i] * basis[i][k];
+      }
+    }
+    try {
+      return pool.submit ( () -> chunks.parallelStream()
+                             .map ( chunk -> passChunk ( chunk.duplicate(), featureCount, basis, weights ) )
+                             .reduce ( Pass::add ).get() ).get();
+    } catch (Exception e) {
+      throw new IllegalStateException ( e );
+    }
+  }
+
+  /**
+   * passChunk
+   * @param chunk the mapped positions of the chunk.
+   * @param featureCount the number of features of a position.
+   * @param basis the directions of the parameters in feature space.
+   * @param weights the weight of each feature.
+   * @return the sums of the chunk.
+   */
+  private static Pass passChunk ( ByteBuffer chunk, int featureCount, double[][] basis, double[] weights ) {
+    int parameterCount = basis.length;
+    Pass sums = new Pass ( parameterCount );
+    int[] features = new int[featureCount];
+    double[] x = new double[parameterCount];
+    while ( chunk.hasRemaining() ) {
+      int result = chunk.get();
+      double score = 0;
+      for ( int k = 0; k < featureCount; k ++ ) {
+        features[k] = chunk.getShort();
+        score += weights[k] * features[k];
+      }
+      for ( int i = 0; i < parameterCount; i ++ ) {
+        double value = 0;
+        for ( int k = 0; k < featureCount; k ++ ) {
+          value += basis[i][k] * features[k];
+        }
+        x[i] = value;
+      }
+      double target = result / 2.0;
+      double predicted = 1 / (1 + Math.exp ( -score ));
+      // log loss computed from the score, so that it stays finite for confident predictions
+      double softplus = score > 0 ? score + Math.log1p ( Math.exp ( -score ) ) : Math.log1p ( Math.exp ( score ) );
+      sums.loss += softplus - target * score;
+      if ( result != 1 ) {
+        sums.decisive ++;
+        if ( (score > 0) == (result == 2) && score != 0 ) {
+          sums.correct ++;
+        }
+      }
+      double error = predicted - target;
+      double curvature = predicted * (1 - predicted);
+      for ( int i = 0; i < parameterCount; i ++ ) {
+        sums.gradient[i] += error * x[i];
+        for ( int j = 0; j < parameterCount; j ++ ) {
+          sums.hessian[i][j] += curvature * x[i] * x[j];
+        }
+      }
+    }
+    return sums;
+  }
+
+  /**
+   * solve
+   * Solves a small linear system by Gaussian elimination with partial pivoting; a tiny ridge keeps it solvable when a
+   * feature is always 0.
+   * @param matrix the matrix. It is not changed.
+   * @param vector the right-hand side.
+   * @return the solution.
+   */
+  private static double[] solve ( double[][] matrix, double[] vector ) {
+    int n = vector.length;
+    double[][] a = new double[n][n + 1];
+    for ( int i = 0; i < n; i ++ ) {
+      System.arraycopy ( matrix[i], 0, a[i], 0, n );
+      a[i][i] += 1e-9 * (1 + Math.abs ( matrix[i][i] ));
+      a[i][n] = vector[i];
+    }
+    for ( int column = 0; column < n; column ++ ) {
+      int pivot = column;
+      for ( int row = column + 1; row < n; row ++ ) {
+        if ( Math.abs ( a[row][column] ) > Math.abs ( a[pivot][column] ) ) {
+          pivot = row;
+        }
+      }
+      double[] swap = a[column];
+      a[column] = a[pivot];
+      a[pivot] = swap;
+      for ( int row = column + 1; row < n; row ++ ) {
+        double factor = a[row][column] / a[column][column];
+        for ( int k = column; k <= n; k ++ ) {
+          a[row][k] -= factor * a[column][k];
+        }
+      }
+    }
+    double[] solution = new double[n];
+    for ( int row = n - 1; row >= 0; row -- ) {
+      double sum = a[row][n];
+      for ( int k = row + 1; k < n; k ++ ) {
+        sum -= a[row][k] * solution[k];
+      }
+      solution[row] = sum / a[row][row];
+    }
+    return solution;
+  }
+
+  /**
+   * Pass
+   * The sums of a pass over positions.
+   */
+  private static final class Pass {
+
+    /**
+     * The log loss.
+     */
+    private double loss;
+
+    /**
+     * The number of positions of won or lost games.
+     */
+    private long decisive;
+
+    /**
+     * The number of positions of won or lost games whose evaluation has the sign of the result.
+     */
+    private long correct;
+
+    /**
+     * The gradient of the log loss with respect to the parameters.
+     */
+    private final double[] gradient;
+
+    /**
+     * The Hessian of the log loss with respect to the parameters.
+     */
+    private final double[][] hessian;
+
+    /**
+     * The constructor.
+     * @param parameterCount the number of parameters.
+     */
+    private Pass ( int parameterCount ) {
+      gradient = new double[parameterCount];
+      hessian = new double[parameterCount][parameterCount];
+    }
+
+    /**
+     * add
+     * @param other the sums of other positions.
+     * @return these sums, with the other sums added.
+     */
+    private Pass add ( Pass other ) {
+      loss += other.loss;
+      decisive += other.decisive;
+      correct += other.correct;
+      for ( int i = 0; i < gradient.length; i ++ ) {
+        gradient[i] += other.gradient[i];
+        for ( int j = 0; j < gradient.length; j ++ ) {
+          hessian[i][j] += other.hessian[i][j];
+        }
+      }
+      return this;
+    }
+  }
+}
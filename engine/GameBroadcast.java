@@ -0,0 +1,408 @@
+package scoreFourGame.engine;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GameBroadcast
+ * Publishes the GameEvents of one live game to any number of spectators, as a java.util.concurrent.Flow.Publisher.
+ * Every spectator first receives a SNAPSHOT of the moves played so far, then every MOVE, then the END, and is
+ * completed.<p>
+ * The events are kept once, in a log shared by all spectators, and each spectator only has a cursor into it, so
+ * the memory does not grow with the number of spectators. Publishing a move stores it in the log and schedules one
+ * fan-out task: the game thread never waits for the spectators and does the same work for one spectator as for
+ * thousands. Events are delivered on the executor as each spectator requests them.<p>
+ * A spectator may fall at most bufferSize events behind. Beyond that, the OverflowPolicy applies: CONFLATE replaces
+ * the missed moves with a single SNAPSHOT of the current position, and DROP_OLDEST skips the oldest missed moves (the
+ * gap shows in the plies). The END is never dropped.<p>
+ * publishMove() and publishEnd() must be called by one thread at a time, e.g., the game's own thread; the rest is
+ * thread-safe.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameBroadcast implements Flow.Publisher<GameEvent> {
+
+  /**
+   * OverflowPolicy
+   * What a spectator receives when it falls more than bufferSize events behind.
+   */
+  public enum OverflowPolicy {
+
+    /**
+     * A SNAPSHOT of the current position instead of the missed moves.
+     */
+    CONFLATE,
+
+    /**
+     * Only the newest bufferSize missed events.
+     */
+    DROP_OLDEST
+  }
+
+  // =============== VARIABLES ===============
+  /**
+   * The default number of events a spectator may fall behind.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 32;
+
+  /**
+   * The game id.
+   */
+  private final long gameId;
+
+  /**
+   * The empty board of the game's size, for snapshots.
+   */
+  private final Board emptyBoard;
+
+  /**
+   * The game seed, for snapshots.
+   */
+  private final long seed;
+
+  /**
+   * The executor that delivers the events.
+   */
+  private final Executor executor;
+
+  /**
+   * The number of events a spectator may fall behind.
+   */
+  private final int bufferSize;
+
+  /**
+   * What a spectator that falls further behind receives.
+   */
+  private final OverflowPolicy policy;
+
+  /**
+   * The MOVE events, then the END event. Only the publishing thread writes it; size publishes the writes.
+   */
+  private final GameEvent[] log;
+
+  /**
+   * The number of events in the log.
+   */
+  private volatile int size = 0;
+
+  /**
+   * The subscribed spectators.
+   */
+  private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Whether a fan-out task is scheduled and has not started yet.
+   */
+  private final AtomicBoolean fanOutScheduled = new AtomicBoolean();
+
+  /**
+   * The constructor with the common ForkJoinPool, DEFAULT_BUFFER_SIZE and CONFLATE.
+   * @param gameId the game id.
+   * @param board the position of the game, usually empty; the moves already played are in the first SNAPSHOT.
+   * @param seed the game seed.
+   */
+  public GameBroadcast ( long gameId, Board board, long seed ) {
+    this ( gameId, board, seed, ForkJoinPool.commonPool(), DEFAULT_BUFFER_SIZE, OverflowPolicy.CONFLATE );
+  }
+
+  /**
+   * The constructor.
+   * @param gameId the game id.
+   * @param board the position of the game, usually empty; the moves already played are in the first SNAPSHOT.
+   * @param seed the game seed.
+   * @param executor the executor that delivers the events.
+   * @param bufferSize the number of events a spectator may fall behind, at least 1.
+   * @param policy what a spectator that falls further behind receives.
+   */
+  public GameBroadcast ( long gameId, Board board, long seed, Executor executor, int bufferSize, OverflowPolicy policy ) {
+    if ( bufferSize < 1 ) {
+      throw new IllegalArgumentException ( "The buffer size must be at least 1" );
+    }
+    this.gameId = gameId;
+    this.emptyBoard = new Board ( board.getLayers(), board.getRows(), board.getColumns(), board.getBeadsToWin() );
+    this.seed = seed;
+    this.executor = executor;
+    this.bufferSize = bufferSize;
+    this.policy = policy;
+    this.log = new GameEvent[board.getCellCount() + 1];
+    for ( int ply = 0; ply < board.getMoveCount(); ply ++ ) {
+      log[ply] = GameEvent.move ( gameId, ply, board.getMove ( ply ) );
+    }
+    this.size = board.getMoveCount();
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * publishMove
+   * Publishes the next move of the game. It returns without waiting for any spectator.
+   * @param pillar the pillar of the move.
+   */
+  public void publishMove ( int pillar ) {
+    int ply = size;
+    if ( ply >= log.length - 1 || isOver() ) {
+      throw new IllegalStateException ( "Game " + gameId + " has no more moves" );
+    }
+    log[ply] = GameEvent.move ( gameId, ply, pillar );
+    size = ply + 1;
+    signalSpectators();
+  }
+
+  /**
+   * publishEnd
+   * Publishes the end of the game; the spectators are completed after it. It returns without waiting for any
+   * spectator.
+   * @param result the result, a GameRecord.RESULT_ constant.
+   * @param reason why the game ended, a code of the application.
+   */
+  public void publishEnd ( int result, int reason ) {
+    if ( isOver() ) {
+      return;
+    }
+    int ply = size;
+    log[ply] = GameEvent.end ( gameId, ply, result, reason );
+    size = ply + 1;
+    signalSpectators();
+  }
+
+  /**
+   * subscribe
+   * Adds a spectator. Its first event is a SNAPSHOT of the moves played so far.
+   * @param subscriber the spectator.
+   */
+  @Override
+  public void subscribe ( Flow.Subscriber<? super GameEvent> subscriber ) {
+    Spectator spectator = new Spectator ( subscriber, moveCountOf ( size ) );
+    spectators.add ( spectator );
+    subscriber.onSubscribe ( spectator );
+    spectator.release();
+  }
+
+  /**
+   * isOver
+   * @return true if the end of the game was published.
+   */
+  public boolean isOver() {
+    int end = size;
+    return end > 0 && log[end - 1].type == GameEvent.END;
+  }
+
+  /**
+   * getMoveCount
+   * @return the number of moves published.
+   */
+  public int getMoveCount() {
+    return moveCountOf ( size );
+  }
+
+  /**
+   * getSpectatorCount
+   * @return the number of spectators that are not completed or cancelled.
+   */
+  public int getSpectatorCount() {
+    return spectators.size();
+  }
+
+  /**
+   * moveCountOf
+   * @param end a number of events in the log.
+   * @return the number of MOVE events among them.
+   */
+  private int moveCountOf ( int end ) {
+    return end > 0 && log[end - 1].type == GameEvent.END ? end - 1 : end;
+  }
+
+  /**
+   * snapshot
+   * @param moveCount the number of moves.
+   * @return a SNAPSHOT of the first moves of the game.
+   */
+  private GameEvent snapshot ( int moveCount ) {
+    int[] moves = new int[moveCount];
+    for ( int ply = 0; ply < moveCount; ply ++ ) {
+      moves[ply] = log[ply].pillar;
+    }
+    return GameEvent.snapshot ( gameId, new GameRecord ( emptyBoard.getLayers(), emptyBoard.getRows(), emptyBoard.getColumns(),
+                                                         emptyBoard.getBeadsToWin(), GameRecord.RESULT_UNFINISHED, seed, moves ) );
+  }
+
+  /**
+   * signalSpectators
+   * Schedules the fan-out task unless it is already scheduled.
+   */
+  private void signalSpectators() {
+    if ( fanOutScheduled.compareAndSet ( false, true ) ) {
+      executor.execute ( this::fanOut );
+    }
+  }
+
+  /**
+   * fanOut
+   * Tells every spectator that has demand that there are new events.
+   */
+  private void fanOut() {
+    fanOutScheduled.set ( false );
+    for ( Spectator spectator : spectators ) {
+      if ( spectator.demand.get() > 0 ) {
+        spectator.signal();
+      }
+    }
+  }
+
+  /**
+   * Spectator
+   * The subscription of one spectator: its cursor into the log and its outstanding demand. Its events are delivered
+   * by one drain task at a time, so they arrive in order and never concurrently.
+   */
+  private final class Spectator implements Flow.Subscription {
+
+    /**
+     * The subscriber.
+     */
+    private final Flow.Subscriber<? super GameEvent> subscriber;
+
+    /**
+     * The number of events requested and not delivered yet.
+     */
+    private final AtomicLong demand = new AtomicLong();
+
+    /**
+     * The number of signals not yet handled by the drain; the drain runs while it is not 0. It starts at 1 so that
+     * nothing is delivered before onSubscribe() returns.
+     */
+    private final AtomicInteger work = new AtomicInteger ( 1 );
+
+    /**
+     * The index in the log of the next event to deliver. Only the drain uses it.
+     */
+    private int cursor;
+
+    /**
+     * Whether a SNAPSHOT up to the cursor is due before the next event. Only the drain uses it.
+     */
+    private boolean snapshotDue = true;
+
+    /**
+     * Whether the subscription is cancelled or completed.
+     */
+    private volatile boolean done = false;
+
+    /**
+     * The constructor.
+     * @param subscriber the subscriber.
+     * @param cursor the number of moves of the first SNAPSHOT.
+     */
+    private Spectator ( Flow.Subscriber<? super GameEvent> subscriber, int cursor ) {
+      this.subscriber = subscriber;
+      this.cursor = cursor;
+    }
+
+    /**
+     * request
+     * Adds to the demand and delivers the available events.
+     * @param n the number of events, at least 1.
+     */
+    @Override
+    public void request ( long n ) {
+      if ( n <= 0 ) {
+        cancel();
+        subscriber.onError ( new IllegalArgumentException ( "A spectator must request at least one event" ) );
+        return;
+      }
+      demand.getAndUpdate ( current -> current + n < 0 ? Long.MAX_VALUE : current + n );
+      signal();
+    }
+
+    /**
+     * cancel
+     * Stops the delivery of events.
+     */
+    @Override
+    public void cancel() {
+      done = true;
+      spectators.remove ( this );
+    }
+
+    /**
+     * release
+     * Lets the drain run once onSubscribe() has returned.
+     */
+    private void release() {
+      if ( work.decrementAndGet() != 0 ) {
+        executor.execute ( this::drain );
+      }
+    }
+
+    /**
+     * signal
+     * Schedules the drain unless it is running or scheduled, in which case it will see the new events.
+     */
+    private void signal() {
+      if ( work.getAndIncrement() == 0 ) {
+        executor.execute ( this::drain );
+      }
+    }
+
+    /**
+     * drain
+     * Delivers events while there are signals to handle.
+     */
+    private void drain() {
+      int missed = 1;
+      while ( true ) {
+        deliver();
+        missed = work.addAndGet ( -missed );
+        if ( missed == 0 ) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * deliver
+     * Delivers as many events as requested and available, applying the overflow policy first.
+     */
+    private void deliver() {
+      while ( !done ) {
+        int end = size;
+        if ( end - cursor > bufferSize ) {
+          if ( policy == OverflowPolicy.CONFLATE ) {
+            cursor = moveCountOf ( end );
+            snapshotDue = true;
+          } else {
+            cursor = end - bufferSize;
+          }
+        }
+        if ( demand.get() == 0 || (!snapshotDue && cursor == end) ) {
+          return;
+        }
+        GameEvent event;
+        if ( snapshotDue ) {
+          event = snapshot ( cursor );
+          snapshotDue = false;
+        } else {
+          event = log[cursor ++];
+        }
+        demand.decrementAndGet();
+        try {
+          subscriber.onNext ( event );
+        } catch (RuntimeException e) {
+          // a subscriber that throws is cancelled
+          cancel();
+          return;
+        }
+        if ( event.type == GameEvent.END ) {
+          cancel();
+          subscriber.onComplete();
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package scoreFourGame.engine;
+
+/**
+ * GameClock
+ * The clocks of the two players of a game, like a chess clock: each player starts with the base time, the clock of
+ * the player to move runs, and a player who completes a move gets the increment added to its remaining time. A player
+ * whose time runs out before completing a move has lost on time (flagged).<p>
+ * The clock is read by the thread that shows it while the player to move thinks on another, so its methods are
+ * synchronized.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameClock {
+
+  // =============== VARIABLES ===============
+  /**
+   * The time each player starts with, in milliseconds.
+   */
+  private final long baseMillis;
+
+  /**
+   * The time added to a player's clock for each completed move, in milliseconds.
+   */
+  private final long incrementMillis;
+
+  /**
+   * The remaining time of each player when its clock was last stopped, by player number, in nanoseconds.
+   */
+  private final long[] remainingNanos = new long[3];
+
+  /**
+   * The player whose clock runs, or Board.NO_PLAYER if the clock is stopped.
+   */
+  private int runningPlayer = Board.NO_PLAYER;
+
+  /**
+   * The time (System.nanoTime()) the running clock was started.
+   */
+  private long startNanos = 0;
+
+  /**
+   * The constructor. The clock is stopped until start().
+   * @param baseMillis the time each player starts with, in milliseconds.
+   * @param incrementMillis the time added for each completed move, in milliseconds.
+   */
+  public GameClock ( long baseMillis, long incrementMillis ) {
+    if ( baseMillis <= 0 || incrementMillis < 0 ) {
+      throw new IllegalArgumentException ( "Invalid clock " + baseMillis + "+" + incrementMillis );
+    }
+    this.baseMillis = baseMillis;
+    this.incrementMillis = incrementMillis;
+    remainingNanos[1] = remainingNanos[2] = baseMillis * 1000000;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * format
+   * Formats a time like a chess clock: minutes and seconds, with tenths of seconds under 10 seconds.
+   * @param millis a time in milliseconds; a negative time shows as 0.
+   * @return the time, e.g., "4:59" or "9.3".
+   */
+  public static String format ( long millis ) {
+    millis = Math.max ( 0, millis );
+    if ( millis < 10000 ) {
+      return (millis / 1000) + "." + (millis / 100 % 10);
+    }
+    long seconds = millis / 1000;
+    return (seconds / 60) + ":" + (seconds % 60 < 10 ? "0" : "") + (seconds % 60);
+  }
+
+  /**
+   * getBaseMillis
+   * @return the time each player starts with, in milliseconds.
+   */
+  public long getBaseMillis() {
+    return baseMillis;
+  }
+
+  /**
+   * getIncrementMillis
+   * @return the time added for each completed move, in milliseconds.
+   */
+  public long getIncrementMillis() {
+    return incrementMillis;
+  }
+
+  /**
+   * start
+   * Starts the clock of a player. The clock of the other player, if it runs, is stopped without an increment.
+   * @param playerNo the player number (1 or 2).
+   */
+  public synchronized void start ( int playerNo ) {
+    stop();
+    runningPlayer = playerNo;
+    startNanos = System.nanoTime();
+  }
+
+  /**
+   * stop
+   * Stops the running clock, e.g., while a game is paused or reviewed, without an increment.
+   */
+  public synchronized void stop() {
+    if ( runningPlayer != Board.NO_PLAYER ) {
+      remainingNanos[runningPlayer] -= System.nanoTime() - startNanos;
+      runningPlayer = Board.NO_PLAYER;
+    }
+  }
+
+  /**
+   * press
+   * Completes the move of the player whose clock runs: stops its clock, adds the increment if the time has not run out
+   * and starts the clock of the other player. Nothing happens if the clock is stopped.
+   * @return true if the player completed the move in time, false if it has flagged; then the clock is stopped.
+   */
+  public synchronized boolean press() {
+    int playerNo = runningPlayer;
+    if ( playerNo == Board.NO_PLAYER ) {
+      return true;
+    }
+    stop();
+    if ( remainingNanos[playerNo] < 0 ) {
+      return false;
+    }
+    remainingNanos[playerNo] += incrementMillis * 1000000;
+    start ( 3 - playerNo );
+    return true;
+  }
+
+  /**
+   * getRunningPlayer
+   * @return the player whose clock runs, or Board.NO_PLAYER if the clock is stopped.
+   */
+  public synchronized int getRunningPlayer() {
+    return runningPlayer;
+  }
+
+  /**
+   * getRemainingMillis
+   * @param playerNo the player number (1 or 2).
+   * @return the remaining time of the player now, in milliseconds; it is negative once the player has flagged.
+   */
+  public synchronized long getRemainingMillis ( int playerNo ) {
+    long nanos = remainingNanos[playerNo];
+    if ( playerNo == runningPlayer ) {
+      nanos -= System.nanoTime() - startNanos;
+    }
+    return Math.floorDiv ( nanos, 1000000 );
+  }
+
+  /**
+   * isFlagged
+   * @param playerNo the player number (1 or 2).
+   * @return true if the time of the player has run out.
+   */
+  public synchronized boolean isFlagged ( int playerNo ) {
+    return getRemainingMillis ( playerNo ) < 0;
+  }
+}
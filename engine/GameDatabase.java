@@ -0,0 +1,940 @@
+package scoreFourGame.engine;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * GameDatabase
+ * An on-disk store of game records with an index from position hash to the games (and plies) that reached the
+ * position. A database is a directory with three files:
+ * <ul>
+ * <li>games.s4gr: the game records, appended in the GameRecordWriter format. The game id is the record number.
+ * A database created before format version 2 keeps appending version 1 records, without seeds.</li>
+ * <li>games.off: the byte offset of each record in games.s4gr, 8 bytes per game.</li>
+ * <li>positions.idx: a 16-byte header (magic, version, number of games indexed) followed by 16-byte entries
+ * (position hash, then game id, ply and result) sorted by hash. It is memory-mapped for lookups.</li>
+ * </ul>
+ * Games added with addGame() are indexed in memory, and commit() makes them durable. Their positions are merged into
+ * positions.idx in batches, when the in-memory buffer is full and on close(), so a commit does not rewrite the index.
+ * importGames() sorts the positions of a large stream of games in bounded runs on disk and merges them in a single
+ * pass, so the heap use does not depend on the number of games.<p>
+ * A game's offset is written only after its record is forced to disk, so every offset points to a complete record.
+ * When the database is opened, trailing offsets of records that did not reach the disk before a crash are dropped,
+ * and the games appended after the last merge are re-indexed. An index that covers lost games is rebuilt.<p>
+ * Writes are not thread-safe. Position hashes are 64-bit Zobrist hashes, so a lookup may in theory return a game
+ * that reached a different position with the same hash.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameDatabase implements Closeable {
+
+  // =============== VARIABLES ===============
+  /**
+   * The file name of the game records.
+   */
+  public static final String GAMES_FILENAME = "games.s4gr";
+
+  /**
+   * The file name of the game record offsets.
+   */
+  public static final String OFFSETS_FILENAME = "games.off";
+
+  /**
+   * The file name of the position index.
+   */
+  public static final String INDEX_FILENAME = "positions.idx";
+
+  /**
+   * The magic number at the start of the position index ("S4GI").
+   */
+  private static final int INDEX_MAGIC = 0x53344749;
+
+  /**
+   * The position index format version.
+   */
+  private static final int INDEX_VERSION = 1;
+
+  /**
+   * The size of the position index header in bytes.
+   */
+  private static final int INDEX_HEADER_SIZE = 16;
+
+  /**
+   * The size of a position index entry in bytes.
+   */
+  private static final int ENTRY_SIZE = 16;
+
+  /**
+   * The number of entries mapped by each MappedByteBuffer (1 GB), as a single buffer cannot exceed 2 GB.
+   */
+  private static final int ENTRIES_PER_SEGMENT = 1 << 26;
+
+  /**
+   * The number of positions sorted in memory before they are merged or spilled to a run file (64 MB).
+   */
+  static final int RUN_SIZE = 1 << 22;
+
+  /**
+   * The number of offsets kept in memory before the game records are forced to disk and the offsets written.
+   */
+  private static final int OFFSET_BATCH = 8192;
+
+  /**
+   * The database directory.
+   */
+  private final Path directory;
+
+  /**
+   * The game records file, opened for reading.
+   */
+  private final FileChannel gamesChannel;
+
+  /**
+   * The game records file, opened for appending.
+   */
+  private final FileChannel gamesAppendChannel;
+
+  /**
+   * The buffered stream over gamesAppendChannel.
+   */
+  private final OutputStream gamesOut;
+
+  /**
+   * The format version of the game records file.
+   */
+  private final int gamesVersion;
+
+  /**
+   * The offsets file, opened for reading.
+   */
+  private final FileChannel offsetsChannel;
+
+  /**
+   * The offsets file, opened for appending.
+   */
+  private final FileChannel offsetsAppendChannel;
+
+  /**
+   * The offsets of the appended games that are not in the offsets file yet, since their records may not be on disk.
+   */
+  private final ByteBuffer pendingOffsets = ByteBuffer.allocate ( OFFSET_BATCH * 8 );
+
+  /**
+   * The size of the game records file, including the bytes that are not flushed yet.
+   */
+  private long gamesSize;
+
+  /**
+   * The number of games in the database.
+   */
+  private int gameCount;
+
+  /**
+   * The number of games whose positions are in positions.idx.
+   */
+  private int indexedGameCount;
+
+  /**
+   * The memory-mapped segments of the position index entries.
+   */
+  private MappedByteBuffer[] indexSegments = new MappedByteBuffer[0];
+
+  /**
+   * The number of entries in positions.idx.
+   */
+  private long indexEntryCount = 0;
+
+  /**
+   * The position hashes of the entries that are not in positions.idx yet. It grows up to RUN_SIZE entries.
+   */
+  private long[] pendingHashes = new long[1024];
+
+  /**
+   * The payloads (game id, ply and result) of the entries that are not in positions.idx yet.
+   */
+  private long[] pendingPayloads = new long[1024];
+
+  /**
+   * The number of pending entries.
+   */
+  private int pendingCount = 0;
+
+  /**
+   * Whether the pending entries are sorted.
+   */
+  private boolean pendingSorted = true;
+
+  /**
+   * A game that reached a position.
+   */
+  public static final class PositionHit {
+    /**
+     * The game id.
+     */
+    public final int gameId;
+
+    /**
+     * The number of moves played when the position was reached.
+     */
+    public final int ply;
+
+    /**
+     * The result of the game, one of the GameRecord.RESULT_ constants.
+     */
+    public final int result;
+
+    /**
+     * The constructor.
+     * @param payload the packed game id, ply and result of an index entry.
+     */
+    private PositionHit ( long payload ) {
+      this.gameId = (int) (payload >>> 32);
+      this.ply = (int) (payload >>> 16) & 0xFFFF;
+      this.result = (int) (payload >>> 8) & 0xFF;
+    }
+  }
+
+  /**
+   * The constructor. Use open() to open a database.
+   * @param directory the database directory.
+   * @throws IOException if the files cannot be opened.
+   */
+  private GameDatabase ( Path directory ) throws IOException {
+    this.directory = directory;
+    Files.createDirectories ( directory );
+    Path gamesFile = directory.resolve ( GAMES_FILENAME );
+    Path offsetsFile = directory.resolve ( OFFSETS_FILENAME );
+    boolean newDatabase = !Files.exists ( gamesFile ) || Files.size ( gamesFile ) == 0;
+    gamesAppendChannel = FileChannel.open ( gamesFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND );
+    gamesOut = new BufferedOutputStream ( Channels.newOutputStream ( gamesAppendChannel ), 1 << 16 );
+    offsetsAppendChannel = FileChannel.open ( offsetsFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND );
+    if ( newDatabase ) {
+      gamesOut.write ( GameRecordWriter.MAGIC );
+      gamesOut.write ( GameRecordWriter.VERSION );
+      gamesOut.flush();
+    }
+    gamesChannel = FileChannel.open ( gamesFile, StandardOpenOption.READ );
+    gamesVersion = readGamesVersion ( gamesChannel );
+    offsetsChannel = FileChannel.open ( offsetsFile, StandardOpenOption.READ );
+    recover();
+    mapIndex();
+    if ( indexedGameCount > gameCount ) {
+      // the index covers games that were lost, e.g., from a damaged disk: rebuild it from the games
+      indexSegments = new MappedByteBuffer[0];
+      indexEntryCount = 0;
+      indexedGameCount = 0;
+      Files.delete ( directory.resolve ( INDEX_FILENAME ) );
+    }
+    // re-index the games appended after the last commit (e.g., before a crash)
+    for ( int gameId = indexedGameCount; gameId < gameCount; gameId ++ ) {
+      addPositions ( gameId, readGame ( gameId ) );
+    }
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * open
+   * Opens the database in the directory, creating it if it does not exist.
+   * @param directory the database directory.
+   * @return the database.
+   * @throws IOException if the files cannot be opened or the index is invalid.
+   */
+  public static GameDatabase open ( Path directory ) throws IOException {
+    return new GameDatabase ( directory );
+  }
+
+  /**
+   * main
+   * Command-line access to a database:
+   * <pre>
+   * import &lt;directory&gt; &lt;game-record file&gt;...   bulk imports the games of the files
+   * stats &lt;directory&gt; &lt;size&gt; [pillar]...         prints the results of the games that reached the position
+   * </pre>
+   * @param args the command and its arguments.
+   * @throws IOException if the database or a file cannot be read or written.
+   */
+  public static void main ( String[] args ) throws IOException {
+    if ( args.length >= 2 && args[0].equals ( "import" ) ) {
+      try ( GameDatabase database = open ( Path.of ( args[1] ) ) ) {
+        for ( int i = 2; i < args.length; i ++ ) {
+          long start = System.nanoTime();
+          try ( GameRecordReader reader = new GameRecordReader ( Files.newInputStream ( Path.of ( args[i] ) ) ) ) {
+            long imported = database.importGames ( reader );
+            System.out.println ( args[i] + ": " + imported + " games imported in " + (System.nanoTime() - start) / 1000000 + " ms" );
+          }
+        }
+        System.out.println ( database.getGameCount() + " games, " + database.getPositionCount() + " positions" );
+      }
+    } else if ( args.length >= 3 && args[0].equals ( "stats" ) ) {
+      try ( GameDatabase database = open ( Path.of ( args[1] ) ) ) {
+        Board board = new Board ( Integer.parseInt ( args[2] ) );
+        for ( int i = 3; i < args.length; i ++ ) {
+          board.drop ( Integer.parseInt ( args[i] ) );
+        }
+        long[] counts = database.countResults ( board.getHash() );
+        System.out.println ( "player 1 won " + counts[GameRecord.RESULT_PLAYER_ONE_WON] + ", player 2 won " + counts[GameRecord.RESULT_PLAYER_TWO_WON]
+                              + ", draw " + counts[GameRecord.RESULT_DRAW] + ", unfinished " + counts[GameRecord.RESULT_UNFINISHED] );
+      }
+    } else {
+      System.err.println ( "Usage: GameDatabase import <directory> <file>... | stats <directory> <size> [pillar]..." );
+      System.exit ( 2 );
+    }
+  }
+
+  /**
+   * addGame
+   * Appends a game and indexes its positions in memory. The positions are visible to lookups immediately, and
+   * are written to positions.idx by commit().
+   * @param record the game to add.
+   * @return the game id.
+   * @throws IOException if the game cannot be written.
+   */
+  public int addGame ( GameRecord record ) throws IOException {
+    int gameId = appendGame ( record );
+    addPositions ( gameId, record );
+    return gameId;
+  }
+
+  /**
+   * importGames
+   * Appends all games of the stream. Positions are sorted in runs of RUN_SIZE entries that are spilled to
+   * temporary files, and all runs are merged into positions.idx at the end.
+   * @param reader the stream of games to import.
+   * @return the number of games imported.
+   * @throws IOException if a game cannot be read or written.
+   */
+  public long importGames ( GameRecordReader reader ) throws IOException {
+    List<Path> runFiles = new ArrayList<>();
+    long imported = 0;
+    try {
+      GameRecord record;
+      while ( (record = reader.read()) != null ) {
+        int gameId = appendGame ( record );
+        Board board = record.toBoard();
+        if ( pendingCount + record.getMoveCount() + 1 > RUN_SIZE ) {
+          runFiles.add ( spillRun() );
+        }
+        addPositions ( gameId, record, board );
+        imported ++;
+      }
+      merge ( runFiles );
+    } finally {
+      for ( Path runFile : runFiles ) {
+        Files.deleteIfExists ( runFile );
+      }
+    }
+    return imported;
+  }
+
+  /**
+   * commit
+   * Makes the appended games durable: their records are forced to disk, then their offsets. Their positions stay in
+   * memory until the next merge into positions.idx; after a crash they are re-indexed from the games.
+   * @throws IOException if the files cannot be written.
+   */
+  public void commit() throws IOException {
+    flushGames();
+  }
+
+  /**
+   * findPosition
+   * Returns all games that reached the position.
+   * @param hash the position hash, see Board.getHash().
+   * @return the games and plies at which the position was reached, ordered by game id and ply.
+   */
+  public List<PositionHit> findPosition ( long hash ) {
+    List<PositionHit> hits = new ArrayList<>();
+    for ( long entry = lowerBound ( hash ); entry < indexEntryCount && entryHash ( entry ) == hash; entry ++ ) {
+      hits.add ( new PositionHit ( entryPayload ( entry ) ) );
+    }
+    sortPending();
+    for ( int i = lowerBound ( pendingHashes, pendingCount, hash ); i < pendingCount && pendingHashes[i] == hash; i ++ ) {
+      hits.add ( new PositionHit ( pendingPayloads[i] ) );
+    }
+    return hits;
+  }
+
+  /**
+   * countResults
+   * Counts the results of all games that reached the position. A game that reached the position more than once
+   * (not possible with gravity, but possible with hash collisions) is counted once per hit.
+   * @param hash the position hash, see Board.getHash().
+   * @return the number of games per result, indexed by the GameRecord.RESULT_ constants.
+   */
+  public long[] countResults ( long hash ) {
+    long[] counts = new long[GameRecord.RESULT_DRAW + 1];
+    for ( PositionHit hit : findPosition ( hash ) ) {
+      counts[hit.result] ++;
+    }
+    return counts;
+  }
+
+  /**
+   * readGame
+   * Reads a game.
+   * @param gameId the game id.
+   * @return the game record.
+   * @throws IOException if the game cannot be read.
+   */
+  public GameRecord readGame ( int gameId ) throws IOException {
+    if ( gameId < 0 || gameId >= gameCount ) {
+      throw new IllegalArgumentException ( "No game " + gameId );
+    }
+    flushGames();
+    InputStream in = new BufferedInputStream ( Channels.newInputStream ( gamesChannel.position ( readOffset ( gameId ) ) ), 512 );
+    GameRecord record = GameRecordReader.readRecord ( in, gamesVersion );
+    if ( record == null ) {
+      throw new IOException ( "Truncated games file" );
+    }
+    return record;
+  }
+
+  /**
+   * getGameCount
+   * @return the number of games in the database.
+   */
+  public int getGameCount() {
+    return gameCount;
+  }
+
+  /**
+   * getPositionCount
+   * @return the number of indexed positions, including the pending ones.
+   */
+  public long getPositionCount() {
+    return indexEntryCount + pendingCount;
+  }
+
+  /**
+   * close
+   * Commits the games, merges the pending positions into positions.idx and closes the files.
+   * @throws IOException if the files cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      merge ( new ArrayList<>() );
+    } finally {
+      gamesOut.close();
+      offsetsAppendChannel.close();
+      gamesChannel.close();
+      offsetsChannel.close();
+      indexSegments = new MappedByteBuffer[0];
+    }
+  }
+
+  /**
+   * readGamesVersion
+   * Reads and checks the header of the game records file.
+   * @param channel the game records file.
+   * @return the format version of the file.
+   * @throws IOException if the header is invalid or of an unsupported version.
+   */
+  private static int readGamesVersion ( FileChannel channel ) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate ( GameRecordWriter.MAGIC.length + 1 );
+    while ( header.hasRemaining() && channel.read ( header, header.position() ) > 0 ) {
+      // read the whole header
+    }
+    for ( int i = 0; i < GameRecordWriter.MAGIC.length; i ++ ) {
+      if ( header.position() < header.capacity() || header.get ( i ) != GameRecordWriter.MAGIC[i] ) {
+        throw new IOException ( "Not a game record file" );
+      }
+    }
+    int version = header.get ( GameRecordWriter.MAGIC.length );
+    if ( version < 1 || version > GameRecordWriter.VERSION ) {
+      throw new IOException ( "Unsupported game record version " + version );
+    }
+    return version;
+  }
+
+  /**
+   * recover
+   * Finds the games of the files: drops the trailing offsets whose records do not end within the game records file,
+   * e.g., after a crash, and cuts both files after the last complete record.
+   * @throws IOException if the files cannot be read or cut.
+   */
+  private void recover() throws IOException {
+    gamesSize = gamesChannel.size();
+    gameCount = (int) (offsetsChannel.size() / 8);
+    long gamesEnd = GameRecordWriter.MAGIC.length + 1;
+    while ( gameCount > 0 ) {
+      try {
+        long offset = readOffset ( gameCount - 1 );
+        long length = GameRecordWriter.writeRecord ( OutputStream.nullOutputStream(), readGame ( gameCount - 1 ), gamesVersion );
+        if ( offset + length <= gamesSize ) {
+          gamesEnd = offset + length;
+          break;
+        }
+      } catch (IOException e) {
+        // a torn record
+      }
+      gameCount --;
+    }
+    if ( offsetsChannel.size() > (long) gameCount * 8 ) {
+      offsetsAppendChannel.truncate ( (long) gameCount * 8 );
+    }
+    if ( gamesSize > gamesEnd ) {
+      gamesAppendChannel.truncate ( gamesEnd );
+      gamesSize = gamesEnd;
+    }
+  }
+
+  /**
+   * readOffset
+   * @param gameId the game id, of a game whose offset is in the offsets file.
+   * @return the byte offset of the game's record.
+   * @throws IOException if the offset cannot be read.
+   */
+  private long readOffset ( int gameId ) throws IOException {
+    ByteBuffer offset = ByteBuffer.allocate ( 8 );
+    while ( offset.hasRemaining() ) {
+      if ( offsetsChannel.read ( offset, (long) gameId * 8 + offset.position() ) < 0 ) {
+        throw new IOException ( "Truncated offsets file" );
+      }
+    }
+    return offset.getLong ( 0 );
+  }
+
+  /**
+   * appendGame
+   * Appends the record, and its offset to the pending offsets. A full batch of offsets is written by flushGames().
+   * @param record the game to append.
+   * @return the game id.
+   * @throws IOException if the game cannot be written.
+   */
+  private int appendGame ( GameRecord record ) throws IOException {
+    if ( !pendingOffsets.hasRemaining() ) {
+      flushGames();
+    }
+    pendingOffsets.putLong ( gamesSize );
+    gamesSize += GameRecordWriter.writeRecord ( gamesOut, record, gamesVersion );
+    return gameCount ++;
+  }
+
+  /**
+   * flushGames
+   * Writes the appended games to disk and forces them, and only then writes the pending offsets and forces them, so
+   * that an offset in the offsets file never points past the records on disk.
+   * @throws IOException if the files cannot be written.
+   */
+  private void flushGames() throws IOException {
+    if ( pendingOffsets.position() == 0 ) {
+      return;
+    }
+    gamesOut.flush();
+    gamesAppendChannel.force ( false );
+    pendingOffsets.flip();
+    while ( pendingOffsets.hasRemaining() ) {
+      offsetsAppendChannel.write ( pendingOffsets );
+    }
+    pendingOffsets.clear();
+    offsetsAppendChannel.force ( false );
+  }
+
+  /**
+   * addPositions
+   * Adds the positions of a game to the pending entries, merging them into positions.idx first if they do not fit.
+   * @param gameId the game id.
+   * @param record the game.
+   * @throws IOException if the index cannot be written.
+   */
+  private void addPositions ( int gameId, GameRecord record ) throws IOException {
+    Board board = record.toBoard();
+    if ( pendingCount + record.getMoveCount() + 1 > RUN_SIZE ) {
+      merge ( new ArrayList<>() );
+    }
+    addPositions ( gameId, record, board );
+  }
+
+  /**
+   * addPositions
+   * Adds the positions of a game, from the empty board to the final position, to the pending entries.
+   * @param gameId the game id.
+   * @param record the game.
+   * @param board the final position of the game, which is unwound to the empty board.
+   */
+  private void addPositions ( int gameId, GameRecord record, Board board ) {
+    if ( pendingCount + record.getMoveCount() + 1 > pendingHashes.length ) {
+      int capacity = Math.min ( RUN_SIZE, Math.max ( pendingHashes.length * 2, pendingCount + record.getMoveCount() + 1 ) );
+      pendingHashes = Arrays.copyOf ( pendingHashes, capacity );
+      pendingPayloads = Arrays.copyOf ( pendingPayloads, capacity );
+    }
+    for ( int ply = record.getMoveCount(); ply >= 0; ply -- ) {
+      pendingHashes[pendingCount] = board.getHash();
+      pendingPayloads[pendingCount] = ((long) gameId << 32) | ((long) ply << 16) | ((long) record.getResult() << 8);
+      pendingCount ++;
+      if ( ply > 0 ) {
+        board.undo();
+      }
+    }
+    pendingSorted = false;
+  }
+
+  /**
+   * spillRun
+   * Sorts the pending entries and writes them to a temporary run file.
+   * @return the run file.
+   * @throws IOException if the run cannot be written.
+   */
+  private Path spillRun() throws IOException {
+    sortPending();
+    Path runFile = Files.createTempFile ( directory, "positions", ".run" );
+    try ( DataOutputStream out = new DataOutputStream ( new BufferedOutputStream ( Files.newOutputStream ( runFile ), 1 << 16 ) ) ) {
+      for ( int i = 0; i < pendingCount; i ++ ) {
+        out.writeLong ( pendingHashes[i] );
+        out.writeLong ( pendingPayloads[i] );
+      }
+    }
+    pendingCount = 0;
+    return runFile;
+  }
+
+  /**
+   * merge
+   * Merges positions.idx, the run files and the pending entries into a new positions.idx, and maps it.
+   * @param runFiles the sorted run files to merge.
+   * @throws IOException if the index cannot be written.
+   */
+  private void merge ( List<Path> runFiles ) throws IOException {
+    // the index must not cover games that are not on disk
+    flushGames();
+    if ( runFiles.isEmpty() && pendingCount == 0 && indexedGameCount == gameCount ) {
+      return;
+    }
+    sortPending();
+    List<EntrySource> sources = new ArrayList<>();
+    try {
+      long entryCount = pendingCount;
+      sources.add ( new ArraySource ( pendingHashes, pendingPayloads, pendingCount ) );
+      sources.add ( new IndexSource() );
+      entryCount += indexEntryCount;
+      for ( Path runFile : runFiles ) {
+        sources.add ( new RunSource ( runFile ) );
+        entryCount += Files.size ( runFile ) / ENTRY_SIZE;
+      }
+      PriorityQueue<EntrySource> queue = new PriorityQueue<>( (a, b) -> a.hash != b.hash ? Long.compare ( a.hash, b.hash ) : Long.compare ( a.payload, b.payload ) );
+      for ( EntrySource source : sources ) {
+        if ( source.advance() ) {
+          queue.add ( source );
+        }
+      }
+      Path newIndexFile = Files.createTempFile ( directory, "positions", ".idx" );
+      try ( DataOutputStream out = new DataOutputStream ( new BufferedOutputStream ( Files.newOutputStream ( newIndexFile ), 1 << 16 ) ) ) {
+        out.writeInt ( INDEX_MAGIC );
+        out.writeInt ( INDEX_VERSION );
+        out.writeLong ( gameCount );
+        long written = 0;
+        while ( !queue.isEmpty() ) {
+          EntrySource source = queue.poll();
+          out.writeLong ( source.hash );
+          out.writeLong ( source.payload );
+          written ++;
+          if ( source.advance() ) {
+            queue.add ( source );
+          }
+        }
+        if ( written != entryCount ) {
+          throw new IOException ( "Merged " + written + " of " + entryCount + " positions" );
+        }
+      }
+      Files.move ( newIndexFile, directory.resolve ( INDEX_FILENAME ), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    } finally {
+      for ( EntrySource source : sources ) {
+        source.close();
+      }
+    }
+    pendingCount = 0;
+    mapIndex();
+  }
+
+  /**
+   * mapIndex
+   * Maps positions.idx (if it exists) into memory.
+   * @throws IOException if the index cannot be mapped or is invalid.
+   */
+  private void mapIndex() throws IOException {
+    Path indexFile = directory.resolve ( INDEX_FILENAME );
+    indexSegments = new MappedByteBuffer[0];
+    indexEntryCount = 0;
+    indexedGameCount = 0;
+    if ( !Files.exists ( indexFile ) ) {
+      return;
+    }
+    try ( FileChannel channel = FileChannel.open ( indexFile, StandardOpenOption.READ ) ) {
+      ByteBuffer header = ByteBuffer.allocate ( INDEX_HEADER_SIZE );
+      while ( header.hasRemaining() && channel.read ( header ) >= 0 ) {
+      }
+      if ( header.hasRemaining() || header.getInt ( 0 ) != INDEX_MAGIC || header.getInt ( 4 ) != INDEX_VERSION ) {
+        throw new IOException ( "Invalid position index " + indexFile );
+      }
+      long entryCount = (channel.size() - INDEX_HEADER_SIZE) / ENTRY_SIZE;
+      int segmentCount = (int) ((entryCount + ENTRIES_PER_SEGMENT - 1) / ENTRIES_PER_SEGMENT);
+      MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+      for ( int segment = 0; segment < segmentCount; segment ++ ) {
+        long first = (long) segment * ENTRIES_PER_SEGMENT;
+        long count = Math.min ( ENTRIES_PER_SEGMENT, entryCount - first );
+        segments[segment] = channel.map ( FileChannel.MapMode.READ_ONLY, INDEX_HEADER_SIZE + first * ENTRY_SIZE, count * ENTRY_SIZE );
+      }
+      indexSegments = segments;
+      indexEntryCount = entryCount;
+      indexedGameCount = (int) header.getLong ( 8 );
+    }
+  }
+
+  /**
+   * entryHash
+   * @param entry the entry number in positions.idx.
+   * @return the position hash of the entry.
+   */
+  private long entryHash ( long entry ) {
+    return indexSegments[(int) (entry / ENTRIES_PER_SEGMENT)].getLong ( (int) (entry % ENTRIES_PER_SEGMENT) * ENTRY_SIZE );
+  }
+
+  /**
+   * entryPayload
+   * @param entry the entry number in positions.idx.
+   * @return the packed game id, ply and result of the entry.
+   */
+  private long entryPayload ( long entry ) {
+    return indexSegments[(int) (entry / ENTRIES_PER_SEGMENT)].getLong ( (int) (entry % ENTRIES_PER_SEGMENT) * ENTRY_SIZE + 8 );
+  }
+
+  /**
+   * lowerBound
+   * Binary search in positions.idx.
+   * @param hash the position hash.
+   * @return the first entry whose hash is not less than the hash.
+   */
+  private long lowerBound ( long hash ) {
+    long low = 0;
+    long high = indexEntryCount;
+    while ( low < high ) {
+      long middle = (low + high) >>> 1;
+      if ( entryHash ( middle ) < hash ) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * lowerBound
+   * Binary search in a sorted array.
+   * @param hashes the sorted hashes.
+   * @param count the number of hashes.
+   * @param hash the position hash.
+   * @return the first index whose hash is not less than the hash.
+   */
+  private static int lowerBound ( long[] hashes, int count, long hash ) {
+    int low = 0;
+    int high = count;
+    while ( low < high ) {
+      int middle = (low + high) >>> 1;
+      if ( hashes[middle] < hash ) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * sortPending
+   * Sorts the pending entries by hash and payload if they are not sorted.
+   */
+  private void sortPending() {
+    if ( !pendingSorted ) {
+      sortEntries ( pendingHashes, pendingPayloads, 0, pendingCount - 1 );
+      pendingSorted = true;
+    }
+  }
+
+  /**
+   * sortEntries
+   * Sorts parallel arrays of hashes and payloads by hash, then payload (quicksort, insertion sort for short ranges).
+   * @param hashes the hashes.
+   * @param payloads the payloads.
+   * @param low the first index to sort.
+   * @param high the last index to sort.
+   */
+  static void sortEntries ( long[] hashes, long[] payloads, int low, int high ) {
+    while ( high - low > 16 ) {
+      int middle = (low + high) >>> 1;
+      long pivotHash = hashes[middle];
+      long pivotPayload = payloads[middle];
+      int i = low;
+      int j = high;
+      while ( i <= j ) {
+        while ( hashes[i] < pivotHash || (hashes[i] == pivotHash && payloads[i] < pivotPayload) ) {
+          i ++;
+        }
+        while ( hashes[j] > pivotHash || (hashes[j] == pivotHash && payloads[j] > pivotPayload) ) {
+          j --;
+        }
+        if ( i <= j ) {
+          swap ( hashes, payloads, i ++, j -- );
+        }
+      }
+      // recurse into the smaller half, loop on the larger one
+      if ( j - low < high - i ) {
+        sortEntries ( hashes, payloads, low, j );
+        low = i;
+      } else {
+        sortEntries ( hashes, payloads, i, high );
+        high = j;
+      }
+    }
+    for ( int i = low + 1; i <= high; i ++ ) {
+      for ( int j = i; j > low && (hashes[j - 1] > hashes[j] || (hashes[j - 1] == hashes[j] && payloads[j - 1] > payloads[j])); j -- ) {
+        swap ( hashes, payloads, j - 1, j );
+      }
+    }
+  }
+
+  /**
+   * swap
+   * Swaps two entries of the parallel arrays.
+   * @param hashes the hashes.
+   * @param payloads the payloads.
+   * @param i the first index.
+   * @param j the second index.
+   */
+  private static void swap ( long[] hashes, long[] payloads, int i, int j ) {
+    long hash = hashes[i];
+    hashes[i] = hashes[j];
+    hashes[j] = hash;
+    long payload = payloads[i];
+    payloads[i] = payloads[j];
+    payloads[j] = payload;
+  }
+
+  /**
+   * EntrySource
+   * A sorted sequence of index entries for the merge.
+   */
+  private abstract static class EntrySource implements Closeable {
+    /**
+     * The hash of the current entry.
+     */
+    long hash;
+
+    /**
+     * The payload of the current entry.
+     */
+    long payload;
+
+    /**
+     * advance
+     * Moves to the next entry.
+     * @return false if there are no more entries.
+     * @throws IOException if the entry cannot be read.
+     */
+    abstract boolean advance() throws IOException;
+
+    /**
+     * close
+     * Releases the source.
+     * @throws IOException if the source cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+    }
+  }
+
+  /**
+   * ArraySource
+   * The sorted pending entries.
+   */
+  private static final class ArraySource extends EntrySource {
+    private final long[] hashes;
+    private final long[] payloads;
+    private final int count;
+    private int next = 0;
+
+    ArraySource ( long[] hashes, long[] payloads, int count ) {
+      this.hashes = hashes;
+      this.payloads = payloads;
+      this.count = count;
+    }
+
+    @Override
+    boolean advance() {
+      if ( next == count ) {
+        return false;
+      }
+      hash = hashes[next];
+      payload = payloads[next ++];
+      return true;
+    }
+  }
+
+  /**
+   * IndexSource
+   * The entries of the current positions.idx.
+   */
+  private final class IndexSource extends EntrySource {
+    private long next = 0;
+
+    @Override
+    boolean advance() {
+      if ( next == indexEntryCount ) {
+        return false;
+      }
+      hash = entryHash ( next );
+      payload = entryPayload ( next ++ );
+      return true;
+    }
+  }
+
+  /**
+   * RunSource
+   * The entries of a run file.
+   */
+  private static final class RunSource extends EntrySource {
+    private final DataInputStream in;
+    private long remaining;
+
+    RunSource ( Path runFile ) throws IOException {
+      this.remaining = Files.size ( runFile ) / ENTRY_SIZE;
+      this.in = new DataInputStream ( new BufferedInputStream ( Files.newInputStream ( runFile ), 1 << 16 ) );
+    }
+
+    @Override
+    boolean advance() throws IOException {
+      if ( remaining == 0 ) {
+        return false;
+      }
+      hash = in.readLong();
+      payload = in.readLong();
+      remaining --;
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
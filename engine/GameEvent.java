@@ -0,0 +1,147 @@
+package scoreFourGame.engine;
+
+/**
+ * GameEvent
+ * An event of a live game, published by a GameBroadcast to its spectators:
+ * <ul>
+ * <li>SNAPSHOT: the moves played so far, sent first to every spectator, and instead of the moves that a slow
+ * spectator missed when its buffer is conflated.</li>
+ * <li>MOVE: a move of the game.</li>
+ * <li>END: the game is over; no event follows.</li>
+ * </ul>
+ * Only the fields of the event type are set; the others are 0 or null.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class GameEvent {
+
+  // =============== VARIABLES ===============
+  /**
+   * The event type of the moves played so far.
+   */
+  public static final int SNAPSHOT = 1;
+
+  /**
+   * The event type of a move.
+   */
+  public static final int MOVE = 2;
+
+  /**
+   * The event type of the end of the game.
+   */
+  public static final int END = 3;
+
+  /**
+   * The event type.
+   */
+  public final int type;
+
+  /**
+   * The game id.
+   */
+  public final long gameId;
+
+  /**
+   * SNAPSHOT and END: the number of moves played; MOVE: the number of moves played before this one.
+   */
+  public final int ply;
+
+  /**
+   * MOVE: the player number of the move.
+   */
+  public final int playerNo;
+
+  /**
+   * MOVE: the pillar of the move.
+   */
+  public final int pillar;
+
+  /**
+   * END: the result, a GameRecord.RESULT_ constant.
+   */
+  public final int result;
+
+  /**
+   * END: why the game ended, a code of the application, e.g., Protocol.REASON_RESIGNED.
+   */
+  public final int reason;
+
+  /**
+   * SNAPSHOT: the moves played so far, with the game's size and seed.
+   */
+  public final GameRecord position;
+
+  /**
+   * The constructor.
+   * @param type the event type.
+   * @param gameId the game id.
+   * @param ply the ply.
+   * @param playerNo the player number.
+   * @param pillar the pillar.
+   * @param result the result.
+   * @param reason the reason.
+   * @param position the moves played so far.
+   */
+  private GameEvent ( int type, long gameId, int ply, int playerNo, int pillar, int result, int reason, GameRecord position ) {
+    this.type = type;
+    this.gameId = gameId;
+    this.ply = ply;
+    this.playerNo = playerNo;
+    this.pillar = pillar;
+    this.result = result;
+    this.reason = reason;
+    this.position = position;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * snapshot
+   * @param gameId the game id.
+   * @param position the moves played so far.
+   * @return a SNAPSHOT event.
+   */
+  static GameEvent snapshot ( long gameId, GameRecord position ) {
+    return new GameEvent ( SNAPSHOT, gameId, position.getMoveCount(), 0, 0, 0, 0, position );
+  }
+
+  /**
+   * move
+   * @param gameId the game id.
+   * @param ply the number of moves played before the move.
+   * @param pillar the pillar.
+   * @return a MOVE event. Player 1 moves first.
+   */
+  static GameEvent move ( long gameId, int ply, int pillar ) {
+    return new GameEvent ( MOVE, gameId, ply, ply % 2 + 1, pillar, 0, 0, null );
+  }
+
+  /**
+   * end
+   * @param gameId the game id.
+   * @param ply the number of moves played.
+   * @param result the result.
+   * @param reason the reason.
+   * @return an END event.
+   */
+  static GameEvent end ( long gameId, int ply, int result, int reason ) {
+    return new GameEvent ( END, gameId, ply, 0, 0, result, reason, null );
+  }
+
+  /**
+   * toString
+   * @return the event type and fields, for logs.
+   */
+  @Override
+  public String toString() {
+    switch ( type ) {
+      case SNAPSHOT:
+        return "Game " + gameId + " snapshot after " + ply + " moves";
+      case MOVE:
+        return "Game " + gameId + " move " + ply + ": player " + playerNo + " pillar " + pillar;
+      default:
+        return "Game " + gameId + " over after " + ply + " moves, result " + result + " reason " + reason;
+    }
+  }
+}
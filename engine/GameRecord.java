@@ -0,0 +1,285 @@
+package scoreFourGame.engine;
+import java.util.Arrays;
+
+/**
+ * GameRecord
+ * An immutable record of one game: the board size, the result, the seed of the players' random sources (see
+ * GameSeeds) and the moves. A move is stored as its pillar index only, since gravity determines the layer. Records are written and read in a compact binary format by
+ * GameRecordWriter and GameRecordReader.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class GameRecord {
+
+  // =============== VARIABLES ===============
+  /**
+   * The result of a game that has not finished.
+   */
+  public static final int RESULT_UNFINISHED = 0;
+
+  /**
+   * The result of a game won by player 1.
+   */
+  public static final int RESULT_PLAYER_ONE_WON = 1;
+
+  /**
+   * The result of a game won by player 2.
+   */
+  public static final int RESULT_PLAYER_TWO_WON = 2;
+
+  /**
+   * The result of a draw game (the board is full and nobody has won).
+   */
+  public static final int RESULT_DRAW = 3;
+
+  /**
+   * The seed of a game whose seed is not known, e.g., a game read from a version 1 stream.
+   */
+  public static final long NO_SEED = 0;
+
+  /**
+   * The number of layers.
+   */
+  private final int layers;
+
+  /**
+   * The number of rows.
+   */
+  private final int rows;
+
+  /**
+   * The number of columns.
+   */
+  private final int columns;
+
+  /**
+   * The number of beads in a line to win.
+   */
+  private final int beadsToWin;
+
+  /**
+   * The result, one of the RESULT_ constants.
+   */
+  private final int result;
+
+  /**
+   * The game seed, or NO_SEED.
+   */
+  private final long seed;
+
+  /**
+   * The pillar of each move, in order. Player 1 plays the even plies.
+   */
+  private final int[] moves;
+
+  /**
+   * The constructor of a record without a seed.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param beadsToWin the number of beads in a line to win.
+   * @param result the result, one of the RESULT_ constants.
+   * @param moves the pillar of each move, in order. The array is copied.
+   */
+  public GameRecord ( int layers, int rows, int columns, int beadsToWin, int result, int[] moves ) {
+    this ( layers, rows, columns, beadsToWin, result, NO_SEED, moves );
+  }
+
+  /**
+   * The constructor.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param beadsToWin the number of beads in a line to win.
+   * @param result the result, one of the RESULT_ constants.
+   * @param seed the game seed, or NO_SEED.
+   * @param moves the pillar of each move, in order. The array is copied.
+   */
+  public GameRecord ( int layers, int rows, int columns, int beadsToWin, int result, long seed, int[] moves ) {
+    if ( result < RESULT_UNFINISHED || result > RESULT_DRAW ) {
+      throw new IllegalArgumentException ( "Invalid result " + result );
+    }
+    this.layers = layers;
+    this.rows = rows;
+    this.columns = columns;
+    this.beadsToWin = beadsToWin;
+    this.result = result;
+    this.seed = seed;
+    this.moves = moves.clone();
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * of
+   * Creates the record of the moves played on the board through Board.drop().
+   * @param board the board.
+   * @return the record of the board's moves and result.
+   */
+  public static GameRecord of ( Board board ) {
+    return of ( board, NO_SEED );
+  }
+
+  /**
+   * of
+   * Creates the record of the moves played on the board through Board.drop(), by players seeded with the seed.
+   * @param board the board.
+   * @param seed the game seed, or NO_SEED.
+   * @return the record of the board's moves and result.
+   */
+  public static GameRecord of ( Board board, long seed ) {
+    int[] moves = new int[board.getMoveCount()];
+    for ( int ply = 0; ply < moves.length; ply ++ ) {
+      moves[ply] = board.getMove ( ply );
+    }
+    return new GameRecord ( board.getLayers(), board.getRows(), board.getColumns(), board.getBeadsToWin(), resultOf ( board ), seed, moves );
+  }
+
+  /**
+   * withSeed
+   * @param seed the game seed, or NO_SEED.
+   * @return a record of the same game with the seed.
+   */
+  public GameRecord withSeed ( long seed ) {
+    return new GameRecord ( layers, rows, columns, beadsToWin, result, seed, moves );
+  }
+
+  /**
+   * resultOf
+   * Returns the result of the board's position.
+   * @param board the board.
+   * @return the winner's number, RESULT_DRAW if the board is full, or RESULT_UNFINISHED.
+   */
+  public static int resultOf ( Board board ) {
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      return board.getWinner();
+    }
+    return board.getBlankCount() == 0 ? RESULT_DRAW : RESULT_UNFINISHED;
+  }
+
+  /**
+   * toBoard
+   * Replays the moves on a new board.
+   * @return the board after all moves.
+   * @throws IllegalStateException if a move is not legal.
+   */
+  public Board toBoard() {
+    Board board = new Board ( layers, rows, columns, beadsToWin );
+    for ( int move : moves ) {
+      if ( move < 0 || move >= board.getPillarCount() ) {
+        throw new IllegalStateException ( "Invalid pillar " + move );
+      }
+      board.drop ( move );
+    }
+    return board;
+  }
+
+  /**
+   * getLayers
+   * @return the number of layers.
+   */
+  public int getLayers() {
+    return layers;
+  }
+
+  /**
+   * getRows
+   * @return the number of rows.
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * getColumns
+   * @return the number of columns.
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * getBeadsToWin
+   * @return the number of beads in a line to win.
+   */
+  public int getBeadsToWin() {
+    return beadsToWin;
+  }
+
+  /**
+   * getResult
+   * @return the result, one of the RESULT_ constants.
+   */
+  public int getResult() {
+    return result;
+  }
+
+  /**
+   * getSeed
+   * @return the game seed, or NO_SEED if it is not known.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * getMoveCount
+   * @return the number of moves.
+   */
+  public int getMoveCount() {
+    return moves.length;
+  }
+
+  /**
+   * getMove
+   * @param ply the move number, starting from 0.
+   * @return the pillar of the move.
+   */
+  public int getMove ( int ply ) {
+    return moves[ply];
+  }
+
+  /**
+   * getMoves
+   * @return a copy of the pillars of all moves.
+   */
+  public int[] getMoves() {
+    return moves.clone();
+  }
+
+  /**
+   * equals
+   * @param obj the object to compare with.
+   * @return true if obj is a record of the same board size, result, seed and moves.
+   */
+  @Override
+  public boolean equals ( Object obj ) {
+    if ( !(obj instanceof GameRecord) ) {
+      return false;
+    }
+    GameRecord other = (GameRecord) obj;
+    return layers == other.layers && rows == other.rows && columns == other.columns && beadsToWin == other.beadsToWin
+      && result == other.result && seed == other.seed && Arrays.equals ( moves, other.moves );
+  }
+
+  /**
+   * hashCode
+   * @return the hash code of the record.
+   */
+  @Override
+  public int hashCode() {
+    return (((((layers * 31 + rows) * 31 + columns) * 31 + beadsToWin) * 31 + result) * 31 + Long.hashCode ( seed )) * 31
+      + Arrays.hashCode ( moves );
+  }
+
+  /**
+   * toString
+   * @return the board size, result, seed and moves.
+   */
+  @Override
+  public String toString() {
+    return layers + "x" + rows + "x" + columns + "/" + beadsToWin + " result " + result + " seed " + Long.toHexString ( seed )
+      + " moves " + Arrays.toString ( moves );
+  }
+}
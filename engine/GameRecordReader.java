@@ -0,0 +1,166 @@
+package scoreFourGame.engine;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * GameRecordReader
+ * Reads game records, one at a time, from a stream in the binary game-record format described in GameRecordWriter,
+ * version 1 (without seeds) or 2.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameRecordReader implements Closeable {
+
+  // =============== VARIABLES ===============
+  /**
+   * The stream to read from.
+   */
+  private final InputStream in;
+
+  /**
+   * The format version of the stream.
+   */
+  private final int version;
+
+  /**
+   * The constructor. It reads and checks the stream header immediately.
+   * @param in the stream to read from. It is buffered by the reader and closed when the reader is closed.
+   * @throws IOException if the header is missing, or the stream is of an unsupported version.
+   */
+  public GameRecordReader ( InputStream in ) throws IOException {
+    this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream ( in );
+    for ( byte magic : GameRecordWriter.MAGIC ) {
+      if ( this.in.read() != magic ) {
+        throw new IOException ( "Not a game record stream" );
+      }
+    }
+    this.version = this.in.read();
+    if ( version < 1 || version > GameRecordWriter.VERSION ) {
+      throw new IOException ( "Unsupported game record version " + version );
+    }
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * read
+   * Reads the next record.
+   * @return the next record, or null at the end of the stream.
+   * @throws IOException if the stream cannot be read or the record is truncated or invalid.
+   */
+  public GameRecord read() throws IOException {
+    return readRecord ( in, version );
+  }
+
+  /**
+   * readRecord
+   * Reads a single record (without the stream header) in the current version, e.g., from a file positioned at a
+   * known record offset.
+   * @param in the stream to read from.
+   * @return the record, or null if the stream is at its end before the first byte of the record.
+   * @throws IOException if the stream cannot be read or the record is truncated or invalid.
+   */
+  public static GameRecord readRecord ( InputStream in ) throws IOException {
+    return readRecord ( in, GameRecordWriter.VERSION );
+  }
+
+  /**
+   * readRecord
+   * Reads a single record (without the stream header) in a format version.
+   * @param in the stream to read from.
+   * @param version the format version of the stream, 1 or 2.
+   * @return the record, or null if the stream is at its end before the first byte of the record. A version 1 record
+   *         has GameRecord.NO_SEED.
+   * @throws IOException if the stream cannot be read or the record is truncated or invalid.
+   */
+  public static GameRecord readRecord ( InputStream in, int version ) throws IOException {
+    int layers = in.read();
+    if ( layers < 0 ) {
+      return null;
+    }
+    int rows = readByte ( in );
+    int columns = readByte ( in );
+    int beadsToWin = readByte ( in );
+    int result = readByte ( in );
+    long seed = GameRecord.NO_SEED;
+    if ( version >= GameRecordWriter.SEED_VERSION ) {
+      for ( int i = 0; i < 8; i ++ ) {
+        seed = (seed << 8) | readByte ( in );
+      }
+    }
+    int moveCount = readVarint ( in );
+    if ( layers == 0 || rows == 0 || columns == 0 || beadsToWin == 0 || result > GameRecord.RESULT_DRAW || moveCount < 0
+         || moveCount > layers * rows * columns ) {
+      throw new IOException ( "Invalid game record header" );
+    }
+    int[] moves = new int[moveCount];
+    for ( int ply = 0; ply < moveCount; ply ++ ) {
+      moves[ply] = readVarint ( in );
+      if ( moves[ply] < 0 || moves[ply] >= rows * columns ) {
+        throw new IOException ( "Invalid pillar " + moves[ply] + " at move " + ply );
+      }
+    }
+    return new GameRecord ( layers, rows, columns, beadsToWin, result, seed, moves );
+  }
+
+  /**
+   * readVarint
+   * Reads an unsigned LEB128 varint of at most 32 bits. A value with bit 31 set is returned as a negative int, which
+   * the callers reject.
+   * @param in the stream to read from.
+   * @return the value.
+   * @throws IOException if the stream ends in the middle of the value or the value is too large.
+   */
+  static int readVarint ( InputStream in ) throws IOException {
+    int value = 0;
+    for ( int shift = 0; shift < 32; shift += 7 ) {
+      int b = readByte ( in );
+      if ( shift == 28 && b > 0x0F ) {
+        // the 5th byte holds bits 28 to 31 only; more bits would be lost
+        throw new IOException ( "Varint too large" );
+      }
+      value |= (b & 0x7F) << shift;
+      if ( (b & 0x80) == 0 ) {
+        return value;
+      }
+    }
+    throw new IOException ( "Varint too long" );
+  }
+
+  /**
+   * readByte
+   * Reads one byte that must be there.
+   * @param in the stream to read from.
+   * @return the byte, 0 to 255.
+   * @throws IOException if the stream has ended.
+   */
+  private static int readByte ( InputStream in ) throws IOException {
+    int b = in.read();
+    if ( b < 0 ) {
+      throw new EOFException ( "Truncated game record" );
+    }
+    return b;
+  }
+
+  /**
+   * getVersion
+   * @return the format version of the stream.
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * close
+   * Closes the underlying stream.
+   * @throws IOException if the stream cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,183 @@
+package scoreFourGame.engine;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * GameRecordWriter
+ * Writes game records to a stream in the compact binary game-record format:
+ * <pre>
+ * stream  = magic "S4GR", version (1 byte), record*
+ * record  = layers, rows, columns, beadsToWin, result (1 byte each), seed (8 bytes, big-endian, version 2 only),
+ *           moveCount (varint), pillar (varint) * moveCount
+ * varint  = unsigned LEB128, 7 bits per byte, low bits first, high bit set on all but the last byte
+ * </pre>
+ * A pillar index below 128 (every board up to 11x11) takes a single byte, so a typical 4x4x4 game is stored in
+ * about 50 bytes. Version 1 streams have no seed; their records are read with GameRecord.NO_SEED, and a record
+ * written in version 1 loses its seed.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameRecordWriter implements Closeable, Flushable {
+
+  // =============== VARIABLES ===============
+  /**
+   * The magic bytes at the start of every game-record stream.
+   */
+  static final byte[] MAGIC = { 'S', '4', 'G', 'R' };
+
+  /**
+   * The current format version.
+   */
+  static final int VERSION = 2;
+
+  /**
+   * The first format version with the game seed.
+   */
+  static final int SEED_VERSION = 2;
+
+  /**
+   * The stream to write to.
+   */
+  private final OutputStream out;
+
+  /**
+   * The number of records written.
+   */
+  private long recordCount = 0;
+
+  /**
+   * The constructor. It writes the stream header immediately.
+   * @param out the stream to write to. It is buffered by the writer and closed when the writer is closed.
+   * @throws IOException if the header cannot be written.
+   */
+  public GameRecordWriter ( OutputStream out ) throws IOException {
+    this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream ( out );
+    this.out.write ( MAGIC );
+    this.out.write ( VERSION );
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * write
+   * Appends a record to the stream.
+   * @param record the record to write.
+   * @throws IOException if the record cannot be written.
+   */
+  public void write ( GameRecord record ) throws IOException {
+    writeRecord ( out, record );
+    recordCount ++;
+  }
+
+  /**
+   * writeRecord
+   * Writes a single record (without the stream header) in the current version, e.g., to a file that already has a
+   * header.
+   * @param out the stream to write to.
+   * @param record the record to write.
+   * @return the number of bytes written.
+   * @throws IOException if the record cannot be written.
+   */
+  public static int writeRecord ( OutputStream out, GameRecord record ) throws IOException {
+    return writeRecord ( out, record, VERSION );
+  }
+
+  /**
+   * writeRecord
+   * Writes a single record (without the stream header) in a format version, e.g., to a file of an older version.
+   * @param out the stream to write to.
+   * @param record the record to write.
+   * @param version the format version, 1 or 2.
+   * @return the number of bytes written.
+   * @throws IOException if the record cannot be written.
+   */
+  public static int writeRecord ( OutputStream out, GameRecord record, int version ) throws IOException {
+    if ( version < 1 || version > VERSION ) {
+      throw new IllegalArgumentException ( "Unsupported game record version " + version );
+    }
+    out.write ( checkByte ( record.getLayers() ) );
+    out.write ( checkByte ( record.getRows() ) );
+    out.write ( checkByte ( record.getColumns() ) );
+    out.write ( checkByte ( record.getBeadsToWin() ) );
+    out.write ( record.getResult() );
+    int length = 5;
+    if ( version >= SEED_VERSION ) {
+      for ( int shift = 56; shift >= 0; shift -= 8 ) {
+        out.write ( (int) (record.getSeed() >>> shift) );
+      }
+      length += 8;
+    }
+    length += writeVarint ( out, record.getMoveCount() );
+    for ( int ply = 0; ply < record.getMoveCount(); ply ++ ) {
+      length += writeVarint ( out, record.getMove ( ply ) );
+    }
+    return length;
+  }
+
+  /**
+   * writeVarint
+   * Writes a non-negative int as an unsigned LEB128 varint.
+   * @param out the stream to write to.
+   * @param value the value to write.
+   * @return the number of bytes written.
+   * @throws IOException if the value cannot be written.
+   */
+  static int writeVarint ( OutputStream out, int value ) throws IOException {
+    if ( value < 0 ) {
+      throw new IllegalArgumentException ( "Negative value " + value );
+    }
+    int length = 1;
+    while ( value >= 0x80 ) {
+      out.write ( (value & 0x7F) | 0x80 );
+      value >>>= 7;
+      length ++;
+    }
+    out.write ( value );
+    return length;
+  }
+
+  /**
+   * checkByte
+   * Checks that a board dimension fits in one byte.
+   * @param value the board dimension.
+   * @return the value.
+   */
+  private static int checkByte ( int value ) {
+    if ( value < 1 || value > 255 ) {
+      throw new IllegalArgumentException ( "Board dimension out of range: " + value );
+    }
+    return value;
+  }
+
+  /**
+   * getRecordCount
+   * @return the number of records written.
+   */
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * flush
+   * Flushes the buffered records to the underlying stream.
+   * @throws IOException if the stream cannot be flushed.
+   */
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * close
+   * Flushes and closes the underlying stream.
+   * @throws IOException if the stream cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+}
@@ -0,0 +1,66 @@
+package scoreFourGame.engine;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GameSeeds
+ * The random sources of a game. Every game has one 64-bit seed, recorded in its GameRecord, and each computer player
+ * gets its own SplittableRandom derived from the seed and the player number. Since every random choice of a player
+ * is drawn from its own source, a game between computer players (or against the same human moves) can be played
+ * again move for move from the seed, and games on different threads never share a generator.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class GameSeeds {
+
+  // =============== VARIABLES ===============
+  /**
+   * The odd constant (2^64 / golden ratio) that separates the player streams of a seed.
+   */
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  /**
+   * No instances.
+   */
+  private GameSeeds() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * newSeed
+   * @return a new random game seed. It is never GameRecord.NO_SEED.
+   */
+  public static long newSeed() {
+    long seed;
+    do {
+      seed = ThreadLocalRandom.current().nextLong();
+    } while ( seed == GameRecord.NO_SEED );
+    return seed;
+  }
+
+  /**
+   * nextSeed
+   * Draws the next game seed from a sequence, e.g., the games of a self-play run.
+   * @param random the random source of the sequence.
+   * @return the next game seed. It is never GameRecord.NO_SEED.
+   */
+  public static long nextSeed ( SplittableRandom random ) {
+    long seed;
+    do {
+      seed = random.nextLong();
+    } while ( seed == GameRecord.NO_SEED );
+    return seed;
+  }
+
+  /**
+   * forPlayer
+   * @param gameSeed the game seed.
+   * @param playerNo the player number, 1 or 2.
+   * @return a new random source for the player, the same one for the same seed and player.
+   */
+  public static SplittableRandom forPlayer ( long gameSeed, int playerNo ) {
+    return new SplittableRandom ( gameSeed + playerNo * GOLDEN_GAMMA );
+  }
+}
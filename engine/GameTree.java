@@ -0,0 +1,290 @@
+package scoreFourGame.engine;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GameTree
+ * The moves of a game and of its variations, as a tree of positions over one Board. The board always holds the
+ * position of the current node; moving to a neighbouring node is a single Board.drop() or Board.undo(), which update
+ * the beads, the winner and the blank count incrementally, so a step costs the same at move 5 as at move 500 and
+ * never rescans the board.<p>
+ * Playing a move from the current node follows the child with that move if there is one, and otherwise starts a new
+ * variation. Each node remembers the child it was last left through, so forward() after back() redoes the same line,
+ * the way undo and redo work in an editor.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameTree {
+
+  /**
+   * Node
+   * A position of the tree: the move that led to it from its parent and the moves played from it.
+   */
+  public static final class Node {
+
+    /**
+     * The parent node, or null for the root.
+     */
+    private final Node parent;
+
+    /**
+     * The pillar of the move from the parent, or -1 for the root.
+     */
+    private final int pillar;
+
+    /**
+     * The number of moves from the root.
+     */
+    private final int ply;
+
+    /**
+     * The child nodes, in the order they were first played.
+     */
+    private final List<Node> children = new ArrayList<>();
+
+    /**
+     * The child that forward() moves to: the child this node was last left through.
+     */
+    private Node next = null;
+
+    /**
+     * The constructor.
+     * @param parent the parent node, or null for the root.
+     * @param pillar the pillar of the move from the parent.
+     */
+    private Node ( Node parent, int pillar ) {
+      this.parent = parent;
+      this.pillar = pillar;
+      this.ply = parent == null ? 0 : parent.ply + 1;
+    }
+
+    /**
+     * getParent
+     * @return the parent node, or null for the root.
+     */
+    public Node getParent() {
+      return parent;
+    }
+
+    /**
+     * getPillar
+     * @return the pillar of the move from the parent, or -1 for the root.
+     */
+    public int getPillar() {
+      return pillar;
+    }
+
+    /**
+     * getPly
+     * @return the number of moves from the root.
+     */
+    public int getPly() {
+      return ply;
+    }
+
+    /**
+     * getChildren
+     * @return the child nodes, in the order they were first played. The list cannot be modified.
+     */
+    public List<Node> getChildren() {
+      return Collections.unmodifiableList ( children );
+    }
+
+    /**
+     * getNext
+     * @return the child that forward() moves to, or null if no move was played from this node.
+     */
+    public Node getNext() {
+      return next;
+    }
+
+    /**
+     * child
+     * @param pillar a pillar.
+     * @return the child with the move into the pillar, or null.
+     */
+    private Node child ( int pillar ) {
+      for ( Node child : children ) {
+        if ( child.pillar == pillar ) {
+          return child;
+        }
+      }
+      return null;
+    }
+  }
+
+  // =============== VARIABLES ===============
+  /**
+   * The board, in the position of the current node.
+   */
+  private final Board board;
+
+  /**
+   * The root node: the position of the board when the tree was created.
+   */
+  private final Node root = new Node ( null, -1 );
+
+  /**
+   * The current node.
+   */
+  private Node current = root;
+
+  /**
+   * The constructor. The tree takes over the board, which must only be changed through the tree from then on.
+   * @param board the board, in the position of the root. Its moves so far cannot be taken back through the tree.
+   */
+  public GameTree ( Board board ) {
+    this.board = board;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * getBoard
+   * @return the board, in the position of the current node. It must not be changed but through the tree.
+   */
+  public Board getBoard() {
+    return board;
+  }
+
+  /**
+   * getRoot
+   * @return the root node.
+   */
+  public Node getRoot() {
+    return root;
+  }
+
+  /**
+   * getCurrent
+   * @return the current node.
+   */
+  public Node getCurrent() {
+    return current;
+  }
+
+  /**
+   * play
+   * Plays a move from the current node: follows the child with the move, or adds it as a new variation.
+   * @param pillar the pillar.
+   * @return the cell index where the bead landed.
+   */
+  public int play ( int pillar ) {
+    int cell = board.drop ( pillar );
+    Node child = current.child ( pillar );
+    if ( child == null ) {
+      child = new Node ( current, pillar );
+      current.children.add ( child );
+    }
+    current.next = child;
+    current = child;
+    return cell;
+  }
+
+  /**
+   * canGoBack
+   * @return true if the current node is not the root.
+   */
+  public boolean canGoBack() {
+    return current != root;
+  }
+
+  /**
+   * back
+   * Takes back the move of the current node; its parent becomes the current node.
+   * @return the cell index that was cleared.
+   */
+  public int back() {
+    if ( current == root ) {
+      throw new IllegalStateException ( "No move to take back" );
+    }
+    int cell = board.undo();
+    current = current.parent;
+    return cell;
+  }
+
+  /**
+   * canGoForward
+   * @return true if a move was played from the current node.
+   */
+  public boolean canGoForward() {
+    return current.next != null;
+  }
+
+  /**
+   * forward
+   * Replays the move the current node was last left through.
+   * @return the cell index where the bead landed.
+   */
+  public int forward() {
+    if ( current.next == null ) {
+      throw new IllegalStateException ( "No move to replay" );
+    }
+    int cell = board.drop ( current.next.pillar );
+    current = current.next;
+    return cell;
+  }
+
+  /**
+   * getLineEnd
+   * @return the last node of the line that forward() follows from the current node.
+   */
+  public Node getLineEnd() {
+    Node node = current;
+    while ( node.next != null ) {
+      node = node.next;
+    }
+    return node;
+  }
+
+  /**
+   * getNextVariation
+   * @return the sibling played after the current node from its parent, the first sibling after the last one, or the
+   *         current node itself if it has no sibling.
+   */
+  public Node getNextVariation() {
+    if ( current == root ) {
+      return root;
+    }
+    List<Node> siblings = current.parent.children;
+    return siblings.get ( (siblings.indexOf ( current ) + 1) % siblings.size() );
+  }
+
+  /**
+   * goTo
+   * Moves to any node of the tree: back to the common ancestor of the current node and the target, then forward to
+   * the target, one move at a time. The nodes on the way to the target are left through the path, so forward() from
+   * any of them follows it.
+   * @param target a node of this tree.
+   * @param changedCells receives the cell index changed by each move, in order; a cell can appear twice. Its length
+   *        must be at least the number of moves from the current node to the target, e.g., twice the number of cells.
+   * @return the number of changed cells.
+   */
+  public int goTo ( Node target, int[] changedCells ) {
+    int count = 0;
+    // the target's ancestors at the current node's ply and above are on the path down
+    Node ancestor = target;
+    while ( ancestor.ply > current.ply ) {
+      ancestor = ancestor.parent;
+    }
+    while ( current.ply > ancestor.ply ) {
+      changedCells[count ++] = back();
+    }
+    while ( current != ancestor ) {
+      changedCells[count ++] = back();
+      ancestor = ancestor.parent;
+    }
+    if ( current != target ) {
+      // link the path from the target up to the current node, then replay it
+      for ( Node node = target; node != current; node = node.parent ) {
+        node.parent.next = node;
+      }
+      while ( current != target ) {
+        changedCells[count ++] = forward();
+      }
+    }
+    return count;
+  }
+}
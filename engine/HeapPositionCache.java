@@ -0,0 +1,74 @@
+package scoreFourGame.engine;
+import java.util.Arrays;
+
+/**
+ * HeapPositionCache
+ * A PositionCache in two long arrays on the Java heap, for a single search thread. Each slot stores the hash
+ * XOR the value next to the value, so that a slot overwritten by another position is detected on probe.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class HeapPositionCache implements PositionCache {
+
+  // =============== VARIABLES ===============
+  /**
+   * The hash XOR the value of each slot.
+   */
+  private final long[] checks;
+
+  /**
+   * The value of each slot.
+   */
+  private final long[] values;
+
+  /**
+   * The slot index mask (the number of slots is a power of two).
+   */
+  private final int mask;
+
+  /**
+   * The constructor.
+   * @param slotCountLog2 the base-2 logarithm of the number of slots, e.g., 20 for about 16 MB.
+   */
+  public HeapPositionCache ( int slotCountLog2 ) {
+    this.checks = new long[1 << slotCountLog2];
+    this.values = new long[1 << slotCountLog2];
+    this.mask = (1 << slotCountLog2) - 1;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * probe
+   * @param hash the position hash.
+   * @return the stored value, or 0 if the position is not in the cache.
+   */
+  @Override
+  public long probe ( long hash ) {
+    int slot = (int) hash & mask;
+    long value = values[slot];
+    return (checks[slot] ^ value) == hash ? value : 0;
+  }
+
+  /**
+   * store
+   * @param hash the position hash.
+   * @param value the value to store.
+   */
+  @Override
+  public void store ( long hash, long value ) {
+    int slot = (int) hash & mask;
+    checks[slot] = hash ^ value;
+    values[slot] = value;
+  }
+
+  /**
+   * clear
+   */
+  @Override
+  public void clear() {
+    Arrays.fill ( checks, 0 );
+    Arrays.fill ( values, 0 );
+  }
+}
@@ -0,0 +1,96 @@
+package scoreFourGame.engine;
+
+/**
+ * LineCounts
+ * The number of beads of each player in every winning line of a board, in two int arrays indexed by line, so that a
+ * LineKernel can score all lines in one pass over primitive arrays. The counts are kept up to date with add() and
+ * remove() as beads are placed and taken back, which touches only the lines through the cell.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class LineCounts {
+
+  // =============== VARIABLES ===============
+  /**
+   * The winning lines of the board size.
+   */
+  private final Lines lines;
+
+  /**
+   * The number of player 1 beads in each line.
+   */
+  private final int[] playerOneCounts;
+
+  /**
+   * The number of player 2 beads in each line.
+   */
+  private final int[] playerTwoCounts;
+
+  /**
+   * The constructor. It counts the beads of the board.
+   * @param board the board.
+   */
+  public LineCounts ( Board board ) {
+    this.lines = board.getLines();
+    this.playerOneCounts = new int[lines.getLineCount()];
+    this.playerTwoCounts = new int[lines.getLineCount()];
+    for ( int cell = 0; cell < board.getCellCount(); cell ++ ) {
+      if ( board.getBead ( cell ) != Board.NO_PLAYER ) {
+        add ( cell, board.getBead ( cell ) );
+      }
+    }
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * add
+   * Counts a bead placed in a cell.
+   * @param cell the cell index.
+   * @param player the player number, 1 or 2.
+   */
+  public void add ( int cell, int player ) {
+    int[] counts = player == 1 ? playerOneCounts : playerTwoCounts;
+    for ( int line : lines.getLinesThroughCell ( cell ) ) {
+      counts[line] ++;
+    }
+  }
+
+  /**
+   * remove
+   * Uncounts a bead taken back from a cell.
+   * @param cell the cell index.
+   * @param player the player number, 1 or 2.
+   */
+  public void remove ( int cell, int player ) {
+    int[] counts = player == 1 ? playerOneCounts : playerTwoCounts;
+    for ( int line : lines.getLinesThroughCell ( cell ) ) {
+      counts[line] --;
+    }
+  }
+
+  /**
+   * getLineCount
+   * @return the number of lines.
+   */
+  public int getLineCount() {
+    return playerOneCounts.length;
+  }
+
+  /**
+   * getPlayerOneCounts
+   * @return the number of player 1 beads in each line. The array is live, not a copy.
+   */
+  public int[] getPlayerOneCounts() {
+    return playerOneCounts;
+  }
+
+  /**
+   * getPlayerTwoCounts
+   * @return the number of player 2 beads in each line. The array is live, not a copy.
+   */
+  public int[] getPlayerTwoCounts() {
+    return playerTwoCounts;
+  }
+}
@@ -0,0 +1,245 @@
+package scoreFourGame.engine;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * LineEvaluator
+ * The static evaluation of a position: every winning line that holds beads of only one player is worth a weight
+ * that depends on how many beads it holds, positive for the player being evaluated and negative for the opponent.
+ * An empty line is open to both players, so its weight counts for and against each and nets to 0; the weight of 0
+ * beads must therefore be 0.
+ * This follows the priorities of the rule-based player (three in a line before two in a line before one).<p>
+ * The weights can be read from a weight file, e.g., one written by EvaluationTuner. It is a text file with one line
+ * "weights w0 w1 w2 ...", one weight per number of beads from 0, and comment lines starting with #. Searches that are
+ * not given an evaluator, e.g., those of the AlphaBeta computer player, the engine protocol and the engine tools, use
+ * the file named by the WEIGHTS_PROPERTY system property, see forBeadsToWin().
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class LineEvaluator {
+
+  // =============== VARIABLES ===============
+  /**
+   * The system property naming the weight file used by searches that are not given an evaluator.
+   */
+  public static final String WEIGHTS_PROPERTY = "scoreFourGame.weights";
+
+  /**
+   * The weights of the file named by WEIGHTS_PROPERTY, or null if they have not been read.
+   */
+  private static volatile int[] loadedWeights;
+
+  /**
+   * The weight of a line by the number of beads in it, from 0 to beadsToWin - 1.
+   */
+  private final int[] weights;
+
+  /**
+   * The kernel that scores the lines of LineCounts.
+   */
+  private final LineKernel kernel = LineKernel.fastest();
+
+  /**
+   * The constructor with the default weights 0, 1, 8, 64, ... (each extra bead is worth 8 times more).
+   * @param beadsToWin the number of beads in a line to win.
+   */
+  public LineEvaluator ( int beadsToWin ) {
+    this ( defaultWeights ( beadsToWin ) );
+  }
+
+  /**
+   * The constructor.
+   * @param weights the weight of a line by the number of beads in it, from 0 to beadsToWin - 1. The array is copied.
+   * @throws IllegalArgumentException if there are fewer than two weights or the weight of 0 beads is not 0.
+   */
+  public LineEvaluator ( int[] weights ) {
+    checkWeights ( weights );
+    this.weights = weights.clone();
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * defaultWeights
+   * @param beadsToWin the number of beads in a line to win.
+   * @return the default weights 0, 1, 8, 64, ...
+   */
+  public static int[] defaultWeights ( int beadsToWin ) {
+    int[] weights = new int[beadsToWin];
+    for ( int k = 1; k < beadsToWin; k ++ ) {
+      weights[k] = 1 << (3 * (k - 1));
+    }
+    return weights;
+  }
+
+  /**
+   * forBeadsToWin
+   * Returns the evaluator of searches that are not given one: the weights of the file named by the WEIGHTS_PROPERTY
+   * system property, read once per process, if they are for the number of beads, else the default weights.
+   * @param beadsToWin the number of beads in a line to win.
+   * @return the evaluator.
+   */
+  public static LineEvaluator forBeadsToWin ( int beadsToWin ) {
+    int[] weights = loadWeights();
+    return weights != null && weights.length == beadsToWin ? new LineEvaluator ( weights ) : new LineEvaluator ( beadsToWin );
+  }
+
+  /**
+   * getLoadedWeightsKey
+   * Returns a key of the weights of the file named by the WEIGHTS_PROPERTY system property, e.g., to tell the scores
+   * of a position cache written with other weights.
+   * @return a hash of the weights, or 0 if no weight file is used.
+   */
+  public static long getLoadedWeightsKey() {
+    int[] weights = loadWeights();
+    if ( weights == null ) {
+      return 0;
+    }
+    long key = weights.length;
+    for ( int weight : weights ) {
+      key = key * 0x9E3779B97F4A7C15L + weight;
+    }
+    return key == 0 ? 1 : key;
+  }
+
+  /**
+   * loadWeights
+   * @return the weights of the file named by the WEIGHTS_PROPERTY system property, read once per process, or null if
+   *         the property is not set or the file cannot be read.
+   */
+  private static int[] loadWeights() {
+    String file = System.getProperty ( WEIGHTS_PROPERTY );
+    if ( file != null && loadedWeights == null ) {
+      synchronized ( LineEvaluator.class ) {
+        if ( loadedWeights == null ) {
+          try {
+            loadedWeights = readWeights ( Path.of ( file ) );
+          } catch (IOException | IllegalArgumentException e) {
+            System.err.println ( "Cannot read the weight file " + file + ": " + e.getMessage() );
+            System.clearProperty ( WEIGHTS_PROPERTY );
+          }
+        }
+      }
+    }
+    return loadedWeights;
+  }
+
+  /**
+   * checkWeights
+   * @param weights the weights, from 0 beads.
+   * @throws IllegalArgumentException if there are fewer than two weights or the weight of 0 beads is not 0.
+   */
+  private static void checkWeights ( int[] weights ) {
+    if ( weights.length < 2 ) {
+      throw new IllegalArgumentException ( "Fewer than two weights" );
+    }
+    if ( weights[0] != 0 ) {
+      throw new IllegalArgumentException ( "The weight of an empty line is " + weights[0] + ", not 0" );
+    }
+  }
+
+  /**
+   * readWeights
+   * @param file a weight file.
+   * @return the weights of the file.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the file has no valid weights line, e.g., one with a weight of 0 beads other
+   *         than 0.
+   */
+  public static int[] readWeights ( Path file ) throws IOException {
+    List<String> lines = Files.readAllLines ( file );
+    for ( String line : lines ) {
+      String[] words = line.trim().split ( "\\s+" );
+      if ( words[0].equals ( "weights" ) ) {
+        int[] weights = new int[words.length - 1];
+        for ( int k = 0; k < weights.length; k ++ ) {
+          weights[k] = Integer.parseInt ( words[k + 1] );
+        }
+        checkWeights ( weights );
+        return weights;
+      }
+    }
+    throw new IllegalArgumentException ( "No weights line" );
+  }
+
+  /**
+   * writeWeights
+   * Writes a weight file.
+   * @param file the file.
+   * @param weights the weights, from 0 beads.
+   * @param comments the comment lines, without the #.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void writeWeights ( Path file, int[] weights, String... comments ) throws IOException {
+    try ( BufferedWriter out = Files.newBufferedWriter ( file ) ) {
+      for ( String comment : comments ) {
+        out.write ( "# " + comment );
+        out.newLine();
+      }
+      StringBuilder line = new StringBuilder ( "weights" );
+      for ( int weight : weights ) {
+        line.append ( ' ' ).append ( weight );
+      }
+      out.write ( line.toString() );
+      out.newLine();
+    }
+  }
+
+  /**
+   * getWeights
+   * @return a copy of the weights.
+   */
+  public int[] getWeights() {
+    return weights.clone();
+  }
+
+  /**
+   * evaluate
+   * Evaluates the position for the player.
+   * @param board the position. It must not have a winner.
+   * @param playerNo the player number, 1 or 2.
+   * @return the score, positive if the position is good for the player.
+   */
+  public int evaluate ( Board board, int playerNo ) {
+    Lines lines = board.getLines();
+    int[] lineCells = lines.getLineCells();
+    int length = lines.getLength();
+    int score = 0;
+    for ( int i = 0, end = lines.getLineCount() * length; i < end; i += length ) {
+      int own = 0;
+      int other = 0;
+      for ( int k = 0; k < length; k ++ ) {
+        int bead = board.getBead ( lineCells[i + k] );
+        if ( bead == playerNo ) {
+          own ++;
+        } else if ( bead != Board.NO_PLAYER ) {
+          other ++;
+        }
+      }
+      if ( other == 0 ) {
+        score += weights[Math.min ( own, length - 1 )];
+      }
+      if ( own == 0 ) {
+        score -= weights[Math.min ( other, length - 1 )];
+      }
+    }
+    return score;
+  }
+
+  /**
+   * evaluate
+   * Evaluates the position from its per-line bead counts with the fastest LineKernel. It gives the same score as
+   * evaluate(Board, int) and is much cheaper, as the counts are kept up to date move by move, e.g., by AlphaBetaSearch.
+   * @param counts the bead counts of the position. It must not have a winner.
+   * @param playerNo the player number, 1 or 2.
+   * @return the score, positive if the position is good for the player.
+   */
+  public int evaluate ( LineCounts counts, int playerNo ) {
+    int score = kernel.score ( counts.getPlayerOneCounts(), counts.getPlayerTwoCounts(), counts.getLineCount(), weights );
+    return playerNo == 1 ? score : -score;
+  }
+}
@@ -0,0 +1,47 @@
+package scoreFourGame.engine;
+
+/**
+ * LineKernel
+ * The inner loop of the line evaluation: scores every winning line from the per-line bead counts of both players
+ * (see LineCounts). A line that holds beads of only one player is worth weights[count] to that player, with counts
+ * of beadsToWin or more using the last weight; the score is from player 1's point of view. The same rule as
+ * LineEvaluator.evaluate().<p>
+ * fastest() returns the Vector API kernel (scoreFourGame.engine.vector.VectorLineKernel) when that class was compiled
+ * and the JVM runs with --add-modules jdk.incubator.vector, and the ScalarLineKernel otherwise.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public interface LineKernel {
+
+  /**
+   * The class name of the Vector API kernel, loaded by reflection so that the rest of the engine builds and runs
+   * without the incubator module.
+   */
+  String VECTOR_KERNEL_CLASS = "scoreFourGame.engine.vector.VectorLineKernel";
+
+  /**
+   * score
+   * Scores the lines.
+   * @param playerOneCounts the number of player 1 beads in each line.
+   * @param playerTwoCounts the number of player 2 beads in each line.
+   * @param lineCount the number of lines.
+   * @param weights the weight of a line by the number of beads in it, from 0 to beadsToWin - 1.
+   * @return the score for player 1.
+   */
+  int score ( int[] playerOneCounts, int[] playerTwoCounts, int lineCount, int[] weights );
+
+  /**
+   * getName
+   * @return a short name of the kernel for reports.
+   */
+  String getName();
+
+  /**
+   * fastest
+   * @return the Vector API kernel if it can be loaded, else the scalar kernel.
+   */
+  static LineKernel fastest() {
+    return ScalarLineKernel.FASTEST;
+  }
+}
@@ -0,0 +1,131 @@
+package scoreFourGame.engine;
+import java.util.SplittableRandom;
+
+/**
+ * LineKernelBenchmark
+ * Compares the LineKernels on half-filled random positions of every board size from 4 to 10: it checks that the
+ * vector and scalar kernels give the same scores as LineEvaluator.evaluate(Board, int), then reports the time per
+ * evaluation of each after a warm-up run (the Vector API is only fast once the JIT has compiled it).<p>
+ * Usage: java --add-modules jdk.incubator.vector scoreFourGame.engine.LineKernelBenchmark [evaluations per size]
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class LineKernelBenchmark {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of random positions of each size.
+   */
+  private static final int POSITIONS = 64;
+
+  /**
+   * Keeps the benchmark results alive, so that the JIT cannot drop the evaluations.
+   */
+  private static volatile long sink;
+
+  /**
+   * No instances, the benchmark is main().
+   */
+  private LineKernelBenchmark() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Runs the benchmark.
+   * @param args optionally the number of evaluations of each kernel per board size.
+   */
+  public static void main ( String[] args ) {
+    int evaluations = args.length > 0 ? Integer.parseInt ( args[0] ) : 200000;
+    LineKernel vector = LineKernel.fastest();
+    LineKernel scalar = ScalarLineKernel.INSTANCE;
+    System.out.println ( "Fastest kernel: " + vector.getName() );
+    System.out.println ( "size   lines   board scan ns   scalar ns   " + vector.getName() + " ns   speed-up" );
+    SplittableRandom random = new SplittableRandom ( 1 );
+    for ( int size = 4; size <= 10; size ++ ) {
+      LineEvaluator evaluator = new LineEvaluator ( Board.DEFAULT_BEADS_TO_WIN );
+      int[] weights = evaluator.getWeights();
+      Board[] boards = new Board[POSITIONS];
+      LineCounts[] counts = new LineCounts[POSITIONS];
+      for ( int i = 0; i < POSITIONS; i ++ ) {
+        boards[i] = randomPosition ( size, random );
+        counts[i] = new LineCounts ( boards[i] );
+        int expected = evaluator.evaluate ( boards[i], 1 );
+        int[] one = counts[i].getPlayerOneCounts();
+        int[] two = counts[i].getPlayerTwoCounts();
+        if ( scalar.score ( one, two, one.length, weights ) != expected || vector.score ( one, two, one.length, weights ) != expected ) {
+          throw new IllegalStateException ( "Kernels disagree with LineEvaluator on a " + size + "x" + size + "x" + size + " board" );
+        }
+      }
+      // the board scan is much slower; fewer evaluations keep the run short
+      double scanNanos = timeBoardScan ( evaluator, boards, Math.max ( 1, evaluations / 20 ) );
+      timeKernel ( scalar, counts, weights, evaluations );
+      timeKernel ( vector, counts, weights, evaluations );
+      double scalarNanos = timeKernel ( scalar, counts, weights, evaluations );
+      double vectorNanos = timeKernel ( vector, counts, weights, evaluations );
+      System.out.printf ( "%4d %7d %15.0f %11.0f %11.0f %10.2f%n", size, counts[0].getLineCount(), scanNanos, scalarNanos, vectorNanos, scalarNanos / vectorNanos );
+    }
+  }
+
+  /**
+   * randomPosition
+   * Fills half of the cells by alternating beads in random pillars. The beads are placed with setBead(), since on
+   * large boards random play almost always completes a line long before the board is half full; all evaluations
+   * count a completed line like a line one bead short.
+   * @param size the board size.
+   * @param random the random source.
+   * @return the position.
+   */
+  private static Board randomPosition ( int size, SplittableRandom random ) {
+    Board board = new Board ( size );
+    for ( int bead = 0; bead < board.getCellCount() / 2; bead ++ ) {
+      int pillar;
+      do {
+        pillar = random.nextInt ( board.getPillarCount() );
+      } while ( board.getHeight ( pillar ) == board.getLayers() );
+      int cell = board.landingCell ( pillar );
+      board.setBead ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), 1 + bead % 2 );
+    }
+    return board;
+  }
+
+  /**
+   * timeKernel
+   * @param kernel the kernel.
+   * @param counts the positions.
+   * @param weights the weights.
+   * @param evaluations the number of evaluations.
+   * @return the nanoseconds per evaluation.
+   */
+  private static double timeKernel ( LineKernel kernel, LineCounts[] counts, int[] weights, int evaluations ) {
+    long total = 0;
+    long start = System.nanoTime();
+    for ( int i = 0; i < evaluations; i ++ ) {
+      LineCounts position = counts[i % counts.length];
+      total += kernel.score ( position.getPlayerOneCounts(), position.getPlayerTwoCounts(), position.getLineCount(), weights );
+    }
+    long elapsed = System.nanoTime() - start;
+    sink += total;
+    return (double) elapsed / evaluations;
+  }
+
+  /**
+   * timeBoardScan
+   * @param evaluator the evaluator.
+   * @param boards the positions.
+   * @param evaluations the number of evaluations.
+   * @return the nanoseconds per evaluation with LineEvaluator.evaluate(Board, int).
+   */
+  private static double timeBoardScan ( LineEvaluator evaluator, Board[] boards, int evaluations ) {
+    long total = 0;
+    long start = System.nanoTime();
+    for ( int i = 0; i < evaluations; i ++ ) {
+      total += evaluator.evaluate ( boards[i % boards.length], 1 );
+    }
+    long elapsed = System.nanoTime() - start;
+    sink += total;
+    return (double) elapsed / evaluations;
+  }
+}
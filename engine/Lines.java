@@ -0,0 +1,181 @@
+package scoreFourGame.engine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lines
+ * The precomputed table of all winning lines of a board size. A line is a run of beadsToWin cells in one of the
+ * 13 3D directions (the other 13 of the 26 directions are the same lines walked backwards). Tables are immutable
+ * and shared, one per board size.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class Lines {
+
+  // =============== VARIABLES ===============
+  /**
+   * The shared tables, keyed by "layers x rows x columns / length".
+   */
+  private static final ConcurrentMap<String, Lines> tables = new ConcurrentHashMap<>();
+
+  /**
+   * The number of cells in each line.
+   */
+  private final int length;
+
+  /**
+   * The number of lines.
+   */
+  private final int lineCount;
+
+  /**
+   * The cell indexes of all lines, line after line, i.e., the k-th cell of line i is lineCells[i * length + k].
+   */
+  private final int[] lineCells;
+
+  /**
+   * For each cell index, the lines that contain the cell.
+   */
+  private final int[][] linesThroughCell;
+
+  /**
+   * The constructor. It walks every cell in every direction and keeps the lines that stay inside the board.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param length the number of beads in a line to win.
+   */
+  private Lines ( int layers, int rows, int columns, int length ) {
+    this.length = length;
+    List<int[]> lines = new ArrayList<>();
+    for ( int layer = 0; layer < layers; layer ++ ) {
+      for ( int row = 0; row < rows; row ++ ) {
+        for ( int column = 0; column < columns; column ++ ) {
+          for ( int layerDirectionFactor = -1; layerDirectionFactor <= 1; layerDirectionFactor ++ ) {
+            for ( int rowDirectionFactor = -1; rowDirectionFactor <= 1; rowDirectionFactor ++ ) {
+              for ( int columnDirectionFactor = -1; columnDirectionFactor <= 1; columnDirectionFactor ++ ) {
+                if ( isForwardDirection ( layerDirectionFactor, rowDirectionFactor, columnDirectionFactor ) ) {
+                  int lastLayer = layer + layerDirectionFactor * (length - 1);
+                  int lastRow = row + rowDirectionFactor * (length - 1);
+                  int lastColumn = column + columnDirectionFactor * (length - 1);
+                  if ( (lastLayer >= 0) && (lastLayer < layers) && (lastRow >= 0) && (lastRow < rows) && (lastColumn >= 0) && (lastColumn < columns) ) {
+                    int[] line = new int[length];
+                    for ( int k = 0; k < length; k ++ ) {
+                      line[k] = ((layer + layerDirectionFactor * k) * rows + (row + rowDirectionFactor * k)) * columns + (column + columnDirectionFactor * k);
+                    }
+                    lines.add ( line );
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    this.lineCount = lines.size();
+    this.lineCells = new int[lineCount * length];
+    int[] linesPerCell = new int[layers * rows * columns];
+    for ( int i = 0; i < lineCount; i ++ ) {
+      int[] line = lines.get ( i );
+      System.arraycopy ( line, 0, lineCells, i * length, length );
+      for ( int cell : line ) {
+        linesPerCell[cell] ++;
+      }
+    }
+    this.linesThroughCell = new int[linesPerCell.length][];
+    for ( int cell = 0; cell < linesPerCell.length; cell ++ ) {
+      linesThroughCell[cell] = new int[linesPerCell[cell]];
+      linesPerCell[cell] = 0;
+    }
+    for ( int i = 0; i < lineCount; i ++ ) {
+      for ( int k = 0; k < length; k ++ ) {
+        int cell = lineCells[i * length + k];
+        linesThroughCell[cell][linesPerCell[cell] ++] = i;
+      }
+    }
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * of
+   * Returns the shared line table of the board size, building it on first use.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param length the number of beads in a line to win.
+   * @return the line table.
+   */
+  public static Lines of ( int layers, int rows, int columns, int length ) {
+    return tables.computeIfAbsent ( layers + "x" + rows + "x" + columns + "/" + length, key -> new Lines ( layers, rows, columns, length ) );
+  }
+
+  /**
+   * isForwardDirection
+   * Returns true for one direction of each pair of opposite directions (the first non-zero factor is positive).
+   * @param layerDirectionFactor the layer step, -1, 0 or 1.
+   * @param rowDirectionFactor the row step, -1, 0 or 1.
+   * @param columnDirectionFactor the column step, -1, 0 or 1.
+   * @return true if it is a forward direction.
+   */
+  private static boolean isForwardDirection ( int layerDirectionFactor, int rowDirectionFactor, int columnDirectionFactor ) {
+    if ( layerDirectionFactor != 0 ) {
+      return layerDirectionFactor > 0;
+    }
+    if ( rowDirectionFactor != 0 ) {
+      return rowDirectionFactor > 0;
+    }
+    return columnDirectionFactor > 0;
+  }
+
+  /**
+   * getLength
+   * Returns the number of cells in each line.
+   * @return the number of cells in each line.
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * getLineCount
+   * Returns the number of lines.
+   * @return the number of lines.
+   */
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * getCell
+   * Returns the cell index of the k-th cell of a line.
+   * @param line the line index.
+   * @param k the position in the line, 0 to length-1.
+   * @return the cell index.
+   */
+  public int getCell ( int line, int k ) {
+    return lineCells[line * length + k];
+  }
+
+  /**
+   * getLineCells
+   * Returns the cell indexes of all lines, line after line. The array is shared and must not be modified.
+   * @return the cell indexes of all lines.
+   */
+  public int[] getLineCells() {
+    return lineCells;
+  }
+
+  /**
+   * getLinesThroughCell
+   * Returns the lines that contain the cell. The array is shared and must not be modified.
+   * @param cell the cell index.
+   * @return the line indexes.
+   */
+  public int[] getLinesThroughCell ( int cell ) {
+    return linesThroughCell[cell];
+  }
+}
@@ -0,0 +1,263 @@
+package scoreFourGame.engine;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedPositionCache
+ * A PositionCache in a memory-mapped file, outside the Java heap. The file keeps its contents across restarts, and
+ * several threads and several JVM processes on the same machine can use the same file at the same time.<p>
+ * Slot updates are lock-free: a slot holds the value and the hash XOR the value, written and read with
+ * release/acquire ordering. A probe that sees the two words of different stores (a torn update by another thread or
+ * process) finds that they do not XOR to the hash and treats the slot as a miss, so a wrong value is never returned
+ * for a hash. The file layout is a 64-byte header (magic "S4PC", version, slot count log2, evaluation key) followed
+ * by 16-byte slots, in the native byte order of the machine. The stored scores depend on the weights of the evaluation,
+ * so a file written with other weights (another evaluation key) is refused when it is opened; it is never rewritten,
+ * since other processes may have it mapped.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class MappedPositionCache implements PositionCache, Closeable {
+
+  // =============== VARIABLES ===============
+  /**
+   * The system property naming the cache file used by searches that are not given a cache, see shared(). The file
+   * actually used has the format version and the evaluation key in its name, see fileFor().
+   */
+  public static final String FILE_PROPERTY = "scoreFourGame.positionCache";
+
+  /**
+   * The system property with the slot count log2 of the shared cache file, default 22 (64 MB).
+   */
+  public static final String SIZE_PROPERTY = "scoreFourGame.positionCacheSlotsLog2";
+
+  /**
+   * The magic number at the start of the file ("S4PC").
+   */
+  private static final int MAGIC = 0x53345043;
+
+  /**
+   * The file format version. It changes whenever the meaning of the stored values changes.
+   */
+  private static final int VERSION = 2;
+
+  /**
+   * The size of the header in bytes.
+   */
+  private static final int HEADER_SIZE = 64;
+
+  /**
+   * The largest slot count log2, so that the file can be mapped by one buffer.
+   */
+  public static final int MAX_SLOT_COUNT_LOG2 = 26;
+
+  /**
+   * The atomic long view of the mapped buffer.
+   */
+  private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle ( long[].class, ByteOrder.nativeOrder() );
+
+  /**
+   * The cache shared by the searches of this process, or null if FILE_PROPERTY is not set.
+   */
+  private static volatile MappedPositionCache shared;
+
+  /**
+   * The mapped file.
+   */
+  private final MappedByteBuffer buffer;
+
+  /**
+   * The slot index mask.
+   */
+  private final long mask;
+
+  /**
+   * The constructor. Use open() to open a cache file.
+   * @param buffer the mapped file.
+   * @param slotCountLog2 the slot count log2.
+   */
+  private MappedPositionCache ( MappedByteBuffer buffer, int slotCountLog2 ) {
+    this.buffer = buffer;
+    this.mask = (1L << slotCountLog2) - 1;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * open
+   * Opens a cache file, creating it with the given number of slots if it does not exist. An existing file keeps its
+   * own number of slots; a file of another version or evaluation is refused rather than overwritten, as other
+   * processes may use it.
+   * @param file the cache file.
+   * @param slotCountLog2 the slot count log2 of a new file, at most MAX_SLOT_COUNT_LOG2.
+   * @param evaluationKey the key of the evaluation whose scores are stored, e.g., LineEvaluator.getLoadedWeightsKey().
+   * @return the cache.
+   * @throws IOException if the file cannot be opened or mapped, or is a cache of another version or evaluation.
+   */
+  public static MappedPositionCache open ( Path file, int slotCountLog2, long evaluationKey ) throws IOException {
+    if ( slotCountLog2 < 1 || slotCountLog2 > MAX_SLOT_COUNT_LOG2 ) {
+      throw new IllegalArgumentException ( "Invalid slot count log2 " + slotCountLog2 );
+    }
+    try ( FileChannel channel = FileChannel.open ( file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE ) ) {
+      // the lock serializes the header check and initialization of processes that open the file at the same time
+      FileLock lock = channel.lock();
+      try {
+        return map ( channel, slotCountLog2, evaluationKey );
+      } finally {
+        lock.release();
+      }
+    }
+  }
+
+  /**
+   * map
+   * Checks the header of the locked file, initializes the file if it is new, and maps it. A file with the magic
+   * number may be mapped by other processes, so it is never truncated or rewritten: if it is not a valid cache of
+   * this version and evaluation it is refused. The magic number is written last, so a file whose initialization was
+   * interrupted has none and is initialized again.
+   * @param channel the locked cache file.
+   * @param slotCountLog2 the slot count log2 of a new file.
+   * @param evaluationKey the key of the evaluation whose scores are stored.
+   * @return the cache.
+   * @throws IOException if the file cannot be mapped, or is a cache of another version, evaluation or size.
+   */
+  private static MappedPositionCache map ( FileChannel channel, int slotCountLog2, long evaluationKey ) throws IOException {
+    MappedByteBuffer header = channel.map ( FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE );
+    header.order ( ByteOrder.nativeOrder() );
+    if ( header.getInt ( 0 ) != MAGIC ) {
+      channel.truncate ( HEADER_SIZE );
+      MappedByteBuffer slots = channel.map ( FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (16L << slotCountLog2) );
+      slots.order ( ByteOrder.nativeOrder() );
+      slots.putInt ( 4, VERSION ).putInt ( 8, slotCountLog2 ).putLong ( 16, evaluationKey );
+      slots.force();
+      slots.putInt ( 0, MAGIC );
+      slots.force();
+      return new MappedPositionCache ( slots, slotCountLog2 );
+    }
+    int existingLog2 = header.getInt ( 8 );
+    if ( header.getInt ( 4 ) != VERSION || header.getLong ( 16 ) != evaluationKey ) {
+      throw new IOException ( "The file is a position cache of another version or evaluation" );
+    }
+    if ( existingLog2 < 1 || existingLog2 > MAX_SLOT_COUNT_LOG2 || channel.size() != HEADER_SIZE + (16L << existingLog2) ) {
+      throw new IOException ( "The position cache file is damaged" );
+    }
+    MappedByteBuffer slots = channel.map ( FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (16L << existingLog2) );
+    return new MappedPositionCache ( slots, existingLog2 );
+  }
+
+  /**
+   * fileFor
+   * Derives the cache file of a format version and evaluation from a configured file name, so that processes with
+   * different weight files use different cache files and never see or overwrite each other's scores.
+   * @param file the configured file, e.g., positions.cache.
+   * @param evaluationKey the key of the evaluation, e.g., LineEvaluator.getLoadedWeightsKey().
+   * @return the file with the version and the key before the extension, e.g., positions-v2-0.cache.
+   */
+  public static Path fileFor ( Path file, long evaluationKey ) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf ( '.' );
+    String suffix = "-v" + VERSION + "-" + Long.toHexString ( evaluationKey );
+    name = dot > 0 ? name.substring ( 0, dot ) + suffix + name.substring ( dot ) : name + suffix;
+    return file.resolveSibling ( name );
+  }
+
+  /**
+   * shared
+   * Returns the cache file of the name in the FILE_PROPERTY system property and the weights of
+   * LineEvaluator.WEIGHTS_PROPERTY (see fileFor()), opened once per process and shared by all threads. Searches
+   * created without a cache use it, so that the positions they evaluate survive restarts and are shared with the
+   * other processes that use the same weights.
+   * @return the shared cache, or null if the property is not set or the file cannot be opened.
+   */
+  public static MappedPositionCache shared() {
+    String file = System.getProperty ( FILE_PROPERTY );
+    if ( file == null ) {
+      return null;
+    }
+    if ( shared == null ) {
+      synchronized ( MappedPositionCache.class ) {
+        if ( shared == null ) {
+          try {
+            long evaluationKey = LineEvaluator.getLoadedWeightsKey();
+            shared = open ( fileFor ( Path.of ( file ), evaluationKey ), Integer.getInteger ( SIZE_PROPERTY, 22 ), evaluationKey );
+          } catch (IOException | IllegalArgumentException e) {
+            System.err.println ( "Cannot open the position cache " + file + ": " + e.getMessage() );
+            System.clearProperty ( FILE_PROPERTY );
+            return null;
+          }
+        }
+      }
+    }
+    return shared;
+  }
+
+  /**
+   * probe
+   * @param hash the position hash.
+   * @return the stored value, or 0 if the position is not in the cache.
+   */
+  @Override
+  public long probe ( long hash ) {
+    int offset = slotOffset ( hash );
+    long check = (long) LONGS.getAcquire ( buffer, offset );
+    long value = (long) LONGS.getAcquire ( buffer, offset + 8 );
+    return (check ^ value) == hash ? value : 0;
+  }
+
+  /**
+   * store
+   * @param hash the position hash.
+   * @param value the value to store.
+   */
+  @Override
+  public void store ( long hash, long value ) {
+    int offset = slotOffset ( hash );
+    LONGS.setRelease ( buffer, offset + 8, value );
+    LONGS.setRelease ( buffer, offset, hash ^ value );
+  }
+
+  /**
+   * clear
+   * Removes all entries, also for the other processes that use the file.
+   */
+  @Override
+  public void clear() {
+    for ( int offset = HEADER_SIZE; offset < buffer.capacity(); offset += 8 ) {
+      LONGS.setRelease ( buffer, offset, 0L );
+    }
+  }
+
+  /**
+   * getSlotCount
+   * @return the number of slots.
+   */
+  public long getSlotCount() {
+    return mask + 1;
+  }
+
+  /**
+   * slotOffset
+   * @param hash the position hash.
+   * @return the byte offset of the hash's slot.
+   */
+  private int slotOffset ( long hash ) {
+    return HEADER_SIZE + (int) ((hash & mask) << 4);
+  }
+
+  /**
+   * close
+   * Writes the cache to disk. The mapping itself is released by the garbage collector.
+   */
+  @Override
+  public void close() {
+    buffer.force();
+  }
+}
@@ -0,0 +1,536 @@
+package scoreFourGame.engine;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MonteCarloSearch
+ * A Monte Carlo Tree Search (UCT) computer player for boards too large for a full-width look-ahead. Each iteration
+ * walks down the tree choosing the child with the best upper confidence bound, adds the children of the leaf,
+ * finishes the game with random legal drops (a playout) and adds the result to every node on the path.<p>
+ * The search is root-parallel: every thread grows its own tree from the same position with its own random source,
+ * and the root visit counts of all trees are summed to choose the move, so threads never share or lock anything and
+ * playouts per second grow with the number of cores. The trees are kept in primitive arrays that start small and
+ * double when full, up to the tree capacity and MAX_TOTAL_TREE_NODES over all threads, so a tree only takes the
+ * memory the board size and the time limit let the search fill. Each thread replays positions on its own Board with copyFrom() and drop(), so iterations do not
+ * allocate once the trees have grown; the trees are reused between searches of the same board size.<p>
+ * A search instance is not thread-safe, except for stop(), which may be called from any thread.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class MonteCarloSearch implements MoveStrategy {
+
+  // =============== VARIABLES ===============
+  /**
+   * The UCT exploration constant.
+   */
+  public static final double EXPLORATION = 1.0;
+
+  /**
+   * The number of visits after which a leaf is expanded.
+   */
+  private static final int EXPANSION_VISITS = 2;
+
+  /**
+   * The number of nodes a tree starts with.
+   */
+  private static final int INITIAL_TREE_CAPACITY = 1 << 12;
+
+  /**
+   * The largest number of nodes of the trees of all threads together (80 MB), so that the memory of a search does
+   * not grow with the number of cores.
+   */
+  public static final int MAX_TOTAL_TREE_NODES = 1 << 22;
+
+  /**
+   * The number of search threads.
+   */
+  private int threads;
+
+  /**
+   * The time limit of a search in milliseconds, or 0 for no limit.
+   */
+  private long timeLimitMillis;
+
+  /**
+   * The number of iterations of each thread, or 0 for no limit.
+   */
+  private long maxIterations = 0;
+
+  /**
+   * The largest number of tree nodes of each thread.
+   */
+  private int treeCapacity = 1 << 20;
+
+  /**
+   * The largest number of nodes of each tree in the current search: the tree capacity, or less with many threads.
+   */
+  private int nodeLimit;
+
+  /**
+   * The random source that seeds the random source of each thread.
+   */
+  private final SplittableRandom random;
+
+  /**
+   * The trees of the threads, reused between searches of the same board size.
+   */
+  private Tree[] trees = new Tree[0];
+
+  /**
+   * Set by stop() until reset().
+   */
+  private volatile boolean stopped = false;
+
+  /**
+   * The rules that choose the move of a search that ends before any root move was visited, or null until then.
+   */
+  private FastRuleBasedAI fallback = null;
+
+  /**
+   * The number of playouts of the last search, over all threads.
+   */
+  private long playouts;
+
+  /**
+   * The duration of the last search in nanoseconds.
+   */
+  private long elapsedNanos;
+
+  /**
+   * The visits of each root pillar in the last search, summed over all threads.
+   */
+  private long[] rootVisits = new long[0];
+
+  /**
+   * The search tree and working boards of one thread. Node 0 is the root; the children of a node are stored next to
+   * each other from firstChild.
+   */
+  private static final class Tree {
+    /**
+     * The index of the first child of each node, or -1 if the node has not been expanded.
+     */
+    int[] firstChild;
+
+    /**
+     * The number of children of each node.
+     */
+    short[] childCount;
+
+    /**
+     * The pillar of the move into each node.
+     */
+    short[] pillar;
+
+    /**
+     * The number of playouts through each node.
+     */
+    int[] visits;
+
+    /**
+     * Twice the score of the playouts through each node, for the player who moved into it: 2 per win, 1 per draw.
+     */
+    long[] score;
+
+    /**
+     * The number of nodes in use.
+     */
+    int size;
+
+    /**
+     * The board that each iteration replays the position on.
+     */
+    Board board;
+
+    /**
+     * The nodes on the path of the current iteration.
+     */
+    int[] path;
+
+    /**
+     * The legal moves of the current position.
+     */
+    int[] moves;
+
+    /**
+     * The random source of the thread.
+     */
+    SplittableRandom random;
+
+    /**
+     * The number of playouts of the last search.
+     */
+    long playouts;
+
+    /**
+     * The constructor.
+     * @param capacity the number of nodes.
+     */
+    Tree ( int capacity ) {
+      firstChild = new int[capacity];
+      childCount = new short[capacity];
+      pillar = new short[capacity];
+      visits = new int[capacity];
+      score = new long[capacity];
+    }
+
+    /**
+     * ensureCapacity
+     * Doubles the node arrays until they hold the number of nodes, but not beyond the largest capacity.
+     * @param nodes the number of nodes needed.
+     * @param maxCapacity the largest number of nodes.
+     * @return true if the arrays hold the number of nodes.
+     */
+    boolean ensureCapacity ( int nodes, int maxCapacity ) {
+      if ( nodes <= firstChild.length ) {
+        return true;
+      }
+      if ( nodes > maxCapacity ) {
+        return false;
+      }
+      int capacity = firstChild.length;
+      while ( capacity < nodes ) {
+        capacity = (int) Math.min ( maxCapacity, 2L * capacity );
+      }
+      firstChild = Arrays.copyOf ( firstChild, capacity );
+      childCount = Arrays.copyOf ( childCount, capacity );
+      pillar = Arrays.copyOf ( pillar, capacity );
+      visits = Arrays.copyOf ( visits, capacity );
+      score = Arrays.copyOf ( score, capacity );
+      return true;
+    }
+  }
+
+  /**
+   * The constructor with one thread per core and the given time limit.
+   * @param timeLimitMillis the time limit of a search in milliseconds, or 0 for no limit.
+   */
+  public MonteCarloSearch ( long timeLimitMillis ) {
+    this ( Runtime.getRuntime().availableProcessors(), timeLimitMillis, new SplittableRandom() );
+  }
+
+  /**
+   * The constructor.
+   * @param threads the number of search threads.
+   * @param timeLimitMillis the time limit of a search in milliseconds, or 0 for no limit.
+   * @param random the random source that the random source of each thread is split from.
+   */
+  public MonteCarloSearch ( int threads, long timeLimitMillis, SplittableRandom random ) {
+    this.threads = Math.max ( 1, threads );
+    this.timeLimitMillis = timeLimitMillis;
+    this.random = random;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * setThreads
+   * @param threads the number of search threads.
+   */
+  public void setThreads ( int threads ) {
+    this.threads = Math.max ( 1, threads );
+  }
+
+  /**
+   * setTimeLimit
+   * @param timeLimitMillis the time limit of a search in milliseconds, or 0 for no limit.
+   */
+  public void setTimeLimit ( long timeLimitMillis ) {
+    this.timeLimitMillis = timeLimitMillis;
+  }
+
+  /**
+   * setMaxIterations
+   * @param maxIterations the number of iterations of each thread, or 0 for no limit. With a limit and no time limit
+   *        the search does a fixed amount of work.
+   */
+  public void setMaxIterations ( long maxIterations ) {
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * setTreeCapacity
+   * @param treeCapacity the largest number of tree nodes of each thread (20 bytes each). When a tree is full the
+   *        search continues with playouts from its leaves.
+   */
+  public void setTreeCapacity ( int treeCapacity ) {
+    this.treeCapacity = treeCapacity;
+    this.trees = new Tree[0];
+  }
+
+  /**
+   * stop
+   * Asks a running search, or the next one, to return its current best move as soon as possible. The request holds
+   * until reset().
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * reset
+   * Clears an earlier stop(). Call it before a search is started or handed to another thread, so that a stop() that
+   * arrives before the search begins is not lost.
+   */
+  public void reset() {
+    stopped = false;
+  }
+
+  /**
+   * selectMove
+   * Searches the position and returns the most visited move.
+   * @param board the current position.
+   * @param playerNo the player number (1 or 2) to move; it must be the board's player to move.
+   * @return the cell index of the best move, or -1 if there is no legal move.
+   */
+  @Override
+  public int selectMove ( Board board, int playerNo ) {
+    int pillar = search ( board );
+    return pillar < 0 ? -1 : board.landingCell ( pillar );
+  }
+
+  /**
+   * search
+   * Runs the threads until the time limit, the iteration limit or stop(), then sums their root visit counts. If the
+   * search ends before any root move was visited, e.g., when it was stopped at once, the rules of FastRuleBasedAI
+   * choose the move instead.
+   * @param board the position to search. It is left unchanged.
+   * @return the most visited pillar, or -1 if there is no legal move.
+   */
+  public int search ( Board board ) {
+    if ( timeLimitMillis <= 0 && maxIterations <= 0 ) {
+      throw new IllegalStateException ( "A time limit or an iteration limit is required" );
+    }
+    playouts = 0;
+    elapsedNanos = 0;
+    rootVisits = new long[board.getPillarCount()];
+    long start = System.nanoTime();
+    long deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1000000 : Long.MAX_VALUE;
+    int[] moves = new int[board.getPillarCount()];
+    int moveCount = board.getAvailablePillars ( moves );
+    if ( moveCount == 0 ) {
+      return -1;
+    }
+    if ( moveCount == 1 ) {
+      return moves[0];
+    }
+    prepare ( board );
+
+    Thread[] workers = new Thread[threads - 1];
+    for ( int t = 1; t < threads; t ++ ) {
+      Tree tree = trees[t];
+      workers[t - 1] = new Thread ( () -> run ( tree, board, deadline ), "MonteCarloSearch-" + t );
+      workers[t - 1].start();
+    }
+    run ( trees[0], board, deadline );
+    for ( Thread worker : workers ) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        stopped = true;
+        Thread.currentThread().interrupt();
+      }
+    }
+    elapsedNanos = System.nanoTime() - start;
+
+    for ( int t = 0; t < threads; t ++ ) {
+      Tree tree = trees[t];
+      playouts += tree.playouts;
+      for ( int i = 0; i < tree.childCount[0]; i ++ ) {
+        int child = tree.firstChild[0] + i;
+        rootVisits[tree.pillar[child]] += tree.visits[child];
+      }
+    }
+    int best = moves[0];
+    for ( int i = 1; i < moveCount; i ++ ) {
+      if ( rootVisits[moves[i]] > rootVisits[best] ) {
+        best = moves[i];
+      }
+    }
+    if ( rootVisits[best] == 0 ) {
+      if ( fallback == null ) {
+        fallback = new FastRuleBasedAI ( random.split() );
+      }
+      return board.pillarOf ( fallback.selectMove ( board, board.getPlayerToMove() ) );
+    }
+    return best;
+  }
+
+  /**
+   * prepare
+   * Allocates the trees for the number of threads and the board size, and resets them to a single root node. Trees
+   * of the same board size keep the capacity they have grown to.
+   * @param board the position to search.
+   */
+  private void prepare ( Board board ) {
+    if ( trees.length != threads || trees[0].board.getCellCount() != board.getCellCount() || trees[0].board.getLines() != board.getLines() ) {
+      trees = new Tree[threads];
+      for ( int t = 0; t < threads; t ++ ) {
+        trees[t] = new Tree ( Math.min ( INITIAL_TREE_CAPACITY, treeCapacity ) );
+        trees[t].board = new Board ( board );
+        trees[t].path = new int[board.getCellCount() + 1];
+        trees[t].moves = new int[board.getPillarCount()];
+      }
+    }
+    nodeLimit = Math.min ( treeCapacity, Math.max ( INITIAL_TREE_CAPACITY, MAX_TOTAL_TREE_NODES / threads ) );
+    for ( Tree tree : trees ) {
+      tree.random = random.split();
+      tree.size = 1;
+      tree.firstChild[0] = -1;
+      tree.childCount[0] = 0;
+      tree.visits[0] = 0;
+      tree.score[0] = 0;
+      tree.playouts = 0;
+    }
+  }
+
+  /**
+   * run
+   * The loop of one thread: select, expand, play out and back up until the deadline, the iteration limit or stop().
+   * @param tree the thread's tree.
+   * @param root the position to search. It is only read.
+   * @param deadline the time (System.nanoTime()) to stop at.
+   */
+  private void run ( Tree tree, Board root, long deadline ) {
+    Board board = tree.board;
+    int[] path = tree.path;
+    while ( !stopped && (maxIterations <= 0 || tree.playouts < maxIterations) ) {
+      if ( (tree.playouts & 63) == 0 && System.nanoTime() > deadline ) {
+        break;
+      }
+      board.copyFrom ( root );
+
+      // selection
+      int node = 0;
+      int depth = 0;
+      path[depth ++] = node;
+      while ( tree.firstChild[node] >= 0 && board.getWinner() == Board.NO_PLAYER ) {
+        node = selectChild ( tree, node );
+        board.drop ( tree.pillar[node] );
+        path[depth ++] = node;
+      }
+
+      // expansion
+      if ( board.getWinner() == Board.NO_PLAYER && tree.visits[node] >= EXPANSION_VISITS && expand ( tree, node, board ) ) {
+        node = tree.firstChild[node] + tree.random.nextInt ( tree.childCount[node] );
+        board.drop ( tree.pillar[node] );
+        path[depth ++] = node;
+      }
+
+      // playout; the result is the winner, or NO_PLAYER for a draw
+      int winner = playout ( tree, board );
+
+      // back-up: each node is scored for the player who moved into it
+      int mover = root.getPlayerToMove();
+      for ( int i = 1; i < depth; i ++ ) {
+        int child = path[i];
+        tree.visits[child] ++;
+        tree.score[child] += winner == Board.NO_PLAYER ? 1 : winner == mover ? 2 : 0;
+        mover = 3 - mover;
+      }
+      tree.visits[0] ++;
+      tree.playouts ++;
+    }
+  }
+
+  /**
+   * selectChild
+   * @param tree the thread's tree.
+   * @param node an expanded node.
+   * @return the child with the highest upper confidence bound; unvisited children first.
+   */
+  private static int selectChild ( Tree tree, int node ) {
+    int first = tree.firstChild[node];
+    int end = first + tree.childCount[node];
+    double logVisits = Math.log ( Math.max ( 1, tree.visits[node] ) );
+    int best = first;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for ( int child = first; child < end; child ++ ) {
+      int visits = tree.visits[child];
+      if ( visits == 0 ) {
+        return child;
+      }
+      double value = tree.score[child] / (2.0 * visits) + EXPLORATION * Math.sqrt ( logVisits / visits );
+      if ( value > bestValue ) {
+        bestValue = value;
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * expand
+   * Adds a child for every legal move of the node's position, growing the tree if it is full.
+   * @param tree the thread's tree.
+   * @param node the leaf to expand.
+   * @param board the node's position.
+   * @return true if the children were added, false if the tree is full.
+   */
+  private boolean expand ( Tree tree, int node, Board board ) {
+    int count = board.getAvailablePillars ( tree.moves );
+    if ( count == 0 || !tree.ensureCapacity ( tree.size + count, nodeLimit ) ) {
+      return false;
+    }
+    int first = tree.size;
+    for ( int i = 0; i < count; i ++ ) {
+      int child = first + i;
+      tree.firstChild[child] = -1;
+      tree.childCount[child] = 0;
+      tree.pillar[child] = (short) tree.moves[i];
+      tree.visits[child] = 0;
+      tree.score[child] = 0;
+    }
+    tree.size += count;
+    tree.childCount[node] = (short) count;
+    tree.firstChild[node] = first;
+    return true;
+  }
+
+  /**
+   * playout
+   * Finishes the game with uniformly random legal drops. The legal pillars are listed once and a pillar is removed
+   * from the list when it fills up.
+   * @param tree the thread's tree.
+   * @param board the position to finish. It is changed.
+   * @return the winner, or NO_PLAYER for a draw.
+   */
+  private static int playout ( Tree tree, Board board ) {
+    int[] moves = tree.moves;
+    int count = board.getAvailablePillars ( moves );
+    while ( count > 0 && board.getWinner() == Board.NO_PLAYER ) {
+      int i = tree.random.nextInt ( count );
+      int pillar = moves[i];
+      board.drop ( pillar );
+      if ( board.getHeight ( pillar ) == board.getLayers() ) {
+        moves[i] = moves[-- count];
+      }
+    }
+    return board.getWinner();
+  }
+
+  /**
+   * getPlayouts
+   * @return the number of playouts of the last search, over all threads.
+   */
+  public long getPlayouts() {
+    return playouts;
+  }
+
+  /**
+   * getPlayoutsPerSecond
+   * @return the playouts per second of the last search.
+   */
+  public double getPlayoutsPerSecond() {
+    return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * getVisits
+   * @param pillar a pillar.
+   * @return the visits of the root move into the pillar in the last search, summed over all threads.
+   */
+  public long getVisits ( int pillar ) {
+    return pillar < rootVisits.length ? rootVisits[pillar] : 0;
+  }
+}
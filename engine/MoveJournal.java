@@ -0,0 +1,618 @@
+package scoreFourGame.engine;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * MoveJournal
+ * An append-only journal of the games in progress, so that they survive a crash of the process. Every start of a
+ * game, move and end of a game is one 32-byte record. Appending a record only copies it into a memory buffer and
+ * returns, in microseconds; a flusher thread writes all the records appended since its last write and forces them
+ * to disk with a single fsync (group commit). While one fsync runs, the records of every game pile up for the next
+ * one, so many concurrent games share each flush. A record is durable once awaitDurable() returns for it, at the
+ * latest one fsync after it was appended.<p>
+ * Opening a journal replays it: the games that were started but not ended are rebuilt and returned by
+ * getRecoveredGames(). A record torn by the crash ends the replay, and the journal is compacted to the recovered
+ * games, so it holds only games in progress each time it is opened.<p>
+ * The file has an 8-byte header (magic "S4MJ" and version) followed by records of: type (1 byte), 3 zero bytes,
+ * an int argument (START: layers, rows, columns and beads to win, one byte each; MOVE: the pillar; END: the result),
+ * the game id (long), a long value (START: the game seed; MOVE: the ply), an int tag (START: a tag of the
+ * application, e.g., the player types) and the CRC32 of the first 28 bytes.<p>
+ * The methods are thread-safe.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class MoveJournal implements Closeable {
+
+  /**
+   * JournaledGame
+   * A game in progress rebuilt from the journal.
+   */
+  public static final class JournaledGame {
+
+    /**
+     * The game id.
+     */
+    public final long id;
+
+    /**
+     * The tag given to startGame().
+     */
+    public final int tag;
+
+    /**
+     * The moves played so far, with the game seed.
+     */
+    public final GameRecord record;
+
+    /**
+     * The constructor.
+     * @param id the game id.
+     * @param tag the tag.
+     * @param record the moves played so far.
+     */
+    private JournaledGame ( long id, int tag, GameRecord record ) {
+      this.id = id;
+      this.tag = tag;
+      this.record = record;
+    }
+  }
+
+  // =============== VARIABLES ===============
+  /**
+   * The magic number at the start of a journal ("S4MJ").
+   */
+  private static final int MAGIC = 0x53344d4a;
+
+  /**
+   * The journal format version.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * The size of the header in bytes.
+   */
+  private static final int HEADER_SIZE = 8;
+
+  /**
+   * The size of a record in bytes.
+   */
+  static final int RECORD_SIZE = 32;
+
+  /**
+   * The number of bytes of a record covered by its checksum.
+   */
+  private static final int CHECKED_SIZE = RECORD_SIZE - 4;
+
+  /**
+   * The record type of the start of a game.
+   */
+  private static final int START = 1;
+
+  /**
+   * The record type of a move.
+   */
+  private static final int MOVE = 2;
+
+  /**
+   * The record type of the end of a game.
+   */
+  private static final int END = 3;
+
+  /**
+   * The size of each of the two append buffers (1 MB). Appends wait while the disk is this far behind.
+   */
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  /**
+   * The journal file.
+   */
+  private final Path file;
+
+  /**
+   * The journal file, opened for writing at its end.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The games in progress found when the journal was opened.
+   */
+  private final List<JournaledGame> recoveredGames;
+
+  /**
+   * The checksum of the records being appended.
+   */
+  private final CRC32 crc = new CRC32();
+
+  /**
+   * The thread that writes and forces the appended records.
+   */
+  private final Thread flusher;
+
+  /**
+   * The records appended and not taken by the flusher yet.
+   */
+  private ByteBuffer pending = ByteBuffer.allocate ( BUFFER_SIZE );
+
+  /**
+   * The buffer that the flusher gives back after writing it, or null while it is being written.
+   */
+  private ByteBuffer spare = ByteBuffer.allocate ( BUFFER_SIZE );
+
+  /**
+   * The number of records appended since the journal was opened; the sequence number of the last one.
+   */
+  private long appended = 0;
+
+  /**
+   * The number of records forced to disk.
+   */
+  private long durable = 0;
+
+  /**
+   * The number of fsyncs.
+   */
+  private long flushCount = 0;
+
+  /**
+   * The largest game id in the journal.
+   */
+  private long lastGameId = 0;
+
+  /**
+   * The error that stopped the flusher, or null.
+   */
+  private IOException failure;
+
+  /**
+   * Whether close() was called.
+   */
+  private boolean closed = false;
+
+  /**
+   * The constructor. It creates the journal, or replays and compacts an existing one, and starts the flusher.
+   * @param file the journal file.
+   * @throws IOException if the file cannot be read or written, or is not a move journal.
+   */
+  public MoveJournal ( Path file ) throws IOException {
+    this.file = file;
+    Map<Long, GameState> games = Files.exists ( file ) ? replay ( file ) : new LinkedHashMap<>();
+    List<JournaledGame> recovered = new ArrayList<>();
+    for ( Map.Entry<Long, GameState> game : games.entrySet() ) {
+      recovered.add ( new JournaledGame ( game.getKey(), game.getValue().tag, GameRecord.of ( game.getValue().board, game.getValue().seed ) ) );
+    }
+    this.recoveredGames = Collections.unmodifiableList ( recovered );
+    compact();
+    this.channel = FileChannel.open ( file, StandardOpenOption.WRITE );
+    channel.position ( channel.size() );
+    this.flusher = new Thread ( this::flush, "MoveJournal flusher" );
+    flusher.setDaemon ( true );
+    flusher.start();
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * startGame
+   * Appends the start of a game and the moves already played on its board, e.g., of a loaded game.
+   * @param gameId the game id, not used by a game in progress.
+   * @param board the position of the game.
+   * @param seed the game seed.
+   * @param tag a tag of the application, returned with the game by getRecoveredGames().
+   * @return the sequence number of the last record appended.
+   * @throws IOException if the journal is closed or failed.
+   */
+  public synchronized long startGame ( long gameId, Board board, long seed, int tag ) throws IOException {
+    long sequence = append ( START, sizeArgument ( board.getLayers(), board.getRows(), board.getColumns(), board.getBeadsToWin() ), gameId, seed, tag );
+    for ( int ply = 0; ply < board.getMoveCount(); ply ++ ) {
+      sequence = append ( MOVE, board.getMove ( ply ), gameId, ply, 0 );
+    }
+    return sequence;
+  }
+
+  /**
+   * move
+   * Appends a move. A move at an earlier ply than the game's next one replaces the moves from that ply on, e.g.,
+   * after moves were taken back.
+   * @param gameId the game id.
+   * @param ply the number of moves played before it.
+   * @param pillar the pillar.
+   * @return the sequence number of the record.
+   * @throws IOException if the journal is closed or failed.
+   */
+  public synchronized long move ( long gameId, int ply, int pillar ) throws IOException {
+    return append ( MOVE, pillar, gameId, ply, 0 );
+  }
+
+  /**
+   * endGame
+   * Appends the end of a game. The game will not be recovered.
+   * @param gameId the game id.
+   * @param result the result, one of the GameRecord.RESULT_ constants (RESULT_UNFINISHED for an abandoned game).
+   * @return the sequence number of the record.
+   * @throws IOException if the journal is closed or failed.
+   */
+  public synchronized long endGame ( long gameId, int result ) throws IOException {
+    return append ( END, result, gameId, 0, 0 );
+  }
+
+  /**
+   * append
+   * Copies a record into the pending buffer, waiting only if the disk is a whole buffer behind.
+   * @param type the record type.
+   * @param argument the argument.
+   * @param gameId the game id.
+   * @param value the value.
+   * @param tag the tag.
+   * @return the sequence number of the record.
+   * @throws IOException if the journal is closed or failed.
+   */
+  private long append ( int type, int argument, long gameId, long value, int tag ) throws IOException {
+    while ( pending.remaining() < RECORD_SIZE && failure == null && !closed ) {
+      waitForFlusher();
+    }
+    checkOpen();
+    int start = pending.position();
+    putRecord ( pending, crc, type, argument, gameId, value, tag );
+    lastGameId = Math.max ( lastGameId, gameId );
+    if ( start == 0 ) {
+      // the flusher may be idle
+      notifyAll();
+    }
+    return ++ appended;
+  }
+
+  /**
+   * putRecord
+   * Writes a record with its checksum.
+   * @param buffer the buffer to write to, a heap buffer.
+   * @param crc the checksum to compute with.
+   * @param type the record type.
+   * @param argument the argument.
+   * @param gameId the game id.
+   * @param value the value.
+   * @param tag the tag.
+   */
+  private static void putRecord ( ByteBuffer buffer, CRC32 crc, int type, int argument, long gameId, long value, int tag ) {
+    int start = buffer.position();
+    buffer.put ( (byte) type ).put ( (byte) 0 ).put ( (byte) 0 ).put ( (byte) 0 ).putInt ( argument ).putLong ( gameId ).putLong ( value ).putInt ( tag );
+    crc.reset();
+    crc.update ( buffer.array(), start, CHECKED_SIZE );
+    buffer.putInt ( (int) crc.getValue() );
+  }
+
+  /**
+   * sizeArgument
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param beadsToWin the number of beads in a line to win.
+   * @return the argument of a START record.
+   */
+  private static int sizeArgument ( int layers, int rows, int columns, int beadsToWin ) {
+    return layers << 24 | rows << 16 | columns << 8 | beadsToWin;
+  }
+
+  /**
+   * awaitDurable
+   * Waits until a record is on disk.
+   * @param sequence the sequence number returned when the record was appended.
+   * @throws IOException if the journal failed before the record was written, or the thread was interrupted.
+   */
+  public synchronized void awaitDurable ( long sequence ) throws IOException {
+    while ( durable < sequence && failure == null ) {
+      waitForFlusher();
+    }
+    if ( durable < sequence ) {
+      throw new IOException ( "The move journal failed", failure );
+    }
+  }
+
+  /**
+   * sync
+   * Waits until every record appended so far is on disk.
+   * @throws IOException if the journal failed, or the thread was interrupted.
+   */
+  public void sync() throws IOException {
+    long sequence;
+    synchronized ( this ) {
+      sequence = appended;
+    }
+    awaitDurable ( sequence );
+  }
+
+  /**
+   * close
+   * Writes the pending records, stops the flusher and closes the file.
+   * @throws IOException if the records cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized ( this ) {
+      if ( closed ) {
+        return;
+      }
+      closed = true;
+      notifyAll();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    channel.close();
+    synchronized ( this ) {
+      if ( failure != null ) {
+        throw new IOException ( "The move journal failed", failure );
+      }
+    }
+  }
+
+  /**
+   * getRecoveredGames
+   * @return the games that were in progress when the journal was opened, in the order they were started.
+   */
+  public List<JournaledGame> getRecoveredGames() {
+    return recoveredGames;
+  }
+
+  /**
+   * getLastGameId
+   * @return the largest game id in the journal, or 0; new games can be numbered from the next id.
+   */
+  public synchronized long getLastGameId() {
+    return lastGameId;
+  }
+
+  /**
+   * getFlushCount
+   * @return the number of fsyncs since the journal was opened.
+   */
+  public synchronized long getFlushCount() {
+    return flushCount;
+  }
+
+  /**
+   * getRecordCount
+   * @return the number of records appended since the journal was opened.
+   */
+  public synchronized long getRecordCount() {
+    return appended;
+  }
+
+  /**
+   * checkOpen
+   * @throws IOException if the journal is closed or failed.
+   */
+  private void checkOpen() throws IOException {
+    if ( failure != null ) {
+      throw new IOException ( "The move journal failed", failure );
+    }
+    if ( closed ) {
+      throw new IOException ( "The move journal is closed" );
+    }
+  }
+
+  /**
+   * waitForFlusher
+   * Waits for the flusher to make progress. The caller holds the lock.
+   * @throws InterruptedIOException if the thread is interrupted.
+   */
+  private void waitForFlusher() throws InterruptedIOException {
+    try {
+      wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException ( "Interrupted while waiting for the move journal" );
+    }
+  }
+
+  /**
+   * flush
+   * The flusher loop: takes all pending records, writes them with one write and one fsync, and marks them durable.
+   * Appends go on into the other buffer meanwhile.
+   */
+  private void flush() {
+    while ( true ) {
+      ByteBuffer batch;
+      long batchEnd;
+      synchronized ( this ) {
+        while ( pending.position() == 0 && !closed ) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            // only close() stops the flusher
+          }
+        }
+        if ( pending.position() == 0 ) {
+          return;
+        }
+        batch = pending;
+        pending = spare;
+        spare = null;
+        batchEnd = appended;
+        // appends waiting for space can go on
+        notifyAll();
+      }
+      try {
+        batch.flip();
+        while ( batch.hasRemaining() ) {
+          channel.write ( batch );
+        }
+        channel.force ( false );
+      } catch (IOException e) {
+        synchronized ( this ) {
+          failure = e;
+          notifyAll();
+        }
+        return;
+      }
+      batch.clear();
+      synchronized ( this ) {
+        spare = batch;
+        durable = batchEnd;
+        flushCount ++;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * replay
+   * Reads the journal up to its end or its first damaged record and rebuilds the games in progress.
+   * @param file the journal file.
+   * @return the games in progress by id, in the order they were started.
+   * @throws IOException if the file cannot be read or is not a move journal.
+   */
+  private Map<Long, GameState> replay ( Path file ) throws IOException {
+    Map<Long, GameState> games = new LinkedHashMap<>();
+    try ( FileChannel in = FileChannel.open ( file, StandardOpenOption.READ ) ) {
+      ByteBuffer header = ByteBuffer.allocate ( HEADER_SIZE );
+      while ( header.hasRemaining() && in.read ( header ) >= 0 ) {
+      }
+      if ( header.position() == 0 ) {
+        // created, but the header never reached the disk
+        return games;
+      }
+      if ( header.hasRemaining() || header.getInt ( 0 ) != MAGIC ) {
+        throw new IOException ( file + " is not a move journal" );
+      }
+      if ( header.getInt ( 4 ) != VERSION ) {
+        throw new IOException ( "Unsupported move journal version " + header.getInt ( 4 ) );
+      }
+      ByteBuffer buffer = ByteBuffer.allocate ( RECORD_SIZE * 4096 );
+      CRC32 check = new CRC32();
+      while ( in.read ( buffer ) >= 0 || buffer.position() >= RECORD_SIZE ) {
+        buffer.flip();
+        while ( buffer.remaining() >= RECORD_SIZE ) {
+          int start = buffer.position();
+          check.reset();
+          check.update ( buffer.array(), start, CHECKED_SIZE );
+          if ( buffer.getInt ( start + CHECKED_SIZE ) != (int) check.getValue() ) {
+            // torn by a crash; nothing after it was acknowledged as durable
+            return games;
+          }
+          int type = buffer.get();
+          buffer.position ( start + 4 );
+          apply ( games, type, buffer.getInt(), buffer.getLong(), buffer.getLong(), buffer.getInt() );
+          buffer.getInt();
+        }
+        buffer.compact();
+      }
+    }
+    return games;
+  }
+
+  /**
+   * apply
+   * Applies a record to the games in progress. A move at an earlier ply takes back the game's moves from that ply
+   * on first; a move beyond the game's next ply is ignored.
+   * @param games the games in progress by id.
+   * @param type the record type.
+   * @param argument the argument.
+   * @param gameId the game id.
+   * @param value the value.
+   * @param tag the tag.
+   * @throws IOException if the record type is unknown.
+   */
+  private void apply ( Map<Long, GameState> games, int type, int argument, long gameId, long value, int tag ) throws IOException {
+    lastGameId = Math.max ( lastGameId, gameId );
+    if ( type == START ) {
+      games.remove ( gameId );
+      Board board = new Board ( argument >>> 24, (argument >>> 16) & 0xff, (argument >>> 8) & 0xff, argument & 0xff );
+      games.put ( gameId, new GameState ( board, value, tag ) );
+    } else if ( type == MOVE ) {
+      GameState game = games.get ( gameId );
+      if ( game != null && value >= 0 && value <= game.board.getMoveCount() ) {
+        while ( game.board.getMoveCount() > value ) {
+          game.board.undo();
+        }
+        if ( !game.board.isGameOver() && argument >= 0 && argument < game.board.getPillarCount() && game.board.isPillarAvailable ( argument ) ) {
+          game.board.drop ( argument );
+        }
+      }
+    } else if ( type == END ) {
+      games.remove ( gameId );
+    } else {
+      throw new IOException ( "Unknown move journal record type " + type );
+    }
+  }
+
+  /**
+   * compact
+   * Rewrites the journal with only the recovered games and forces it to disk, replacing the old file atomically.
+   * @throws IOException if the journal cannot be written.
+   */
+  private void compact() throws IOException {
+    int recordCount = 0;
+    for ( JournaledGame game : recoveredGames ) {
+      recordCount += 1 + game.record.getMoveCount();
+    }
+    ByteBuffer buffer = ByteBuffer.allocate ( HEADER_SIZE + recordCount * RECORD_SIZE );
+    buffer.putInt ( MAGIC ).putInt ( VERSION );
+    for ( JournaledGame game : recoveredGames ) {
+      GameRecord record = game.record;
+      putRecord ( buffer, crc, START, sizeArgument ( record.getLayers(), record.getRows(), record.getColumns(), record.getBeadsToWin() ),
+                  game.id, record.getSeed(), game.tag );
+      for ( int ply = 0; ply < record.getMoveCount(); ply ++ ) {
+        putRecord ( buffer, crc, MOVE, record.getMove ( ply ), game.id, ply, 0 );
+      }
+    }
+    buffer.flip();
+    Path temporary = file.resolveSibling ( file.getFileName() + ".tmp" );
+    try ( FileChannel out = FileChannel.open ( temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE ) ) {
+      while ( buffer.hasRemaining() ) {
+        out.write ( buffer );
+      }
+      out.force ( false );
+    }
+    Files.move ( temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+  }
+
+  /**
+   * GameState
+   * A game in progress while the journal is replayed.
+   */
+  private static final class GameState {
+
+    /**
+     * The position.
+     */
+    private final Board board;
+
+    /**
+     * The game seed.
+     */
+    private final long seed;
+
+    /**
+     * The tag of the application.
+     */
+    private final int tag;
+
+    /**
+     * The constructor.
+     * @param board the empty board.
+     * @param seed the game seed.
+     * @param tag the tag.
+     */
+    private GameState ( Board board, long seed, int tag ) {
+      this.board = board;
+      this.seed = seed;
+      this.tag = tag;
+    }
+  }
+}
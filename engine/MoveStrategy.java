@@ -0,0 +1,21 @@
+package scoreFourGame.engine;
+
+/**
+ * MoveStrategy
+ * An algorithm that chooses the next move of a computer player.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public interface MoveStrategy {
+
+  /**
+   * selectMove
+   * Chooses the next move of the player on the board. The board may be used as scratch space but must be left
+   * in the same position when the method returns.
+   * @param board the current position.
+   * @param playerNo the player number (1 or 2) to move.
+   * @return the cell index of the move, or -1 if there is no legal move (i.e., tie game).
+   */
+  int selectMove ( Board board, int playerNo );
+}
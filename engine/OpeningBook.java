@@ -0,0 +1,281 @@
+package scoreFourGame.engine;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * OpeningBook
+ * A precomputed table of the best move of opening positions, written by OpeningBookGenerator and memory-mapped for
+ * lookups, so it costs no heap and no search time. The file format is:
+ * <pre>
+ * header = magic "S4OB" (int), version (int), layers, rows, columns, beadsToWin (1 byte each),
+ *          plies (int), searchDepth (int), entryCount (long), 4 reserved bytes   (32 bytes)
+ * entry  = position hash (long), pillar (short), reserved (short), score (int)  (16 bytes, sorted by hash)
+ * </pre>
+ * The book of a board size is shipped as the classpath resource "openings_&lt;layers&gt;.book" next to this class.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class OpeningBook {
+
+  // =============== VARIABLES ===============
+  /**
+   * The magic number at the start of a book ("S4OB").
+   */
+  static final int MAGIC = 0x53344F42;
+
+  /**
+   * The book format version.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * The size of the header in bytes.
+   */
+  static final int HEADER_SIZE = 32;
+
+  /**
+   * The size of an entry in bytes.
+   */
+  static final int ENTRY_SIZE = 16;
+
+  /**
+   * The shipped books that have been looked up, by board size; empty if there is no book for the size.
+   */
+  private static final ConcurrentMap<Integer, Optional<OpeningBook>> shippedBooks = new ConcurrentHashMap<>();
+
+  /**
+   * The mapped book file, header included.
+   */
+  private final MappedByteBuffer buffer;
+
+  /**
+   * The number of layers of the book's board size.
+   */
+  private final int layers;
+
+  /**
+   * The number of rows of the book's board size.
+   */
+  private final int rows;
+
+  /**
+   * The number of columns of the book's board size.
+   */
+  private final int columns;
+
+  /**
+   * The number of beads in a line to win of the book's board size.
+   */
+  private final int beadsToWin;
+
+  /**
+   * The number of plies from the empty board that the book covers.
+   */
+  private final int plies;
+
+  /**
+   * The search depth used to generate the book.
+   */
+  private final int searchDepth;
+
+  /**
+   * The number of entries.
+   */
+  private final int entryCount;
+
+  /**
+   * The constructor. Use open() to open a book.
+   * @param buffer the mapped book file.
+   * @throws IOException if the file is not a valid book.
+   */
+  private OpeningBook ( MappedByteBuffer buffer ) throws IOException {
+    this.buffer = buffer;
+    if ( buffer.capacity() < HEADER_SIZE || buffer.getInt ( 0 ) != MAGIC || buffer.getInt ( 4 ) != VERSION ) {
+      throw new IOException ( "Not an opening book" );
+    }
+    this.layers = buffer.get ( 8 ) & 0xFF;
+    this.rows = buffer.get ( 9 ) & 0xFF;
+    this.columns = buffer.get ( 10 ) & 0xFF;
+    this.beadsToWin = buffer.get ( 11 ) & 0xFF;
+    this.plies = buffer.getInt ( 12 );
+    this.searchDepth = buffer.getInt ( 16 );
+    long count = buffer.getLong ( 20 );
+    if ( count < 0 || HEADER_SIZE + count * ENTRY_SIZE != buffer.capacity() ) {
+      throw new IOException ( "Truncated opening book" );
+    }
+    this.entryCount = (int) count;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * open
+   * Maps a book file.
+   * @param file the book file.
+   * @return the book.
+   * @throws IOException if the file cannot be mapped or is not a valid book.
+   */
+  public static OpeningBook open ( Path file ) throws IOException {
+    try ( FileChannel channel = FileChannel.open ( file, StandardOpenOption.READ ) ) {
+      return new OpeningBook ( channel.map ( FileChannel.MapMode.READ_ONLY, 0, channel.size() ) );
+    }
+  }
+
+  /**
+   * forBoard
+   * Returns the shipped book of the board's size, mapping it on first use. A resource inside a jar is copied to a
+   * temporary file first, since only files can be mapped.
+   * @param board a board of the size to look up.
+   * @return the book, or null if no book is shipped for the board size.
+   */
+  public static OpeningBook forBoard ( Board board ) {
+    if ( board.getLayers() != board.getRows() || board.getRows() != board.getColumns() ) {
+      return null;
+    }
+    OpeningBook book = shippedBooks.computeIfAbsent ( board.getLayers(), size -> Optional.ofNullable ( loadShippedBook ( size ) ) ).orElse ( null );
+    return book != null && book.matches ( board ) ? book : null;
+  }
+
+  /**
+   * loadShippedBook
+   * Maps the book resource of a board size, or if it is not on the classpath, e.g., when the classes are compiled
+   * from the source tree into another directory, the book file in the engine directory under the working directory.
+   * @param size the number of layers, rows and columns.
+   * @return the book, or null if there is no book or it cannot be read.
+   */
+  private static OpeningBook loadShippedBook ( int size ) {
+    String resource = "openings_" + size + ".book";
+    URL url = OpeningBook.class.getResource ( resource );
+    try {
+      if ( url == null ) {
+        Path file = Path.of ( "engine", resource );
+        return Files.isRegularFile ( file ) ? open ( file ) : null;
+      }
+      if ( url.getProtocol().equals ( "file" ) ) {
+        return open ( Path.of ( url.toURI() ) );
+      }
+      Path copy = Files.createTempFile ( "openings_" + size, ".book" );
+      copy.toFile().deleteOnExit();
+      try ( InputStream in = url.openStream() ) {
+        Files.copy ( in, copy, StandardCopyOption.REPLACE_EXISTING );
+      }
+      return open ( copy );
+    } catch (IOException | URISyntaxException e) {
+      System.err.println ( "Cannot open the opening book " + resource + ": " + e.getMessage() );
+      return null;
+    }
+  }
+
+  /**
+   * matches
+   * @param board a board.
+   * @return true if the book was generated for the board's size.
+   */
+  public boolean matches ( Board board ) {
+    return board.getLayers() == layers && board.getRows() == rows && board.getColumns() == columns && board.getBeadsToWin() == beadsToWin;
+  }
+
+  /**
+   * lookup
+   * Returns the book move of the position.
+   * @param board the position.
+   * @return the best pillar, or -1 if the position is not in the book or the book move is not legal.
+   */
+  public int lookup ( Board board ) {
+    if ( !matches ( board ) || board.getBeadCount() > plies ) {
+      return -1;
+    }
+    int entry = find ( board.getHash() );
+    if ( entry < 0 ) {
+      return -1;
+    }
+    int pillar = buffer.getShort ( HEADER_SIZE + entry * ENTRY_SIZE + 8 );
+    return pillar < board.getPillarCount() && board.isPillarAvailable ( pillar ) ? pillar : -1;
+  }
+
+  /**
+   * lookupScore
+   * Returns the search score of the book move of the position, for the player to move.
+   * @param board the position.
+   * @return the score, or Integer.MIN_VALUE if the position is not in the book.
+   */
+  public int lookupScore ( Board board ) {
+    int entry = matches ( board ) ? find ( board.getHash() ) : -1;
+    return entry < 0 ? Integer.MIN_VALUE : buffer.getInt ( HEADER_SIZE + entry * ENTRY_SIZE + 12 );
+  }
+
+  /**
+   * find
+   * Binary search of the entries.
+   * @param hash the position hash.
+   * @return the entry number, or -1 if the hash is not in the book.
+   */
+  private int find ( long hash ) {
+    int low = 0;
+    int high = entryCount - 1;
+    while ( low <= high ) {
+      int middle = (low + high) >>> 1;
+      long middleHash = buffer.getLong ( HEADER_SIZE + middle * ENTRY_SIZE );
+      if ( middleHash < hash ) {
+        low = middle + 1;
+      } else if ( middleHash > hash ) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * writeHeader
+   * Writes a book header; used by OpeningBookGenerator.
+   * @param header the buffer to write to, at least HEADER_SIZE bytes.
+   * @param board a board of the book's size.
+   * @param plies the number of plies the book covers.
+   * @param searchDepth the search depth used.
+   * @param entryCount the number of entries.
+   */
+  static void writeHeader ( ByteBuffer header, Board board, int plies, int searchDepth, long entryCount ) {
+    header.putInt ( MAGIC ).putInt ( VERSION );
+    header.put ( (byte) board.getLayers() ).put ( (byte) board.getRows() ).put ( (byte) board.getColumns() ).put ( (byte) board.getBeadsToWin() );
+    header.putInt ( plies ).putInt ( searchDepth ).putLong ( entryCount ).putInt ( 0 );
+  }
+
+  /**
+   * getEntryCount
+   * @return the number of positions in the book.
+   */
+  public int getEntryCount() {
+    return entryCount;
+  }
+
+  /**
+   * getPlies
+   * @return the number of plies from the empty board that the book covers.
+   */
+  public int getPlies() {
+    return plies;
+  }
+
+  /**
+   * getSearchDepth
+   * @return the search depth used to generate the book.
+   */
+  public int getSearchDepth() {
+    return searchDepth;
+  }
+}
@@ -0,0 +1,170 @@
+package scoreFourGame.engine;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * OpeningBookGenerator
+ * The offline generator of an OpeningBook: it enumerates every position reachable from the empty board in up to
+ * the given number of plies, searches each with AlphaBetaSearch to the given depth on all cores, and writes the
+ * best moves sorted by position hash.<p>
+ * Usage: OpeningBookGenerator &lt;size&gt; &lt;plies&gt; &lt;searchDepth&gt; &lt;output file&gt; [threads]
+ * With -DscoreFourGame.positionCache=&lt;file&gt; all threads share a MappedPositionCache, and a generation that is
+ * stopped and restarted finds the positions it already searched in the file.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class OpeningBookGenerator {
+
+  // =============== VARIABLES ===============
+  /**
+   * The board size.
+   */
+  private final int size;
+
+  /**
+   * The number of plies from the empty board to cover.
+   */
+  private final int plies;
+
+  /**
+   * The search depth of each position.
+   */
+  private final int searchDepth;
+
+  /**
+   * The constructor.
+   * @param size the number of layers, rows and columns.
+   * @param plies the number of plies from the empty board to cover.
+   * @param searchDepth the search depth of each position.
+   */
+  public OpeningBookGenerator ( int size, int plies, int searchDepth ) {
+    this.size = size;
+    this.plies = plies;
+    this.searchDepth = searchDepth;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Generates a book file.
+   * @param args size, plies, search depth, output file and optionally the number of threads.
+   * @throws Exception if the book cannot be generated or written.
+   */
+  public static void main ( String[] args ) throws Exception {
+    if ( args.length < 4 ) {
+      System.err.println ( "Usage: OpeningBookGenerator <size> <plies> <searchDepth> <output file> [threads]" );
+      System.exit ( 2 );
+    }
+    int threads = args.length > 4 ? Integer.parseInt ( args[4] ) : Runtime.getRuntime().availableProcessors();
+    OpeningBookGenerator generator = new OpeningBookGenerator ( Integer.parseInt ( args[0] ), Integer.parseInt ( args[1] ), Integer.parseInt ( args[2] ) );
+    long start = System.nanoTime();
+    int entries = generator.generate ( Path.of ( args[3] ), threads );
+    System.out.println ( entries + " positions written to " + args[3] + " in " + (System.nanoTime() - start) / 1000000 + " ms" );
+  }
+
+  /**
+   * generate
+   * Enumerates, searches and writes the book.
+   * @param output the book file to write.
+   * @param threads the number of search threads.
+   * @return the number of positions in the book.
+   * @throws Exception if a search fails or the file cannot be written.
+   */
+  public int generate ( Path output, int threads ) throws Exception {
+    List<int[]> positions = new ArrayList<>();
+    enumerate ( new Board ( size ), new HashSet<>(), positions );
+    int count = positions.size();
+    long[] hashes = new long[count];
+    long[] results = new long[count];
+    AtomicInteger done = new AtomicInteger();
+    ThreadLocal<AlphaBetaSearch> searches = ThreadLocal.withInitial ( () -> {
+      AlphaBetaSearch search = new AlphaBetaSearch();
+      search.setMaxDepth ( searchDepth );
+      return search;
+    } );
+    ForkJoinPool pool = new ForkJoinPool ( threads );
+    try {
+      pool.submit ( () -> IntStream.range ( 0, count ).parallel().forEach ( i -> {
+        Board board = new Board ( size );
+        for ( int pillar : positions.get ( i ) ) {
+          board.drop ( pillar );
+        }
+        AlphaBetaSearch search = searches.get();
+        int pillar = search.search ( board );
+        hashes[i] = board.getHash();
+        // pillar in the high bits, score in the low bits
+        results[i] = ((long) pillar << 32) | (search.getScore() & 0xFFFFFFFFL);
+        int searched = done.incrementAndGet();
+        if ( searched % 1000 == 0 ) {
+          System.out.println ( searched + " / " + count + " positions searched" );
+        }
+      } ) ).get();
+    } finally {
+      pool.shutdown();
+    }
+    GameDatabase.sortEntries ( hashes, results, 0, count - 1 );
+    write ( output, hashes, results );
+    return count;
+  }
+
+  /**
+   * enumerate
+   * Collects the move sequence of every distinct position up to the number of plies, depth first.
+   * @param board the current position.
+   * @param seen the hashes of the positions already collected.
+   * @param positions the move sequences collected.
+   */
+  private void enumerate ( Board board, Set<Long> seen, List<int[]> positions ) {
+    if ( board.isGameOver() || !seen.add ( board.getHash() ) ) {
+      return;
+    }
+    int[] moves = new int[board.getMoveCount()];
+    for ( int ply = 0; ply < moves.length; ply ++ ) {
+      moves[ply] = board.getMove ( ply );
+    }
+    positions.add ( moves );
+    if ( board.getMoveCount() < plies ) {
+      for ( int pillar = 0; pillar < board.getPillarCount(); pillar ++ ) {
+        if ( board.isPillarAvailable ( pillar ) ) {
+          board.drop ( pillar );
+          enumerate ( board, seen, positions );
+          board.undo();
+        }
+      }
+    }
+  }
+
+  /**
+   * write
+   * Writes the book file.
+   * @param output the book file.
+   * @param hashes the position hashes, sorted.
+   * @param results the pillar (high 32 bits) and score (low 32 bits) of each position.
+   * @throws IOException if the file cannot be written.
+   */
+  private void write ( Path output, long[] hashes, long[] results ) throws IOException {
+    try ( FileChannel channel = FileChannel.open ( output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+      ByteBuffer buffer = ByteBuffer.allocate ( OpeningBook.HEADER_SIZE + hashes.length * OpeningBook.ENTRY_SIZE );
+      OpeningBook.writeHeader ( buffer, new Board ( size ), plies, searchDepth, hashes.length );
+      for ( int i = 0; i < hashes.length; i ++ ) {
+        buffer.putLong ( hashes[i] ).putShort ( (short) (results[i] >> 32) ).putShort ( (short) 0 ).putInt ( (int) results[i] );
+      }
+      buffer.flip();
+      while ( buffer.hasRemaining() ) {
+        channel.write ( buffer );
+      }
+    }
+  }
+}
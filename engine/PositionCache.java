@@ -0,0 +1,36 @@
+package scoreFourGame.engine;
+
+/**
+ * PositionCache
+ * A fixed-size table of search results keyed by position hash (a transposition table). The stored value is a
+ * non-zero long packed by the searcher; a value of 0 means "not found". Entries may be overwritten at any time
+ * by other positions, so a probe can always miss. HeapPositionCache is for a single thread; MappedPositionCache can
+ * be shared by threads and processes.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public interface PositionCache {
+
+  /**
+   * probe
+   * Looks up a position.
+   * @param hash the position hash.
+   * @return the stored value, or 0 if the position is not in the cache.
+   */
+  long probe ( long hash );
+
+  /**
+   * store
+   * Stores the value of a position, replacing whatever is in its slot.
+   * @param hash the position hash.
+   * @param value the value to store. It must not be 0.
+   */
+  void store ( long hash, long value );
+
+  /**
+   * clear
+   * Removes all entries.
+   */
+  void clear();
+}
@@ -0,0 +1,718 @@
+package scoreFourGame.engine;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * ProofNumberSolver
+ * Proves the game-theoretic value of a position with depth-first proof-number search (df-pn): for the player to
+ * move it is a proven win, a proven loss or a proven draw, together with a line of play that wins. A win is proved
+ * by one search ("can the player to move force a win?"), a loss or draw by a second search from the opponent's side.
+ * Proof-number search expands the positions that are cheapest to prove or disprove first, so forced wins are found
+ * far deeper than a full-width search reaches. A position that the fill order of the pillars decides (see
+ * ThreatParity) is proven or disproven without expanding it.<p>
+ * The proof and disproof numbers are kept in a fixed-size transposition table, so memory stays bounded however long
+ * a solve runs; entries that cost the least work to compute are replaced first. The table can be saved to and
+ * loaded from a checkpoint file, so that a long solve that is stopped (time limit, stop() or process exit) resumes
+ * where it left off. Positions cannot repeat in this game, so there are no cycles to handle.<p>
+ * Usage: ProofNumberSolver &lt;size&gt; [-checkpoint &lt;file&gt;] [-minutes &lt;n&gt;] [pillar...]
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class ProofNumberSolver {
+
+  // =============== VARIABLES ===============
+  /**
+   * Result: the search was stopped before the position was solved.
+   */
+  public static final int UNKNOWN = 0;
+
+  /**
+   * Result: the player to move can force a win.
+   */
+  public static final int WIN = 1;
+
+  /**
+   * Result: the opponent of the player to move can force a win.
+   */
+  public static final int LOSS = 2;
+
+  /**
+   * Result: both players can avoid losing.
+   */
+  public static final int DRAW = 3;
+
+  /**
+   * The proof or disproof number of a proven or disproven position.
+   */
+  static final int INFINITY = Integer.MAX_VALUE;
+
+  /**
+   * The magic number at the start of a checkpoint file ("S4PN").
+   */
+  private static final int MAGIC = 0x5334504E;
+
+  /**
+   * The checkpoint file format version.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * The size of the checkpoint header in bytes.
+   */
+  private static final int HEADER_SIZE = 16;
+
+  /**
+   * The key mixed into the table keys of the proof that player 2 wins, so that both proofs share one table.
+   */
+  private static final long PLAYER_TWO_ATTACKS_KEY = 0x6A09E667F3BCC909L;
+
+  /**
+   * The table keys (position hash and attacker key); 0 marks an empty slot.
+   */
+  private final long[] keys;
+
+  /**
+   * The phi number of each entry: the proof number if the attacker is to move, else the disproof number.
+   */
+  private final int[] phis;
+
+  /**
+   * The delta number of each entry: the disproof number if the attacker is to move, else the proof number.
+   */
+  private final int[] deltas;
+
+  /**
+   * The number of positions searched to compute each entry, the replacement priority.
+   */
+  private final int[] works;
+
+  /**
+   * The table index mask; slots are used in pairs.
+   */
+  private final int mask;
+
+  /**
+   * The position being searched.
+   */
+  private Board board;
+
+  /**
+   * The player trying to force a win in the current proof.
+   */
+  private int attacker;
+
+  /**
+   * The key mixed into the table keys of the current proof.
+   */
+  private long attackerKey;
+
+  /**
+   * Decides positions by the fill order of the pillars.
+   */
+  private final ThreatParity parity = new ThreatParity();
+
+  /**
+   * The pillars ordered from the centre outwards, the order children are tried in.
+   */
+  private int[] pillarOrder = new int[0];
+
+  /**
+   * The children of each ply, reused between searches.
+   */
+  private int[][] childBuffers = new int[0][];
+
+  /**
+   * The time limit of a solve in milliseconds, or 0 for no limit.
+   */
+  private long timeLimitMillis = 0;
+
+  /**
+   * The time (System.nanoTime()) at which the solve must stop, or Long.MAX_VALUE.
+   */
+  private long deadline;
+
+  /**
+   * Set by stop() or when the time limit is reached; the search unwinds as soon as it sees it.
+   */
+  private volatile boolean stopped = false;
+
+  /**
+   * The number of positions searched, over all solves.
+   */
+  private long nodes = 0;
+
+  /**
+   * The result of the last solve.
+   */
+  private int result = UNKNOWN;
+
+  /**
+   * The winning line of play of the last solve, as pillars from the solved position.
+   */
+  private int[] line = new int[0];
+
+  /**
+   * The constructor.
+   * @param slotCountLog2 the log2 of the number of table slots; each slot takes 20 bytes.
+   */
+  public ProofNumberSolver ( int slotCountLog2 ) {
+    if ( slotCountLog2 < 1 || slotCountLog2 > 28 ) {
+      throw new IllegalArgumentException ( "Invalid slot count log2 " + slotCountLog2 );
+    }
+    int slotCount = 1 << slotCountLog2;
+    this.keys = new long[slotCount];
+    this.phis = new int[slotCount];
+    this.deltas = new int[slotCount];
+    this.works = new int[slotCount];
+    this.mask = slotCount - 1;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Solves the position after the given moves from the empty board, saving a checkpoint every minute if a checkpoint
+   * file is given, and resuming from it if it exists.
+   * @param args the board size, the options and the moves (pillars).
+   * @throws IOException if the checkpoint cannot be read or written.
+   */
+  public static void main ( String[] args ) throws IOException {
+    if ( args.length < 1 ) {
+      System.err.println ( "Usage: ProofNumberSolver <size> [-checkpoint <file>] [-minutes <n>] [pillar...]" );
+      System.exit ( 2 );
+    }
+    Board board = new Board ( Integer.parseInt ( args[0] ) );
+    Path checkpoint = null;
+    long minutes = Long.MAX_VALUE;
+    for ( int i = 1; i < args.length; i ++ ) {
+      if ( args[i].equals ( "-checkpoint" ) ) {
+        checkpoint = Path.of ( args[++ i] );
+      } else if ( args[i].equals ( "-minutes" ) ) {
+        minutes = Long.parseLong ( args[++ i] );
+      } else {
+        board.drop ( Integer.parseInt ( args[i] ) );
+      }
+    }
+    ProofNumberSolver solver = new ProofNumberSolver ( Integer.getInteger ( "scoreFourGame.solverSlotsLog2", 24 ) );
+    if ( checkpoint != null && checkpoint.toFile().exists() ) {
+      solver.loadCheckpoint ( checkpoint );
+      System.out.println ( "Resumed from " + checkpoint );
+    }
+    long start = System.nanoTime();
+    solver.setTimeLimit ( 60000 );
+    for ( long minute = 0; minute < minutes; minute ++ ) {
+      if ( solver.solve ( board ) != UNKNOWN ) {
+        break;
+      }
+      if ( checkpoint != null ) {
+        solver.saveCheckpoint ( checkpoint );
+      }
+      System.out.println ( solver.getNodes() + " positions searched in " + (System.nanoTime() - start) / 1000000000 + " s" );
+    }
+    System.out.println ( resultName ( solver.getResult() ) + " for player " + board.getPlayerToMove() + ", line " + Arrays.toString ( solver.getLine() )
+                          + ", " + solver.getNodes() + " positions, " + (System.nanoTime() - start) / 1000000 + " ms" );
+  }
+
+  /**
+   * resultName
+   * @param result one of the result constants.
+   * @return the name of the result.
+   */
+  public static String resultName ( int result ) {
+    switch ( result ) {
+      case WIN:
+        return "Win";
+      case LOSS:
+        return "Loss";
+      case DRAW:
+        return "Draw";
+      default:
+        return "Unknown";
+    }
+  }
+
+  /**
+   * setTimeLimit
+   * @param timeLimitMillis the time limit of each solve in milliseconds, or 0 for no limit.
+   */
+  public void setTimeLimit ( long timeLimitMillis ) {
+    this.timeLimitMillis = timeLimitMillis;
+  }
+
+  /**
+   * stop
+   * Asks a running solve to return UNKNOWN as soon as possible. The work done so far stays in the table.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * solve
+   * Solves the position for the player to move. Solving the same position again continues from the table, so a
+   * solve stopped by the time limit can be resumed by calling it again.
+   * @param position the position. It is left unchanged.
+   * @return WIN, LOSS or DRAW for the player to move, or UNKNOWN if the solve was stopped.
+   */
+  public int solve ( Board position ) {
+    stopped = false;
+    deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1000000 : Long.MAX_VALUE;
+    board = new Board ( position );
+    if ( childBuffers.length != board.getCellCount() + 1 || pillarOrder.length != board.getPillarCount() ) {
+      childBuffers = new int[board.getCellCount() + 1][board.getPillarCount()];
+      pillarOrder = AlphaBetaSearch.centreFirstOrder ( board.getRows(), board.getColumns() );
+    }
+    result = UNKNOWN;
+    line = new int[0];
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      result = LOSS;
+      return result;
+    }
+    if ( board.getBlankCount() == 0 ) {
+      result = DRAW;
+      return result;
+    }
+    int player = board.getPlayerToMove();
+    int proof = prove ( player );
+    if ( proof == WIN ) {
+      result = WIN;
+    } else if ( proof == LOSS ) {
+      proof = prove ( 3 - player );
+      result = proof == WIN ? LOSS : proof == LOSS ? DRAW : UNKNOWN;
+    }
+    if ( result == WIN || result == LOSS ) {
+      line = winningLine();
+    }
+    return result;
+  }
+
+  /**
+   * prove
+   * Runs df-pn from the root until the attacker's win is proven or disproven.
+   * @param attacker the player trying to force a win.
+   * @return WIN if the attacker wins, LOSS if it cannot force a win, or UNKNOWN if stopped.
+   */
+  private int prove ( int attacker ) {
+    setAttacker ( attacker );
+    long numbers = mid ( INFINITY, INFINITY );
+    if ( stopped ) {
+      return UNKNOWN;
+    }
+    int proofNumber = board.getPlayerToMove() == attacker ? phiOf ( numbers ) : deltaOf ( numbers );
+    return proofNumber == 0 ? WIN : LOSS;
+  }
+
+  /**
+   * setAttacker
+   * @param attacker the player trying to force a win in the next proof.
+   */
+  private void setAttacker ( int attacker ) {
+    this.attacker = attacker;
+    this.attackerKey = attacker == 2 ? PLAYER_TWO_ATTACKS_KEY : 0;
+  }
+
+  /**
+   * mid
+   * The df-pn search of the current position ("multiple iterative deepening"): expands the most proving child until
+   * the phi or delta number of the position reaches its threshold. Phi and delta are from the point of view of the
+   * player to move: phi is 0 when that player has won, delta is 0 when it has lost.
+   * @param thresholdPhi the phi threshold.
+   * @param thresholdDelta the delta threshold.
+   * @return the phi (high 32 bits) and delta (low 32 bits) of the position.
+   */
+  private long mid ( int thresholdPhi, int thresholdDelta ) {
+    long startNodes = nodes ++;
+    if ( (nodes & 1023) == 0 && System.nanoTime() > deadline ) {
+      stopped = true;
+    }
+    long key = board.getHash() ^ attackerKey;
+    int player = board.getPlayerToMove();
+    boolean attackerToMove = player == attacker;
+
+    // terminal positions and wins on the next move
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      return store ( key, INFINITY, 0, 1 );
+    }
+    if ( board.getBlankCount() == 0 ) {
+      return attackerToMove ? store ( key, INFINITY, 0, 1 ) : store ( key, 0, INFINITY, 1 );
+    }
+    int[] children = childBuffers[board.getBeadCount()];
+    int childCount = 0;
+    for ( int pillar : pillarOrder ) {
+      if ( board.isPillarAvailable ( pillar ) ) {
+        if ( winsAt ( pillar, player ) ) {
+          return store ( key, 0, INFINITY, 1 );
+        }
+        children[childCount ++] = pillar;
+      }
+    }
+    int decided = parity.decide ( board );
+    if ( attackerToMove ? decided == ThreatParity.WIN
+                        : decided == ThreatParity.WIN || decided == ThreatParity.DRAW || decided == ThreatParity.AT_LEAST_DRAW ) {
+      return store ( key, 0, INFINITY, 1 );
+    }
+    if ( attackerToMove ? decided == ThreatParity.LOSS || decided == ThreatParity.DRAW || decided == ThreatParity.AT_MOST_DRAW
+                        : decided == ThreatParity.LOSS ) {
+      return store ( key, INFINITY, 0, 1 );
+    }
+    // the child positions are draws when this move fills the board
+    boolean childrenAreDraws = board.getBlankCount() == 1;
+
+    int phi = 0;
+    int delta = 0;
+    while ( !stopped ) {
+      // phi is the smallest child delta, delta is the sum of the child phis
+      int best = -1;
+      int bestPhi = 0;
+      int bestDelta = INFINITY;
+      int secondDelta = INFINITY;
+      long sumPhi = 0;
+      boolean disproven = false;
+      for ( int i = 0; i < childCount; i ++ ) {
+        long childNumbers = childrenAreDraws ? (attackerToMove ? numbers ( 0, INFINITY ) : numbers ( INFINITY, 0 ))
+                                             : lookup ( childKey ( children[i], player ) );
+        int childPhi = phiOf ( childNumbers );
+        int childDelta = deltaOf ( childNumbers );
+        sumPhi += childPhi;
+        disproven |= childPhi == INFINITY;
+        if ( childDelta < bestDelta ) {
+          secondDelta = bestDelta;
+          best = children[i];
+          bestPhi = childPhi;
+          bestDelta = childDelta;
+        } else if ( childDelta < secondDelta ) {
+          secondDelta = childDelta;
+        }
+      }
+      phi = bestDelta;
+      // only a child whose player to move has lost makes delta infinite; large sums stop just below
+      delta = disproven ? INFINITY : (int) Math.min ( sumPhi, INFINITY - 1 );
+      if ( phi >= thresholdPhi || delta >= thresholdDelta ) {
+        break;
+      }
+      int childThresholdPhi = (int) Math.min ( (long) thresholdDelta - delta + bestPhi, INFINITY );
+      int childThresholdDelta = (int) Math.min ( thresholdPhi, secondDelta == INFINITY ? INFINITY : (long) secondDelta + 1 );
+      board.drop ( best );
+      mid ( childThresholdPhi, childThresholdDelta );
+      board.undo();
+    }
+    return store ( key, phi, delta, nodes - startNodes );
+  }
+
+  /**
+   * winsAt
+   * @param pillar an available pillar.
+   * @param player the player to move.
+   * @return true if dropping a bead into the pillar wins.
+   */
+  private boolean winsAt ( int pillar, int player ) {
+    board.drop ( pillar );
+    boolean won = board.getWinner() == player;
+    board.undo();
+    return won;
+  }
+
+  /**
+   * winningLine
+   * Follows the proof of the last solve from the root: the winner plays a win on the spot if it has one, else the
+   * proven move that took the least work to prove; the loser plays the move whose proof took the most work.
+   * Positions whose entries have been replaced in the table are solved again.
+   * @return the pillars of the line, ending with the winning move, or a shorter line if stopped.
+   */
+  private int[] winningLine() {
+    setAttacker ( result == WIN ? board.getPlayerToMove() : 3 - board.getPlayerToMove() );
+    int[] moves = new int[board.getBlankCount()];
+    int length = 0;
+    while ( board.getWinner() == Board.NO_PLAYER && board.getBlankCount() > 0 && !stopped ) {
+      int chosen = board.getPlayerToMove() == attacker ? attackerMove() : defenderMove();
+      if ( chosen < 0 ) {
+        break;
+      }
+      board.drop ( chosen );
+      moves[length ++] = chosen;
+    }
+    for ( int i = 0; i < length; i ++ ) {
+      board.undo();
+    }
+    return Arrays.copyOf ( moves, length );
+  }
+
+  /**
+   * attackerMove
+   * @return the attacker's move of the winning line in the current position, or -1 if none is proven.
+   */
+  private int attackerMove() {
+    int player = board.getPlayerToMove();
+    for ( int pillar : pillarOrder ) {
+      if ( board.isPillarAvailable ( pillar ) && winsAt ( pillar, player ) ) {
+        return pillar;
+      }
+    }
+    // a child is proven for the attacker when the defender to move there has lost (delta 0)
+    int chosen = -1;
+    long chosenWork = Long.MAX_VALUE;
+    for ( int pillar : pillarOrder ) {
+      if ( board.isPillarAvailable ( pillar ) ) {
+        long key = childKey ( pillar, player );
+        if ( deltaOf ( lookup ( key ) ) == 0 && workOf ( key ) < chosenWork ) {
+          chosen = pillar;
+          chosenWork = workOf ( key );
+        }
+      }
+    }
+    for ( int i = 0; i < pillarOrder.length && chosen < 0 && !stopped; i ++ ) {
+      int pillar = pillarOrder[i];
+      if ( board.isPillarAvailable ( pillar ) ) {
+        board.drop ( pillar );
+        boolean proven = deltaOf ( mid ( INFINITY, INFINITY ) ) == 0;
+        board.undo();
+        chosen = proven ? pillar : -1;
+      }
+    }
+    return chosen;
+  }
+
+  /**
+   * defenderMove
+   * @return the defender's move of the winning line in the current position: the one that took the most work to
+   *         prove lost, or -1 if stopped.
+   */
+  private int defenderMove() {
+    int player = board.getPlayerToMove();
+    int chosen = -1;
+    long chosenWork = -1;
+    for ( int pillar : pillarOrder ) {
+      if ( !board.isPillarAvailable ( pillar ) ) {
+        continue;
+      }
+      long key = childKey ( pillar, player );
+      if ( phiOf ( lookup ( key ) ) != 0 ) {
+        board.drop ( pillar );
+        mid ( INFINITY, INFINITY );
+        board.undo();
+      }
+      if ( stopped ) {
+        return -1;
+      }
+      if ( workOf ( key ) > chosenWork ) {
+        chosen = pillar;
+        chosenWork = workOf ( key );
+      }
+    }
+    return chosen;
+  }
+
+  /**
+   * childKey
+   * @param pillar an available pillar.
+   * @param player the player to move.
+   * @return the table key of the position after the player drops a bead into the pillar.
+   */
+  private long childKey ( int pillar, int player ) {
+    return board.getHash() ^ Zobrist.key ( board.landingCell ( pillar ), player ) ^ attackerKey;
+  }
+
+  /**
+   * lookup
+   * @param key the table key of a position.
+   * @return the phi and delta of the position, or 1 and 1 if it is not in the table.
+   */
+  private long lookup ( long key ) {
+    int slot = (int) key & mask;
+    if ( keys[slot] == key ) {
+      return numbers ( phis[slot], deltas[slot] );
+    }
+    slot ^= 1;
+    if ( keys[slot] == key ) {
+      return numbers ( phis[slot], deltas[slot] );
+    }
+    return numbers ( 1, 1 );
+  }
+
+  /**
+   * workOf
+   * @param key the table key of a position.
+   * @return the work stored for the position, or 0 if it is not in the table.
+   */
+  private long workOf ( long key ) {
+    int slot = (int) key & mask;
+    if ( keys[slot] == key ) {
+      return works[slot];
+    }
+    slot ^= 1;
+    return keys[slot] == key ? works[slot] : 0;
+  }
+
+  /**
+   * store
+   * Stores the numbers of a position in the slot pair of its key, replacing the entry of the same key or else the
+   * entry that took less work.
+   * @param key the table key.
+   * @param phi the phi number.
+   * @param delta the delta number.
+   * @param work the number of positions searched to compute the numbers.
+   * @return the phi (high 32 bits) and delta (low 32 bits).
+   */
+  private long store ( long key, int phi, int delta, long work ) {
+    int slot = (int) key & mask;
+    if ( keys[slot] != key && (keys[slot ^ 1] == key || works[slot ^ 1] < works[slot]) ) {
+      slot ^= 1;
+    }
+    // the work of a position accumulates over the calls that searched it
+    long totalWork = keys[slot] == key ? works[slot] + work : work;
+    keys[slot] = key;
+    phis[slot] = phi;
+    deltas[slot] = delta;
+    works[slot] = (int) Math.min ( totalWork, Integer.MAX_VALUE );
+    return numbers ( phi, delta );
+  }
+
+  /**
+   * numbers
+   * @param phi the phi number.
+   * @param delta the delta number.
+   * @return phi and delta packed in a long.
+   */
+  private static long numbers ( int phi, int delta ) {
+    return ((long) phi << 32) | (delta & 0xFFFFFFFFL);
+  }
+
+  /**
+   * phiOf
+   * @param numbers the packed numbers.
+   * @return the phi number.
+   */
+  private static int phiOf ( long numbers ) {
+    return (int) (numbers >>> 32);
+  }
+
+  /**
+   * deltaOf
+   * @param numbers the packed numbers.
+   * @return the delta number.
+   */
+  private static int deltaOf ( long numbers ) {
+    return (int) numbers;
+  }
+
+  /**
+   * clear
+   * Empties the table.
+   */
+  public void clear() {
+    Arrays.fill ( keys, 0 );
+    Arrays.fill ( works, 0 );
+  }
+
+  /**
+   * saveCheckpoint
+   * Writes the table to a file. It holds the work of all solves so far, for any position, and can be loaded into a
+   * solver with the same number of slots.
+   * @param file the checkpoint file. It is replaced.
+   * @throws IOException if the file cannot be written.
+   */
+  public void saveCheckpoint ( Path file ) throws IOException {
+    try ( FileChannel channel = FileChannel.open ( file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+      ByteBuffer buffer = ByteBuffer.allocate ( 1 << 20 );
+      buffer.putInt ( MAGIC ).putInt ( VERSION ).putInt ( keys.length ).putInt ( 0 );
+      for ( int slot = 0; slot < keys.length; slot ++ ) {
+        if ( buffer.remaining() < 20 ) {
+          write ( channel, buffer );
+        }
+        buffer.putLong ( keys[slot] ).putInt ( phis[slot] ).putInt ( deltas[slot] ).putInt ( works[slot] );
+      }
+      write ( channel, buffer );
+      channel.force ( true );
+    }
+  }
+
+  /**
+   * loadCheckpoint
+   * Replaces the table with one saved by saveCheckpoint().
+   * @param file the checkpoint file.
+   * @throws IOException if the file cannot be read or was saved with another number of slots.
+   */
+  public void loadCheckpoint ( Path file ) throws IOException {
+    try ( FileChannel channel = FileChannel.open ( file, StandardOpenOption.READ ) ) {
+      if ( channel.size() != HEADER_SIZE + 20L * keys.length ) {
+        throw new IOException ( "The checkpoint does not match a table of " + keys.length + " slots" );
+      }
+      ByteBuffer buffer = ByteBuffer.allocate ( 1 << 20 );
+      read ( channel, buffer );
+      if ( buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != keys.length ) {
+        throw new IOException ( "Not a solver checkpoint" );
+      }
+      buffer.getInt();
+      for ( int slot = 0; slot < keys.length; slot ++ ) {
+        if ( buffer.remaining() < 20 ) {
+          buffer.compact();
+          read ( channel, buffer );
+        }
+        keys[slot] = buffer.getLong();
+        phis[slot] = buffer.getInt();
+        deltas[slot] = buffer.getInt();
+        works[slot] = buffer.getInt();
+      }
+    }
+  }
+
+  /**
+   * write
+   * Writes the buffer's contents to the channel and clears it.
+   * @param channel the file.
+   * @param buffer the buffer, in write mode.
+   * @throws IOException if the file cannot be written.
+   */
+  private static void write ( FileChannel channel, ByteBuffer buffer ) throws IOException {
+    buffer.flip();
+    while ( buffer.hasRemaining() ) {
+      channel.write ( buffer );
+    }
+    buffer.clear();
+  }
+
+  /**
+   * read
+   * Fills the buffer from the channel and flips it for reading.
+   * @param channel the file.
+   * @param buffer the buffer, in write mode.
+   * @throws IOException if the file cannot be read.
+   */
+  private static void read ( FileChannel channel, ByteBuffer buffer ) throws IOException {
+    while ( buffer.hasRemaining() && channel.read ( buffer ) >= 0 ) {
+      // keep reading until the buffer is full or the file ends
+    }
+    buffer.flip();
+  }
+
+  /**
+   * getResult
+   * @return the result of the last solve, one of the result constants.
+   */
+  public int getResult() {
+    return result;
+  }
+
+  /**
+   * getLine
+   * Returns the winning line of play of the last solve, from the solved position: moves of both players, ending
+   * with the move that completes the winner's line. It is empty for a draw or an unknown result.
+   * @return the pillars of the line.
+   */
+  public int[] getLine() {
+    return line.clone();
+  }
+
+  /**
+   * getNodes
+   * @return the number of positions searched by this solver.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+}
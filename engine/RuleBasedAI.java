@@ -0,0 +1,231 @@
+package scoreFourGame.engine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.random.RandomGenerator;
+
+/**
+ * RuleBasedAI
+ * The rule-based computer player of the game, working on a headless Board:
+ * <ol>
+ * <li>If I have three beads (not necessarily consecutive) in a row and the 4th is BLANK, returns the coordinate of the 4th position.</li>
+ * <li>If the other player has three beads in a row and the 4th is BLANK, returns the coordinate of the 4th position.</li>
+ * <li>If I have two beads in a row and the rest positions in the same row are BLANK, returns either one of the BLANK position.</li>
+ * <li>If the other player has two beads in a row and the rest positions in the same row are BLANK, returns either one of the BLANK position.</li>
+ * <li>(Rule #7) If I have one bead and the rest of the positions are BLANK, return one of these BLANK positions.</li>
+ * <li>(Rule #8) Otherwise, randomly select one available position.</li>
+ * </ol>
+ * All positions returned from any of the above rules must be one of the available moves. Each move draws one random
+ * number from the player's own random source, so a game can be replayed from its seed (see GameSeeds).<p>
+ * This is the reference implementation of the rules; FastRuleBasedAI plays the same moves much faster.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class RuleBasedAI implements MoveStrategy {
+
+  // =============== VARIABLES ===============
+  /**
+   * The random source of the random choices.
+   */
+  private final RandomGenerator random;
+
+  /**
+   * The constructor with a randomly seeded random source.
+   */
+  public RuleBasedAI() {
+    this ( new SplittableRandom() );
+  }
+
+  /**
+   * The constructor.
+   * @param random the random source of the random choices. It is not thread-safe, so it must not be shared with
+   *        another thread.
+   */
+  public RuleBasedAI ( RandomGenerator random ) {
+    if ( random == null ) {
+      throw new IllegalArgumentException ( "No random source" );
+    }
+    this.random = random;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * selectMove
+   * Applies the rules in order and returns the first recommended move.
+   * @param board the current position.
+   * @param playerNo the player number (1 or 2) to move.
+   * @return the cell index of the move, or -1 if there is no legal move (i.e., tie game).
+   */
+  @Override
+  public int selectMove ( Board board, int playerNo ) {
+    int opponentNo = 3 - playerNo;
+    int[] availableMoves = calculateAvailableMoves ( board );
+    if ( availableMoves.length == 0 ) {
+      return -1;
+    }
+
+    // Rule #1
+    int theNextBestMove = checkTheNextBestMove ( board, playerNo, 3, availableMoves );
+    if ( theNextBestMove >= 0 ) {
+      return theNextBestMove;
+    }
+
+    // Rule #2
+    theNextBestMove = checkTheNextBestMove ( board, opponentNo, 3, availableMoves );
+    if ( theNextBestMove >= 0 ) {
+      return theNextBestMove;
+    }
+
+    // Rule #3
+    theNextBestMove = checkTheNextBestMove ( board, playerNo, 2, availableMoves );
+    if ( theNextBestMove >= 0 ) {
+      return theNextBestMove;
+    }
+
+    // Rule #4
+    theNextBestMove = checkTheNextBestMove ( board, opponentNo, 2, availableMoves );
+    if ( theNextBestMove >= 0 ) {
+      return theNextBestMove;
+    }
+
+    // Rule #7
+    theNextBestMove = checkTheNextBestMove ( board, playerNo, 1, availableMoves );
+    if ( theNextBestMove >= 0 ) {
+      return theNextBestMove;
+    }
+
+    // Rule #8
+    return availableMoves [ randomIndex ( random, availableMoves.length ) ];
+  }
+
+  /**
+   * checkTheNextBestMove
+   * Iterates each cell and then invokes checkTheNextBestMoveInAllDirections() to collect the blank cells of the lines
+   * (26 directions) that have numOfBeadsInARow beads of the player and no bead of the other player.
+   * @param board the current position.
+   * @param playerNo the player against whom it will check.
+   * @param numOfBeadsInARow the number of beads in a line that it will check.
+   * @param validMoves the cell indexes of all legal moves.
+   * @return the cell index of a randomly chosen recommended move, or -1 if no legal move is recommended.
+   */
+  public int checkTheNextBestMove ( Board board, int playerNo, int numOfBeadsInARow, int[] validMoves ) {
+    Set<Integer> recommendedMoves = new TreeSet<>();
+    for ( int layer = 0; layer < board.getLayers(); layer ++ ) {
+      for ( int row = 0; row < board.getRows(); row ++ ) {
+        for ( int column = 0; column < board.getColumns(); column ++ ) {
+          checkTheNextBestMoveInAllDirections ( board, layer, row, column, playerNo, numOfBeadsInARow, recommendedMoves );
+        }
+      }
+    }
+    return findAValidMoveRandomly ( recommendedMoves, validMoves );
+  }
+
+  /**
+   * findAValidMoveRandomly
+   * Randomly returns a cell from the recommendedMoves that is also in the validMoves.
+   * @param recommendedMoves the recommended cell indexes, in ascending order.
+   * @param validMoves the cell indexes of all legal moves.
+   * @return a randomly selected cell index, or -1 if no recommended move is valid.
+   */
+  private int findAValidMoveRandomly ( Set<Integer> recommendedMoves, int[] validMoves ) {
+    List<Integer> recommendedAndValidMoves = new ArrayList<>();
+    for ( int recommendedMove : recommendedMoves ) {
+      for ( int validMove : validMoves ) {
+        if ( recommendedMove == validMove ) {
+          recommendedAndValidMoves.add ( recommendedMove );
+        }
+      }
+    }
+    if ( recommendedAndValidMoves.size() > 0 ) {
+      return recommendedAndValidMoves.get ( randomIndex ( random, recommendedAndValidMoves.size() ) );
+    } else {
+      return -1;
+    }
+  }
+
+  /**
+   * checkTheNextBestMoveInAllDirections
+   * Walks beadsToWin cells from the starting cell in all 26 directions. A line that stays inside the board and has
+   * exactly numOfBeadsInARow beads of the player and only blank cells otherwise adds its blank cells to recommendedMoves.
+   * @param board the current position.
+   * @param layer the layer coordinate of the starting point.
+   * @param row the row coordinate of the starting point.
+   * @param column the column coordinate of the starting point.
+   * @param playerNo the player against whom it will check.
+   * @param numOfBeadsInARow the number of beads in a line that it will check.
+   * @param recommendedMoves the set to add the recommended cell indexes to.
+   */
+  private void checkTheNextBestMoveInAllDirections ( Board board, int layer, int row, int column, int playerNo,
+                                                     int numOfBeadsInARow, Set<Integer> recommendedMoves ) {
+    int beadsToWin = board.getBeadsToWin();
+    int[] blankCellsInTheLine = new int[beadsToWin];
+    // iterate all directions: layer+/-1, row+/-1, column+/-1
+    for ( int layerDirectionFactor = -1; layerDirectionFactor <= 1; layerDirectionFactor ++ ) {
+      for ( int rowDirectionFactor = -1; rowDirectionFactor <= 1; rowDirectionFactor ++ ) {
+        for ( int columnDirectionFactor = -1; columnDirectionFactor <= 1; columnDirectionFactor ++ ) {
+          if ( (layerDirectionFactor != 0) || (rowDirectionFactor != 0) || (columnDirectionFactor != 0) ) {
+            int totalSameBeadsInTheLine = 0;
+            int totalBlankBeadsInTheLine = 0;
+            boolean keepLooking = true;
+            for ( int k = 0; k < beadsToWin && keepLooking; k ++ ) {
+              int newLayer = layer + layerDirectionFactor * k;
+              int newRow = row + rowDirectionFactor * k;
+              int newColumn = column + columnDirectionFactor * k;
+              if ( (newLayer < 0) || (newLayer >= board.getLayers()) ||
+                  (newRow < 0) || (newRow >= board.getRows()) ||
+                  (newColumn < 0) || (newColumn >= board.getColumns()) ) {
+                // exceeds the boundary
+                keepLooking = false;
+              } else {
+                int playerPlacedBeadInTheLine = board.getBead ( newLayer, newRow, newColumn );
+                if ( playerPlacedBeadInTheLine == Board.NO_PLAYER ) {
+                  blankCellsInTheLine[totalBlankBeadsInTheLine ++] = board.cellIndex ( newLayer, newRow, newColumn );
+                } else if ( playerPlacedBeadInTheLine == playerNo ) {
+                  totalSameBeadsInTheLine ++;
+                }
+              }
+            }
+            if ( (totalSameBeadsInTheLine == numOfBeadsInARow) && (totalBlankBeadsInTheLine + totalSameBeadsInTheLine == beadsToWin) ) {
+              // found pattern
+              for ( int k = 0; k < totalBlankBeadsInTheLine; k ++ ) {
+                recommendedMoves.add ( blankCellsInTheLine[k] );
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * randomIndex
+   * Draws a random index the way the rules always have, (int) (random double * size), so that implementations given
+   * the same random source make the same choices.
+   * @param random the random source.
+   * @param size the number of choices.
+   * @return an index from 0 to size - 1.
+   */
+  static int randomIndex ( RandomGenerator random, int size ) {
+    return (int) ( random.nextDouble() * size );
+  }
+
+  /**
+   * calculateAvailableMoves
+   * Calculates all legal moves, one per pillar that is not full.
+   * @param board the current position.
+   * @return the cell indexes of all legal moves, in pillar order.
+   */
+  private int[] calculateAvailableMoves ( Board board ) {
+    int[] pillars = new int[board.getPillarCount()];
+    int count = board.getAvailablePillars ( pillars );
+    int[] availableMoves = new int[count];
+    for ( int i = 0; i < count; i ++ ) {
+      availableMoves[i] = board.landingCell ( pillars[i] );
+    }
+    return availableMoves;
+  }
+}
@@ -0,0 +1,99 @@
+package scoreFourGame.engine;
+import java.util.SplittableRandom;
+
+/**
+ * RuleBasedAIComparison
+ * The benchmark of FastRuleBasedAI against RuleBasedAI: on random positions of every board size from 4 to 10, from
+ * empty to full, both are asked for the move of either player with random sources seeded alike, and the time per move
+ * of each is reported. It stops at the first position where they return different cells. The differential checks
+ * against the original rules of the game are the tests of FastRuleBasedAITest, run by the build.<p>
+ * Usage: java scoreFourGame.engine.RuleBasedAIComparison [positions per size [seed]]
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class RuleBasedAIComparison {
+
+  // =============== VARIABLES ===============
+  /**
+   * Keeps the timed moves alive, so that the JIT cannot drop them.
+   */
+  private static volatile long sink;
+
+  /**
+   * No instances, the comparison is main().
+   */
+  private RuleBasedAIComparison() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Runs the comparison and exits with status 1 on the first disagreement.
+   * @param args optionally the number of random positions per board size and the seed.
+   */
+  public static void main ( String[] args ) {
+    int positions = args.length > 0 ? Integer.parseInt ( args[0] ) : 500;
+    long seed = args.length > 1 ? Long.parseLong ( args[1] ) : 1;
+    SplittableRandom random = new SplittableRandom ( seed );
+    System.out.println ( "size   moves   RuleBasedAI us   FastRuleBasedAI us   speed-up" );
+    for ( int size = 4; size <= 10; size ++ ) {
+      Board[] boards = new Board[positions];
+      for ( int i = 0; i < positions; i ++ ) {
+        boards[i] = randomPosition ( size, random );
+      }
+      long moveSeed = random.nextLong();
+      SplittableRandom referenceRandom = new SplittableRandom ( moveSeed );
+      SplittableRandom fastRandom = new SplittableRandom ( moveSeed );
+      RuleBasedAI reference = new RuleBasedAI ( referenceRandom );
+      FastRuleBasedAI fast = new FastRuleBasedAI ( fastRandom );
+      long referenceNanos = 0;
+      long fastNanos = 0;
+      for ( Board board : boards ) {
+        for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+          long start = System.nanoTime();
+          int expected = reference.selectMove ( board, playerNo );
+          long middle = System.nanoTime();
+          int actual = fast.selectMove ( board, playerNo );
+          long end = System.nanoTime();
+          referenceNanos += middle - start;
+          fastNanos += end - middle;
+          if ( actual != expected ) {
+            System.out.println ( "Disagreement on a " + size + "x" + size + "x" + size + " board for player " + playerNo
+                                 + ": RuleBasedAI plays cell " + expected + ", FastRuleBasedAI plays cell " + actual
+                                 + " (seed " + seed + ")" );
+            System.exit ( 1 );
+          }
+          sink += actual;
+        }
+      }
+      int moves = 2 * positions;
+      System.out.printf ( "%4d %7d %16.1f %20.1f %10.1f%n", size, moves, referenceNanos / 1000.0 / moves,
+                          fastNanos / 1000.0 / moves, (double) referenceNanos / fastNanos );
+    }
+    System.out.println ( "Both implementations chose the same move in every position." );
+  }
+
+  /**
+   * randomPosition
+   * Fills a random number of cells, from none to all, by alternating beads in random pillars. The beads are placed
+   * with setBead(), so the position may hold completed lines; the rules do not look for them either.
+   * @param size the board size.
+   * @param random the random source.
+   * @return the position.
+   */
+  private static Board randomPosition ( int size, SplittableRandom random ) {
+    Board board = new Board ( size );
+    int beads = random.nextInt ( board.getCellCount() + 1 );
+    for ( int bead = 0; bead < beads; bead ++ ) {
+      int pillar;
+      do {
+        pillar = random.nextInt ( board.getPillarCount() );
+      } while ( board.getHeight ( pillar ) == board.getLayers() );
+      int cell = board.landingCell ( pillar );
+      board.setBead ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), 1 + bead % 2 );
+    }
+    return board;
+  }
+}
@@ -0,0 +1,88 @@
+package scoreFourGame.engine;
+
+/**
+ * ScalarLineKernel
+ * The plain Java LineKernel: one line at a time, without branches on the counts. It is the fallback when the Vector
+ * API is not available, the reference the vector kernel is checked against, and it finishes the lines that do not
+ * fill a whole vector.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class ScalarLineKernel implements LineKernel {
+
+  // =============== VARIABLES ===============
+  /**
+   * The shared instance; the kernel has no state.
+   */
+  public static final ScalarLineKernel INSTANCE = new ScalarLineKernel();
+
+  /**
+   * The kernel returned by LineKernel.fastest(), chosen once.
+   */
+  static final LineKernel FASTEST = loadFastest();
+
+  /**
+   * The constructor. Use INSTANCE.
+   */
+  private ScalarLineKernel() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * loadFastest
+   * @return the Vector API kernel if its class and the incubator module are present, else INSTANCE.
+   */
+  private static LineKernel loadFastest() {
+    try {
+      return (LineKernel) Class.forName ( VECTOR_KERNEL_CLASS ).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return INSTANCE;
+    }
+  }
+
+  /**
+   * score
+   * @param playerOneCounts the number of player 1 beads in each line.
+   * @param playerTwoCounts the number of player 2 beads in each line.
+   * @param lineCount the number of lines.
+   * @param weights the weight of a line by the number of beads in it, from 0 to beadsToWin - 1.
+   * @return the score for player 1.
+   */
+  @Override
+  public int score ( int[] playerOneCounts, int[] playerTwoCounts, int lineCount, int[] weights ) {
+    return scoreRange ( playerOneCounts, playerTwoCounts, 0, lineCount, weights );
+  }
+
+  /**
+   * scoreRange
+   * Scores the lines from one index to another.
+   * @param playerOneCounts the number of player 1 beads in each line.
+   * @param playerTwoCounts the number of player 2 beads in each line.
+   * @param from the first line.
+   * @param to the line after the last.
+   * @param weights the weights.
+   * @return the score of the lines for player 1.
+   */
+  public static int scoreRange ( int[] playerOneCounts, int[] playerTwoCounts, int from, int to, int[] weights ) {
+    int last = weights.length - 1;
+    int score = 0;
+    for ( int i = from; i < to; i ++ ) {
+      int one = playerOneCounts[i];
+      int two = playerTwoCounts[i];
+      // a line is alive for a player only if the other player has no bead in it; (x - 1) >> 31 is -1 if x is 0
+      score += (weights[Math.min ( one, last )] & ((two - 1) >> 31)) - (weights[Math.min ( two, last )] & ((one - 1) >> 31));
+    }
+    return score;
+  }
+
+  /**
+   * getName
+   * @return "scalar".
+   */
+  @Override
+  public String getName() {
+    return "scalar";
+  }
+}
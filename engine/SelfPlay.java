@@ -0,0 +1,151 @@
+package scoreFourGame.engine;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * SelfPlay
+ * Plays games between two rule-based computer players (FastRuleBasedAI) on all cores and writes them to a
+ * game-record file. Game i is seeded with the i-th seed drawn from the run seed, and each player draws from its own
+ * random source derived from the game seed (see GameSeeds), so the threads share no generator and the output file
+ * depends only on the run seed, not on the number of threads. verify replays every seeded game of a file from its
+ * seed and checks that the same moves come out.<p>
+ * Usage:
+ * <pre>
+ * SelfPlay &lt;size&gt; &lt;games&gt; &lt;output file&gt; [seed [threads]]
+ * SelfPlay verify &lt;game-record file&gt;
+ * </pre>
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class SelfPlay {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of games played in parallel before they are written, in order.
+   */
+  private static final int BATCH_SIZE = 1024;
+
+  /**
+   * No instances, the tool is main() and play().
+   */
+  private SelfPlay() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Plays the games or verifies a file.
+   * @param args the command-line arguments, see the class comment.
+   * @throws Exception if a game fails or a file cannot be read or written.
+   */
+  public static void main ( String[] args ) throws Exception {
+    if ( args.length == 2 && args[0].equals ( "verify" ) ) {
+      verify ( Path.of ( args[1] ) );
+    } else if ( args.length >= 3 ) {
+      int size = Integer.parseInt ( args[0] );
+      int games = Integer.parseInt ( args[1] );
+      long seed = args.length > 3 ? Long.parseLong ( args[3] ) : GameSeeds.newSeed();
+      int threads = args.length > 4 ? Integer.parseInt ( args[4] ) : Runtime.getRuntime().availableProcessors();
+      run ( size, games, Path.of ( args[2] ), seed, threads );
+    } else {
+      System.err.println ( "Usage: SelfPlay <size> <games> <output file> [seed [threads]] | verify <game-record file>" );
+      System.exit ( 2 );
+    }
+  }
+
+  /**
+   * play
+   * Plays one game from the empty board until a player wins or the board is full.
+   * @param size the board size.
+   * @param gameSeed the game seed.
+   * @return the record of the game, with the seed.
+   */
+  public static GameRecord play ( int size, long gameSeed ) {
+    Board board = new Board ( size );
+    MoveStrategy[] players = { null, new FastRuleBasedAI ( GameSeeds.forPlayer ( gameSeed, 1 ) ),
+                               new FastRuleBasedAI ( GameSeeds.forPlayer ( gameSeed, 2 ) ) };
+    while ( !board.isGameOver() ) {
+      int playerNo = board.getPlayerToMove();
+      int cell = players[playerNo].selectMove ( board, playerNo );
+      board.drop ( board.pillarOf ( cell ) );
+    }
+    return GameRecord.of ( board, gameSeed );
+  }
+
+  /**
+   * run
+   * Plays the games in batches on a pool of threads and writes each batch in game order.
+   * @param size the board size.
+   * @param games the number of games.
+   * @param output the game-record file to write.
+   * @param seed the run seed.
+   * @param threads the number of threads.
+   * @throws Exception if a game fails or the file cannot be written.
+   */
+  private static void run ( int size, int games, Path output, long seed, int threads ) throws Exception {
+    SplittableRandom seeds = new SplittableRandom ( seed );
+    long[] results = new long[GameRecord.RESULT_DRAW + 1];
+    long moves = 0;
+    long start = System.nanoTime();
+    ForkJoinPool pool = new ForkJoinPool ( threads );
+    try ( GameRecordWriter writer = new GameRecordWriter ( Files.newOutputStream ( output ) ) ) {
+      for ( int first = 0; first < games; first += BATCH_SIZE ) {
+        int count = Math.min ( BATCH_SIZE, games - first );
+        long[] gameSeeds = new long[count];
+        for ( int i = 0; i < count; i ++ ) {
+          gameSeeds[i] = GameSeeds.nextSeed ( seeds );
+        }
+        GameRecord[] records = new GameRecord[count];
+        pool.submit ( () -> IntStream.range ( 0, count ).parallel().forEach ( i -> records[i] = play ( size, gameSeeds[i] ) ) ).get();
+        for ( GameRecord record : records ) {
+          writer.write ( record );
+          results[record.getResult()] ++;
+          moves += record.getMoveCount();
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.println ( games + " games (seed " + seed + ", " + threads + " threads) written to " + output );
+    System.out.println ( "player 1 won " + results[GameRecord.RESULT_PLAYER_ONE_WON] + ", player 2 won " + results[GameRecord.RESULT_PLAYER_TWO_WON]
+                          + ", draw " + results[GameRecord.RESULT_DRAW] );
+    System.out.printf ( "%.1f games/s, %.0f moves/s%n", games / seconds, moves / seconds );
+  }
+
+  /**
+   * verify
+   * Replays every game of the file that has a seed and compares the moves with the recorded ones.
+   * @param input the game-record file.
+   * @throws IOException if the file cannot be read.
+   */
+  private static void verify ( Path input ) throws IOException {
+    long verified = 0;
+    long unseeded = 0;
+    long different = 0;
+    try ( GameRecordReader reader = new GameRecordReader ( Files.newInputStream ( input ) ) ) {
+      GameRecord record;
+      for ( long game = 0; (record = reader.read()) != null; game ++ ) {
+        if ( record.getSeed() == GameRecord.NO_SEED || record.getLayers() != record.getRows() || record.getRows() != record.getColumns()
+              || record.getBeadsToWin() != Board.DEFAULT_BEADS_TO_WIN ) {
+          unseeded ++;
+        } else if ( play ( record.getLayers(), record.getSeed() ).equals ( record ) ) {
+          verified ++;
+        } else {
+          different ++;
+          System.out.println ( "Game " + game + " does not replay from its seed: " + record );
+        }
+      }
+    }
+    System.out.println ( verified + " games replayed identically, " + different + " differ, " + unseeded + " skipped (no seed or not a self-play board)" );
+    if ( different > 0 ) {
+      System.exit ( 1 );
+    }
+  }
+}
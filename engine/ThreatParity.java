@@ -0,0 +1,325 @@
+package scoreFourGame.engine;
+
+/**
+ * ThreatParity
+ * Analyzes a position by the order in which gravity fills each pillar. A threat is a blank cell that would complete a
+ * line of a player. Counting rows from 1 at the bottom, it is odd or even by the row of the cell. When every other
+ * move is forced, e.g., near the end of the game, the cells of each pillar are filled alternately. Then an odd
+ * threat tends to be usable by player 1 and an even threat by player 2 on a board of an even number of layers, which
+ * the move counts alone do not show.<p>
+ * The analysis also decides some positions statically with follow-up (Allis's claimeven), without a search:
+ * <ul>
+ * <li>If every pillar has an even number of blank cells, the player not to move can answer every move in the same
+ * pillar, and so claims every second blank cell of each pillar. If the player to move has no line left outside the
+ * cells claimed this way, it cannot win. If the other player also completes a line with them, the player to move
+ * loses.</li>
+ * <li>If exactly one pillar has an odd number of blank cells, the player to move can play there and then answer every
+ * move in the same pillar: the same rule applies with the players' roles swapped.</li>
+ * <li>A player without an open line, one without the other player's beads, cannot win.</li>
+ * </ul>
+ * A decided bound holds for all play, so a solver can cut the whole subtree of the position. An analyzer instance
+ * is reused between positions and is not thread-safe.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class ThreatParity {
+
+  // =============== VARIABLES ===============
+  /**
+   * Result: nothing is decided for the player to move.
+   */
+  public static final int UNKNOWN = 0;
+
+  /**
+   * Result: the player to move wins.
+   */
+  public static final int WIN = 1;
+
+  /**
+   * Result: the player to move loses.
+   */
+  public static final int LOSS = 2;
+
+  /**
+   * Result: the game is a draw.
+   */
+  public static final int DRAW = 3;
+
+  /**
+   * Result: the player to move does not lose; it draws or wins.
+   */
+  public static final int AT_LEAST_DRAW = 4;
+
+  /**
+   * Result: the player to move does not win; it draws or loses.
+   */
+  public static final int AT_MOST_DRAW = 5;
+
+  /**
+   * The lines of the analyzed board size, shared by all boards of the size.
+   */
+  private Lines lines = null;
+
+  /**
+   * The height (row from the bottom, from 0) of each cell of the analyzed board size.
+   */
+  private int[] cellHeights = new int[0];
+
+  /**
+   * The pillar of each cell of the analyzed board size.
+   */
+  private int[] cellPillars = new int[0];
+
+  /**
+   * For each cell and player (index cell * 2 + player - 1), the analysis that last counted the cell as a threat of the
+   * player, so that a cell in several lines is counted once.
+   */
+  private int[] threatStamps = new int[0];
+
+  /**
+   * The number of the current analysis.
+   */
+  private int stamp = 0;
+
+  /**
+   * The number of odd threats of each player, by player number.
+   */
+  private final int[] oddThreats = new int[3];
+
+  /**
+   * The number of even threats of each player, by player number.
+   */
+  private final int[] evenThreats = new int[3];
+
+  /**
+   * The result of the last analysis for the player to move.
+   */
+  private int result = UNKNOWN;
+
+  // =============== METHODS ===============
+
+  /**
+   * resultName
+   * @param result a result constant.
+   * @return the name of the result.
+   */
+  public static String resultName ( int result ) {
+    switch ( result ) {
+      case WIN:
+        return "win";
+      case LOSS:
+        return "loss";
+      case DRAW:
+        return "draw";
+      case AT_LEAST_DRAW:
+        return "draw or win";
+      case AT_MOST_DRAW:
+        return "draw or loss";
+      default:
+        return "unknown";
+    }
+  }
+
+  /**
+   * analyze
+   * Counts the threats of both players by parity and decides the position statically if the parity rules do.
+   * @param board the position. It is left unchanged.
+   * @return the result for the player to move: WIN, LOSS, DRAW, AT_LEAST_DRAW, AT_MOST_DRAW or UNKNOWN.
+   */
+  public int analyze ( Board board ) {
+    return analyze ( board, true );
+  }
+
+  /**
+   * decide
+   * Decides the position statically if the follow-up rules do, as cheaply as possible for use at every node of a
+   * search: unless at most one pillar has an odd number of blank cells it returns at once, and it stops scanning the
+   * lines as soon as the result is known to be UNKNOWN. The threats are not counted, and the rule on open lines is
+   * only applied with the follow-up rules.
+   * @param board the position. It is left unchanged.
+   * @return the result for the player to move: WIN, LOSS, DRAW, AT_LEAST_DRAW, AT_MOST_DRAW or UNKNOWN.
+   */
+  public int decide ( Board board ) {
+    return analyze ( board, false );
+  }
+
+  /**
+   * analyze
+   * @param board the position. It is left unchanged.
+   * @param countThreats true to count the threats and apply every rule, false to only decide the position quickly.
+   * @return the result for the player to move.
+   */
+  private int analyze ( Board board, boolean countThreats ) {
+    prepare ( board );
+    stamp ++;
+    oddThreats[1] = oddThreats[2] = evenThreats[1] = evenThreats[2] = 0;
+    result = UNKNOWN;
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      result = LOSS;
+      return result;
+    }
+    if ( board.getBlankCount() == 0 ) {
+      result = DRAW;
+      return result;
+    }
+    int mover = board.getPlayerToMove();
+    int opponent = 3 - mover;
+
+    // who can answer every move in the same pillar: the opponent if all pillars have even blanks, the mover after
+    // playing into the only odd pillar
+    int oddPillar = -1;
+    int oddPillars = 0;
+    for ( int pillar = 0; pillar < board.getPillarCount() && oddPillars <= 1; pillar ++ ) {
+      if ( ((board.getLayers() - board.getHeight ( pillar )) & 1) != 0 ) {
+        oddPillar = pillar;
+        oddPillars ++;
+      }
+    }
+    boolean claims = oddPillars <= 1;
+    if ( !claims && !countThreats ) {
+      return result;
+    }
+
+    boolean moverOpen = false;
+    boolean opponentOpen = false;
+    boolean moverClaims = false;
+    boolean opponentClaims = false;
+    int[] lineCells = lines.getLineCells();
+    int length = lines.getLength();
+    for ( int line = 0; line < lines.getLineCount(); line ++ ) {
+      boolean moverLine = true;
+      boolean opponentLine = true;
+      boolean moverClaimLine = claims;
+      boolean opponentClaimLine = claims;
+      int blanks = 0;
+      int blankCell = -1;
+      for ( int k = 0; k < length; k ++ ) {
+        int cell = lineCells[line * length + k];
+        int bead = board.getBead ( cell );
+        if ( bead == mover ) {
+          opponentLine = false;
+          opponentClaimLine = false;
+        } else if ( bead == opponent ) {
+          moverLine = false;
+          moverClaimLine = false;
+        } else {
+          blanks ++;
+          blankCell = cell;
+          if ( claims ) {
+            // the player who moves first in a pillar gets its 1st, 3rd, ... blank cells
+            int pillar = cellPillars[cell];
+            boolean firstBlank = ((cellHeights[cell] - board.getHeight ( pillar )) & 1) == 0;
+            if ( firstBlank == (oddPillars == 0 || pillar == oddPillar) ) {
+              opponentClaimLine = false;
+            } else {
+              moverClaimLine = false;
+            }
+          }
+        }
+        if ( !countThreats && !moverClaimLine && !opponentClaimLine ) {
+          // the rest of the line cannot change the result; it counts as open, which never decides anything wrongly
+          break;
+        }
+      }
+      moverOpen |= moverLine;
+      opponentOpen |= opponentLine;
+      moverClaims |= moverClaimLine;
+      opponentClaims |= opponentClaimLine;
+      if ( countThreats ) {
+        if ( blanks == 1 ) {
+          if ( moverLine ) {
+            countThreat ( blankCell, mover );
+          } else if ( opponentLine ) {
+            countThreat ( blankCell, opponent );
+          }
+        }
+      } else if ( oddPillars == 0 ? moverClaims : opponentClaims ) {
+        // the player who would be refuted by the follow-up still has a line
+        return result;
+      }
+    }
+
+    // the bounds of the result for the mover: -1 loss, 0 draw, 1 win
+    int lower = opponentOpen ? -1 : 0;
+    int upper = moverOpen ? 1 : 0;
+    if ( claims && oddPillars == 0 && !moverClaims ) {
+      upper = opponentClaims ? -1 : 0;
+    } else if ( claims && oddPillars == 1 && !opponentClaims ) {
+      lower = moverClaims ? 1 : 0;
+    }
+    if ( lower == upper ) {
+      result = lower > 0 ? WIN : lower < 0 ? LOSS : DRAW;
+    } else if ( lower == 0 ) {
+      result = AT_LEAST_DRAW;
+    } else if ( upper == 0 ) {
+      result = AT_MOST_DRAW;
+    }
+    return result;
+  }
+
+  /**
+   * prepare
+   * Sizes the per-cell tables for the board.
+   * @param board the position.
+   */
+  private void prepare ( Board board ) {
+    if ( lines != board.getLines() ) {
+      lines = board.getLines();
+      cellHeights = new int[board.getCellCount()];
+      cellPillars = new int[board.getCellCount()];
+      threatStamps = new int[2 * board.getCellCount()];
+      stamp = 0;
+      for ( int cell = 0; cell < board.getCellCount(); cell ++ ) {
+        cellHeights[cell] = board.getLayers() - 1 - board.layerOf ( cell );
+        cellPillars[cell] = board.pillarOf ( cell );
+      }
+    }
+  }
+
+  /**
+   * countThreat
+   * Counts a threat cell of a player by its parity, once per analysis.
+   * @param cell the blank cell that completes a line.
+   * @param player the player number.
+   */
+  private void countThreat ( int cell, int player ) {
+    int index = cell * 2 + player - 1;
+    if ( threatStamps[index] == stamp ) {
+      return;
+    }
+    threatStamps[index] = stamp;
+    // rows are counted from 1, so an even height is an odd row
+    if ( (cellHeights[cell] & 1) == 0 ) {
+      oddThreats[player] ++;
+    } else {
+      evenThreats[player] ++;
+    }
+  }
+
+  /**
+   * getResult
+   * @return the result of the last analysis for the player to move.
+   */
+  public int getResult() {
+    return result;
+  }
+
+  /**
+   * getOddThreats
+   * @param player a player number.
+   * @return the number of threats of the player in odd rows (1, 3, ... from the bottom) in the last analysis.
+   */
+  public int getOddThreats ( int player ) {
+    return oddThreats[player];
+  }
+
+  /**
+   * getEvenThreats
+   * @param player a player number.
+   * @return the number of threats of the player in even rows (2, 4, ... from the bottom) in the last analysis.
+   */
+  public int getEvenThreats ( int player ) {
+    return evenThreats[player];
+  }
+}
@@ -0,0 +1,130 @@
+package scoreFourGame.engine;
+
+/**
+ * TimeManager
+ * Decides how long a computer player on a GameClock may think about a move. The remaining time is split evenly across
+ * the moves the player can still expect to make, half the blank cells but at most MOVES_TO_GO_HORIZON, plus most of
+ * the increment the move earns back. The share is then weighed by the position:
+ * <ul>
+ * <li>forced: a single legal move, a win on the move or a threat of the opponent to block. The move is played at once
+ * (0 ms); the rules find it without a search.</li>
+ * <li>critical: either player has a threat (a blank cell that would complete a line, counted by ThreatParity), or few
+ * enough cells are blank for the EndgameSolver to prove the result. Such moves decide games, so they get
+ * CRITICAL_PERCENT of the share.</li>
+ * <li>decided: the ThreatParity rules already know the result, so the search cannot change much. It gets
+ * DECIDED_PERCENT of the share.</li>
+ * </ul>
+ * A move never gets more than a MAX_FRACTION_DIVISOR-th of the remaining time less SAFETY_MARGIN_MILLIS, which covers
+ * the work of a move around the search. So the remaining time only shrinks geometrically, and a player that stops its
+ * searches at the allocated time never flags. An instance is reused between moves and is not thread-safe.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class TimeManager {
+
+  // =============== VARIABLES ===============
+  /**
+   * The time below which a search is not worth starting, in milliseconds; a shorter allocation means moving at once.
+   */
+  public static final long MIN_SEARCH_MILLIS = 20;
+
+  /**
+   * The time kept back from every allocation for the work of a move outside the search, in milliseconds.
+   */
+  public static final long SAFETY_MARGIN_MILLIS = 100;
+
+  /**
+   * The most moves the remaining time is split across. Games rarely fill a large board, so a player expects to make
+   * at most this many more moves.
+   */
+  public static final int MOVES_TO_GO_HORIZON = 25;
+
+  /**
+   * The share of the time of a critical move, in percent of the even share.
+   */
+  public static final int CRITICAL_PERCENT = 200;
+
+  /**
+   * The share of the time of a move in a position decided by the parity rules, in percent of the even share.
+   */
+  public static final int DECIDED_PERCENT = 50;
+
+  /**
+   * A move gets at most the remaining time divided by this.
+   */
+  public static final int MAX_FRACTION_DIVISOR = 4;
+
+  /**
+   * The number of blank cells at or below which the EndgameSolver may prove the result, which makes a move critical.
+   */
+  private final int endgameBlanks;
+
+  /**
+   * The analyzer of the threats of a position.
+   */
+  private final ThreatParity parity = new ThreatParity();
+
+  /**
+   * The buffer of the legal moves.
+   */
+  private int[] moves = new int[0];
+
+  /**
+   * The constructor.
+   * @param endgameBlanks the number of blank cells at or below which the player's EndgameSolver solves a position.
+   */
+  public TimeManager ( int endgameBlanks ) {
+    this.endgameBlanks = endgameBlanks;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * allocate
+   * @param board the position, with the player to move to think about. It is left unchanged.
+   * @param remainingMillis the remaining time of the player to move, in milliseconds.
+   * @param incrementMillis the time added to the clock after the move, in milliseconds.
+   * @return the time to think about the move, in milliseconds; less than MIN_SEARCH_MILLIS (e.g., 0) to move at once.
+   */
+  public long allocate ( Board board, long remainingMillis, long incrementMillis ) {
+    long usable = remainingMillis - SAFETY_MARGIN_MILLIS;
+    if ( usable < MIN_SEARCH_MILLIS || isForced ( board ) ) {
+      return 0;
+    }
+    int movesToGo = Math.max ( 1, Math.min ( MOVES_TO_GO_HORIZON, (board.getBlankCount() + 1) / 2 ) );
+    long share = usable / movesToGo + incrementMillis * 3 / 4;
+    int result = parity.analyze ( board );
+    if ( result != ThreatParity.UNKNOWN && result != ThreatParity.AT_LEAST_DRAW && result != ThreatParity.AT_MOST_DRAW ) {
+      share = share * DECIDED_PERCENT / 100;
+    } else if ( board.getBlankCount() <= endgameBlanks || parity.getOddThreats ( 1 ) + parity.getEvenThreats ( 1 ) > 0
+                || parity.getOddThreats ( 2 ) + parity.getEvenThreats ( 2 ) > 0 ) {
+      share = share * CRITICAL_PERCENT / 100;
+    }
+    return Math.min ( share, usable / MAX_FRACTION_DIVISOR );
+  }
+
+  /**
+   * isForced
+   * @param board the position.
+   * @return true if the player to move has a single legal move, can win on the move or must block a threat of the
+   *         opponent on its next move.
+   */
+  private boolean isForced ( Board board ) {
+    if ( moves.length != board.getPillarCount() ) {
+      moves = new int[board.getPillarCount()];
+    }
+    int moveCount = board.getAvailablePillars ( moves );
+    if ( moveCount <= 1 ) {
+      return true;
+    }
+    int player = board.getPlayerToMove();
+    for ( int i = 0; i < moveCount; i ++ ) {
+      int cell = board.landingCell ( moves[i] );
+      if ( EndgameSolver.completesLine ( board, cell, player ) || EndgameSolver.completesLine ( board, cell, 3 - player ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
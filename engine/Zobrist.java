@@ -0,0 +1,59 @@
+package scoreFourGame.engine;
+
+/**
+ * Zobrist
+ * The Zobrist keys of the position hash kept by Board. A position hash is the XOR of a key for the board size and
+ * one key per bead (cell index and player). The keys are computed from a fixed mixing function rather than drawn
+ * from a random generator, so hashes are the same in every run and every process, and can be stored in files
+ * (game database indexes, opening books, position caches).
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class Zobrist {
+
+  /**
+   * No instances, all methods are static.
+   */
+  private Zobrist() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * sizeKey
+   * Returns the hash of the empty board of a size, so that positions of different sizes do not collide.
+   * @param layers the number of layers.
+   * @param rows the number of rows.
+   * @param columns the number of columns.
+   * @param beadsToWin the number of beads in a line to win.
+   * @return the hash of the empty board.
+   */
+  public static long sizeKey ( int layers, int rows, int columns, int beadsToWin ) {
+    return mix ( 0x5C0E4F0000000000L | ((long) layers << 24) | ((long) rows << 16) | ((long) columns << 8) | beadsToWin );
+  }
+
+  /**
+   * key
+   * Returns the key of a bead of the player in the cell.
+   * @param cell the cell index.
+   * @param player the player number, 1 or 2.
+   * @return the key.
+   */
+  public static long key ( int cell, int player ) {
+    return mix ( ((long) cell << 2) | player );
+  }
+
+  /**
+   * mix
+   * The SplitMix64 finalizer: a bijective function whose output bits all depend on all input bits.
+   * @param value the input.
+   * @return the mixed value.
+   */
+  private static long mix ( long value ) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,73 @@
+package scoreFourGame.engine.vector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import scoreFourGame.engine.LineKernel;
+import scoreFourGame.engine.ScalarLineKernel;
+
+/**
+ * VectorLineKernel
+ * The LineKernel on the Java Vector API (jdk.incubator.vector): it scores as many lines per instruction as the
+ * preferred vector shape of the CPU holds ints (8 with AVX2, 16 with AVX-512). The weight of each lane's count is
+ * looked up with a lane shuffle from a vector holding the weights, and lanes whose line is blocked by the other
+ * player are masked out, so the loop has no branches. Lines that do not fill a whole vector are finished by the
+ * ScalarLineKernel, which is also used when there are more weights than lanes.<p>
+ * This package needs the incubator module: compile and run with --add-modules jdk.incubator.vector. Without it the
+ * package can be left out of the build; LineKernel.fastest() then returns the scalar kernel.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class VectorLineKernel implements LineKernel {
+
+  // =============== VARIABLES ===============
+  /**
+   * The preferred int vector shape of the CPU.
+   */
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  /**
+   * The constructor, public for LineKernel.fastest().
+   */
+  public VectorLineKernel() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * score
+   * @param playerOneCounts the number of player 1 beads in each line.
+   * @param playerTwoCounts the number of player 2 beads in each line.
+   * @param lineCount the number of lines.
+   * @param weights the weight of a line by the number of beads in it, from 0 to beadsToWin - 1.
+   * @return the score for player 1.
+   */
+  @Override
+  public int score ( int[] playerOneCounts, int[] playerTwoCounts, int lineCount, int[] weights ) {
+    if ( weights.length > SPECIES.length() ) {
+      return ScalarLineKernel.scoreRange ( playerOneCounts, playerTwoCounts, 0, lineCount, weights );
+    }
+    IntVector table = IntVector.fromArray ( SPECIES, weights, 0, SPECIES.indexInRange ( 0, weights.length ) );
+    int last = weights.length - 1;
+    IntVector sum = IntVector.zero ( SPECIES );
+    int bound = SPECIES.loopBound ( lineCount );
+    for ( int i = 0; i < bound; i += SPECIES.length() ) {
+      IntVector one = IntVector.fromArray ( SPECIES, playerOneCounts, i );
+      IntVector two = IntVector.fromArray ( SPECIES, playerTwoCounts, i );
+      // counts of a completed line use the last weight, as in LineEvaluator
+      IntVector oneWeights = one.min ( last ).selectFrom ( table );
+      IntVector twoWeights = two.min ( last ).selectFrom ( table );
+      sum = sum.add ( oneWeights, two.compare ( VectorOperators.EQ, 0 ) ).sub ( twoWeights, one.compare ( VectorOperators.EQ, 0 ) );
+    }
+    return sum.reduceLanes ( VectorOperators.ADD ) + ScalarLineKernel.scoreRange ( playerOneCounts, playerTwoCounts, bound, lineCount, weights );
+  }
+
+  /**
+   * getName
+   * @return "vector" and the number of lanes.
+   */
+  @Override
+  public String getName() {
+    return "vector x" + SPECIES.length();
+  }
+}
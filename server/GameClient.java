@@ -0,0 +1,311 @@
+package scoreFourGame.server;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.GameRecord;
+
+/**
+ * GameClient
+ * A blocking client of GameServer: it sends the requests of the Protocol and returns the server's messages one at a
+ * time. main() plays a game on the console, the moves given as row and column numbers from 1, or prints the moves of
+ * a watched game or exhibition.<p>
+ * Usage: GameClient &lt;host&gt; &lt;port&gt; &lt;size&gt; [human|computer|exhibition], or GameClient &lt;host&gt; &lt;port&gt; watch &lt;game id&gt;
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameClient implements Closeable {
+
+  // =============== VARIABLES ===============
+  /**
+   * The channel to the server.
+   */
+  private final SocketChannel channel;
+
+  /**
+   * The received bytes that are not a complete message yet.
+   */
+  private final ByteBuffer in = ByteBuffer.allocate ( Protocol.MAX_FRAME_SIZE * 4 );
+
+  /**
+   * The constructor. It connects to the server.
+   * @param address the server address.
+   * @throws IOException if the server cannot be reached.
+   */
+  public GameClient ( InetSocketAddress address ) throws IOException {
+    channel = SocketChannel.open ( address );
+    channel.setOption ( StandardSocketOptions.TCP_NODELAY, true );
+    in.flip();
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Plays one game on the console, or watches one.
+   * @param args the host, the port, the board size and optionally the opponent, human (default) or computer, or
+   *        exhibition to watch the computer play itself; or the host, the port, watch and the id of the game to watch.
+   * @throws IOException if the connection fails.
+   */
+  public static void main ( String[] args ) throws IOException {
+    if ( args.length < 3 || (args[2].equals ( "watch" ) && args.length < 4) ) {
+      System.err.println ( "Usage: GameClient <host> <port> <size> [human|computer|exhibition]" );
+      System.err.println ( "       GameClient <host> <port> watch <game id>" );
+      System.exit ( 2 );
+    }
+    InetSocketAddress address = new InetSocketAddress ( args[0], Integer.parseInt ( args[1] ) );
+    if ( args[2].equals ( "watch" ) || (args.length > 3 && args[3].equals ( "exhibition" )) ) {
+      try ( GameClient client = new GameClient ( address ) ) {
+        if ( args[2].equals ( "watch" ) ) {
+          client.watch ( Integer.parseInt ( args[3] ) );
+        } else {
+          client.exhibition ( Integer.parseInt ( args[2] ) );
+        }
+        spectate ( client );
+      }
+      return;
+    }
+    int size = Integer.parseInt ( args[2] );
+    int opponent = args.length > 3 && args[3].equals ( "computer" ) ? Protocol.OPPONENT_COMPUTER : Protocol.OPPONENT_HUMAN;
+    BufferedReader console = new BufferedReader ( new InputStreamReader ( System.in ) );
+    try ( GameClient client = new GameClient ( address ) ) {
+      client.findGame ( size, opponent );
+      Board board = new Board ( size );
+      int playerNo = 0;
+      while ( true ) {
+        Message message = client.receive();
+        switch ( message.getType() ) {
+          case Protocol.WAITING:
+            System.out.println ( "Waiting for an opponent . . ." );
+            break;
+          case Protocol.GAME_START:
+            playerNo = message.getPlayerNo();
+            System.out.println ( "Game " + message.getGameId() + " started. You are player " + playerNo + "." );
+            break;
+          case Protocol.MOVE_PLAYED:
+            printMove ( board, message.getPlayerNo(), message.getPillar() );
+            break;
+          case Protocol.GAME_OVER:
+            printResult ( message );
+            return;
+          case Protocol.ERROR:
+            System.out.println ( "The server rejected the request (error " + message.getCode() + ")." );
+            break;
+          default:
+            break;
+        }
+        if ( playerNo != 0 && board.getPlayerToMove() == playerNo && !board.isGameOver()
+              && (message.getType() == Protocol.GAME_START || message.getType() == Protocol.MOVE_PLAYED || message.getType() == Protocol.ERROR) ) {
+          client.move ( askMove ( console, board ) );
+        }
+      }
+    }
+  }
+
+  /**
+   * spectate
+   * Prints the moves of the watched game until it is over.
+   * @param client the client, watching a game.
+   * @throws IOException if the connection fails.
+   */
+  private static void spectate ( GameClient client ) throws IOException {
+    Board board = null;
+    while ( true ) {
+      Message message = client.receive();
+      switch ( message.getType() ) {
+        case Protocol.WATCHING:
+          // a spectator that fell behind gets the whole position again
+          board = new Board ( message.getSize() );
+          System.out.println ( "Watching game " + message.getGameId() + " after " + message.getMoveCount() + " moves." );
+          break;
+        case Protocol.MOVES:
+          for ( int pillar : message.getPillars() ) {
+            board.drop ( pillar );
+          }
+          break;
+        case Protocol.MOVE_PLAYED:
+          printMove ( board, message.getPlayerNo(), message.getPillar() );
+          break;
+        case Protocol.GAME_OVER:
+          printResult ( message );
+          return;
+        case Protocol.ERROR:
+          System.out.println ( "The server rejected the request (error " + message.getCode() + ")." );
+          return;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * printMove
+   * Plays a move on the board and prints it.
+   * @param board the position.
+   * @param playerNo the player number of the move.
+   * @param pillar the pillar.
+   */
+  private static void printMove ( Board board, int playerNo, int pillar ) {
+    int cell = board.drop ( pillar );
+    System.out.println ( "Player " + playerNo + " placed a bead at layer " + (board.layerOf ( cell ) + 1)
+                         + ", row " + (board.rowOf ( cell ) + 1) + ", column " + (board.columnOf ( cell ) + 1) + "." );
+  }
+
+  /**
+   * printResult
+   * Prints the result of a GAME_OVER.
+   * @param message the GAME_OVER.
+   */
+  private static void printResult ( Message message ) {
+    System.out.println ( message.getResult() == GameRecord.RESULT_DRAW ? "Draw game."
+                           : "Player " + message.getResult() + " won" + (message.getReason() == Protocol.REASON_RESIGNED ? " by resignation."
+                           : message.getReason() == Protocol.REASON_DISCONNECTED ? ": the opponent left." : ".") );
+  }
+
+  /**
+   * askMove
+   * Asks the console for a legal move.
+   * @param console the console.
+   * @param board the position.
+   * @return the pillar, or -1 to resign.
+   * @throws IOException if the console cannot be read.
+   */
+  private static int askMove ( BufferedReader console, Board board ) throws IOException {
+    while ( true ) {
+      System.out.print ( "Your move (row column, or q to resign): " );
+      String line = console.readLine();
+      if ( line == null || line.trim().equals ( "q" ) ) {
+        return -1;
+      }
+      String[] parts = line.trim().split ( "\\s+" );
+      try {
+        int row = Integer.parseInt ( parts[0] ) - 1;
+        int column = Integer.parseInt ( parts[1] ) - 1;
+        if ( row >= 0 && row < board.getRows() && column >= 0 && column < board.getColumns()
+              && board.isPillarAvailable ( row * board.getColumns() + column ) ) {
+          return row * board.getColumns() + column;
+        }
+      } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        // asks again
+      }
+      System.out.println ( "Not a legal move." );
+    }
+  }
+
+  /**
+   * findGame
+   * Asks the server for a game.
+   * @param size the board size.
+   * @param opponent Protocol.OPPONENT_HUMAN or Protocol.OPPONENT_COMPUTER.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void findGame ( int size, int opponent ) throws IOException {
+    send ( Protocol.findGame ( size, opponent ) );
+  }
+
+  /**
+   * move
+   * Plays a move in the current game.
+   * @param pillar the pillar, or -1 to resign.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void move ( int pillar ) throws IOException {
+    send ( pillar < 0 ? Protocol.resign() : Protocol.move ( pillar ) );
+  }
+
+  /**
+   * watch
+   * Asks the server to watch a live game; WATCHING follows.
+   * @param gameId the game id.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void watch ( int gameId ) throws IOException {
+    send ( Protocol.watch ( gameId ) );
+  }
+
+  /**
+   * exhibition
+   * Asks the server to watch the computer play itself on a board size; WATCHING follows.
+   * @param size the board size.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void exhibition ( int size ) throws IOException {
+    send ( Protocol.exhibition ( size ) );
+  }
+
+  /**
+   * resign
+   * Resigns the current game.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void resign() throws IOException {
+    send ( Protocol.resign() );
+  }
+
+  /**
+   * ping
+   * Asks the server for a PONG.
+   * @param nonce the value to echo.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void ping ( long nonce ) throws IOException {
+    send ( Protocol.ping ( nonce ) );
+  }
+
+  /**
+   * stats
+   * Asks the server for a SERVER_STATS.
+   * @throws IOException if the request cannot be sent.
+   */
+  public void stats() throws IOException {
+    send ( Protocol.stats() );
+  }
+
+  /**
+   * send
+   * Writes a frame.
+   * @param frame the frame.
+   * @throws IOException if the frame cannot be written.
+   */
+  public void send ( ByteBuffer frame ) throws IOException {
+    while ( frame.hasRemaining() ) {
+      channel.write ( frame );
+    }
+  }
+
+  /**
+   * receive
+   * Waits for the next message of the server.
+   * @return the message.
+   * @throws IOException if the connection fails or the server closes it.
+   */
+  public Message receive() throws IOException {
+    Message message;
+    while ( (message = Message.read ( in )) == null ) {
+      in.compact();
+      int read = channel.read ( in );
+      in.flip();
+      if ( read < 0 ) {
+        throw new EOFException ( "Connection closed by the server" );
+      }
+    }
+    return message;
+  }
+
+  /**
+   * close
+   * Closes the connection.
+   * @throws IOException if the channel cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,1105 @@
+package scoreFourGame.server;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.EndgameSolver;
+import scoreFourGame.engine.FastRuleBasedAI;
+import scoreFourGame.engine.GameBroadcast;
+import scoreFourGame.engine.GameEvent;
+import scoreFourGame.engine.GameRecord;
+import scoreFourGame.engine.GameSeeds;
+import scoreFourGame.engine.MoveJournal;
+import scoreFourGame.engine.MoveStrategy;
+import scoreFourGame.engine.OpeningBook;
+
+/**
+ * GameServer
+ * The network game server: many concurrent games, human against human or human against the computer player, over
+ * the binary Protocol. One selector thread owns all connections and all game state, so games need no locks; each
+ * game has its own engine Board and seeded computer player, and nothing is shared through the static BoardPanel
+ * fields. A FIND_GAME for a human opponent waits until another client asks for the same board size. Computer moves
+ * (opening book, then the EndgameSolver, then the rule-based AI, like Player) are computed on a worker pool on a copy
+ * of the board and handed back to the selector thread, so a slow search never delays other games.<p>
+ * An idle connection costs a small read buffer and its selection key, so a node holds thousands of them.<p>
+ * With a MoveJournal, the start, moves and end of every game are appended to it. The selector thread never waits
+ * for the disk: the journal's flusher forces the records of all games with one fsync at a time. Games in progress
+ * in the journal when the server starts had clients that are gone, so they are ended as abandoned.<p>
+ * Any client may WATCH a live game, or watch the computer play itself in an EXHIBITION. Every game publishes its
+ * moves through a GameBroadcast, which costs the game the same whatever the number of spectators. A spectator asks
+ * the broadcast for its next event only while its socket keeps up; one that falls too far behind is sent the whole
+ * position again instead of the moves it missed, so a slow spectator never grows the server's memory and never gets
+ * disconnected for being slow.<p>
+ * Usage: GameServer [port [worker threads [journal file]]]
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameServer implements Closeable {
+
+  // =============== VARIABLES ===============
+  /**
+   * The default port.
+   */
+  public static final int DEFAULT_PORT = 4004;
+
+  /**
+   * The smallest board size that can be played.
+   */
+  public static final int MIN_BOARD_SIZE = 4;
+
+  /**
+   * The largest board size that can be played.
+   */
+  public static final int MAX_BOARD_SIZE = 10;
+
+  /**
+   * The time the computer player may spend on a move, in milliseconds.
+   */
+  public static final long COMPUTER_TIME_LIMIT_MILLIS = 1000;
+
+  /**
+   * The number of frames that may wait for a slow client before the server drops the connection.
+   */
+  private static final int MAX_QUEUED_FRAMES = 64;
+
+  /**
+   * The number of frames that may wait for a spectator before it stops asking its game for events.
+   */
+  private static final int SPECTATOR_QUEUED_FRAMES = 8;
+
+  /**
+   * The default time between the moves of an exhibition, in milliseconds.
+   */
+  public static final long DEFAULT_EXHIBITION_MOVE_MILLIS = 500;
+
+  /**
+   * The endgame solver of each worker thread. A solver has a large cache, so games share the workers' solvers.
+   */
+  private static final ThreadLocal<EndgameSolver> endgameSolvers = ThreadLocal.withInitial ( () -> new EndgameSolver (
+    Integer.getInteger ( EndgameSolver.MAX_BLANKS_PROPERTY, EndgameSolver.DEFAULT_MAX_BLANKS ), COMPUTER_TIME_LIMIT_MILLIS ) );
+
+  /**
+   * The journal of the games, or null.
+   */
+  private MoveJournal journal;
+
+  /**
+   * The selector of all channels.
+   */
+  private final Selector selector;
+
+  /**
+   * The listening channel.
+   */
+  private final ServerSocketChannel serverChannel;
+
+  /**
+   * The pool that computes the computer moves.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * The tasks that other threads hand to the selector thread, e.g., a computed move.
+   */
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The executor of the spectators' deliveries: the tasks of the selector thread, which owns the connections.
+   */
+  private final Executor spectatorExecutor = this::runOnSelector;
+
+  /**
+   * The thread that paces the moves of the exhibitions.
+   */
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor ( runnable -> {
+    Thread thread = new Thread ( runnable, "GameServer timer" );
+    thread.setDaemon ( true );
+    return thread;
+  } );
+
+  /**
+   * The client waiting for a human opponent, by board size.
+   */
+  private final Connection[] waiting = new Connection[MAX_BOARD_SIZE + 1];
+
+  /**
+   * The games in progress, by id.
+   */
+  private final Map<Integer, ServerGame> liveGames = new HashMap<>();
+
+  /**
+   * The latest exhibition, by board size.
+   */
+  private final ServerGame[] exhibitions = new ServerGame[MAX_BOARD_SIZE + 1];
+
+  /**
+   * The time between the moves of an exhibition, in milliseconds.
+   */
+  private volatile long exhibitionMoveMillis = DEFAULT_EXHIBITION_MOVE_MILLIS;
+
+  /**
+   * The selector thread.
+   */
+  private final Thread selectorThread;
+
+  /**
+   * Whether the server runs.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * The id of the next game.
+   */
+  private int nextGameId = 1;
+
+  /**
+   * The number of open connections.
+   */
+  private volatile int connectionCount = 0;
+
+  /**
+   * The number of games in progress.
+   */
+  private volatile int activeGameCount = 0;
+
+  /**
+   * The number of games started.
+   */
+  private volatile long gamesStarted = 0;
+
+  /**
+   * The number of moves played in all games.
+   */
+  private volatile long movesPlayed = 0;
+
+  /**
+   * The constructor. It binds the port; start() starts serving.
+   * @param address the address to listen on, e.g., new InetSocketAddress ( InetAddress.getLoopbackAddress(), 0 ).
+   * @param workerThreads the number of threads that compute computer moves.
+   * @throws IOException if the port cannot be bound.
+   */
+  public GameServer ( InetSocketAddress address, int workerThreads ) throws IOException {
+    this ( address, workerThreads, null );
+  }
+
+  /**
+   * The constructor with a journal. It binds the port; start() starts serving.
+   * @param address the address to listen on.
+   * @param workerThreads the number of threads that compute computer moves.
+   * @param journal the journal to append the games to, or null. The caller closes it after the server.
+   * @throws IOException if the port cannot be bound or the journal fails.
+   */
+  public GameServer ( InetSocketAddress address, int workerThreads, MoveJournal journal ) throws IOException {
+    this.journal = journal;
+    if ( journal != null ) {
+      for ( MoveJournal.JournaledGame game : journal.getRecoveredGames() ) {
+        journal.endGame ( game.id, GameRecord.RESULT_UNFINISHED );
+      }
+      nextGameId = (int) journal.getLastGameId() + 1;
+    }
+    selector = Selector.open();
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind ( address, 1024 );
+    serverChannel.configureBlocking ( false );
+    serverChannel.register ( selector, SelectionKey.OP_ACCEPT );
+    workers = Executors.newFixedThreadPool ( Math.max ( 1, workerThreads ), runnable -> {
+      Thread thread = new Thread ( runnable, "GameServer worker" );
+      thread.setDaemon ( true );
+      return thread;
+    } );
+    selectorThread = new Thread ( this::run, "GameServer selector" );
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Runs a server until the process is stopped.
+   * @param args optionally the port and the number of worker threads.
+   * @throws IOException if the port cannot be bound.
+   */
+  public static void main ( String[] args ) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt ( args[0] ) : DEFAULT_PORT;
+    int threads = args.length > 1 ? Integer.parseInt ( args[1] ) : Runtime.getRuntime().availableProcessors();
+    MoveJournal journal = args.length > 2 ? new MoveJournal ( Paths.get ( args[2] ) ) : null;
+    if ( journal != null ) {
+      Runtime.getRuntime().addShutdownHook ( new Thread ( () -> {
+        try {
+          journal.close();
+        } catch (IOException e) {
+          System.err.println ( "Cannot close the move journal: " + e.getMessage() );
+        }
+      } ) );
+    }
+    GameServer server = new GameServer ( new InetSocketAddress ( port ), threads, journal ).start();
+    System.out.println ( "Game server listening on port " + server.getPort() );
+  }
+
+  /**
+   * start
+   * Starts the selector thread.
+   * @return this server.
+   */
+  public GameServer start() {
+    selectorThread.start();
+    return this;
+  }
+
+  /**
+   * setExhibitionMoveDelay
+   * @param millis the time between the moves of an exhibition, in milliseconds; 0 plays them as fast as computed.
+   */
+  public void setExhibitionMoveDelay ( long millis ) {
+    exhibitionMoveMillis = millis;
+  }
+
+  /**
+   * getPort
+   * @return the bound port.
+   */
+  public int getPort() {
+    return serverChannel.socket().getLocalPort();
+  }
+
+  /**
+   * close
+   * Stops the server and closes all connections.
+   * @throws IOException if the channels cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    running = false;
+    selector.wakeup();
+    if ( selectorThread.isAlive() && Thread.currentThread() != selectorThread ) {
+      try {
+        selectorThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    workers.shutdownNow();
+    timer.shutdownNow();
+    try {
+      workers.awaitTermination ( COMPUTER_TIME_LIMIT_MILLIS * 2, TimeUnit.MILLISECONDS );
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for ( SelectionKey key : selector.keys() ) {
+      key.channel().close();
+    }
+    selector.close();
+  }
+
+  /**
+   * run
+   * The selector loop: accepts connections, reads requests, writes queued answers and runs the handed-over tasks.
+   */
+  private void run() {
+    while ( running ) {
+      try {
+        selector.select();
+      } catch (IOException e) {
+        System.err.println ( "Game server selector failed: " + e.getMessage() );
+        return;
+      }
+      Runnable task;
+      while ( (task = tasks.poll()) != null ) {
+        task.run();
+      }
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while ( keys.hasNext() ) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        if ( !key.isValid() ) {
+          continue;
+        }
+        if ( key.isAcceptable() ) {
+          accept();
+          continue;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+          if ( key.isReadable() ) {
+            read ( connection );
+          }
+          if ( key.isValid() && key.isWritable() ) {
+            write ( connection );
+          }
+        } catch (IOException e) {
+          disconnect ( connection );
+        }
+      }
+    }
+  }
+
+  /**
+   * runOnSelector
+   * Hands a task to the selector thread.
+   * @param task the task.
+   */
+  private void runOnSelector ( Runnable task ) {
+    tasks.add ( task );
+    selector.wakeup();
+  }
+
+  /**
+   * accept
+   * Accepts the pending connections.
+   */
+  private void accept() {
+    try {
+      SocketChannel channel;
+      while ( (channel = serverChannel.accept()) != null ) {
+        channel.configureBlocking ( false );
+        channel.setOption ( StandardSocketOptions.TCP_NODELAY, true );
+        Connection connection = new Connection ( channel );
+        connection.key = channel.register ( selector, SelectionKey.OP_READ, connection );
+        connectionCount ++;
+      }
+    } catch (IOException e) {
+      System.err.println ( "Game server cannot accept a connection: " + e.getMessage() );
+    }
+  }
+
+  /**
+   * read
+   * Reads from a connection and handles every complete request.
+   * @param connection the connection.
+   * @throws IOException if the connection fails, is closed by the client, or sends a malformed frame.
+   */
+  private void read ( Connection connection ) throws IOException {
+    if ( connection.channel.read ( connection.in ) < 0 ) {
+      throw new IOException ( "Closed by the client" );
+    }
+    connection.in.flip();
+    try {
+      Message message;
+      while ( !connection.closed && (message = Message.read ( connection.in )) != null ) {
+        handle ( connection, message );
+      }
+    } finally {
+      connection.in.compact();
+    }
+  }
+
+  /**
+   * write
+   * Writes the queued frames of a connection, as far as the socket takes them.
+   * @param connection the connection.
+   * @throws IOException if the connection fails.
+   */
+  private void write ( Connection connection ) throws IOException {
+    while ( !connection.out.isEmpty() ) {
+      ByteBuffer frame = connection.out.peek();
+      connection.channel.write ( frame );
+      if ( frame.hasRemaining() ) {
+        return;
+      }
+      connection.out.poll();
+    }
+    connection.key.interestOps ( SelectionKey.OP_READ );
+    if ( connection.watching != null ) {
+      connection.watching.resume();
+    }
+  }
+
+  /**
+   * send
+   * Sends a frame to a connection, queueing what the socket does not take at once. A client that lets
+   * MAX_QUEUED_FRAMES frames pile up is disconnected.
+   * @param connection the connection, or null for the computer player.
+   * @param frame the frame.
+   */
+  private void send ( Connection connection, ByteBuffer frame ) {
+    if ( connection == null || connection.closed ) {
+      return;
+    }
+    try {
+      if ( connection.out.isEmpty() ) {
+        connection.channel.write ( frame );
+      }
+      if ( frame.hasRemaining() ) {
+        if ( connection.out.size() >= MAX_QUEUED_FRAMES ) {
+          throw new IOException ( "Client too slow" );
+        }
+        connection.out.add ( frame );
+        connection.key.interestOps ( SelectionKey.OP_READ | SelectionKey.OP_WRITE );
+      }
+    } catch (IOException e) {
+      disconnect ( connection );
+    }
+  }
+
+  /**
+   * handle
+   * Handles a request.
+   * @param connection the client.
+   * @param message the request.
+   */
+  private void handle ( Connection connection, Message message ) {
+    switch ( message.getType() ) {
+      case Protocol.FIND_GAME:
+        findGame ( connection, message.getSize(), message.getOpponent() );
+        break;
+      case Protocol.MOVE:
+        if ( connection.game == null ) {
+          send ( connection, Protocol.error ( Protocol.ERROR_UNEXPECTED ) );
+        } else {
+          play ( connection, message.getPillar() );
+        }
+        break;
+      case Protocol.RESIGN:
+        if ( connection.game == null ) {
+          send ( connection, Protocol.error ( Protocol.ERROR_UNEXPECTED ) );
+        } else {
+          finish ( connection.game, 3 - connection.playerNo, Protocol.REASON_RESIGNED );
+        }
+        break;
+      case Protocol.PING:
+        send ( connection, Protocol.pong ( message.getNonce() ) );
+        break;
+      case Protocol.STATS:
+        send ( connection, Protocol.serverStats ( getStats() ) );
+        break;
+      case Protocol.WATCH: {
+        ServerGame game = liveGames.get ( message.getGameId() );
+        if ( connection.game != null || connection.waitingSize != 0 ) {
+          send ( connection, Protocol.error ( Protocol.ERROR_UNEXPECTED ) );
+        } else if ( game == null ) {
+          send ( connection, Protocol.error ( Protocol.ERROR_NO_SUCH_GAME ) );
+        } else {
+          watch ( connection, game );
+        }
+        break;
+      }
+      case Protocol.EXHIBITION:
+        exhibition ( connection, message.getSize() );
+        break;
+      default:
+        send ( connection, Protocol.error ( Protocol.ERROR_UNKNOWN_MESSAGE ) );
+        break;
+    }
+  }
+
+  /**
+   * findGame
+   * Starts a game against the computer, pairs the client with the client waiting for the same board size, or lets
+   * it wait.
+   * @param connection the client.
+   * @param size the board size.
+   * @param opponent Protocol.OPPONENT_HUMAN or Protocol.OPPONENT_COMPUTER.
+   */
+  private void findGame ( Connection connection, int size, int opponent ) {
+    if ( connection.game != null || connection.waitingSize != 0 ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_UNEXPECTED ) );
+    } else if ( size < MIN_BOARD_SIZE || size > MAX_BOARD_SIZE ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_BAD_SIZE ) );
+    } else if ( opponent != Protocol.OPPONENT_HUMAN && opponent != Protocol.OPPONENT_COMPUTER ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_UNEXPECTED ) );
+    } else {
+      stopWatching ( connection );
+      pair ( connection, size, opponent );
+    }
+  }
+
+  /**
+   * pair
+   * Starts the game of a valid FIND_GAME or lets the client wait.
+   * @param connection the client, in no game.
+   * @param size the board size.
+   * @param opponent Protocol.OPPONENT_HUMAN or Protocol.OPPONENT_COMPUTER.
+   */
+  private void pair ( Connection connection, int size, int opponent ) {
+    if ( opponent == Protocol.OPPONENT_COMPUTER ) {
+      long seed = GameSeeds.newSeed();
+      // the seed decides who moves first
+      if ( (seed & 1) == 0 ) {
+        startGame ( connection, null, size, seed );
+      } else {
+        startGame ( null, connection, size, seed );
+      }
+    } else if ( waiting[size] == null ) {
+      waiting[size] = connection;
+      connection.waitingSize = size;
+      send ( connection, Protocol.waiting ( size ) );
+    } else {
+      // the client that waited longer moves first
+      Connection first = waiting[size];
+      waiting[size] = null;
+      first.waitingSize = 0;
+      startGame ( first, connection, size, GameSeeds.newSeed() );
+    }
+  }
+
+  /**
+   * exhibition
+   * Lets a client watch the exhibition of a board size, starting one if none is in progress.
+   * @param connection the client.
+   * @param size the board size.
+   */
+  private void exhibition ( Connection connection, int size ) {
+    if ( connection.game != null || connection.waitingSize != 0 ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_UNEXPECTED ) );
+    } else if ( size < MIN_BOARD_SIZE || size > MAX_BOARD_SIZE ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_BAD_SIZE ) );
+    } else {
+      if ( exhibitions[size] == null || exhibitions[size].over ) {
+        exhibitions[size] = startGame ( null, null, size, GameSeeds.newSeed() );
+      }
+      watch ( connection, exhibitions[size] );
+    }
+  }
+
+  /**
+   * watch
+   * Subscribes a client to the broadcast of a game, instead of the game it watched.
+   * @param connection the client, in no game.
+   * @param game the game.
+   */
+  private void watch ( Connection connection, ServerGame game ) {
+    stopWatching ( connection );
+    connection.watching = new Spectator ( connection );
+    game.broadcast.subscribe ( connection.watching );
+  }
+
+  /**
+   * stopWatching
+   * Cancels the subscription of a client to the game it watches, if any.
+   * @param connection the client.
+   */
+  private void stopWatching ( Connection connection ) {
+    if ( connection.watching != null ) {
+      connection.watching.cancel();
+      connection.watching = null;
+    }
+  }
+
+  /**
+   * startGame
+   * Starts a game and tells the players.
+   * @param playerOne the client of player 1, or null for the computer.
+   * @param playerTwo the client of player 2, or null for the computer.
+   * @param size the board size.
+   * @param seed the game seed.
+   * @return the game.
+   */
+  private ServerGame startGame ( Connection playerOne, Connection playerTwo, int size, long seed ) {
+    ServerGame game = new ServerGame ( nextGameId ++, size, seed, playerOne, playerTwo, spectatorExecutor );
+    liveGames.put ( game.id, game );
+    gamesStarted ++;
+    activeGameCount ++;
+    if ( journal != null ) {
+      try {
+        // the tag tells which players are the computer
+        journal.startGame ( game.id, game.board, seed, (playerOne == null ? 1 : 0) | (playerTwo == null ? 2 : 0) );
+      } catch (IOException e) {
+        journalFailed ( e );
+      }
+    }
+    for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+      Connection connection = game.players[playerNo];
+      if ( connection != null ) {
+        connection.game = game;
+        connection.playerNo = playerNo;
+        send ( connection, Protocol.gameStart ( game.id, size, playerNo, seed ) );
+      }
+    }
+    if ( playerOne == null ) {
+      requestComputerMove ( game );
+    }
+    return game;
+  }
+
+  /**
+   * play
+   * Plays a client's move if it is legal and the client's turn.
+   * @param connection the client.
+   * @param pillar the pillar.
+   */
+  private void play ( Connection connection, int pillar ) {
+    ServerGame game = connection.game;
+    if ( game.players[game.board.getPlayerToMove()] != connection ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_NOT_YOUR_TURN ) );
+    } else if ( pillar >= game.board.getPillarCount() || !game.board.isPillarAvailable ( pillar ) ) {
+      send ( connection, Protocol.error ( Protocol.ERROR_ILLEGAL_MOVE ) );
+    } else {
+      applyMove ( game, pillar );
+    }
+  }
+
+  /**
+   * applyMove
+   * Plays a legal move, tells the players, and ends the game or asks the computer for its move.
+   * @param game the game.
+   * @param pillar the pillar.
+   */
+  private void applyMove ( ServerGame game, int pillar ) {
+    int playerNo = game.board.getPlayerToMove();
+    game.board.drop ( pillar );
+    movesPlayed ++;
+    if ( journal != null ) {
+      try {
+        journal.move ( game.id, game.board.getMoveCount() - 1, pillar );
+      } catch (IOException e) {
+        journalFailed ( e );
+      }
+    }
+    game.broadcast.publishMove ( pillar );
+    ByteBuffer frame = Protocol.movePlayed ( playerNo, pillar );
+    ByteBuffer copy = frame.duplicate();
+    send ( game.players[1], frame );
+    send ( game.players[2], copy );
+    if ( game.board.isGameOver() ) {
+      finish ( game, GameRecord.resultOf ( game.board ), Protocol.REASON_FINISHED );
+    } else if ( game.players[game.board.getPlayerToMove()] == null ) {
+      requestComputerMove ( game );
+    }
+  }
+
+  /**
+   * requestComputerMove
+   * Computes the computer's move on a worker thread, on a copy of the board, and plays it on the selector thread.
+   * The moves of an exhibition are played exhibitionMoveMillis apart, so that spectators can follow them.
+   * @param game the game.
+   */
+  private void requestComputerMove ( ServerGame game ) {
+    Board board = new Board ( game.board );
+    long delayMillis = game.isExhibition() ? exhibitionMoveMillis : 0;
+    long startNanos = System.nanoTime();
+    try {
+      workers.execute ( () -> {
+        int cell = computerMove ( board, game.computers[board.getPlayerToMove()] );
+        Runnable play = () -> {
+          tasks.add ( () -> {
+            if ( !game.over && cell >= 0 ) {
+              applyMove ( game, board.pillarOf ( cell ) );
+            }
+          } );
+          selector.wakeup();
+        };
+        long remainingMillis = delayMillis - TimeUnit.NANOSECONDS.toMillis ( System.nanoTime() - startNanos );
+        if ( remainingMillis <= 0 ) {
+          play.run();
+        } else {
+          try {
+            timer.schedule ( play, remainingMillis, TimeUnit.MILLISECONDS );
+          } catch (RejectedExecutionException e) {
+            // the server is closing
+          }
+        }
+      } );
+    } catch (RejectedExecutionException e) {
+      // the server is closing
+    }
+  }
+
+  /**
+   * computerMove
+   * Chooses the computer's move like Player: the opening book move, the EndgameSolver's move once few cells are
+   * blank, or the rule-based AI's move.
+   * @param board the position.
+   * @param strategy the rule-based AI of the game.
+   * @return the cell index of the move, or -1 if there is none.
+   */
+  private static int computerMove ( Board board, MoveStrategy strategy ) {
+    int playerNo = board.getPlayerToMove();
+    OpeningBook book = OpeningBook.forBoard ( board );
+    int bookPillar = book == null ? -1 : book.lookup ( board );
+    int cell = bookPillar >= 0 ? board.landingCell ( bookPillar ) : endgameSolvers.get().selectMove ( board, playerNo );
+    return cell >= 0 ? cell : strategy.selectMove ( board, playerNo );
+  }
+
+  /**
+   * finish
+   * Ends a game and tells the players.
+   * @param game the game.
+   * @param result the result, a GameRecord.RESULT_ constant.
+   * @param reason a Protocol.REASON_ constant.
+   */
+  private void finish ( ServerGame game, int result, int reason ) {
+    if ( game.over ) {
+      return;
+    }
+    game.over = true;
+    activeGameCount --;
+    liveGames.remove ( game.id );
+    game.broadcast.publishEnd ( result, reason );
+    if ( journal != null ) {
+      try {
+        journal.endGame ( game.id, result );
+      } catch (IOException e) {
+        journalFailed ( e );
+      }
+    }
+    for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+      Connection connection = game.players[playerNo];
+      if ( connection != null ) {
+        connection.game = null;
+        connection.playerNo = 0;
+        send ( connection, Protocol.gameOver ( result, reason ) );
+      }
+    }
+  }
+
+  /**
+   * journalFailed
+   * Reports a journal error and stops journaling; the games go on without crash recovery.
+   * @param e the error.
+   */
+  private void journalFailed ( IOException e ) {
+    System.err.println ( "The move journal failed, games are no longer journaled: " + e.getMessage() );
+    journal = null;
+  }
+
+  /**
+   * disconnect
+   * Closes a connection. A game in progress is lost by the disconnected client.
+   * @param connection the connection.
+   */
+  private void disconnect ( Connection connection ) {
+    if ( connection.closed ) {
+      return;
+    }
+    connection.closed = true;
+    connectionCount --;
+    if ( connection.waitingSize != 0 ) {
+      waiting[connection.waitingSize] = null;
+    }
+    stopWatching ( connection );
+    if ( connection.game != null ) {
+      finish ( connection.game, 3 - connection.playerNo, Protocol.REASON_DISCONNECTED );
+    }
+    connection.key.cancel();
+    try {
+      connection.channel.close();
+    } catch (IOException e) {
+      // already closed
+    }
+  }
+
+  /**
+   * getConnectionCount
+   * @return the number of open connections.
+   */
+  public int getConnectionCount() {
+    return connectionCount;
+  }
+
+  /**
+   * getActiveGameCount
+   * @return the number of games in progress.
+   */
+  public int getActiveGameCount() {
+    return activeGameCount;
+  }
+
+  /**
+   * getGamesStarted
+   * @return the number of games started.
+   */
+  public long getGamesStarted() {
+    return gamesStarted;
+  }
+
+  /**
+   * getMovesPlayed
+   * @return the number of moves played in all games.
+   */
+  public long getMovesPlayed() {
+    return movesPlayed;
+  }
+
+  /**
+   * getStats
+   * @return the counters of the server, with the CPU time and heap of the process.
+   */
+  public ServerStats getStats() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    long cpuNanos = os instanceof com.sun.management.OperatingSystemMXBean
+      ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() : -1;
+    Runtime runtime = Runtime.getRuntime();
+    return new ServerStats ( connectionCount, activeGameCount, gamesStarted, movesPlayed, cpuNanos,
+                             runtime.totalMemory() - runtime.freeMemory(), runtime.maxMemory() );
+  }
+
+  /**
+   * Connection
+   * The state of a client connection. Only the selector thread uses it.
+   */
+  private static final class Connection {
+
+    /**
+     * The channel.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The received bytes that are not a complete frame yet.
+     */
+    private final ByteBuffer in = ByteBuffer.allocate ( Protocol.MAX_FRAME_SIZE );
+
+    /**
+     * The frames that the socket has not taken yet.
+     */
+    private final Queue<ByteBuffer> out = new ArrayDeque<>( 2 );
+
+    /**
+     * The selection key of the channel.
+     */
+    private SelectionKey key;
+
+    /**
+     * The current game, or null.
+     */
+    private ServerGame game;
+
+    /**
+     * The player number in the current game, or 0.
+     */
+    private int playerNo;
+
+    /**
+     * The board size the client waits for an opponent of, or 0.
+     */
+    private int waitingSize;
+
+    /**
+     * The subscription to the game the client watches, or null.
+     */
+    private Spectator watching;
+
+    /**
+     * Whether the connection is closed.
+     */
+    private boolean closed;
+
+    /**
+     * The constructor.
+     * @param channel the channel.
+     */
+    private Connection ( SocketChannel channel ) {
+      this.channel = channel;
+    }
+  }
+
+  /**
+   * ServerGame
+   * The state of one game. Only the selector thread uses it, except the computer players, which a worker uses while
+   * the game waits for their move.
+   */
+  private static final class ServerGame {
+
+    /**
+     * The game id.
+     */
+    private final int id;
+
+    /**
+     * The position.
+     */
+    private final Board board;
+
+    /**
+     * The client of each player number (index 1 and 2), null for the computer.
+     */
+    private final Connection[] players = new Connection[3];
+
+    /**
+     * The rule-based AI of each computer player (index 1 and 2), seeded with the game seed, or null for a client.
+     */
+    private final MoveStrategy[] computers = new MoveStrategy[3];
+
+    /**
+     * The broadcast of the moves to the spectators.
+     */
+    private final GameBroadcast broadcast;
+
+    /**
+     * Whether the game is over.
+     */
+    private boolean over;
+
+    /**
+     * The constructor.
+     * @param id the game id.
+     * @param size the board size.
+     * @param seed the game seed.
+     * @param playerOne the client of player 1, or null for the computer.
+     * @param playerTwo the client of player 2, or null for the computer.
+     * @param spectatorExecutor the executor of the spectators' deliveries.
+     */
+    private ServerGame ( int id, int size, long seed, Connection playerOne, Connection playerTwo, Executor spectatorExecutor ) {
+      this.id = id;
+      this.board = new Board ( size );
+      this.players[1] = playerOne;
+      this.players[2] = playerTwo;
+      for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+        if ( players[playerNo] == null ) {
+          computers[playerNo] = new FastRuleBasedAI ( GameSeeds.forPlayer ( seed, playerNo ) );
+        }
+      }
+      this.broadcast = new GameBroadcast ( id, board, seed, spectatorExecutor, GameBroadcast.DEFAULT_BUFFER_SIZE,
+                                           GameBroadcast.OverflowPolicy.CONFLATE );
+    }
+
+    /**
+     * isExhibition
+     * @return true if the computer plays both players.
+     */
+    private boolean isExhibition() {
+      return players[1] == null && players[2] == null;
+    }
+  }
+
+  /**
+   * Spectator
+   * A client watching a game: it sends the game's events as frames and asks for the next one only while fewer than
+   * SPECTATOR_QUEUED_FRAMES frames wait for the socket. The broadcast delivers on the selector thread.
+   */
+  private final class Spectator implements Flow.Subscriber<GameEvent> {
+
+    /**
+     * The client.
+     */
+    private final Connection connection;
+
+    /**
+     * The subscription, or null until the broadcast accepts the spectator.
+     */
+    private Flow.Subscription subscription;
+
+    /**
+     * Whether the spectator waits for its socket before asking for the next event.
+     */
+    private boolean stalled;
+
+    /**
+     * Whether the spectator stopped watching.
+     */
+    private boolean cancelled;
+
+    /**
+     * The constructor.
+     * @param connection the client.
+     */
+    private Spectator ( Connection connection ) {
+      this.connection = connection;
+    }
+
+    /**
+     * onSubscribe
+     * Overrided method to ask for the first event.
+     * @param subscription the subscription.
+     */
+    @Override
+    public void onSubscribe ( Flow.Subscription subscription ) {
+      this.subscription = subscription;
+      if ( cancelled ) {
+        subscription.cancel();
+      } else {
+        subscription.request ( 1 );
+      }
+    }
+
+    /**
+     * onNext
+     * Overrided method to send an event to the client and ask for the next one if the socket keeps up.
+     * @param event the event.
+     */
+    @Override
+    public void onNext ( GameEvent event ) {
+      if ( cancelled || connection.closed ) {
+        cancel();
+        return;
+      }
+      switch ( event.type ) {
+        case GameEvent.SNAPSHOT: {
+          GameRecord position = event.position;
+          int[] moves = position.getMoves();
+          send ( connection, Protocol.watching ( (int) event.gameId, position.getLayers(), position.getSeed(), moves.length ) );
+          for ( int ply = 0; ply < moves.length; ply += Protocol.MAX_MOVES_PER_FRAME ) {
+            send ( connection, Protocol.moves ( moves, ply, Math.min ( Protocol.MAX_MOVES_PER_FRAME, moves.length - ply ) ) );
+          }
+          break;
+        }
+        case GameEvent.MOVE:
+          send ( connection, Protocol.movePlayed ( event.playerNo, event.pillar ) );
+          break;
+        default:
+          send ( connection, Protocol.gameOver ( event.result, event.reason ) );
+          connection.watching = null;
+          return;
+      }
+      if ( connection.out.size() < SPECTATOR_QUEUED_FRAMES ) {
+        subscription.request ( 1 );
+      } else {
+        stalled = true;
+      }
+    }
+
+    /**
+     * onError
+     * Overrided method to stop watching.
+     * @param throwable the error.
+     */
+    @Override
+    public void onError ( Throwable throwable ) {
+      if ( connection.watching == this ) {
+        connection.watching = null;
+      }
+    }
+
+    /**
+     * onComplete
+     * Overrided method to do nothing: the GAME_OVER is already sent.
+     */
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * resume
+     * Asks for the next event once the socket has taken the queued frames.
+     */
+    private void resume() {
+      if ( stalled && !cancelled ) {
+        stalled = false;
+        subscription.request ( 1 );
+      }
+    }
+
+    /**
+     * cancel
+     * Stops watching.
+     */
+    private void cancel() {
+      cancelled = true;
+      if ( subscription != null ) {
+        subscription.cancel();
+      }
+    }
+  }
+}
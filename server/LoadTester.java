@@ -0,0 +1,635 @@
+package scoreFourGame.server;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import scoreFourGame.engine.Board;
+
+/**
+ * LoadTester
+ * A load generator for GameServer: thousands of simulated players, all driven by one selector thread, connect over
+ * loopback (or to a remote server), ask for games and play full games with random legal moves after a think time
+ * drawn from a log-normal distribution. It reports the round-trip latency of the moves (from sending MOVE to
+ * receiving its MOVE_PLAYED) as percentiles, the throughput, and the server's CPU time and heap from SERVER_STATS
+ * messages at the start and the end of the run.<p>
+ * The last line of the report is a CSV record (with -csv, preceded by its header), so that runs can be scripted and
+ * compared per release. The exit status is 1 if the server rejected a request or dropped a connection.<p>
+ * Usage: LoadTester [-host h -port p] [-clients n] [-seconds s] [-rampup s] [-size n] [-computer fraction]
+ * [-think median ms] [-seed s] [-csv]. Without -host it starts a GameServer in the same process; the server's CPU
+ * time then includes the load generator's, so capacity runs should use a separate server process.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class LoadTester {
+
+  // =============== VARIABLES ===============
+  /**
+   * The spread (sigma of the logarithm) of the think times.
+   */
+  private static final double THINK_TIME_SIGMA = 0.5;
+
+  /**
+   * The CSV header of the report.
+   */
+  private static final String CSV_HEADER = "clients,seconds,size,moves,games,moves_per_s,games_per_s,p50_us,p90_us,p99_us,p999_us,max_us,"
+    + "errors,server_cpu_ms,server_cpu_pct,server_heap_mb";
+
+  /**
+   * The simulated clients.
+   */
+  private final SimulatedClient[] clients;
+
+  /**
+   * The server address.
+   */
+  private final InetSocketAddress address;
+
+  /**
+   * The board size of the games.
+   */
+  private final int size;
+
+  /**
+   * The fraction of clients that play against the computer player; the others play against each other.
+   */
+  private final double computerFraction;
+
+  /**
+   * The median think time in milliseconds.
+   */
+  private final double thinkMillis;
+
+  /**
+   * The time over which the clients connect, in milliseconds.
+   */
+  private final long rampUpMillis;
+
+  /**
+   * The selector of all client channels.
+   */
+  private final Selector selector;
+
+  /**
+   * The pending timed actions, ordered by due time.
+   */
+  private final PriorityQueue<Action> actions = new PriorityQueue<>( ( a, b ) -> Long.compare ( a.due, b.due ) );
+
+  /**
+   * The round-trip latencies of the moves in microseconds.
+   */
+  private long[] latencies = new long[1 << 16];
+
+  /**
+   * The number of recorded latencies.
+   */
+  private int latencyCount = 0;
+
+  /**
+   * The number of games finished by the clients.
+   */
+  private long games = 0;
+
+  /**
+   * The number of ERROR messages and dropped connections.
+   */
+  private long errors = 0;
+
+  /**
+   * Whether new moves and games are still started.
+   */
+  private boolean running = true;
+
+  /**
+   * The constructor.
+   * @param address the server address.
+   * @param clientCount the number of simulated clients.
+   * @param size the board size.
+   * @param computerFraction the fraction of clients that play against the computer player.
+   * @param thinkMillis the median think time in milliseconds.
+   * @param rampUpMillis the time over which the clients connect, in milliseconds.
+   * @param seed the seed of the clients' random sources.
+   * @throws IOException if the selector cannot be opened.
+   */
+  public LoadTester ( InetSocketAddress address, int clientCount, int size, double computerFraction, double thinkMillis, long rampUpMillis,
+                      long seed ) throws IOException {
+    this.address = address;
+    this.size = size;
+    this.computerFraction = computerFraction;
+    this.thinkMillis = thinkMillis;
+    this.rampUpMillis = rampUpMillis;
+    this.selector = Selector.open();
+    SplittableRandom random = new SplittableRandom ( seed );
+    clients = new SimulatedClient[clientCount];
+    for ( int i = 0; i < clientCount; i ++ ) {
+      clients[i] = new SimulatedClient ( random.split(), i < Math.round ( clientCount * computerFraction ) );
+    }
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * main
+   * Runs a load test and prints the report.
+   * @param args the options, see the class comment.
+   * @throws Exception if the server cannot be started or reached.
+   */
+  public static void main ( String[] args ) throws Exception {
+    String host = null;
+    int port = GameServer.DEFAULT_PORT;
+    int clientCount = 1000;
+    int seconds = 10;
+    double rampUp = 1;
+    int size = 4;
+    double computerFraction = 0.5;
+    double think = 200;
+    long seed = 1;
+    boolean csv = false;
+    for ( int i = 0; i < args.length; i ++ ) {
+      switch ( args[i] ) {
+        case "-host": host = args[++ i]; break;
+        case "-port": port = Integer.parseInt ( args[++ i] ); break;
+        case "-clients": clientCount = Integer.parseInt ( args[++ i] ); break;
+        case "-seconds": seconds = Integer.parseInt ( args[++ i] ); break;
+        case "-rampup": rampUp = Double.parseDouble ( args[++ i] ); break;
+        case "-size": size = Integer.parseInt ( args[++ i] ); break;
+        case "-computer": computerFraction = Double.parseDouble ( args[++ i] ); break;
+        case "-think": think = Double.parseDouble ( args[++ i] ); break;
+        case "-seed": seed = Long.parseLong ( args[++ i] ); break;
+        case "-csv": csv = true; break;
+        default:
+          System.err.println ( "Usage: LoadTester [-host h -port p] [-clients n] [-seconds s] [-rampup s] [-size n] [-computer fraction]"
+                               + " [-think median ms] [-seed s] [-csv]" );
+          System.exit ( 2 );
+      }
+    }
+    GameServer server = null;
+    InetSocketAddress address;
+    if ( host == null ) {
+      server = new GameServer ( new InetSocketAddress ( InetAddress.getLoopbackAddress(), 0 ), Runtime.getRuntime().availableProcessors() ).start();
+      address = new InetSocketAddress ( InetAddress.getLoopbackAddress(), server.getPort() );
+    } else {
+      address = new InetSocketAddress ( host, port );
+    }
+    try {
+      LoadTester tester = new LoadTester ( address, clientCount, size, computerFraction, think, (long) (rampUp * 1000), seed );
+      boolean clean = tester.run ( seconds * 1000L, csv );
+      if ( !clean ) {
+        System.exit ( 1 );
+      }
+    } finally {
+      if ( server != null ) {
+        server.close();
+      }
+    }
+  }
+
+  /**
+   * run
+   * Runs the test for the duration and prints the report.
+   * @param durationMillis the duration after the ramp-up, in milliseconds.
+   * @param csvHeader whether to print the CSV header before the CSV record.
+   * @return true if no request was rejected and no connection was dropped.
+   * @throws IOException if the server cannot be reached.
+   */
+  public boolean run ( long durationMillis, boolean csvHeader ) throws IOException {
+    ServerStats before;
+    try ( GameClient control = new GameClient ( address ) ) {
+      before = requestStats ( control );
+    }
+    long start = System.nanoTime();
+    for ( int i = 0; i < clients.length; i ++ ) {
+      schedule ( clients[i], Action.CONNECT, start + rampUpMillis * 1000000 * i / clients.length );
+    }
+    long measureStart = start + rampUpMillis * 1000000;
+    long end = measureStart + durationMillis * 1000000;
+    long movesAtMeasureStart = -1;
+    long gamesAtMeasureStart = 0;
+    while ( true ) {
+      long now = System.nanoTime();
+      if ( movesAtMeasureStart < 0 && now >= measureStart ) {
+        // the ramp-up is over: measure from here
+        movesAtMeasureStart = latencyCount;
+        gamesAtMeasureStart = games;
+      }
+      if ( now >= end ) {
+        break;
+      }
+      while ( !actions.isEmpty() && actions.peek().due <= now ) {
+        Action action = actions.poll();
+        perform ( action );
+      }
+      long wait = actions.isEmpty() ? end - now : Math.min ( end, actions.peek().due ) - now;
+      selector.select ( Math.max ( 1, wait / 1000000 ) );
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while ( keys.hasNext() ) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        SimulatedClient client = (SimulatedClient) key.attachment();
+        try {
+          if ( key.isValid() && key.isConnectable() && client.channel.finishConnect() ) {
+            key.interestOps ( SelectionKey.OP_READ );
+            send ( client, Protocol.findGame ( size, client.computer ? Protocol.OPPONENT_COMPUTER : Protocol.OPPONENT_HUMAN ) );
+          }
+          if ( key.isValid() && key.isReadable() ) {
+            read ( client );
+          }
+          if ( key.isValid() && key.isWritable() ) {
+            flush ( client );
+          }
+        } catch (IOException e) {
+          drop ( client );
+        }
+      }
+    }
+    running = false;
+    double seconds = durationMillis / 1000.0;
+    long moves = latencyCount - Math.max ( 0, movesAtMeasureStart );
+    long measuredGames = games - gamesAtMeasureStart;
+    ServerStats after;
+    try ( GameClient control = new GameClient ( address ) ) {
+      after = requestStats ( control );
+    }
+    for ( SimulatedClient client : clients ) {
+      if ( client.channel != null ) {
+        client.channel.close();
+      }
+    }
+    selector.close();
+    report ( seconds, moves, measuredGames, before, after, csvHeader );
+    return errors == 0;
+  }
+
+  /**
+   * requestStats
+   * @param control a connection to the server.
+   * @return the server's counters.
+   * @throws IOException if the server does not answer.
+   */
+  private static ServerStats requestStats ( GameClient control ) throws IOException {
+    control.stats();
+    Message message;
+    while ( (message = control.receive()).getType() != Protocol.SERVER_STATS ) {
+      // skip anything else
+    }
+    return message.getStats();
+  }
+
+  /**
+   * report
+   * Prints the results.
+   * @param seconds the measured duration in seconds.
+   * @param moves the number of moves in the measured duration.
+   * @param measuredGames the number of games finished in the measured duration.
+   * @param before the server's counters before the test.
+   * @param after the server's counters after the test.
+   * @param csvHeader whether to print the CSV header.
+   */
+  private void report ( double seconds, long moves, long measuredGames, ServerStats before, ServerStats after, boolean csvHeader ) {
+    long[] sorted = Arrays.copyOf ( latencies, latencyCount );
+    Arrays.sort ( sorted );
+    long cpuMillis = before.getProcessCpuNanos() < 0 ? -1 : (after.getProcessCpuNanos() - before.getProcessCpuNanos()) / 1000000;
+    double wallMillis = seconds * 1000 + rampUpMillis;
+    double cpuPercent = cpuMillis < 0 ? -1 : 100.0 * cpuMillis / wallMillis;
+    long heapMegabytes = after.getHeapUsed() / (1024 * 1024);
+    System.out.printf ( "%d clients, %dx%dx%d boards, %.0f%% against the computer, think time median %.0f ms%n", clients.length, size, size, size,
+                        computerFraction * 100, thinkMillis );
+    System.out.printf ( "moves: %d (%.0f/s), games: %d (%.1f/s), errors: %d%n", moves, moves / seconds, measuredGames, measuredGames / seconds, errors );
+    System.out.printf ( "move round trip (us): p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n", percentile ( sorted, 0.5 ), percentile ( sorted, 0.9 ),
+                        percentile ( sorted, 0.99 ), percentile ( sorted, 0.999 ), sorted.length == 0 ? 0 : sorted[sorted.length - 1] );
+    System.out.printf ( "server: %d ms CPU (%.1f%% of one core), heap %d / %d MB, %d connections, %d active games%n", cpuMillis, cpuPercent,
+                        heapMegabytes, after.getHeapMax() / (1024 * 1024), after.getConnectionCount(), after.getActiveGameCount() );
+    if ( csvHeader ) {
+      System.out.println ( CSV_HEADER );
+    }
+    System.out.printf ( "%d,%.0f,%d,%d,%d,%.1f,%.2f,%d,%d,%d,%d,%d,%d,%d,%.1f,%d%n", clients.length, seconds, size, moves, measuredGames,
+                        moves / seconds, measuredGames / seconds, percentile ( sorted, 0.5 ), percentile ( sorted, 0.9 ), percentile ( sorted, 0.99 ),
+                        percentile ( sorted, 0.999 ), sorted.length == 0 ? 0 : sorted[sorted.length - 1], errors, cpuMillis, cpuPercent, heapMegabytes );
+  }
+
+  /**
+   * percentile
+   * @param sorted the sorted values.
+   * @param fraction the percentile as a fraction, e.g., 0.99.
+   * @return the value at the percentile, or 0 if there are no values.
+   */
+  private static long percentile ( long[] sorted, double fraction ) {
+    return sorted.length == 0 ? 0 : sorted[(int) Math.min ( sorted.length - 1, Math.floor ( fraction * sorted.length ) )];
+  }
+
+  /**
+   * perform
+   * Performs a due action of a client.
+   * @param action the action.
+   */
+  private void perform ( Action action ) {
+    SimulatedClient client = action.client;
+    if ( action.kind != Action.CONNECT && client.channel == null ) {
+      // dropped
+      return;
+    }
+    try {
+      switch ( action.kind ) {
+        case Action.CONNECT:
+          client.channel = SocketChannel.open();
+          client.channel.configureBlocking ( false );
+          client.channel.setOption ( StandardSocketOptions.TCP_NODELAY, true );
+          if ( client.channel.connect ( address ) ) {
+            client.key = client.channel.register ( selector, SelectionKey.OP_READ, client );
+            send ( client, Protocol.findGame ( size, client.computer ? Protocol.OPPONENT_COMPUTER : Protocol.OPPONENT_HUMAN ) );
+          } else {
+            client.key = client.channel.register ( selector, SelectionKey.OP_CONNECT, client );
+          }
+          break;
+        case Action.FIND_GAME:
+          send ( client, Protocol.findGame ( size, client.computer ? Protocol.OPPONENT_COMPUTER : Protocol.OPPONENT_HUMAN ) );
+          break;
+        case Action.MOVE:
+          if ( client.board != null && !client.board.isGameOver() && client.board.getPlayerToMove() == client.playerNo ) {
+            int pillar;
+            do {
+              pillar = client.random.nextInt ( client.board.getPillarCount() );
+            } while ( !client.board.isPillarAvailable ( pillar ) );
+            client.moveSentNanos = System.nanoTime();
+            send ( client, Protocol.move ( pillar ) );
+          }
+          break;
+        default:
+          break;
+      }
+    } catch (IOException e) {
+      drop ( client );
+    }
+  }
+
+  /**
+   * read
+   * Reads from a client's channel and handles the server's messages.
+   * @param client the client.
+   * @throws IOException if the connection fails or the server closes it.
+   */
+  private void read ( SimulatedClient client ) throws IOException {
+    if ( client.channel.read ( client.in ) < 0 ) {
+      throw new IOException ( "Closed by the server" );
+    }
+    client.in.flip();
+    try {
+      Message message;
+      while ( (message = Message.read ( client.in )) != null ) {
+        handle ( client, message );
+      }
+    } finally {
+      client.in.compact();
+    }
+  }
+
+  /**
+   * handle
+   * Plays a client's part on a server message.
+   * @param client the client.
+   * @param message the message.
+   */
+  private void handle ( SimulatedClient client, Message message ) {
+    long now = System.nanoTime();
+    switch ( message.getType() ) {
+      case Protocol.GAME_START:
+        client.board = new Board ( message.getSize() );
+        client.playerNo = message.getPlayerNo();
+        if ( client.playerNo == 1 ) {
+          schedule ( client, Action.MOVE, now + thinkTime ( client ) );
+        }
+        break;
+      case Protocol.MOVE_PLAYED:
+        client.board.drop ( message.getPillar() );
+        if ( message.getPlayerNo() == client.playerNo && client.moveSentNanos != 0 ) {
+          recordLatency ( (now - client.moveSentNanos) / 1000 );
+          client.moveSentNanos = 0;
+        }
+        if ( !client.board.isGameOver() && client.board.getPlayerToMove() == client.playerNo ) {
+          schedule ( client, Action.MOVE, now + thinkTime ( client ) );
+        }
+        break;
+      case Protocol.GAME_OVER:
+        games ++;
+        client.board = null;
+        client.playerNo = 0;
+        schedule ( client, Action.FIND_GAME, now + thinkTime ( client ) );
+        break;
+      case Protocol.ERROR:
+        errors ++;
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * thinkTime
+   * @param client the client.
+   * @return a log-normal think time in nanoseconds with the median thinkMillis.
+   */
+  private long thinkTime ( SimulatedClient client ) {
+    return (long) (thinkMillis * 1000000 * Math.exp ( THINK_TIME_SIGMA * client.random.nextGaussian() ));
+  }
+
+  /**
+   * schedule
+   * Schedules an action of a client, unless the test is over.
+   * @param client the client.
+   * @param kind the action.
+   * @param due the time (System.nanoTime()) of the action.
+   */
+  private void schedule ( SimulatedClient client, int kind, long due ) {
+    if ( running ) {
+      actions.add ( new Action ( client, kind, due ) );
+    }
+  }
+
+  /**
+   * recordLatency
+   * @param micros a move round trip in microseconds.
+   */
+  private void recordLatency ( long micros ) {
+    if ( latencyCount == latencies.length ) {
+      latencies = Arrays.copyOf ( latencies, latencies.length * 2 );
+    }
+    latencies[latencyCount ++] = micros;
+  }
+
+  /**
+   * send
+   * Sends a frame, queueing what the socket does not take at once.
+   * @param client the client.
+   * @param frame the frame.
+   * @throws IOException if the connection fails.
+   */
+  private void send ( SimulatedClient client, ByteBuffer frame ) throws IOException {
+    if ( client.out.isEmpty() && client.key.isValid() && (client.key.interestOps() & SelectionKey.OP_CONNECT) == 0 ) {
+      client.channel.write ( frame );
+    }
+    if ( frame.hasRemaining() ) {
+      client.out.add ( frame );
+      if ( (client.key.interestOps() & SelectionKey.OP_CONNECT) == 0 ) {
+        client.key.interestOps ( SelectionKey.OP_READ | SelectionKey.OP_WRITE );
+      }
+    }
+  }
+
+  /**
+   * flush
+   * Writes the queued frames of a client.
+   * @param client the client.
+   * @throws IOException if the connection fails.
+   */
+  private void flush ( SimulatedClient client ) throws IOException {
+    while ( !client.out.isEmpty() ) {
+      ByteBuffer frame = client.out.peek();
+      client.channel.write ( frame );
+      if ( frame.hasRemaining() ) {
+        return;
+      }
+      client.out.poll();
+    }
+    client.key.interestOps ( SelectionKey.OP_READ );
+  }
+
+  /**
+   * drop
+   * Closes a failed connection and counts it as an error.
+   * @param client the client.
+   */
+  private void drop ( SimulatedClient client ) {
+    errors ++;
+    if ( client.key != null ) {
+      client.key.cancel();
+    }
+    try {
+      client.channel.close();
+    } catch (IOException e) {
+      // already closed
+    }
+    client.channel = null;
+    client.board = null;
+  }
+
+  /**
+   * SimulatedClient
+   * The state of a simulated player.
+   */
+  private static final class SimulatedClient {
+
+    /**
+     * The random source of the moves and think times.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Whether the client plays against the computer player.
+     */
+    private final boolean computer;
+
+    /**
+     * The received bytes that are not a complete message yet.
+     */
+    private final ByteBuffer in = ByteBuffer.allocate ( Protocol.MAX_FRAME_SIZE * 4 );
+
+    /**
+     * The frames that the socket has not taken yet.
+     */
+    private final Queue<ByteBuffer> out = new ArrayDeque<>( 2 );
+
+    /**
+     * The channel, or null before the connection and after a failure.
+     */
+    private SocketChannel channel;
+
+    /**
+     * The selection key of the channel.
+     */
+    private SelectionKey key;
+
+    /**
+     * The position of the current game, or null.
+     */
+    private Board board;
+
+    /**
+     * The player number in the current game.
+     */
+    private int playerNo;
+
+    /**
+     * The time (System.nanoTime()) the last move was sent, or 0 if its MOVE_PLAYED has arrived.
+     */
+    private long moveSentNanos;
+
+    /**
+     * The constructor.
+     * @param random the random source.
+     * @param computer whether the client plays against the computer player.
+     */
+    private SimulatedClient ( SplittableRandom random, boolean computer ) {
+      this.random = random;
+      this.computer = computer;
+    }
+  }
+
+  /**
+   * Action
+   * A timed action of a simulated client.
+   */
+  private static final class Action {
+
+    /**
+     * Connect to the server and ask for a game.
+     */
+    private static final int CONNECT = 0;
+
+    /**
+     * Ask for the next game.
+     */
+    private static final int FIND_GAME = 1;
+
+    /**
+     * Play a move.
+     */
+    private static final int MOVE = 2;
+
+    /**
+     * The client.
+     */
+    private final SimulatedClient client;
+
+    /**
+     * The action, one of the constants.
+     */
+    private final int kind;
+
+    /**
+     * The time (System.nanoTime()) of the action.
+     */
+    private final long due;
+
+    /**
+     * The constructor.
+     * @param client the client.
+     * @param kind the action.
+     * @param due the time of the action.
+     */
+    private Action ( SimulatedClient client, int kind, long due ) {
+      this.client = client;
+      this.kind = kind;
+      this.due = due;
+    }
+  }
+}
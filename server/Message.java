@@ -0,0 +1,300 @@
+package scoreFourGame.server;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Message
+ * A decoded frame of the Protocol. Only the fields of the message type are set; the others are 0.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class Message {
+
+  // =============== VARIABLES ===============
+  /**
+   * The message type, a Protocol constant.
+   */
+  private final int type;
+
+  /**
+   * The first small field: size, pillar, playerNo, result, code or first ply, by type.
+   */
+  private final int first;
+
+  /**
+   * The second small field: opponent, playerNo, pillar, reason or move count, by type.
+   */
+  private final int second;
+
+  /**
+   * The game id of GAME_START, WATCH and WATCHING.
+   */
+  private final int gameId;
+
+  /**
+   * The seed of GAME_START and WATCHING or the nonce of PING and PONG.
+   */
+  private final long value;
+
+  /**
+   * The counters of SERVER_STATS, or null.
+   */
+  private final ServerStats stats;
+
+  /**
+   * The pillars of MOVES, or null.
+   */
+  private final int[] pillars;
+
+  /**
+   * The constructor.
+   * @param type the message type.
+   * @param first the first small field.
+   * @param second the second small field.
+   * @param gameId the game id.
+   * @param value the seed or nonce.
+   */
+  private Message ( int type, int first, int second, int gameId, long value ) {
+    this ( type, first, second, gameId, value, null );
+  }
+
+  /**
+   * The constructor.
+   * @param type the message type.
+   * @param first the first small field.
+   * @param second the second small field.
+   * @param gameId the game id.
+   * @param value the seed or nonce.
+   * @param stats the counters of SERVER_STATS, or null.
+   */
+  private Message ( int type, int first, int second, int gameId, long value, ServerStats stats ) {
+    this ( type, first, second, gameId, value, stats, null );
+  }
+
+  /**
+   * The constructor.
+   * @param type the message type.
+   * @param first the first small field.
+   * @param second the second small field.
+   * @param gameId the game id.
+   * @param value the seed or nonce.
+   * @param stats the counters of SERVER_STATS, or null.
+   * @param pillars the pillars of MOVES, or null.
+   */
+  private Message ( int type, int first, int second, int gameId, long value, ServerStats stats, int[] pillars ) {
+    this.type = type;
+    this.first = first;
+    this.second = second;
+    this.gameId = gameId;
+    this.value = value;
+    this.stats = stats;
+    this.pillars = pillars;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * read
+   * Decodes the next frame of the buffer if it is complete.
+   * @param buffer the received bytes, in read mode. On success it is positioned after the frame; otherwise it is
+   *        unchanged.
+   * @return the message, or null if the frame is not complete yet.
+   * @throws IOException if the frame is malformed.
+   */
+  public static Message read ( ByteBuffer buffer ) throws IOException {
+    if ( buffer.remaining() < Protocol.LENGTH_SIZE ) {
+      return null;
+    }
+    int start = buffer.position();
+    int length = buffer.getShort ( start ) & 0xFFFF;
+    if ( length < 1 || length > Protocol.MAX_FRAME_SIZE - Protocol.LENGTH_SIZE ) {
+      throw new IOException ( "Invalid frame length " + length );
+    }
+    if ( buffer.remaining() < Protocol.LENGTH_SIZE + length ) {
+      return null;
+    }
+    int type = buffer.get ( start + Protocol.LENGTH_SIZE ) & 0xFF;
+    ByteBuffer payload = buffer.slice ( start + Protocol.LENGTH_SIZE + 1, length - 1 );
+    buffer.position ( start + Protocol.LENGTH_SIZE + length );
+    try {
+      switch ( type ) {
+        case Protocol.FIND_GAME:
+          return new Message ( type, payload.get() & 0xFF, payload.get() & 0xFF, 0, 0 );
+        case Protocol.MOVE:
+          return new Message ( type, payload.getShort() & 0xFFFF, 0, 0, 0 );
+        case Protocol.PING:
+        case Protocol.PONG:
+          return new Message ( type, 0, 0, 0, payload.getLong() );
+        case Protocol.WAITING:
+        case Protocol.ERROR:
+        case Protocol.EXHIBITION:
+          return new Message ( type, payload.get() & 0xFF, 0, 0, 0 );
+        case Protocol.GAME_START: {
+          int gameId = payload.getInt();
+          int size = payload.get() & 0xFF;
+          return new Message ( type, size, payload.get() & 0xFF, gameId, payload.getLong() );
+        }
+        case Protocol.WATCH:
+          return new Message ( type, 0, 0, payload.getInt(), 0 );
+        case Protocol.WATCHING: {
+          int gameId = payload.getInt();
+          int size = payload.get() & 0xFF;
+          long seed = payload.getLong();
+          return new Message ( type, size, payload.getShort() & 0xFFFF, gameId, seed );
+        }
+        case Protocol.MOVES: {
+          int firstPly = payload.getShort() & 0xFFFF;
+          int[] pillars = new int[payload.remaining()];
+          for ( int i = 0; i < pillars.length; i ++ ) {
+            pillars[i] = payload.get() & 0xFF;
+          }
+          return new Message ( type, firstPly, 0, 0, 0, null, pillars );
+        }
+        case Protocol.MOVE_PLAYED:
+          return new Message ( type, payload.get() & 0xFF, payload.getShort() & 0xFFFF, 0, 0 );
+        case Protocol.GAME_OVER:
+          return new Message ( type, payload.get() & 0xFF, payload.get() & 0xFF, 0, 0 );
+        case Protocol.SERVER_STATS:
+          return new Message ( type, 0, 0, 0, 0, new ServerStats ( payload.getInt(), payload.getInt(), payload.getLong(), payload.getLong(),
+                                                                 payload.getLong(), payload.getLong(), payload.getLong() ) );
+        default:
+          // RESIGN, STATS, or an unknown type that the receiver rejects
+          return new Message ( type, 0, 0, 0, 0 );
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IOException ( "Truncated message of type " + type );
+    }
+  }
+
+  /**
+   * getType
+   * @return the message type, a Protocol constant.
+   */
+  public int getType() {
+    return type;
+  }
+
+  /**
+   * getSize
+   * @return the board size of FIND_GAME, WAITING, GAME_START, EXHIBITION and WATCHING.
+   */
+  public int getSize() {
+    return type == Protocol.FIND_GAME || type == Protocol.WAITING || type == Protocol.GAME_START
+      || type == Protocol.EXHIBITION || type == Protocol.WATCHING ? first : 0;
+  }
+
+  /**
+   * getOpponent
+   * @return the opponent of FIND_GAME.
+   */
+  public int getOpponent() {
+    return type == Protocol.FIND_GAME ? second : 0;
+  }
+
+  /**
+   * getPillar
+   * @return the pillar of MOVE and MOVE_PLAYED.
+   */
+  public int getPillar() {
+    return type == Protocol.MOVE ? first : type == Protocol.MOVE_PLAYED ? second : 0;
+  }
+
+  /**
+   * getPlayerNo
+   * @return the player number of GAME_START (the receiver's) and MOVE_PLAYED (the mover's).
+   */
+  public int getPlayerNo() {
+    return type == Protocol.GAME_START ? second : type == Protocol.MOVE_PLAYED ? first : 0;
+  }
+
+  /**
+   * getGameId
+   * @return the game id of GAME_START, WATCH and WATCHING.
+   */
+  public int getGameId() {
+    return gameId;
+  }
+
+  /**
+   * getSeed
+   * @return the game seed of GAME_START and WATCHING.
+   */
+  public long getSeed() {
+    return type == Protocol.GAME_START || type == Protocol.WATCHING ? value : 0;
+  }
+
+  /**
+   * getMoveCount
+   * @return the number of moves of WATCHING, sent in the MOVES messages that follow.
+   */
+  public int getMoveCount() {
+    return type == Protocol.WATCHING ? second : 0;
+  }
+
+  /**
+   * getFirstPly
+   * @return the index in the game of the first move of MOVES.
+   */
+  public int getFirstPly() {
+    return type == Protocol.MOVES ? first : 0;
+  }
+
+  /**
+   * getPillars
+   * @return the pillars of the moves of MOVES, or null.
+   */
+  public int[] getPillars() {
+    return pillars == null ? null : pillars.clone();
+  }
+
+  /**
+   * getNonce
+   * @return the nonce of PING and PONG.
+   */
+  public long getNonce() {
+    return type == Protocol.PING || type == Protocol.PONG ? value : 0;
+  }
+
+  /**
+   * getResult
+   * @return the result of GAME_OVER, a GameRecord.RESULT_ constant.
+   */
+  public int getResult() {
+    return type == Protocol.GAME_OVER ? first : 0;
+  }
+
+  /**
+   * getReason
+   * @return the reason of GAME_OVER, a Protocol.REASON_ constant.
+   */
+  public int getReason() {
+    return type == Protocol.GAME_OVER ? second : 0;
+  }
+
+  /**
+   * getCode
+   * @return the code of ERROR, a Protocol.ERROR_ constant.
+   */
+  public int getCode() {
+    return type == Protocol.ERROR ? first : 0;
+  }
+
+  /**
+   * getStats
+   * @return the counters of SERVER_STATS, or null.
+   */
+  public ServerStats getStats() {
+    return stats;
+  }
+
+  /**
+   * toString
+   * @return the message type and fields, for logs.
+   */
+  @Override
+  public String toString() {
+    return "Message type 0x" + Integer.toHexString ( type ) + " (" + first + ", " + second + ", " + gameId + ", " + value + ")";
+  }
+}
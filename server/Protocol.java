@@ -0,0 +1,371 @@
+package scoreFourGame.server;
+import java.nio.ByteBuffer;
+
+/**
+ * Protocol
+ * The binary protocol between GameServer and GameClient. Every message is a frame:
+ * <pre>
+ * frame = length (2 bytes, big-endian, the number of bytes that follow), type (1 byte), payload
+ * </pre>
+ * Client to server:
+ * <pre>
+ * FIND_GAME  size (1), opponent (1: OPPONENT_HUMAN or OPPONENT_COMPUTER)
+ * MOVE       pillar (2)
+ * RESIGN
+ * PING       nonce (8)
+ * STATS                                                 asks for the server's counters, e.g., for a load test
+ * WATCH      gameId (4)                                 watch a live game
+ * EXHIBITION size (1)                                   watch the computer play itself, in a new game if none runs
+ * </pre>
+ * Server to client:
+ * <pre>
+ * WAITING     size (1)                                  no opponent of the size yet
+ * GAME_START  gameId (4), size (1), playerNo (1), seed (8)
+ * MOVE_PLAYED playerNo (1), pillar (2)                  every move of the game, the client's own moves included
+ * GAME_OVER   result (1: a GameRecord.RESULT_ constant), reason (1: a REASON_ constant)
+ * ERROR       code (1: an ERROR_ constant)               the request is ignored; the connection stays open
+ * PONG        nonce (8)
+ * SERVER_STATS connections (4), activeGames (4), gamesStarted (8), movesPlayed (8), processCpuNanos (8),
+ *             heapUsed (8), heapMax (8)                 see ServerStats
+ * WATCHING    gameId (4), size (1), seed (8), moveCount (2)  the position of the watched game; MOVES follow
+ * MOVES       firstPly (2), pillar (1) ...              up to MAX_MOVES_PER_FRAME moves of a WATCHING position
+ * </pre>
+ * A client plays one game at a time and may send FIND_GAME again after GAME_OVER. Player 1 moves first.<p>
+ * A spectator receives WATCHING and its MOVES, then MOVE_PLAYED for every move and GAME_OVER at the end. A
+ * spectator that falls behind receives a new WATCHING with all the moves instead of the ones it missed, so it
+ * should reset its board on every WATCHING. FIND_GAME or another WATCH stops watching.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class Protocol {
+
+  // =============== VARIABLES ===============
+  /**
+   * The largest frame, length field included. A longer length closes the connection.
+   */
+  public static final int MAX_FRAME_SIZE = 64;
+
+  /**
+   * The size of the length field.
+   */
+  public static final int LENGTH_SIZE = 2;
+
+  /**
+   * Client message: find an opponent and start a game.
+   */
+  public static final int FIND_GAME = 0x01;
+
+  /**
+   * Client message: drop a bead in a pillar.
+   */
+  public static final int MOVE = 0x02;
+
+  /**
+   * Client message: resign the current game.
+   */
+  public static final int RESIGN = 0x03;
+
+  /**
+   * Client message: ask for a PONG with the same nonce, e.g., to measure the round trip.
+   */
+  public static final int PING = 0x04;
+
+  /**
+   * Client message: ask for a SERVER_STATS.
+   */
+  public static final int STATS = 0x05;
+
+  /**
+   * Client message: watch a live game.
+   */
+  public static final int WATCH = 0x06;
+
+  /**
+   * Client message: watch a computer-vs-computer game of a board size.
+   */
+  public static final int EXHIBITION = 0x07;
+
+  /**
+   * Server message: the client waits for an opponent.
+   */
+  public static final int WAITING = 0x81;
+
+  /**
+   * Server message: a game has started.
+   */
+  public static final int GAME_START = 0x82;
+
+  /**
+   * Server message: a move was played.
+   */
+  public static final int MOVE_PLAYED = 0x83;
+
+  /**
+   * Server message: the game is over.
+   */
+  public static final int GAME_OVER = 0x84;
+
+  /**
+   * Server message: the last request was rejected.
+   */
+  public static final int ERROR = 0x85;
+
+  /**
+   * Server message: the answer to a PING.
+   */
+  public static final int PONG = 0x86;
+
+  /**
+   * Server message: the answer to a STATS.
+   */
+  public static final int SERVER_STATS = 0x87;
+
+  /**
+   * Server message: the position of the watched game.
+   */
+  public static final int WATCHING = 0x88;
+
+  /**
+   * Server message: moves of the WATCHING position.
+   */
+  public static final int MOVES = 0x89;
+
+  /**
+   * The largest number of moves in a MOVES frame.
+   */
+  public static final int MAX_MOVES_PER_FRAME = MAX_FRAME_SIZE - LENGTH_SIZE - 1 - 2;
+
+  /**
+   * FIND_GAME opponent: another client asking for a human opponent of the same board size.
+   */
+  public static final int OPPONENT_HUMAN = 0;
+
+  /**
+   * FIND_GAME opponent: the computer player of the server.
+   */
+  public static final int OPPONENT_COMPUTER = 1;
+
+  /**
+   * GAME_OVER reason: a player completed a line or the board is full.
+   */
+  public static final int REASON_FINISHED = 0;
+
+  /**
+   * GAME_OVER reason: a player resigned.
+   */
+  public static final int REASON_RESIGNED = 1;
+
+  /**
+   * GAME_OVER reason: a player disconnected.
+   */
+  public static final int REASON_DISCONNECTED = 2;
+
+  /**
+   * ERROR code: the message is not valid in the client's state, e.g., MOVE outside a game.
+   */
+  public static final int ERROR_UNEXPECTED = 1;
+
+  /**
+   * ERROR code: the board size is not supported.
+   */
+  public static final int ERROR_BAD_SIZE = 2;
+
+  /**
+   * ERROR code: it is not the client's turn.
+   */
+  public static final int ERROR_NOT_YOUR_TURN = 3;
+
+  /**
+   * ERROR code: the pillar is full or does not exist.
+   */
+  public static final int ERROR_ILLEGAL_MOVE = 4;
+
+  /**
+   * ERROR code: the message type is unknown.
+   */
+  public static final int ERROR_UNKNOWN_MESSAGE = 5;
+
+  /**
+   * ERROR code: there is no live game with the id.
+   */
+  public static final int ERROR_NO_SUCH_GAME = 6;
+
+  /**
+   * No instances.
+   */
+  private Protocol() {
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * findGame
+   * @param size the board size.
+   * @param opponent OPPONENT_HUMAN or OPPONENT_COMPUTER.
+   * @return the FIND_GAME frame, ready to write.
+   */
+  public static ByteBuffer findGame ( int size, int opponent ) {
+    return frame ( FIND_GAME, 2 ).put ( (byte) size ).put ( (byte) opponent ).flip();
+  }
+
+  /**
+   * move
+   * @param pillar the pillar index.
+   * @return the MOVE frame, ready to write.
+   */
+  public static ByteBuffer move ( int pillar ) {
+    return frame ( MOVE, 2 ).putShort ( (short) pillar ).flip();
+  }
+
+  /**
+   * resign
+   * @return the RESIGN frame, ready to write.
+   */
+  public static ByteBuffer resign() {
+    return frame ( RESIGN, 0 ).flip();
+  }
+
+  /**
+   * ping
+   * @param nonce the value to echo.
+   * @return the PING frame, ready to write.
+   */
+  public static ByteBuffer ping ( long nonce ) {
+    return frame ( PING, 8 ).putLong ( nonce ).flip();
+  }
+
+  /**
+   * stats
+   * @return the STATS frame, ready to write.
+   */
+  public static ByteBuffer stats() {
+    return frame ( STATS, 0 ).flip();
+  }
+
+  /**
+   * watch
+   * @param gameId the id of the game to watch.
+   * @return the WATCH frame, ready to write.
+   */
+  public static ByteBuffer watch ( int gameId ) {
+    return frame ( WATCH, 4 ).putInt ( gameId ).flip();
+  }
+
+  /**
+   * exhibition
+   * @param size the board size.
+   * @return the EXHIBITION frame, ready to write.
+   */
+  public static ByteBuffer exhibition ( int size ) {
+    return frame ( EXHIBITION, 1 ).put ( (byte) size ).flip();
+  }
+
+  /**
+   * watching
+   * @param gameId the game id.
+   * @param size the board size.
+   * @param seed the game seed.
+   * @param moveCount the number of moves played, sent in the MOVES frames that follow.
+   * @return the WATCHING frame, ready to write.
+   */
+  public static ByteBuffer watching ( int gameId, int size, long seed, int moveCount ) {
+    return frame ( WATCHING, 15 ).putInt ( gameId ).put ( (byte) size ).putLong ( seed ).putShort ( (short) moveCount ).flip();
+  }
+
+  /**
+   * moves
+   * @param moves the pillars of the moves.
+   * @param firstPly the index of the first move to send.
+   * @param count the number of moves to send, at most MAX_MOVES_PER_FRAME.
+   * @return the MOVES frame, ready to write.
+   */
+  public static ByteBuffer moves ( int[] moves, int firstPly, int count ) {
+    ByteBuffer frame = frame ( MOVES, 2 + count ).putShort ( (short) firstPly );
+    for ( int i = 0; i < count; i ++ ) {
+      frame.put ( (byte) moves[firstPly + i] );
+    }
+    return frame.flip();
+  }
+
+  /**
+   * serverStats
+   * @param stats the counters.
+   * @return the SERVER_STATS frame, ready to write.
+   */
+  public static ByteBuffer serverStats ( ServerStats stats ) {
+    return frame ( SERVER_STATS, 48 ).putInt ( stats.getConnectionCount() ).putInt ( stats.getActiveGameCount() )
+      .putLong ( stats.getGamesStarted() ).putLong ( stats.getMovesPlayed() ).putLong ( stats.getProcessCpuNanos() )
+      .putLong ( stats.getHeapUsed() ).putLong ( stats.getHeapMax() ).flip();
+  }
+
+  /**
+   * waiting
+   * @param size the board size.
+   * @return the WAITING frame, ready to write.
+   */
+  public static ByteBuffer waiting ( int size ) {
+    return frame ( WAITING, 1 ).put ( (byte) size ).flip();
+  }
+
+  /**
+   * gameStart
+   * @param gameId the game id.
+   * @param size the board size.
+   * @param playerNo the player number of the client, 1 or 2.
+   * @param seed the game seed.
+   * @return the GAME_START frame, ready to write.
+   */
+  public static ByteBuffer gameStart ( int gameId, int size, int playerNo, long seed ) {
+    return frame ( GAME_START, 14 ).putInt ( gameId ).put ( (byte) size ).put ( (byte) playerNo ).putLong ( seed ).flip();
+  }
+
+  /**
+   * movePlayed
+   * @param playerNo the player number of the move.
+   * @param pillar the pillar index.
+   * @return the MOVE_PLAYED frame, ready to write.
+   */
+  public static ByteBuffer movePlayed ( int playerNo, int pillar ) {
+    return frame ( MOVE_PLAYED, 3 ).put ( (byte) playerNo ).putShort ( (short) pillar ).flip();
+  }
+
+  /**
+   * gameOver
+   * @param result the result, a GameRecord.RESULT_ constant.
+   * @param reason a REASON_ constant.
+   * @return the GAME_OVER frame, ready to write.
+   */
+  public static ByteBuffer gameOver ( int result, int reason ) {
+    return frame ( GAME_OVER, 2 ).put ( (byte) result ).put ( (byte) reason ).flip();
+  }
+
+  /**
+   * error
+   * @param code an ERROR_ constant.
+   * @return the ERROR frame, ready to write.
+   */
+  public static ByteBuffer error ( int code ) {
+    return frame ( ERROR, 1 ).put ( (byte) code ).flip();
+  }
+
+  /**
+   * pong
+   * @param nonce the nonce of the PING.
+   * @return the PONG frame, ready to write.
+   */
+  public static ByteBuffer pong ( long nonce ) {
+    return frame ( PONG, 8 ).putLong ( nonce ).flip();
+  }
+
+  /**
+   * frame
+   * Allocates a frame and writes its length and type.
+   * @param type the message type.
+   * @param payloadSize the size of the payload.
+   * @return the buffer, positioned at the payload.
+   */
+  private static ByteBuffer frame ( int type, int payloadSize ) {
+    return ByteBuffer.allocate ( LENGTH_SIZE + 1 + payloadSize ).putShort ( (short) (1 + payloadSize) ).put ( (byte) type );
+  }
+}
@@ -0,0 +1,136 @@
+package scoreFourGame.server;
+
+/**
+ * ServerStats
+ * A snapshot of the counters of a GameServer and of the process it runs in, as sent in a SERVER_STATS message.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public final class ServerStats {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of open connections.
+   */
+  private final int connectionCount;
+
+  /**
+   * The number of games in progress.
+   */
+  private final int activeGameCount;
+
+  /**
+   * The number of games started.
+   */
+  private final long gamesStarted;
+
+  /**
+   * The number of moves played in all games.
+   */
+  private final long movesPlayed;
+
+  /**
+   * The CPU time of the server process in nanoseconds, or -1 if the JVM does not report it.
+   */
+  private final long processCpuNanos;
+
+  /**
+   * The used heap of the server process in bytes.
+   */
+  private final long heapUsed;
+
+  /**
+   * The maximum heap of the server process in bytes.
+   */
+  private final long heapMax;
+
+  /**
+   * The constructor.
+   * @param connectionCount the number of open connections.
+   * @param activeGameCount the number of games in progress.
+   * @param gamesStarted the number of games started.
+   * @param movesPlayed the number of moves played.
+   * @param processCpuNanos the CPU time of the process in nanoseconds, or -1.
+   * @param heapUsed the used heap in bytes.
+   * @param heapMax the maximum heap in bytes.
+   */
+  public ServerStats ( int connectionCount, int activeGameCount, long gamesStarted, long movesPlayed, long processCpuNanos,
+                       long heapUsed, long heapMax ) {
+    this.connectionCount = connectionCount;
+    this.activeGameCount = activeGameCount;
+    this.gamesStarted = gamesStarted;
+    this.movesPlayed = movesPlayed;
+    this.processCpuNanos = processCpuNanos;
+    this.heapUsed = heapUsed;
+    this.heapMax = heapMax;
+  }
+
+  // =============== METHODS ===============
+
+  /**
+   * getConnectionCount
+   * @return the number of open connections.
+   */
+  public int getConnectionCount() {
+    return connectionCount;
+  }
+
+  /**
+   * getActiveGameCount
+   * @return the number of games in progress.
+   */
+  public int getActiveGameCount() {
+    return activeGameCount;
+  }
+
+  /**
+   * getGamesStarted
+   * @return the number of games started.
+   */
+  public long getGamesStarted() {
+    return gamesStarted;
+  }
+
+  /**
+   * getMovesPlayed
+   * @return the number of moves played in all games.
+   */
+  public long getMovesPlayed() {
+    return movesPlayed;
+  }
+
+  /**
+   * getProcessCpuNanos
+   * @return the CPU time of the server process in nanoseconds, or -1 if it is not known.
+   */
+  public long getProcessCpuNanos() {
+    return processCpuNanos;
+  }
+
+  /**
+   * getHeapUsed
+   * @return the used heap of the server process in bytes.
+   */
+  public long getHeapUsed() {
+    return heapUsed;
+  }
+
+  /**
+   * getHeapMax
+   * @return the maximum heap of the server process in bytes.
+   */
+  public long getHeapMax() {
+    return heapMax;
+  }
+
+  /**
+   * toString
+   * @return the counters, for logs.
+   */
+  @Override
+  public String toString() {
+    return connectionCount + " connections, " + activeGameCount + " active games, " + gamesStarted + " games started, " + movesPlayed
+      + " moves, CPU " + processCpuNanos / 1000000 + " ms, heap " + heapUsed / (1024 * 1024) + " / " + heapMax / (1024 * 1024) + " MB";
+  }
+}
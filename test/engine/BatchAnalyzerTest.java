@@ -0,0 +1,128 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BatchAnalyzerTest
+ * On a pool of several threads, positions of very different cost finish out of order: an empty 5x5x5 board takes a
+ * full search, a win on the next move takes one ply and an illegal game none. The ordered results must still come in
+ * input order, and every result, ordered or not, must carry the id of its own position.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class BatchAnalyzerTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of worker threads.
+   */
+  private static final int THREADS = 4;
+
+  /**
+   * The search depth.
+   */
+  private static final int DEPTH = 5;
+
+  /**
+   * The number of positions.
+   */
+  private static final int POSITIONS = 48;
+
+  /**
+   * The id of the first position; the ids are not the input indexes, so that a result tagged with its index fails.
+   */
+  private static final long FIRST_ID = 1000;
+
+  // =============== METHODS ===============
+
+  /**
+   * orderedAndTagged
+   * The ordered results come in input order and match their positions, while the unordered ones, from the same
+   * positions, show that the positions did finish out of order.
+   */
+  @Test
+  public void orderedAndTagged() {
+    List<BatchAnalyzer.Request> requests = new ArrayList<>();
+    for ( int i = 0; i < POSITIONS; i ++ ) {
+      requests.add ( request ( i ) );
+    }
+    BatchAnalyzer analyzer = new BatchAnalyzer ( THREADS, DEPTH, 0 );
+    try {
+      List<BatchAnalyzer.Result> unordered = new ArrayList<>();
+      assertEquals ( POSITIONS, analyzer.analyze ( requests.iterator(), false, unordered::add ) );
+      List<Long> completionOrder = new ArrayList<>();
+      for ( BatchAnalyzer.Result result : unordered ) {
+        completionOrder.add ( result.id );
+        assertResult ( (int) (result.id - FIRST_ID), result );
+      }
+      List<Long> inputOrder = new ArrayList<>();
+      for ( BatchAnalyzer.Request request : requests ) {
+        inputOrder.add ( request.id );
+      }
+      assertNotEquals ( inputOrder, completionOrder, "The positions finished in input order" );
+      completionOrder.sort ( null );
+      assertEquals ( inputOrder, completionOrder );
+
+      List<BatchAnalyzer.Result> ordered = new ArrayList<>();
+      assertEquals ( POSITIONS, analyzer.analyze ( requests.iterator(), true, ordered::add ) );
+      assertEquals ( POSITIONS, ordered.size() );
+      for ( int i = 0; i < POSITIONS; i ++ ) {
+        assertEquals ( FIRST_ID + i, ordered.get ( i ).id, "Result " + i );
+        assertResult ( i, ordered.get ( i ) );
+      }
+      assertEquals ( 2 * POSITIONS, analyzer.getPositionCount() );
+    } finally {
+      analyzer.close();
+    }
+  }
+
+  /**
+   * request
+   * @param i the input index.
+   * @return an empty 5x5x5 board if i % 3 is 0, a 4x4x4 position where player 1 wins in pillar i % 16 if it is 1, and
+   *         a game with a move in a pillar that does not exist if it is 2.
+   */
+  private static BatchAnalyzer.Request request ( int i ) {
+    switch ( i % 3 ) {
+      case 0:
+        return new BatchAnalyzer.Request ( FIRST_ID + i, new GameRecord ( 5, 5, 5, 4, GameRecord.RESULT_UNFINISHED, new int[0] ) );
+      case 1:
+        int pillar = i % 16;
+        int[] moves = { pillar, (pillar + 1) % 16, pillar, (pillar + 2) % 16, pillar, (pillar + 3) % 16 };
+        return new BatchAnalyzer.Request ( FIRST_ID + i, new GameRecord ( 4, 4, 4, 4, GameRecord.RESULT_UNFINISHED, moves ) );
+      default:
+        return new BatchAnalyzer.Request ( FIRST_ID + i, new GameRecord ( 4, 4, 4, 4, GameRecord.RESULT_UNFINISHED, new int[] { 0, 16 } ) );
+    }
+  }
+
+  /**
+   * assertResult
+   * Fails unless the result is the analysis of the position of the input index.
+   * @param i the input index.
+   * @param result the result.
+   */
+  private static void assertResult ( int i, BatchAnalyzer.Result result ) {
+    String message = "Position " + i;
+    switch ( i % 3 ) {
+      case 0:
+        assertEquals ( DEPTH, result.depth, message );
+        assertTrue ( result.bestPillar >= 0 && result.bestPillar < 25, message );
+        assertTrue ( Math.abs ( result.score ) < AlphaBetaSearch.WIN_SCORE - 100, message );
+        break;
+      case 1:
+        assertEquals ( i % 16, result.bestPillar, message );
+        assertEquals ( AlphaBetaSearch.WIN_SCORE, result.score, message );
+        assertEquals ( 1, result.depth, message );
+        break;
+      default:
+        assertEquals ( -1, result.bestPillar, message );
+        assertEquals ( 0, result.depth, message );
+        assertEquals ( 0, result.nodes, message );
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EndgameSolverTest
+ * EndgameSolver against a plain Minimax on random 4x4x4 endgames: with pruning, win-distance bounds, forced blocks, parity
+ * cuts and a transposition table shared between solves, its score must be the exact win-distance score, and its move
+ * must reach that score.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class EndgameSolverTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of random endgames.
+   */
+  private static final int POSITIONS = 1000;
+
+  /**
+   * The largest number of blank cells of an endgame.
+   */
+  private static final int MAX_BLANKS = 12;
+
+  // =============== METHODS ===============
+
+  /**
+   * exactScore
+   * getScore() is the Minimax score, and the solver's move scores it. One solver solves all the endgames, so its
+   * table carries entries from one solve to the next.
+   */
+  @Test
+  public void exactScore() {
+    SplittableRandom random = new SplittableRandom ( 7 );
+    EndgameSolver solver = new EndgameSolver ( MAX_BLANKS, 0 );
+    for ( int i = 0; i < POSITIONS; i ++ ) {
+      Board board = Minimax.randomEndgame ( 4, 1 + random.nextInt ( MAX_BLANKS ), random );
+      Minimax minimax = new Minimax();
+      int exact = minimax.score ( board );
+      String at = "Endgame " + i + " with " + board.getBlankCount() + " blank cells";
+      assertTrue ( solver.isApplicable ( board ), at );
+      int pillar = solver.solve ( board );
+      assertEquals ( exact, solver.getScore(), at );
+      assertTrue ( board.isPillarAvailable ( pillar ), at );
+      board.drop ( pillar );
+      int childScore = minimax.score ( board );
+      board.undo();
+      assertEquals ( exact, -(childScore > 0 ? childScore - 1 : childScore < 0 ? childScore + 1 : 0), at + ", move " + pillar );
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FastRuleBasedAITest
+ * The differential check of FastRuleBasedAI against the original rules of Player.calculateTheNextBestMove(), kept
+ * below as BaselineRules. The original picks a move with Math.random() from a HashSet, so what can be compared is the
+ * set of moves a rule may play: on random positions of every board size from 4 to 10, from empty to full, the set
+ * FastRuleBasedAI draws from must be the set of the original rules. For seeded games, FastRuleBasedAI must also play
+ * the very moves of RuleBasedAI given random sources in the same state.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class FastRuleBasedAITest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of random positions per board size.
+   */
+  private static final int POSITIONS = 60;
+
+  // =============== METHODS ===============
+
+  /**
+   * fastMatchesTheOriginalRules
+   * FastRuleBasedAI chooses from exactly the moves of the original rules.
+   */
+  @Test
+  public void fastMatchesTheOriginalRules() {
+    compare ( new SplittableRandom ( 1 ) );
+  }
+
+  /**
+   * fastMatchesTheSeededReference
+   * FastRuleBasedAI and RuleBasedAI play the same cell given random sources in the same state.
+   */
+  @Test
+  public void fastMatchesTheSeededReference() {
+    SplittableRandom random = new SplittableRandom ( 2 );
+    for ( int size = 4; size <= 10; size ++ ) {
+      long moveSeed = random.nextLong();
+      RuleBasedAI reference = new RuleBasedAI ( new SplittableRandom ( moveSeed ) );
+      FastRuleBasedAI fast = new FastRuleBasedAI ( new SplittableRandom ( moveSeed ) );
+      for ( int i = 0; i < POSITIONS; i ++ ) {
+        Board board = randomPosition ( size, random );
+        for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+          assertEquals ( reference.selectMove ( board, playerNo ), fast.selectMove ( board, playerNo ), "On a " + size + "x"
+                         + size + "x" + size + " board for player " + playerNo + ", position " + i );
+        }
+      }
+    }
+  }
+
+  /**
+   * compare
+   * Fails on the first position where FastRuleBasedAI chooses from other moves than the original rules. The moves it
+   * chooses from are enumerated by one draw per legal move, which reaches every index of RuleBasedAI.randomIndex().
+   * @param random the random source of the positions.
+   */
+  private static void compare ( SplittableRandom random ) {
+    for ( int size = 4; size <= 10; size ++ ) {
+      int[] pillars = new int[size * size];
+      for ( int i = 0; i < POSITIONS; i ++ ) {
+        Board board = randomPosition ( size, random );
+        int draws = board.getAvailablePillars ( pillars );
+        for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+          Set<Integer> expected = BaselineRules.candidateMoves ( board, playerNo );
+          Set<Integer> actual = new TreeSet<>();
+          for ( int draw = 0; draw < draws; draw ++ ) {
+            actual.add ( new FastRuleBasedAI ( new FixedDraw ( (draw + 0.5) / draws ) ).selectMove ( board, playerNo ) );
+          }
+          assertEquals ( expected, actual, "On a " + size + "x" + size + "x" + size + " board for player " + playerNo
+                         + ", position " + i );
+        }
+      }
+    }
+  }
+
+  /**
+   * randomPosition
+   * Fills a random number of cells, from none to all, by alternating beads in random pillars. It stops before a bead
+   * that would complete a line: the game asks for no move once a player has won, and then there is no legal move.
+   * @param size the board size.
+   * @param random the random source.
+   * @return the position.
+   */
+  private static Board randomPosition ( int size, SplittableRandom random ) {
+    Board board = new Board ( size );
+    int beads = random.nextInt ( board.getCellCount() + 1 );
+    for ( int bead = 0; bead < beads; bead ++ ) {
+      int pillar;
+      do {
+        pillar = random.nextInt ( board.getPillarCount() );
+      } while ( board.getHeight ( pillar ) == board.getLayers() );
+      int cell = board.landingCell ( pillar );
+      Board next = new Board ( board );
+      next.setBead ( board.layerOf ( cell ), board.rowOf ( cell ), board.columnOf ( cell ), 1 + bead % 2 );
+      if ( next.getWinner() != Board.NO_PLAYER ) {
+        break;
+      }
+      board = next;
+    }
+    return board;
+  }
+
+  /**
+   * FixedDraw
+   * A random source whose every double is the same, so that a strategy draws the index of that fraction of its moves.
+   */
+  private static class FixedDraw implements RandomGenerator {
+
+    /**
+     * The double of every draw, in [0, 1).
+     */
+    private final double fraction;
+
+    /**
+     * The constructor.
+     * @param fraction the double of every draw, in [0, 1).
+     */
+    FixedDraw ( double fraction ) {
+      this.fraction = fraction;
+    }
+
+    /**
+     * nextLong
+     * Overrided method, unused by the strategies.
+     * @return 0.
+     */
+    @Override
+    public long nextLong() {
+      return 0;
+    }
+
+    /**
+     * nextDouble
+     * Overrided method to return the fixed fraction.
+     * @return the fraction.
+     */
+    @Override
+    public double nextDouble() {
+      return fraction;
+    }
+  }
+
+  /**
+   * BaselineRules
+   * The rules of Player.calculateTheNextBestMove() as in the original game, before the engine package: the same
+   * 26-direction walk from every cell and the same order of the rules, on a copy of the beads (0 for a blank cell,
+   * else the player number) instead of the Swing cells. Where the original draws with Math.random(), it returns the
+   * whole set the move is drawn from.
+   */
+  private static class BaselineRules {
+
+    /**
+     * candidateMoves
+     * Rules #1 to #4 and #7 in order, then #8.
+     * @param board the position.
+     * @param playerNo the player to move.
+     * @return the cell indexes of the moves of the first rule that recommends a valid move, all valid moves if none
+     *         does, or an empty set if the board is full.
+     */
+    static Set<Integer> candidateMoves ( Board board, int playerNo ) {
+      int[][][] cells = new int[board.getLayers()][board.getRows()][board.getColumns()];
+      for ( int layer = 0; layer < cells.length; layer ++ ) {
+        for ( int row = 0; row < cells[layer].length; row ++ ) {
+          for ( int column = 0; column < cells[layer][row].length; column ++ ) {
+            cells[layer][row][column] = board.getBead ( layer, row, column );
+          }
+        }
+      }
+      List<Integer> availableMoves = calculateAvailableMoves ( board, cells );
+      Set<Integer> result = new TreeSet<>();
+      if ( availableMoves.isEmpty() ) {
+        return result;
+      }
+      int[][] rules = { { playerNo, 3 }, { 3 - playerNo, 3 }, { playerNo, 2 }, { 3 - playerNo, 2 }, { playerNo, 1 } };
+      for ( int[] rule : rules ) {
+        Set<Integer> recommendedMoves = checkTheNextBestMove ( board, cells, rule[0], rule[1] );
+        for ( int move : availableMoves ) {
+          if ( recommendedMoves.contains ( move ) ) {
+            result.add ( move );
+          }
+        }
+        if ( !result.isEmpty() ) {
+          return result;
+        }
+      }
+      // Rule #8
+      result.addAll ( availableMoves );
+      return result;
+    }
+
+    /**
+     * checkTheNextBestMove
+     * @param board the position, for the cell indexes.
+     * @param cells the beads.
+     * @param player the player against whom it will check.
+     * @param numOfBeadsInARow the number of beads in a line that it will check.
+     * @return the blank cells of the lines with that many beads of the player and no bead of the other.
+     */
+    private static Set<Integer> checkTheNextBestMove ( Board board, int[][][] cells, int player, int numOfBeadsInARow ) {
+      Set<Integer> recommendedMoves = new HashSet<>();
+      for ( int layer = 0; layer < cells.length; layer ++ ) {
+        for ( int row = 0; row < cells[layer].length; row ++ ) {
+          for ( int column = 0; column < cells[layer][row].length; column ++ ) {
+            recommendedMoves.addAll ( checkTheNextBestMoveInAllDirections ( board, cells, layer, row, column, player, numOfBeadsInARow ) );
+          }
+        }
+      }
+      return recommendedMoves;
+    }
+
+    /**
+     * checkTheNextBestMoveInAllDirections
+     * @param board the position, for the cell indexes and the number of beads to win.
+     * @param cells the beads.
+     * @param layer the layer coordinate of the starting point.
+     * @param row the row coordinate of the starting point.
+     * @param column the column coordinate of the starting point.
+     * @param playerToCheck the player against whom it will check.
+     * @param numOfBeadsInARow the number of beads in a line that it will check.
+     * @return the blank cells of the matching lines from the starting point.
+     */
+    private static Set<Integer> checkTheNextBestMoveInAllDirections ( Board board, int[][][] cells, int layer, int row, int column,
+                                                                      int playerToCheck, int numOfBeadsInARow ) {
+      Set<Integer> recommendedMoveToCells = new HashSet<>();
+      for ( int layerDirectionFactor = -1; layerDirectionFactor <= 1; layerDirectionFactor ++ ) {
+        for ( int rowDirectionFactor = -1; rowDirectionFactor <= 1; rowDirectionFactor ++ ) {
+          for ( int columnDirectionFactor = -1; columnDirectionFactor <= 1; columnDirectionFactor ++ ) {
+            if ( (layerDirectionFactor != 0) || (rowDirectionFactor != 0) || (columnDirectionFactor != 0 ) ) {
+              Set<Integer> recommendedMoveToCellsForCurrentDirection = new HashSet<>();
+              int totalSameBeadsInTheLine = 0;
+              int totalBlankBeadsInTheLine = 0;
+              boolean keepLooking = true;
+              for ( int k = 0; k < board.getBeadsToWin() && keepLooking; k ++ ) {
+                int newLayer = layer+layerDirectionFactor*k;
+                int newRow = row+rowDirectionFactor*k;
+                int newColumn = column+columnDirectionFactor*k;
+                if ( (newLayer < 0) || (newLayer >= cells.length) ||
+                    (newRow < 0) || (newRow >= cells[0].length) ||
+                    (newColumn < 0) || (newColumn >= cells[0][0].length) ) {
+                  keepLooking = false;
+                } else {
+                  int playerPlacedBeadInTheLine = cells[newLayer][newRow][newColumn];
+                  if ( playerPlacedBeadInTheLine == Board.NO_PLAYER ) {
+                    recommendedMoveToCellsForCurrentDirection.add ( board.cellIndex ( newLayer, newRow, newColumn ) );
+                    totalBlankBeadsInTheLine ++;
+                  } else if ( playerPlacedBeadInTheLine == playerToCheck ) {
+                    totalSameBeadsInTheLine ++;
+                  }
+                }
+              }
+              if ( (totalSameBeadsInTheLine == numOfBeadsInARow) && (totalBlankBeadsInTheLine + totalSameBeadsInTheLine == board.getBeadsToWin()) ) {
+                recommendedMoveToCells.addAll ( recommendedMoveToCellsForCurrentDirection );
+              }
+            }
+          }
+        }
+      }
+      return recommendedMoveToCells;
+    }
+
+    /**
+     * calculateAvailableMoves
+     * @param board the position, for the cell indexes.
+     * @param cells the beads.
+     * @return the lowest blank cell of every pillar that is not full; the bottom layer is the last.
+     */
+    private static List<Integer> calculateAvailableMoves ( Board board, int[][][] cells ) {
+      List<Integer> availableMoves = new ArrayList<>();
+      for ( int row = 0; row < cells[0].length; row ++ ) {
+        for ( int column = 0; column < cells[0][0].length; column ++ ) {
+          boolean found = false;
+          for ( int layer = cells.length-1; (layer >= 0) && !found; layer -- ) {
+            if ( cells[layer][row][column] == Board.NO_PLAYER ) {
+              availableMoves.add ( board.cellIndex ( layer, row, column ) );
+              found = true;
+            }
+          }
+        }
+      }
+      return availableMoves;
+    }
+  }
+}
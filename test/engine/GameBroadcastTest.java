@@ -0,0 +1,213 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * GameBroadcastTest
+ * A spectator that requests one event and then stalls must not hold up the game: publishMove() returns while the
+ * spectator is stuck in onNext(), and once it catches up it gets what its OverflowPolicy promises, and the END.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+@Timeout ( 30 )
+public class GameBroadcastTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of moves published while the spectator stalls.
+   */
+  private static final int MOVES = 10;
+
+  /**
+   * The result of the END event.
+   */
+  private static final int RESULT = GameRecord.RESULT_DRAW;
+
+  /**
+   * The reason of the END event.
+   */
+  private static final int REASON = 7;
+
+  // =============== METHODS ===============
+
+  /**
+   * conflate
+   * The missed moves become one SNAPSHOT of the current position, followed by the END.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  @Test
+  public void conflate() throws InterruptedException {
+    for ( int bufferSize : new int[] { 1, 4 } ) {
+      List<GameEvent> events = stall ( GameBroadcast.OverflowPolicy.CONFLATE, bufferSize );
+      assertEquals ( 3, events.size(), "Buffer " + bufferSize + ": " + events );
+      assertSnapshot ( events.get ( 0 ), 0 );
+      assertSnapshot ( events.get ( 1 ), MOVES );
+      assertEnd ( events.get ( 2 ) );
+    }
+  }
+
+  /**
+   * dropOldest
+   * Only the newest bufferSize events are delivered, so the plies jump from the first SNAPSHOT to the first kept move,
+   * and the END is one of them.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  @Test
+  public void dropOldest() throws InterruptedException {
+    for ( int bufferSize : new int[] { 1, 4 } ) {
+      List<GameEvent> events = stall ( GameBroadcast.OverflowPolicy.DROP_OLDEST, bufferSize );
+      assertEquals ( 1 + bufferSize, events.size(), "Buffer " + bufferSize + ": " + events );
+      assertSnapshot ( events.get ( 0 ), 0 );
+      for ( int i = 1; i < bufferSize; i ++ ) {
+        GameEvent move = events.get ( i );
+        int ply = MOVES + 1 - bufferSize + i - 1;
+        assertEquals ( GameEvent.MOVE, move.type, "Buffer " + bufferSize + ", event " + i );
+        assertEquals ( ply, move.ply, "Buffer " + bufferSize + ", event " + i );
+        assertEquals ( pillarOf ( ply ), move.pillar, "Buffer " + bufferSize + ", event " + i );
+      }
+      assertEnd ( events.get ( bufferSize ) );
+    }
+  }
+
+  /**
+   * stall
+   * Subscribes a spectator that requests one event and blocks in onNext() on it, publishes MOVES moves and the END,
+   * then lets the spectator go on one event at a time until it is completed.
+   * @param policy the overflow policy.
+   * @param bufferSize the buffer size, less than MOVES.
+   * @return the events the spectator received.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  private static List<GameEvent> stall ( GameBroadcast.OverflowPolicy policy, int bufferSize ) throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      GameBroadcast broadcast = new GameBroadcast ( 42, new Board ( 4 ), 99, executor, bufferSize, policy );
+      List<GameEvent> events = new CopyOnWriteArrayList<>();
+      CountDownLatch received = new CountDownLatch ( 1 );
+      CountDownLatch resume = new CountDownLatch ( 1 );
+      CountDownLatch completed = new CountDownLatch ( 1 );
+      broadcast.subscribe ( new Flow.Subscriber<GameEvent>() {
+
+        /**
+         * The subscription.
+         */
+        private Flow.Subscription subscription;
+
+        /**
+         * onSubscribe
+         * Overrided method to request the first event.
+         * @param subscription the subscription.
+         */
+        @Override
+        public void onSubscribe ( Flow.Subscription subscription ) {
+          this.subscription = subscription;
+          subscription.request ( 1 );
+        }
+
+        /**
+         * onNext
+         * Overrided method to record the event, block on the first one until the moves are published, and request the
+         * next one.
+         * @param event the event.
+         */
+        @Override
+        public void onNext ( GameEvent event ) {
+          events.add ( event );
+          if ( events.size() == 1 ) {
+            received.countDown();
+            try {
+              resume.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          subscription.request ( 1 );
+        }
+
+        /**
+         * onError
+         * Overrided method, unused: nothing is completed with an error.
+         * @param throwable the error.
+         */
+        @Override
+        public void onError ( Throwable throwable ) {
+        }
+
+        /**
+         * onComplete
+         * Overrided method to release the test.
+         */
+        @Override
+        public void onComplete() {
+          completed.countDown();
+        }
+      } );
+      received.await();
+      assertTimeoutPreemptively ( Duration.ofSeconds ( 5 ), () -> {
+        for ( int ply = 0; ply < MOVES; ply ++ ) {
+          broadcast.publishMove ( pillarOf ( ply ) );
+        }
+        broadcast.publishEnd ( RESULT, REASON );
+      }, "Publishing waited for the stalled spectator" );
+      // the spectator is still blocked on its first event, so publishing did not wait for it
+      assertEquals ( 1, events.size() );
+      assertEquals ( 1, resume.getCount() );
+      assertEquals ( MOVES, broadcast.getMoveCount() );
+      resume.countDown();
+      completed.await();
+      assertEquals ( 0, broadcast.getSpectatorCount() );
+      return events;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * pillarOf
+   * @param ply a ply.
+   * @return the pillar of the move of that ply: one bead in each of the first pillars, so nobody wins.
+   */
+  private static int pillarOf ( int ply ) {
+    return ply;
+  }
+
+  /**
+   * assertSnapshot
+   * Fails unless the event is a SNAPSHOT of the first moves of the game.
+   * @param event the event.
+   * @param moveCount the number of moves.
+   */
+  private static void assertSnapshot ( GameEvent event, int moveCount ) {
+    assertEquals ( GameEvent.SNAPSHOT, event.type, event.toString() );
+    assertEquals ( moveCount, event.ply, event.toString() );
+    assertEquals ( 99, event.position.getSeed() );
+    int[] moves = new int[moveCount];
+    for ( int ply = 0; ply < moveCount; ply ++ ) {
+      moves[ply] = pillarOf ( ply );
+    }
+    assertArrayEquals ( moves, event.position.getMoves(), event.toString() );
+  }
+
+  /**
+   * assertEnd
+   * Fails unless the event is the END of the game.
+   * @param event the event.
+   */
+  private static void assertEnd ( GameEvent event ) {
+    assertEquals ( GameEvent.END, event.type, event.toString() );
+    assertEquals ( MOVES, event.ply );
+    assertEquals ( RESULT, event.result );
+    assertEquals ( REASON, event.reason );
+  }
+}
@@ -0,0 +1,111 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * GameDatabaseTest
+ * Opens databases whose files were left behind by a crash: offsets that point past the game records, and a record
+ * cut in the middle. A crash is simulated by not closing the database and then damaging its files.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameDatabaseTest {
+
+  // =============== METHODS ===============
+
+  /**
+   * commitIsDurableWithoutMerging
+   * Committed games survive a crash and are re-indexed on open; a commit does not write positions.idx.
+   * @param directory the database directory.
+   * @throws IOException never.
+   */
+  @Test
+  public void commitIsDurableWithoutMerging ( @TempDir Path directory ) throws IOException {
+    GameDatabase database = GameDatabase.open ( directory );
+    GameRecord[] games = randomGames ( 50, 1 );
+    for ( GameRecord game : games ) {
+      database.addGame ( game );
+    }
+    database.commit();
+    assertFalse ( Files.exists ( directory.resolve ( GameDatabase.INDEX_FILENAME ) ) );
+    // the crash: the database is not closed
+    try ( GameDatabase reopened = GameDatabase.open ( directory ) ) {
+      assertEquals ( 50, reopened.getGameCount() );
+      assertEquals ( database.getPositionCount(), reopened.getPositionCount() );
+      assertEquals ( 50, reopened.findPosition ( new Board ( 4 ).getHash() ).size() );
+    }
+  }
+
+  /**
+   * offsetsPastTheGames
+   * Offsets whose records are missing or cut are dropped, and the files are cut after the last complete record, so
+   * new games are appended where the readable ones end.
+   * @param directory the database directory.
+   * @throws IOException never.
+   */
+  @Test
+  public void offsetsPastTheGames ( @TempDir Path directory ) throws IOException {
+    try ( GameDatabase database = GameDatabase.open ( directory ) ) {
+      for ( GameRecord game : randomGames ( 10, 2 ) ) {
+        database.addGame ( game );
+      }
+    }
+    Path gamesFile = directory.resolve ( GameDatabase.GAMES_FILENAME );
+    Path offsetsFile = directory.resolve ( GameDatabase.OFFSETS_FILENAME );
+    long gamesSize = Files.size ( gamesFile );
+    try ( FileChannel offsets = FileChannel.open ( offsetsFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND ) ) {
+      // the offsets of two games whose records never reached the disk
+      ByteBuffer buffer = ByteBuffer.allocate ( 16 ).putLong ( gamesSize ).putLong ( gamesSize + 20 );
+      buffer.flip();
+      offsets.write ( buffer );
+    }
+    try ( FileChannel games = FileChannel.open ( gamesFile, StandardOpenOption.WRITE ) ) {
+      // the last complete record loses its last byte
+      games.truncate ( gamesSize - 1 );
+    }
+    try ( GameDatabase database = GameDatabase.open ( directory ) ) {
+      assertEquals ( 9, database.getGameCount() );
+      assertEquals ( 9 * 8, Files.size ( offsetsFile ) );
+      GameRecord game = randomGames ( 1, 3 )[0];
+      int gameId = database.addGame ( game );
+      assertEquals ( 9, gameId );
+      assertEquals ( game.getMoveCount(), database.readGame ( gameId ).getMoveCount() );
+    }
+    try ( GameDatabase database = GameDatabase.open ( directory ) ) {
+      assertEquals ( 10, database.getGameCount() );
+      for ( int gameId = 0; gameId < 10; gameId ++ ) {
+        database.readGame ( gameId );
+      }
+    }
+  }
+
+  /**
+   * randomGames
+   * @param count the number of games.
+   * @param seed the seed of the random moves.
+   * @return games of random moves on the 4x4x4 board, played to the end.
+   */
+  private static GameRecord[] randomGames ( int count, long seed ) {
+    SplittableRandom random = new SplittableRandom ( seed );
+    GameRecord[] games = new GameRecord[count];
+    int[] pillars = new int[16];
+    for ( int i = 0; i < count; i ++ ) {
+      Board board = new Board ( 4 );
+      while ( !board.isGameOver() ) {
+        board.drop ( pillars[random.nextInt ( board.getAvailablePillars ( pillars ) )] );
+      }
+      games[i] = GameRecord.of ( board );
+    }
+    return games;
+  }
+}
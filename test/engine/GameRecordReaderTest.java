@@ -0,0 +1,130 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * GameRecordReaderTest
+ * Feeds the reader well-formed and malformed records. A malformed record must fail with an IOException, which the
+ * game and the tools report, and never with a runtime exception such as NegativeArraySizeException.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameRecordReaderTest {
+
+  // =============== METHODS ===============
+
+  /**
+   * roundTrip
+   * A written record reads back unchanged.
+   * @throws IOException never.
+   */
+  @Test
+  public void roundTrip() throws IOException {
+    GameRecord record = new GameRecord ( 4, 4, 4, 4, GameRecord.RESULT_UNFINISHED, 12345L, new int[] { 5, 0, 15, 5, 12 } );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    GameRecordWriter.writeRecord ( out, record );
+    ByteArrayInputStream in = new ByteArrayInputStream ( out.toByteArray() );
+    GameRecord read = GameRecordReader.readRecord ( in );
+    assertEquals ( 12345L, read.getSeed() );
+    int[] moves = new int[read.getMoveCount()];
+    for ( int ply = 0; ply < moves.length; ply ++ ) {
+      moves[ply] = read.getMove ( ply );
+    }
+    assertArrayEquals ( new int[] { 5, 0, 15, 5, 12 }, moves );
+    assertNull ( GameRecordReader.readRecord ( in ) );
+  }
+
+  /**
+   * varintTooLarge
+   * A 5th varint byte above 0x0F would overflow an int.
+   */
+  @Test
+  public void varintTooLarge() {
+    assertThrows ( IOException.class, () -> GameRecordReader.readVarint ( stream ( 0xFF, 0xFF, 0xFF, 0xFF, 0x10 ) ) );
+    assertThrows ( IOException.class, () -> GameRecordReader.readVarint ( stream ( 0x80, 0x80, 0x80, 0x80, 0x80, 0x01 ) ) );
+  }
+
+  /**
+   * varintLimits
+   * The largest 5-byte varints still read; with bit 31 set the value is negative, for the callers to reject.
+   * @throws IOException never.
+   */
+  @Test
+  public void varintLimits() throws IOException {
+    assertEquals ( Integer.MAX_VALUE, GameRecordReader.readVarint ( stream ( 0xFF, 0xFF, 0xFF, 0xFF, 0x07 ) ) );
+    assertEquals ( -1, GameRecordReader.readVarint ( stream ( 0xFF, 0xFF, 0xFF, 0xFF, 0x0F ) ) );
+  }
+
+  /**
+   * negativeMoveCount
+   * A move count with bit 31 set is rejected before the move array is allocated.
+   */
+  @Test
+  public void negativeMoveCount() {
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( header ( 0xFF, 0xFF, 0xFF, 0xFF, 0x08 ) ) ) );
+  }
+
+  /**
+   * negativePillar
+   * A pillar with bit 31 set is rejected like a pillar beyond the board.
+   */
+  @Test
+  public void negativePillar() {
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( header ( 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F ) ) ) );
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( header ( 1, 16 ) ) ) );
+  }
+
+  /**
+   * invalidHeader
+   * Too many moves for the board, a zero size and an unknown result are rejected.
+   */
+  @Test
+  public void invalidHeader() {
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( header ( 65 ) ) ) );
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( 0, 4, 4, 4, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 ) ) );
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( 4, 4, 4, 4, 9, 0, 0, 0, 0, 0, 0, 0, 0, 0 ) ) );
+  }
+
+  /**
+   * truncated
+   * A record that ends early is rejected, and so is a stream that is not a game record stream.
+   */
+  @Test
+  public void truncated() {
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( header ( 3, 1, 2 ) ) ) );
+    assertThrows ( IOException.class, () -> GameRecordReader.readRecord ( stream ( 4, 4, 4 ) ) );
+    assertThrows ( IOException.class, () -> new GameRecordReader ( stream ( 'S', '4', 'X', 'R', 2 ) ) );
+  }
+
+  /**
+   * header
+   * @param rest the bytes after the seed: the move count varint and the moves.
+   * @return the bytes of an unfinished 4x4x4 record of version 2 with a zero seed, followed by the rest.
+   */
+  private static int[] header ( int... rest ) {
+    int[] bytes = new int[13 + rest.length];
+    bytes[0] = bytes[1] = bytes[2] = bytes[3] = 4;
+    System.arraycopy ( rest, 0, bytes, 13, rest.length );
+    return bytes;
+  }
+
+  /**
+   * stream
+   * @param bytes the bytes, 0 to 255.
+   * @return a stream of the bytes.
+   */
+  private static ByteArrayInputStream stream ( int... bytes ) {
+    byte[] data = new byte[bytes.length];
+    for ( int i = 0; i < bytes.length; i ++ ) {
+      data[i] = (byte) bytes[i];
+    }
+    return new ByteArrayInputStream ( data );
+  }
+}
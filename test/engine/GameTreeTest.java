@@ -0,0 +1,161 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * GameTreeTest
+ * GameTree moves between variations with incremental Board.drop() and Board.undo() steps, so after goTo() the board
+ * must be exactly the board of the target's moves replayed from the empty board, also when the way back takes back a
+ * winning move, and the changed cells must be the cells the steps changed.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class GameTreeTest {
+
+  // =============== METHODS ===============
+
+  /**
+   * acrossAWin
+   * From a line that player 1 won on the bottom layer to a variation that left the line open and back.
+   */
+  @Test
+  public void acrossAWin() {
+    GameTree tree = new GameTree ( new Board ( 4 ) );
+    int[] changedCells = new int[2 * 64];
+    for ( int pillar : new int[] { 0, 4, 1, 5, 2, 6, 3 } ) {
+      tree.play ( pillar );
+    }
+    GameTree.Node won = tree.getCurrent();
+    assertEquals ( 1, tree.getBoard().getWinner() );
+    tree.goTo ( won.getParent().getParent().getParent(), changedCells );
+    tree.play ( 3 );
+    tree.play ( 2 );
+    tree.play ( 7 );
+    GameTree.Node variation = tree.getCurrent();
+
+    goToAndCompare ( tree, won, changedCells );
+    assertEquals ( 1, tree.getBoard().getWinner() );
+    goToAndCompare ( tree, variation, changedCells );
+    assertEquals ( Board.NO_PLAYER, tree.getBoard().getWinner() );
+    goToAndCompare ( tree, tree.getRoot(), changedCells );
+    goToAndCompare ( tree, won, changedCells );
+    assertEquals ( won.getParent().getParent(), won.getParent().getParent().getParent().getNext(), "forward() follows the path" );
+  }
+
+  /**
+   * randomVariations
+   * Random variations of games played to the end, and goTo() between random nodes of them.
+   */
+  @Test
+  public void randomVariations() {
+    SplittableRandom random = new SplittableRandom ( 5 );
+    for ( int size = 4; size <= 6; size ++ ) {
+      GameTree tree = new GameTree ( new Board ( size ) );
+      int[] changedCells = new int[2 * tree.getBoard().getCellCount()];
+      List<GameTree.Node> nodes = new ArrayList<>();
+      nodes.add ( tree.getRoot() );
+      for ( int variation = 0; variation < 20; variation ++ ) {
+        tree.goTo ( nodes.get ( random.nextInt ( nodes.size() ) ), changedCells );
+        while ( !tree.getBoard().isGameOver() ) {
+          int pillar;
+          do {
+            pillar = random.nextInt ( tree.getBoard().getPillarCount() );
+          } while ( !tree.getBoard().isPillarAvailable ( pillar ) );
+          tree.play ( pillar );
+          nodes.add ( tree.getCurrent() );
+        }
+      }
+      for ( int i = 0; i < 200; i ++ ) {
+        goToAndCompare ( tree, nodes.get ( random.nextInt ( nodes.size() ) ), changedCells );
+      }
+    }
+  }
+
+  /**
+   * goToAndCompare
+   * Moves to a node and checks the board against the replay of the node's moves, and the changed cells against the
+   * cells whose beads differ.
+   * @param tree the tree.
+   * @param target a node of the tree.
+   * @param changedCells the buffer of the changed cells.
+   */
+  private static void goToAndCompare ( GameTree tree, GameTree.Node target, int[] changedCells ) {
+    Board before = new Board ( tree.getBoard() );
+    int count = tree.goTo ( target, changedCells );
+    Board board = tree.getBoard();
+    assertEquals ( target, tree.getCurrent() );
+
+    Deque<Integer> pillars = new ArrayDeque<>();
+    for ( GameTree.Node node = target; node.getParent() != null; node = node.getParent() ) {
+      pillars.push ( node.getPillar() );
+    }
+    Board replayed = new Board ( board.getLayers(), board.getRows(), board.getColumns(), board.getBeadsToWin() );
+    for ( int pillar : pillars ) {
+      replayed.drop ( pillar );
+    }
+    String at = "At ply " + target.getPly();
+    assertEquals ( replayed.getHash(), board.getHash(), at );
+    assertEquals ( replayed.getWinner(), board.getWinner(), at );
+    assertArrayEquals ( replayed.getWinningLine(), board.getWinningLine(), at );
+    assertEquals ( replayed.getBlankCount(), board.getBlankCount(), at );
+    assertEquals ( replayed.getMoveCount(), board.getMoveCount(), at );
+    assertEquals ( replayed.getPlayerToMove(), board.getPlayerToMove(), at );
+
+    Set<Integer> changed = new HashSet<>();
+    for ( int i = 0; i < count; i ++ ) {
+      changed.add ( changedCells[i] );
+    }
+    for ( int cell = 0; cell < board.getCellCount(); cell ++ ) {
+      assertEquals ( replayed.getBead ( cell ), board.getBead ( cell ), at + ", cell " + cell );
+      assertTrue ( before.getBead ( cell ) == board.getBead ( cell ) || changed.contains ( cell ), at + ", cell " + cell + " not reported" );
+    }
+    // one cell per step: back to the common ancestor, then forward to the target
+    GameTree.Node ancestor = target;
+    while ( !isAncestor ( ancestor, before.getMoveCount(), pillarsOf ( before ) ) ) {
+      ancestor = ancestor.getParent();
+    }
+    assertEquals ( before.getMoveCount() - ancestor.getPly() + target.getPly() - ancestor.getPly(), count, at );
+  }
+
+  /**
+   * isAncestor
+   * @param node a node.
+   * @param moveCount the number of moves of a position.
+   * @param pillars the moves of the position.
+   * @return true if the moves of the node begin the moves of the position.
+   */
+  private static boolean isAncestor ( GameTree.Node node, int moveCount, int[] pillars ) {
+    if ( node.getPly() > moveCount ) {
+      return false;
+    }
+    for ( GameTree.Node step = node; step.getParent() != null; step = step.getParent() ) {
+      if ( pillars[step.getPly() - 1] != step.getPillar() ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * pillarsOf
+   * @param board a position.
+   * @return the pillars of its moves, in order.
+   */
+  private static int[] pillarsOf ( Board board ) {
+    int[] pillars = new int[board.getMoveCount()];
+    for ( int ply = 0; ply < pillars.length; ply ++ ) {
+      pillars[ply] = board.getMove ( ply );
+    }
+    return pillars;
+  }
+}
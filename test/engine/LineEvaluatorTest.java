@@ -0,0 +1,68 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * LineEvaluatorTest
+ * The two evaluation paths, the board scan and the LineKernel on LineCounts that AlphaBetaSearch uses, must give the
+ * same score for any valid weights, and weights with a non-zero weight of an empty line are not valid.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class LineEvaluatorTest {
+
+  // =============== METHODS ===============
+
+  /**
+   * boardScanMatchesTheKernel
+   * Both paths agree on random positions of every board size, for both players, with the default and other weights.
+   */
+  @Test
+  public void boardScanMatchesTheKernel() {
+    SplittableRandom random = new SplittableRandom ( 3 );
+    LineEvaluator[] evaluators = { new LineEvaluator ( 4 ), new LineEvaluator ( new int[] { 0, 7, -3, 250 } ) };
+    for ( int size = 4; size <= 10; size ++ ) {
+      for ( int i = 0; i < 40; i ++ ) {
+        Board board = new Board ( size );
+        int beads = random.nextInt ( board.getCellCount() + 1 );
+        int[] pillars = new int[board.getPillarCount()];
+        for ( int bead = 0; bead < beads && !board.isGameOver(); bead ++ ) {
+          board.drop ( pillars[random.nextInt ( board.getAvailablePillars ( pillars ) )] );
+        }
+        if ( board.getWinner() != Board.NO_PLAYER ) {
+          board.undo();
+        }
+        LineCounts counts = new LineCounts ( board );
+        for ( LineEvaluator evaluator : evaluators ) {
+          for ( int playerNo = 1; playerNo <= 2; playerNo ++ ) {
+            assertEquals ( evaluator.evaluate ( board, playerNo ), evaluator.evaluate ( counts, playerNo ),
+                           "On a " + size + "x" + size + "x" + size + " board for player " + playerNo );
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * emptyLineWeight
+   * A weight of 0 beads other than 0 is rejected, from an array and from a weight file.
+   * @param directory a temporary directory.
+   * @throws IOException if the weight file cannot be written.
+   */
+  @Test
+  public void emptyLineWeight ( @TempDir Path directory ) throws IOException {
+    assertThrows ( IllegalArgumentException.class, () -> new LineEvaluator ( new int[] { 5, 1, 8, 64 } ) );
+    Path file = directory.resolve ( "weights.txt" );
+    Files.writeString ( file, "# tuned\nweights 5 1 8 64\n" );
+    assertThrows ( IllegalArgumentException.class, () -> LineEvaluator.readWeights ( file ) );
+    Files.writeString ( file, "# tuned\nweights 0 1 8 64\n" );
+    assertEquals ( 64, LineEvaluator.readWeights ( file )[3] );
+  }
+}
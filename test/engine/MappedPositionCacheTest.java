@@ -0,0 +1,69 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * MappedPositionCacheTest
+ * A cache file may be mapped by other processes, so opening it with another evaluation must refuse it and leave it
+ * as it is, while a file whose initialization never finished is initialized again.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class MappedPositionCacheTest {
+
+  // =============== METHODS ===============
+
+  /**
+   * otherEvaluationIsRefused
+   * A second opener with another evaluation key gets an IOException, and the first one keeps its entries and its file.
+   * @param directory a temporary directory.
+   * @throws IOException if the file cannot be opened.
+   */
+  @Test
+  public void otherEvaluationIsRefused ( @TempDir Path directory ) throws IOException {
+    Path file = directory.resolve ( "positions.cache" );
+    MappedPositionCache cache = MappedPositionCache.open ( file, 10, 7 );
+    cache.store ( 12345L, 77L );
+    long size = Files.size ( file );
+    assertThrows ( IOException.class, () -> MappedPositionCache.open ( file, 12, 8 ) );
+    assertEquals ( size, Files.size ( file ) );
+    cache.store ( 54321L, 88L );
+    assertEquals ( 77L, cache.probe ( 12345L ) );
+    MappedPositionCache again = MappedPositionCache.open ( file, 12, 7 );
+    assertEquals ( 1024, again.getSlotCount() );
+    assertEquals ( 88L, again.probe ( 54321L ) );
+  }
+
+  /**
+   * fileForEvaluation
+   * Each evaluation key gets its own file next to the configured one.
+   */
+  @Test
+  public void fileForEvaluation() {
+    Path file = Path.of ( "caches", "positions.cache" );
+    assertEquals ( Path.of ( "caches", "positions-v2-0.cache" ), MappedPositionCache.fileFor ( file, 0 ) );
+    assertEquals ( Path.of ( "caches", "positions-v2-ffffffffffffffff.cache" ), MappedPositionCache.fileFor ( file, -1 ) );
+    assertEquals ( Path.of ( "positions-v2-2a" ), MappedPositionCache.fileFor ( Path.of ( "positions" ), 42 ) );
+  }
+
+  /**
+   * interruptedInitialization
+   * A file without the magic number, e.g., left by a process that died while creating it, is initialized.
+   * @param directory a temporary directory.
+   * @throws IOException if the file cannot be opened.
+   */
+  @Test
+  public void interruptedInitialization ( @TempDir Path directory ) throws IOException {
+    Path file = directory.resolve ( "positions.cache" );
+    Files.write ( file, new byte[100] );
+    MappedPositionCache cache = MappedPositionCache.open ( file, 6, 7 );
+    assertEquals ( 64, cache.getSlotCount() );
+    assertEquals ( 64 + 16 * 64, Files.size ( file ) );
+  }
+}
@@ -0,0 +1,85 @@
+package scoreFourGame.engine;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Minimax
+ * The reference of the solver tests: a plain minimax to the end of the game, without pruning, move order, threat
+ * rules or parity, with the scores of AlphaBetaSearch (a win in n plies scores WIN_SCORE - n + 1, a loss in n plies
+ * the negation, a draw 0). It remembers the score of each position by its hash; in the endgames of the tests gravity
+ * leaves only a few thousand positions, so the search takes milliseconds.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+final class Minimax {
+
+  // =============== VARIABLES ===============
+  /**
+   * The scores of the positions searched so far, by hash, for the player to move.
+   */
+  private final Map<Long, Integer> scores = new HashMap<>();
+
+  // =============== METHODS ===============
+
+  /**
+   * score
+   * @param board a position. It is left unchanged.
+   * @return the exact score of the position for the player to move.
+   */
+  int score ( Board board ) {
+    if ( board.getWinner() != Board.NO_PLAYER ) {
+      // the previous move won
+      return -(AlphaBetaSearch.WIN_SCORE + 1);
+    }
+    if ( board.getBlankCount() == 0 ) {
+      return 0;
+    }
+    Integer known = scores.get ( board.getHash() );
+    if ( known != null ) {
+      return known;
+    }
+    int best = Integer.MIN_VALUE;
+    for ( int pillar = 0; pillar < board.getPillarCount(); pillar ++ ) {
+      if ( board.isPillarAvailable ( pillar ) ) {
+        board.drop ( pillar );
+        int childScore = score ( board );
+        board.undo();
+        // one ply further from the end of the game
+        best = Math.max ( best, -(childScore > 0 ? childScore - 1 : childScore < 0 ? childScore + 1 : 0) );
+      }
+    }
+    scores.put ( board.getHash(), best );
+    return best;
+  }
+
+  /**
+   * randomEndgame
+   * Plays random moves from the empty board until few cells are blank, never a bead that completes a line, so that
+   * the game is not over. A game in which every move would complete a line is started again.
+   * @param size the board size.
+   * @param blanks the number of blank cells of the endgame.
+   * @param random the random source.
+   * @return the endgame.
+   */
+  static Board randomEndgame ( int size, int blanks, SplittableRandom random ) {
+    Board board = new Board ( size );
+    int[] pillars = new int[board.getPillarCount()];
+    while ( board.getBlankCount() > blanks ) {
+      int count = 0;
+      for ( int pillar = 0; pillar < board.getPillarCount(); pillar ++ ) {
+        if ( board.isPillarAvailable ( pillar )
+              && !EndgameSolver.completesLine ( board, board.landingCell ( pillar ), board.getPlayerToMove() ) ) {
+          pillars[count ++] = pillar;
+        }
+      }
+      if ( count == 0 ) {
+        board = new Board ( size );
+      } else {
+        board.drop ( pillars[random.nextInt ( count )] );
+      }
+    }
+    return board;
+  }
+}
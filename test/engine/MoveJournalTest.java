@@ -0,0 +1,157 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * MoveJournalTest
+ * Crash recovery: a journal closed with games that never ended, and then torn by a write that did not finish, must
+ * give back those games up to the torn record, with their boards and seeds, and be compacted to them.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class MoveJournalTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The size of the journal header, in bytes.
+   */
+  private static final int HEADER_SIZE = 8;
+
+  /**
+   * The size of a record, in bytes.
+   */
+  private static final int RECORD_SIZE = 32;
+
+  // =============== METHODS ===============
+
+  /**
+   * tornLastRecord
+   * The last move, cut in half, is lost; the games before it are recovered and the journal holds only them.
+   * @param directory a temporary directory.
+   * @throws IOException if the journal cannot be written.
+   */
+  @Test
+  public void tornLastRecord ( @TempDir Path directory ) throws IOException {
+    Path file = directory.resolve ( "moves.journal" );
+    Board one = new Board ( 4 );
+    Board two = new Board ( 5 );
+    long records;
+    try ( MoveJournal journal = new MoveJournal ( file ) ) {
+      journal.startGame ( 1, one, 11, 2 );
+      journal.startGame ( 2, two, 22, 0 );
+      journal.startGame ( 3, new Board ( 4 ), 33, 3 );
+      play ( journal, 1, one, 5 );
+      play ( journal, 2, two, 7 );
+      play ( journal, 1, one, 5 );
+      journal.endGame ( 3, GameRecord.RESULT_DRAW );
+      play ( journal, 1, one, 6 );
+      // a move that is taken back: the next move at the same ply replaces it
+      journal.move ( 2, two.getMoveCount(), 3 );
+      play ( journal, 2, two, 8 );
+      journal.move ( 2, two.getMoveCount(), 9 );
+      journal.sync();
+      records = journal.getRecordCount();
+    }
+    long size = Files.size ( file );
+    assertEquals ( HEADER_SIZE + records * RECORD_SIZE, size );
+    try ( FileChannel channel = FileChannel.open ( file, StandardOpenOption.WRITE ) ) {
+      channel.truncate ( size - RECORD_SIZE / 2 );
+    }
+
+    try ( MoveJournal journal = new MoveJournal ( file ) ) {
+      assertRecovered ( journal, one, two );
+      assertEquals ( 2, journal.getRecoveredGames().get ( 0 ).tag );
+      assertEquals ( 3, journal.getLastGameId() );
+    }
+    assertEquals ( HEADER_SIZE + (2 + one.getMoveCount() + two.getMoveCount()) * RECORD_SIZE, Files.size ( file ),
+                   "Compacted to the recovered games" );
+    try ( MoveJournal journal = new MoveJournal ( file ) ) {
+      assertRecovered ( journal, one, two );
+    }
+  }
+
+  /**
+   * tornMiddleRecord
+   * A record torn in the middle of the journal ends the replay: the records after it, here the end of game 1 and the
+   * moves of game 2, are not applied.
+   * @param directory a temporary directory.
+   * @throws IOException if the journal cannot be written.
+   */
+  @Test
+  public void tornMiddleRecord ( @TempDir Path directory ) throws IOException {
+    Path file = directory.resolve ( "moves.journal" );
+    Board one = new Board ( 4 );
+    Board two = new Board ( 4 );
+    try ( MoveJournal journal = new MoveJournal ( file ) ) {
+      journal.startGame ( 1, one, 11, 0 );
+      play ( journal, 1, one, 4 );
+      journal.startGame ( 2, two, 22, 0 );
+      journal.move ( 1, one.getMoveCount(), 5 );
+      journal.endGame ( 1, GameRecord.RESULT_UNFINISHED );
+      journal.move ( 2, 0, 9 );
+      journal.sync();
+    }
+    // the half of the 7th record that reached the disk
+    try ( FileChannel channel = FileChannel.open ( file, StandardOpenOption.WRITE ) ) {
+      channel.write ( ByteBuffer.allocate ( RECORD_SIZE / 2 ), HEADER_SIZE + 6 * RECORD_SIZE + RECORD_SIZE / 2 );
+    }
+
+    try ( MoveJournal journal = new MoveJournal ( file ) ) {
+      assertRecovered ( journal, one, two );
+      assertEquals ( 2, journal.getLastGameId() );
+    }
+    assertEquals ( HEADER_SIZE + (2 + one.getMoveCount()) * RECORD_SIZE, Files.size ( file ) );
+  }
+
+  /**
+   * play
+   * Journals random moves of a game and plays them on its board, stopping before a bead that would end the game.
+   * @param journal the journal.
+   * @param gameId the game id.
+   * @param board the board of the game.
+   * @param moves the number of moves.
+   * @throws IOException if the journal fails.
+   */
+  private static void play ( MoveJournal journal, long gameId, Board board, int moves ) throws IOException {
+    for ( int move = 0; move < moves; move ++ ) {
+      int pillar = (int) ((gameId * 7 + board.getMoveCount() * 5) % board.getPillarCount());
+      while ( !board.isPillarAvailable ( pillar ) ) {
+        pillar = (pillar + 1) % board.getPillarCount();
+      }
+      Board next = new Board ( board );
+      next.drop ( pillar );
+      if ( next.isGameOver() ) {
+        return;
+      }
+      journal.move ( gameId, board.getMoveCount(), pillar );
+      board.drop ( pillar );
+    }
+  }
+
+  /**
+   * assertRecovered
+   * Checks the recovered games against the expected boards, in the order they were started.
+   * @param journal the reopened journal.
+   * @param one the board of game 1, with seed 11.
+   * @param two the board of game 2, with seed 22.
+   */
+  private static void assertRecovered ( MoveJournal journal, Board one, Board two ) {
+    List<MoveJournal.JournaledGame> games = journal.getRecoveredGames();
+    assertEquals ( 2, games.size() );
+    assertEquals ( 1, games.get ( 0 ).id );
+    assertEquals ( GameRecord.of ( one, 11 ), games.get ( 0 ).record );
+    assertEquals ( 2, games.get ( 1 ).id );
+    assertEquals ( GameRecord.of ( two, 22 ), games.get ( 1 ).record );
+    assertEquals ( 11, games.get ( 0 ).record.getSeed() );
+    assertEquals ( one.getHash(), games.get ( 0 ).record.toBoard().getHash() );
+  }
+}
@@ -0,0 +1,95 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ProofNumberSolverTest
+ * ProofNumberSolver against a plain Minimax on random 4x4x4 endgames: the proven result, the winning line, and the
+ * same results from a solver that resumes from a checkpoint of the table.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class ProofNumberSolverTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of random endgames.
+   */
+  private static final int POSITIONS = 300;
+
+  /**
+   * The largest number of blank cells of an endgame.
+   */
+  private static final int MAX_BLANKS = 12;
+
+  /**
+   * The log2 of the number of table slots of the solvers.
+   */
+  private static final int SLOTS_LOG2 = 16;
+
+  // =============== METHODS ===============
+
+  /**
+   * matchesMinimax
+   * Each endgame is proven as the exact result says, with a line that wins, and a second solver loaded from a
+   * checkpoint of the first one's table proves the same.
+   * @param directory a temporary directory.
+   * @throws IOException if the checkpoint cannot be written or read.
+   */
+  @Test
+  public void matchesMinimax ( @TempDir Path directory ) throws IOException {
+    SplittableRandom random = new SplittableRandom ( 6 );
+    Board[] endgames = new Board[POSITIONS];
+    int[] results = new int[POSITIONS];
+    ProofNumberSolver solver = new ProofNumberSolver ( SLOTS_LOG2 );
+    for ( int i = 0; i < POSITIONS; i ++ ) {
+      endgames[i] = Minimax.randomEndgame ( 4, 1 + random.nextInt ( MAX_BLANKS ), random );
+      int exact = Integer.signum ( new Minimax().score ( endgames[i] ) );
+      results[i] = solver.solve ( endgames[i] );
+      assertEquals ( exact > 0 ? ProofNumberSolver.WIN : exact < 0 ? ProofNumberSolver.LOSS : ProofNumberSolver.DRAW,
+                     results[i], "Endgame " + i + " with " + endgames[i].getBlankCount() + " blank cells" );
+      assertWins ( endgames[i], results[i], solver.getLine(), i );
+    }
+
+    Path checkpoint = directory.resolve ( "solver.checkpoint" );
+    solver.saveCheckpoint ( checkpoint );
+    ProofNumberSolver resumed = new ProofNumberSolver ( SLOTS_LOG2 );
+    resumed.loadCheckpoint ( checkpoint );
+    for ( int i = POSITIONS - 1; i >= 0; i -- ) {
+      assertEquals ( results[i], resumed.solve ( endgames[i] ), "Endgame " + i + " after the checkpoint" );
+      assertWins ( endgames[i], results[i], resumed.getLine(), i );
+    }
+  }
+
+  /**
+   * assertWins
+   * Checks that a line is legal and ends with the first completed line, of the winner of the result.
+   * @param endgame the solved position.
+   * @param result the result for the player to move.
+   * @param line the line of the solve.
+   * @param i the number of the endgame.
+   */
+  private static void assertWins ( Board endgame, int result, int[] line, int i ) {
+    String at = "Endgame " + i + ", line " + Arrays.toString ( line );
+    if ( result == ProofNumberSolver.DRAW ) {
+      assertEquals ( 0, line.length, at );
+      return;
+    }
+    Board board = new Board ( endgame );
+    int mover = board.getPlayerToMove();
+    assertTrue ( line.length > 0, at );
+    for ( int pillar : line ) {
+      assertEquals ( Board.NO_PLAYER, board.getWinner(), at );
+      assertTrue ( board.isPillarAvailable ( pillar ), at );
+      board.drop ( pillar );
+    }
+    assertEquals ( result == ProofNumberSolver.WIN ? mover : 3 - mover, board.getWinner(), at );
+  }
+}
@@ -0,0 +1,74 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * SelfPlayTest
+ * A self-play run depends only on its seed: two runs with the same seed write the same games, with the same moves and
+ * game seeds, with one worker thread or several, and across more than one batch.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class SelfPlayTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of games of a run, more than one batch.
+   */
+  private static final int GAMES = 1100;
+
+  // =============== METHODS ===============
+
+  /**
+   * sameSeedSameGames
+   * Runs with 4, 4 again and 1 threads write the same records, and each record replays from its game seed.
+   * @param directory a temporary directory.
+   * @throws Exception if a run fails.
+   */
+  @Test
+  public void sameSeedSameGames ( @TempDir Path directory ) throws Exception {
+    List<GameRecord> first = run ( directory.resolve ( "first.s4g" ), 4 );
+    List<GameRecord> second = run ( directory.resolve ( "second.s4g" ), 4 );
+    List<GameRecord> single = run ( directory.resolve ( "single.s4g" ), 1 );
+    assertEquals ( GAMES, first.size() );
+    for ( int i = 0; i < GAMES; i ++ ) {
+      GameRecord record = first.get ( i );
+      assertNotEquals ( GameRecord.NO_SEED, record.getSeed() );
+      for ( GameRecord other : new GameRecord[] { second.get ( i ), single.get ( i ) } ) {
+        assertEquals ( record.getSeed(), other.getSeed(), "Game " + i );
+        assertArrayEquals ( record.getMoves(), other.getMoves(), "Game " + i );
+      }
+      assertEquals ( record, SelfPlay.play ( 4, record.getSeed() ), "Game " + i + " replayed from its seed" );
+    }
+    assertArrayEquals ( Files.readAllBytes ( directory.resolve ( "first.s4g" ) ), Files.readAllBytes ( directory.resolve ( "single.s4g" ) ) );
+    assertNotEquals ( first.get ( 0 ).getSeed(), first.get ( 1 ).getSeed() );
+  }
+
+  /**
+   * run
+   * Runs SelfPlay with the seed 9 on 4x4x4 boards and reads the games back.
+   * @param output the game-record file to write.
+   * @param threads the number of threads.
+   * @return the games, in order.
+   * @throws Exception if the run fails.
+   */
+  private static List<GameRecord> run ( Path output, int threads ) throws Exception {
+    SelfPlay.main ( new String[] { "4", Integer.toString ( GAMES ), output.toString(), "9", Integer.toString ( threads ) } );
+    List<GameRecord> records = new ArrayList<>();
+    try ( GameRecordReader reader = new GameRecordReader ( Files.newInputStream ( output ) ) ) {
+      GameRecord record;
+      while ( (record = reader.read()) != null ) {
+        records.add ( record );
+      }
+    }
+    return records;
+  }
+}
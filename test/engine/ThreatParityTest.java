@@ -0,0 +1,76 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ThreatParityTest
+ * The bounds that ThreatParity decides let EndgameSolver cut whole subtrees, so every one of them must hold for all
+ * play: on random 4x4x4 endgames, each decided result must agree with the exact result of a plain Minimax.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class ThreatParityTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The number of random endgames.
+   */
+  private static final int POSITIONS = 5000;
+
+  /**
+   * The largest number of blank cells of an endgame.
+   */
+  private static final int MAX_BLANKS = 12;
+
+  // =============== METHODS ===============
+
+  /**
+   * decidedBoundsHold
+   * decide() and analyze() never contradict the exact result, and they decide enough endgames for that to mean
+   * something.
+   */
+  @Test
+  public void decidedBoundsHold() {
+    SplittableRandom random = new SplittableRandom ( 4 );
+    ThreatParity parity = new ThreatParity();
+    int decided = 0;
+    for ( int i = 0; i < POSITIONS; i ++ ) {
+      Board board = Minimax.randomEndgame ( 4, 1 + random.nextInt ( MAX_BLANKS ), random );
+      int exact = Integer.signum ( new Minimax().score ( board ) );
+      int fast = parity.decide ( board );
+      int full = parity.analyze ( board );
+      String position = "Endgame " + i + " with " + board.getBlankCount() + " blank cells, exact result " + exact;
+      assertTrue ( holds ( fast, exact ), position + ", decide() says " + ThreatParity.resultName ( fast ) );
+      assertTrue ( holds ( full, exact ), position + ", analyze() says " + ThreatParity.resultName ( full ) );
+      if ( fast != ThreatParity.UNKNOWN ) {
+        decided ++;
+      }
+    }
+    assertTrue ( decided >= POSITIONS / 10, "Only " + decided + " endgames decided" );
+  }
+
+  /**
+   * holds
+   * @param result a ThreatParity result.
+   * @param exact the exact result for the player to move: 1 win, 0 draw, -1 loss.
+   * @return true if the result allows the exact result.
+   */
+  private static boolean holds ( int result, int exact ) {
+    switch ( result ) {
+      case ThreatParity.WIN:
+        return exact > 0;
+      case ThreatParity.LOSS:
+        return exact < 0;
+      case ThreatParity.DRAW:
+        return exact == 0;
+      case ThreatParity.AT_LEAST_DRAW:
+        return exact >= 0;
+      case ThreatParity.AT_MOST_DRAW:
+        return exact <= 0;
+      default:
+        return true;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package scoreFourGame.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TimeManagerTest
+ * Whole games on a GameClock with a small base time and no increment, in which both players think for exactly the
+ * time TimeManager allocates: neither player may flag, and a forced move must get no time at all.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+public class TimeManagerTest {
+
+  // =============== VARIABLES ===============
+  /**
+   * The base time of each player, in milliseconds.
+   */
+  private static final long BASE_MILLIS = 1000;
+
+  // =============== METHODS ===============
+
+  /**
+   * neverFlags
+   * Plays a game on a 4x4x4 and on a 6x6x6 board, sleeping through each allocation. The players avoid completing a line
+   * while they can, so the games go on to nearly full boards, where few moves are left to split the time across.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  @Test
+  public void neverFlags() throws InterruptedException {
+    SplittableRandom random = new SplittableRandom ( 8 );
+    for ( int size : new int[] { 4, 6 } ) {
+      Board board = new Board ( size );
+      GameClock clock = new GameClock ( BASE_MILLIS, 0 );
+      TimeManager timeManager = new TimeManager ( EndgameSolver.DEFAULT_MAX_BLANKS );
+      int searches = 0;
+      clock.start ( 1 );
+      while ( !board.isGameOver() ) {
+        int playerNo = board.getPlayerToMove();
+        long millis = timeManager.allocate ( board, clock.getRemainingMillis ( playerNo ), clock.getIncrementMillis() );
+        String at = "Move " + board.getMoveCount() + " on a " + size + "x" + size + "x" + size + " board";
+        if ( isForced ( board ) ) {
+          assertEquals ( 0, millis, at + " is forced" );
+        }
+        if ( millis >= TimeManager.MIN_SEARCH_MILLIS ) {
+          searches ++;
+          Thread.sleep ( millis );
+        }
+        board.drop ( drawingMove ( board, random ) );
+        assertTrue ( clock.press(), at + " flagged" );
+        assertFalse ( clock.isFlagged ( playerNo ), at );
+      }
+      // most moves near a full board are forced
+      assertTrue ( searches >= 5, "Only " + searches + " of " + board.getMoveCount() + " moves searched" );
+    }
+  }
+
+  /**
+   * drawingMove
+   * @param board a position.
+   * @param random the random source.
+   * @return a random pillar where the bead of the player to move completes no line, or any legal pillar if there is
+   *         none.
+   */
+  private static int drawingMove ( Board board, SplittableRandom random ) {
+    int[] pillars = new int[board.getPillarCount()];
+    int count = 0;
+    for ( int pillar = 0; pillar < board.getPillarCount(); pillar ++ ) {
+      if ( board.isPillarAvailable ( pillar )
+            && !EndgameSolver.completesLine ( board, board.landingCell ( pillar ), board.getPlayerToMove() ) ) {
+        pillars[count ++] = pillar;
+      }
+    }
+    if ( count == 0 ) {
+      count = board.getAvailablePillars ( pillars );
+    }
+    return pillars[random.nextInt ( count )];
+  }
+
+  /**
+   * isForced
+   * @param board a position.
+   * @return true if the player to move has a single legal move, can win on the move or must block a line.
+   */
+  private static boolean isForced ( Board board ) {
+    int moves = 0;
+    for ( int pillar = 0; pillar < board.getPillarCount(); pillar ++ ) {
+      if ( board.isPillarAvailable ( pillar ) ) {
+        moves ++;
+        int cell = board.landingCell ( pillar );
+        if ( EndgameSolver.completesLine ( board, cell, 1 ) || EndgameSolver.completesLine ( board, cell, 2 ) ) {
+          return true;
+        }
+      }
+    }
+    return moves == 1;
+  }
+}
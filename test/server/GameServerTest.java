@@ -0,0 +1,110 @@
+package scoreFourGame.server;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import scoreFourGame.engine.Board;
+import scoreFourGame.engine.GameRecord;
+
+/**
+ * GameServerTest
+ * Two GameClients play on a GameServer over the loopback interface: FIND_GAME pairs them, a move out of turn and an
+ * illegal move are rejected without changing the game, and a game played to a line ends with the GAME_OVER of the
+ * finish.
+ * @author agent
+ * @version 1.0
+ * @since October 19, 2026
+ */
+@Timeout ( 30 )
+public class GameServerTest {
+
+  // =============== METHODS ===============
+
+  /**
+   * pairAndPlay
+   * Player 1 fills pillar 0 with player 2, then wins on the bottom layer of row 1 while player 2 plays in row 2. Both
+   * clients see every move and the same result.
+   * @throws IOException if the connection fails.
+   */
+  @Test
+  public void pairAndPlay() throws IOException {
+    try ( GameServer server = new GameServer ( new InetSocketAddress ( InetAddress.getLoopbackAddress(), 0 ), 1 ).start() ) {
+      InetSocketAddress address = new InetSocketAddress ( InetAddress.getLoopbackAddress(), server.getPort() );
+      try ( GameClient one = new GameClient ( address ); GameClient two = new GameClient ( address ) ) {
+        one.findGame ( 4, Protocol.OPPONENT_HUMAN );
+        assertEquals ( 4, expect ( one, Protocol.WAITING ).getSize() );
+        two.findGame ( 4, Protocol.OPPONENT_HUMAN );
+        Message startOne = expect ( one, Protocol.GAME_START );
+        Message startTwo = expect ( two, Protocol.GAME_START );
+        assertEquals ( 1, startOne.getPlayerNo(), "The client that waited moves first" );
+        assertEquals ( 2, startTwo.getPlayerNo() );
+        assertEquals ( startOne.getGameId(), startTwo.getGameId() );
+        assertEquals ( startOne.getSeed(), startTwo.getSeed() );
+        assertEquals ( 1, server.getActiveGameCount() );
+
+        two.move ( 0 );
+        assertEquals ( Protocol.ERROR_NOT_YOUR_TURN, expect ( two, Protocol.ERROR ).getCode() );
+        one.move ( 16 );
+        assertEquals ( Protocol.ERROR_ILLEGAL_MOVE, expect ( one, Protocol.ERROR ).getCode() );
+
+        Board board = new Board ( 4 );
+        int[] pillars = { 0, 0, 0, 0, 4, 8, 5, 9, 6, 10 };
+        for ( int pillar : pillars ) {
+          GameClient mover = board.getPlayerToMove() == 1 ? one : two;
+          mover.move ( pillar );
+          played ( one, two, board, pillar );
+        }
+        one.move ( 0 );
+        assertEquals ( Protocol.ERROR_ILLEGAL_MOVE, expect ( one, Protocol.ERROR ).getCode(), "Pillar 0 is full" );
+
+        one.move ( 7 );
+        played ( one, two, board, 7 );
+        assertEquals ( 1, board.getWinner() );
+        for ( GameClient client : new GameClient[] { one, two } ) {
+          Message over = expect ( client, Protocol.GAME_OVER );
+          assertEquals ( GameRecord.RESULT_PLAYER_ONE_WON, over.getResult() );
+          assertEquals ( Protocol.REASON_FINISHED, over.getReason() );
+        }
+        one.move ( 1 );
+        assertEquals ( Protocol.ERROR_UNEXPECTED, expect ( one, Protocol.ERROR ).getCode(), "The game is over" );
+        assertEquals ( 0, server.getActiveGameCount() );
+        assertEquals ( 1, server.getGamesStarted() );
+        assertEquals ( pillars.length + 1, server.getMovesPlayed() );
+      }
+    }
+  }
+
+  /**
+   * played
+   * Checks that both clients get the MOVE_PLAYED of a move and plays it on the board.
+   * @param one the client of player 1.
+   * @param two the client of player 2.
+   * @param board the position before the move.
+   * @param pillar the pillar of the move.
+   * @throws IOException if the connection fails.
+   */
+  private static void played ( GameClient one, GameClient two, Board board, int pillar ) throws IOException {
+    for ( GameClient client : new GameClient[] { one, two } ) {
+      Message message = expect ( client, Protocol.MOVE_PLAYED );
+      assertEquals ( board.getPlayerToMove(), message.getPlayerNo() );
+      assertEquals ( pillar, message.getPillar() );
+    }
+    board.drop ( pillar );
+  }
+
+  /**
+   * expect
+   * Receives the next message of a client and checks its type.
+   * @param client the client.
+   * @param type the expected Protocol message type.
+   * @return the message.
+   * @throws IOException if the connection fails.
+   */
+  private static Message expect ( GameClient client, int type ) throws IOException {
+    Message message = client.receive();
+    assertEquals ( type, message.getType(), "Received " + message );
+    return message;
+  }
+}